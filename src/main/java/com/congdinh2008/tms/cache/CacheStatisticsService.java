@@ -0,0 +1,304 @@
+package com.congdinh2008.tms.cache;
+
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-region statistics of the second-level cache, sampled on an interval
+ * <p>
+ * Covers every cache of the JCache {@link CacheManager}: the entity, collection and query regions,
+ * the update timestamps region and the report regions of {@link ReportCache}. Hit, miss, put and
+ * eviction counts come from the JCache statistics of each cache; each sample reports them as deltas
+ * since the previous sample. Entry counts and estimated sizes are measured when the sample is taken,
+ * so the heap sizes in {@code ehcache.xml} can be compared with the occupancy the regions reach.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class CacheStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatisticsService.class);
+
+    // Entries serialized per region to estimate the average entry size
+    private static final int SIZE_SAMPLE_ENTRIES = 32;
+
+    /**
+     * Statistics of one region. Counters are cumulative in {@link #snapshot()} and per interval in a
+     * {@link Sample}; entries, capacity and estimated bytes are always measured at sample time.
+     * Capacity is -1 when the heap tier is not sized in entries, estimated bytes is -1 when the
+     * entries cannot be serialized.
+     */
+    public record RegionStatistics(String region, long hits, long misses, long puts, long evictions,
+                                   long entries, long capacity, long estimatedBytes) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests > 0 ? (double) hits / requests : 0.0;
+        }
+
+        RegionStatistics since(RegionStatistics previous) {
+            return new RegionStatistics(region, hits - previous.hits, misses - previous.misses,
+                    puts - previous.puts, evictions - previous.evictions, entries, capacity, estimatedBytes);
+        }
+    }
+
+    /**
+     * Region statistics over one sampling interval
+     */
+    public record Sample(Instant takenAt, Duration interval, List<RegionStatistics> regions) {
+    }
+
+    private final Supplier<CacheManager> cacheManagerResolver;
+    private final long intervalSeconds;
+
+    // Ehcache counts every entry returned by a cache iterator as a hit; the entry counting of
+    // earlier samples is subtracted so it does not show up in the hit ratio
+    private final Map<String, Long> iterationHits = new ConcurrentHashMap<>();
+
+    private Map<String, RegionStatistics> previousTotals = Map.of();
+    private Instant previousSampleAt = Instant.now();
+    private volatile Sample lastSample;
+
+    private ScheduledExecutorService scheduler;
+    private volatile CacheManager cacheManager;
+    private volatile boolean resolved;
+
+    @Autowired
+    public CacheStatisticsService(SessionFactory sessionFactory,
+                                  @Value("${tms.cache.statistics.interval-seconds:300}") long intervalSeconds) {
+        this(() -> ReportCache.resolveCacheManager(sessionFactory), intervalSeconds);
+    }
+
+    /**
+     * @param cacheManagerResolver supplies the cache manager on first use; may supply null
+     * @param intervalSeconds seconds between scheduled samples, 0 to sample on demand only
+     */
+    CacheStatisticsService(Supplier<CacheManager> cacheManagerResolver, long intervalSeconds) {
+        this.cacheManagerResolver = cacheManagerResolver;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Start the scheduled sampling
+     */
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sampleAndLog, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Sampling second-level cache statistics every {}s", intervalSeconds);
+    }
+
+    /**
+     * Stop the scheduled sampling
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return cumulative statistics of every region, ordered by region name
+     */
+    public synchronized List<RegionStatistics> snapshot() {
+        CacheManager manager = cacheManager();
+        if (manager == null || manager.isClosed()) {
+            return List.of();
+        }
+        List<RegionStatistics> regions = new ArrayList<>();
+        for (String name : manager.getCacheNames()) {
+            Cache<Object, Object> cache = manager.getCache(name);
+            if (cache != null) {
+                regions.add(measure(manager, name, cache));
+            }
+        }
+        regions.sort((left, right) -> left.region().compareTo(right.region()));
+        return regions;
+    }
+
+    /**
+     * Take a sample: counters are the deltas since the previous sample
+     * @return the new sample
+     */
+    public synchronized Sample sample() {
+        Instant now = Instant.now();
+        Map<String, RegionStatistics> totals = new HashMap<>();
+        List<RegionStatistics> deltas = new ArrayList<>();
+        for (RegionStatistics region : snapshot()) {
+            totals.put(region.region(), region);
+            RegionStatistics previous = previousTotals.get(region.region());
+            deltas.add(previous != null ? region.since(previous) : region);
+        }
+        Sample sample = new Sample(now, Duration.between(previousSampleAt, now), List.copyOf(deltas));
+        previousTotals = totals;
+        previousSampleAt = now;
+        lastSample = sample;
+        return sample;
+    }
+
+    /**
+     * @return the most recent sample, or null before the first one
+     */
+    public Sample getLastSample() {
+        return lastSample;
+    }
+
+    private void sampleAndLog() {
+        try {
+            Sample sample = sample();
+            for (RegionStatistics region : sample.regions()) {
+                logger.info("Cache region {} over {}s - hits: {}, misses: {}, hit ratio: {}%, puts: {}, "
+                                + "evictions: {}, entries: {}/{}, estimated size: {} bytes",
+                        region.region(), sample.interval().toSeconds(), region.hits(), region.misses(),
+                        String.format("%.2f", region.hitRatio() * 100), region.puts(), region.evictions(),
+                        region.entries(), region.capacity(), region.estimatedBytes());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to sample cache statistics: {}", e.getMessage(), e);
+        }
+    }
+
+    private RegionStatistics measure(CacheManager manager, String name, Cache<Object, Object> cache) {
+        CacheStatisticsMXBean statistics = statisticsBean(manager, name);
+        long entries = 0;
+        long sampledBytes = 0;
+        int sampled = 0;
+        boolean serializable = true;
+        for (Cache.Entry<Object, Object> entry : cache) {
+            entries++;
+            if (serializable && sampled < SIZE_SAMPLE_ENTRIES) {
+                long size = serializedSize(entry.getKey(), entry.getValue());
+                if (size < 0) {
+                    serializable = false;
+                } else {
+                    sampledBytes += size;
+                    sampled++;
+                }
+            }
+        }
+        long estimatedBytes = !serializable ? -1 : sampled > 0 ? sampledBytes * entries / sampled : 0;
+        if (statistics == null) {
+            return new RegionStatistics(name, 0, 0, 0, 0, entries, capacity(cache), estimatedBytes);
+        }
+        long countedByIteration = iterationHits.merge(name, entries, Long::sum);
+        return new RegionStatistics(name, statistics.getCacheHits() - countedByIteration,
+                statistics.getCacheMisses(), statistics.getCachePuts(), statistics.getCacheEvictions(),
+                entries, capacity(cache), estimatedBytes);
+    }
+
+    private CacheStatisticsMXBean statisticsBean(CacheManager manager, String cacheName) {
+        try {
+            ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                    + mbeanSafe(manager.getURI().toString()) + ",Cache=" + mbeanSafe(cacheName));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                // Counting starts when statistics are enabled, i.e. with the first sample
+                manager.enableStatistics(cacheName, true);
+                if (!server.isRegistered(name)) {
+                    return null;
+                }
+            }
+            return JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+        } catch (MalformedObjectNameException e) {
+            logger.debug("No statistics bean name for cache {}: {}", cacheName, e.getMessage());
+            return null;
+        }
+    }
+
+    // Same escaping as the JSR-107 management bean names
+    private static String mbeanSafe(String value) {
+        return value == null ? "" : value.replaceAll("[,:=\n]", ".");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long capacity(Cache<Object, Object> cache) {
+        try {
+            Eh107Configuration<Object, Object> configuration = cache.getConfiguration(Eh107Configuration.class);
+            CacheRuntimeConfiguration<?, ?> runtime = configuration.unwrap(CacheRuntimeConfiguration.class);
+            ResourcePools pools = runtime.getResourcePools();
+            SizedResourcePool heap = pools.getPoolForResource(ResourceType.Core.HEAP);
+            return heap != null && heap.getUnit() == EntryUnit.ENTRIES ? heap.getSize() : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static long serializedSize(Object key, Object value) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+            out.writeObject(key);
+            out.writeObject(value);
+        } catch (IOException e) {
+            return -1;
+        }
+        return counter.count;
+    }
+
+    private CacheManager cacheManager() {
+        if (!resolved) {
+            cacheManager = cacheManagerResolver.get();
+            resolved = true;
+        }
+        return cacheManager;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
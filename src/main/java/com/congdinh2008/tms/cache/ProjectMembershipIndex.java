@@ -0,0 +1,231 @@
+package com.congdinh2008.tms.cache;
+
+import com.congdinh2008.tms.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of project membership used for the R3 assignment check.
+ * <p>
+ * Each project maps to a sorted array of member user IDs, so a check is a binary search
+ * without boxing or a database round trip. A project's members are loaded from
+ * {@code project_members} the first time it is checked and then kept current by the
+ * project service, which reports every membership change here. Changes are applied
+ * after the surrounding transaction commits (immediately when there is none), so a
+ * rolled-back change never becomes visible. Until then the transaction that made them
+ * checks the project against the repository, as does any check the index answers with
+ * "not a member", so a membership added moments earlier is never rejected. Arrays are
+ * never modified in place, which lets readers go without locking.
+ * 
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class ProjectMembershipIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProjectMembershipIndex.class);
+    
+    private static final long[] NO_MEMBERS = new long[0];
+    
+    private final UserRepository userRepository;
+    
+    private final Map<Long, long[]> membersByProject = new ConcurrentHashMap<>();
+    
+    // Bumped on every change so a load that raced with it does not install stale members
+    private final AtomicLong generation = new AtomicLong();
+    
+    public ProjectMembershipIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Check if a user is a member of a project, loading the project's members on first use
+     * @param projectId the project ID
+     * @param userId the user ID
+     * @return true if the user is a member of the project
+     */
+    public boolean isMember(long projectId, long userId) {
+        if (!hasPendingChanges(projectId)) {
+            long[] members = membersByProject.get(projectId);
+            if (members == null) {
+                members = load(projectId);
+            }
+            if (Arrays.binarySearch(members, userId) >= 0) {
+                return true;
+            }
+        }
+        // Misses are rare, as assigning a non-member is rejected, so they are confirmed
+        return userRepository.isUserMemberOfProject(userId, projectId);
+    }
+    
+    /**
+     * Check membership only if the index can confirm it without the database.
+     * Safe to call while a session is flushing, as it never queries the database.
+     * @param projectId the project ID
+     * @param userId the user ID
+     * @return true if the user is an indexed member, or empty if the project is not indexed,
+     *         has membership changes pending in this transaction or the user is not indexed
+     */
+    public Optional<Boolean> findCachedMembership(long projectId, long userId) {
+        long[] members = membersByProject.get(projectId);
+        if (members == null || hasPendingChanges(projectId) || Arrays.binarySearch(members, userId) < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(true);
+    }
+    
+    /**
+     * Record that a user joined a project
+     * @param projectId the project ID
+     * @param userId the user ID
+     */
+    public void memberAdded(long projectId, long userId) {
+        afterCommit(projectId, () -> membersByProject.computeIfPresent(projectId, (id, members) -> {
+            int index = Arrays.binarySearch(members, userId);
+            if (index >= 0) {
+                return members;
+            }
+            int insertAt = -index - 1;
+            long[] updated = new long[members.length + 1];
+            System.arraycopy(members, 0, updated, 0, insertAt);
+            updated[insertAt] = userId;
+            System.arraycopy(members, insertAt, updated, insertAt + 1, members.length - insertAt);
+            return updated;
+        }));
+    }
+    
+    /**
+     * Record that a user left a project
+     * @param projectId the project ID
+     * @param userId the user ID
+     */
+    public void memberRemoved(long projectId, long userId) {
+        afterCommit(projectId, () -> membersByProject.computeIfPresent(projectId, (id, members) -> {
+            int index = Arrays.binarySearch(members, userId);
+            if (index < 0) {
+                return members;
+            }
+            long[] updated = new long[members.length - 1];
+            System.arraycopy(members, 0, updated, 0, index);
+            System.arraycopy(members, index + 1, updated, index, members.length - index - 1);
+            return updated;
+        }));
+    }
+    
+    /**
+     * Record the complete member list of a project, e.g. after it was created or
+     * its members were replaced
+     * @param projectId the project ID
+     * @param userIds IDs of all members
+     */
+    public void membersReplaced(long projectId, Collection<Long> userIds) {
+        long[] members = toSortedArray(userIds);
+        afterCommit(projectId, () -> membersByProject.put(projectId, members));
+    }
+    
+    /**
+     * Forget a deleted project
+     * @param projectId the project ID
+     */
+    public void projectRemoved(long projectId) {
+        afterCommit(projectId, () -> membersByProject.remove(projectId));
+    }
+    
+    /**
+     * Drop all indexed projects; they are reloaded on demand
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        membersByProject.clear();
+    }
+    
+    private long[] load(long projectId) {
+        long loadGeneration = generation.get();
+        Set<Long> userIds = userRepository.findMemberIdsByProjectIds(Set.of(projectId))
+                .getOrDefault(projectId, Set.of());
+        long[] members = toSortedArray(userIds);
+        // Checked inside compute, which is serialized with the change of the same project
+        membersByProject.compute(projectId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return generation.get() == loadGeneration ? members : null;
+        });
+        logger.debug("Indexed {} members of project {}", members.length, projectId);
+        return members;
+    }
+    
+    private void afterCommit(long projectId, Runnable change) {
+        Runnable versionedChange = () -> {
+            generation.incrementAndGet();
+            change.run();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingProjects().add(projectId);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versionedChange.run();
+                }
+            });
+        } else {
+            versionedChange.run();
+        }
+    }
+    
+    // Projects with membership changes made in the current transaction, bound to it
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingProjects() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProjectMembershipIndex.this);
+                }
+            });
+        }
+        return pending;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private boolean hasPendingChanges(long projectId) {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        return pending != null && pending.contains(projectId);
+    }
+    
+    private static long[] toSortedArray(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return NO_MEMBERS;
+        }
+        long[] members = new long[userIds.size()];
+        int size = 0;
+        for (Long userId : userIds) {
+            members[size++] = userId;
+        }
+        Arrays.sort(members);
+        // Collapse duplicates so that removals cannot leave a stale copy behind
+        int distinct = 1;
+        for (int i = 1; i < size; i++) {
+            if (members[i] != members[distinct - 1]) {
+                members[distinct++] = members[i];
+            }
+        }
+        return distinct == members.length ? members : Arrays.copyOf(members, distinct);
+    }
+}
@@ -0,0 +1,289 @@
+package com.congdinh2008.tms.cache;
+
+import com.congdinh2008.tms.config.PrimaryReadTemplate;
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
+import com.congdinh2008.tms.dto.response.UserProductivity;
+import com.congdinh2008.tms.events.TagChangedEvent;
+import com.congdinh2008.tms.events.TaskChangedEvent;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache for report results, backed by the report regions declared in {@code ehcache.xml}.
+ * <p>
+ * The regions live in the same JCache {@link CacheManager} as the Hibernate second-level
+ * cache, so their sizes and TTLs are configured in one place. Keys are built from the report
+ * arguments, with project-scoped reports keyed by project first. Entries are evicted after a
+ * task write commits: the affected projects' entries and the cross-project reports when the
+ * event names the projects, every entry otherwise; popular tags are also evicted when a tag
+ * changes. Loads run on the primary in a transaction of their own, so only committed rows are
+ * cached and a lagging replica never is. Read-write transactions bypass the cache, as their own
+ * uncommitted writes are not in it. Mutable results are copied in and out of the cache. When the
+ * second-level cache is disabled every call goes straight to the loader.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class ReportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCache.class);
+
+    /**
+     * Report regions and the key and value types declared for them
+     */
+    public enum Region {
+        PROJECT_STATISTICS("project-statistics-cache", Long.class, ProjectStatistics.class,
+                value -> new ProjectStatistics((ProjectStatistics) value)),
+        USER_PRODUCTIVITY("user-productivity-cache", String.class, List.class,
+                value -> ((List<?>) value).stream().map(row -> new UserProductivity((UserProductivity) row)).toList()),
+        // Immutable lists of IDs
+        POPULAR_TAGS("popular-tags-cache", String.class, List.class, UnaryOperator.identity()),
+        OVERDUE_TASKS("overdue-tasks-query", String.class, List.class, UnaryOperator.identity());
+
+        private final String alias;
+        private final Class<?> keyType;
+        private final Class<?> valueType;
+        private final UnaryOperator<Object> copier;
+
+        Region(String alias, Class<?> keyType, Class<?> valueType, UnaryOperator<Object> copier) {
+            this.alias = alias;
+            this.keyType = keyType;
+            this.valueType = valueType;
+            this.copier = copier;
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+    }
+
+    /**
+     * Hit and miss counts of a region since startup
+     */
+    public record RegionStatistics(String region, long hits, long misses) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests > 0 ? (double) hits / requests : 0.0;
+        }
+    }
+
+    /** Key segment for reports that are not scoped to a project */
+    private static final String ALL_PROJECTS = "all";
+
+    private final Supplier<CacheManager> cacheManagerResolver;
+    private final PrimaryReadTemplate primaryReads;
+
+    private final Map<Region, LongAdder> hits = new EnumMap<>(Region.class);
+    private final Map<Region, LongAdder> misses = new EnumMap<>(Region.class);
+
+    // Bumped on every eviction so a load that raced with a write does not install stale results
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile CacheManager cacheManager;
+    private volatile boolean resolved;
+
+    @Autowired
+    public ReportCache(SessionFactory sessionFactory, PrimaryReadTemplate primaryReads) {
+        this(() -> resolveCacheManager(sessionFactory), primaryReads);
+    }
+
+    /**
+     * @param cacheManagerResolver supplies the cache manager on first use; may supply null
+     * @param primaryReads runs the loaders on a miss
+     */
+    ReportCache(Supplier<CacheManager> cacheManagerResolver, PrimaryReadTemplate primaryReads) {
+        this.cacheManagerResolver = cacheManagerResolver;
+        this.primaryReads = primaryReads;
+        for (Region region : Region.values()) {
+            hits.put(region, new LongAdder());
+            misses.put(region, new LongAdder());
+        }
+    }
+
+    /**
+     * Build a key for a report scoped to a project
+     * @param projectId the project ID, or null for a report over all projects
+     * @param arguments the remaining report arguments
+     * @return the key, e.g. {@code 5:2024-01-01:2024-01-07}
+     */
+    public static String projectKey(Long projectId, Object... arguments) {
+        StringBuilder key = new StringBuilder(projectId != null ? projectId.toString() : ALL_PROJECTS);
+        for (Object argument : arguments) {
+            key.append(':').append(argument);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Return the cached result for a key, loading and caching it on a miss
+     * @param region the report region
+     * @param key the key, see {@link #projectKey}
+     * @param loader computes the result on a miss, in a read-only transaction on the primary;
+     *               it must not return null. Within a read-write transaction it is called directly.
+     * @return the cached or freshly loaded result
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(Region region, K key, Supplier<V> loader) {
+        Cache<K, V> cache = (Cache<K, V>) cache(region);
+        if (cache == null || inReadWriteTransaction()) {
+            return loader.get();
+        }
+        V cached = cache.get(key);
+        if (cached != null) {
+            hits.get(region).increment();
+            return (V) region.copier.apply(cached);
+        }
+        misses.get(region).increment();
+
+        long loadGeneration = generation.get();
+        V loaded = primaryReads.read(loader);
+        if (loaded != null && generation.get() == loadGeneration) {
+            cache.put(key, (V) region.copier.apply(loaded));
+            // An eviction that started after the check may have missed the new entry
+            if (generation.get() != loadGeneration) {
+                cache.remove(key);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evict the cached reports of a project, together with the reports over all projects
+     * @param projectId the project ID
+     */
+    @SuppressWarnings("unchecked")
+    public void evictProject(Long projectId) {
+        generation.incrementAndGet();
+        String prefix = projectId + ":";
+        Cache<?, ?> statistics = cache(Region.PROJECT_STATISTICS);
+        if (statistics != null) {
+            ((Cache<Long, ?>) statistics).remove(projectId);
+        }
+        Predicate<String> affected = key -> key.startsWith(prefix) || key.startsWith(ALL_PROJECTS + ":");
+        evictMatching(Region.USER_PRODUCTIVITY, affected);
+        evictMatching(Region.OVERDUE_TASKS, affected);
+        evictAll(Region.POPULAR_TAGS);
+    }
+
+    /**
+     * Evict every cached report
+     */
+    public void evictAll() {
+        for (Region region : Region.values()) {
+            evictAll(region);
+        }
+    }
+
+    /**
+     * Evict the reports affected by committed task writes
+     * @param event the task change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Set<Long> projectIds = event.getProjectIds();
+        if (projectIds.isEmpty()) {
+            evictAll();
+        } else {
+            projectIds.forEach(this::evictProject);
+        }
+    }
+
+    /**
+     * Evict the popular tags after a tag change commits
+     * @param event the tag change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        evictAll(Region.POPULAR_TAGS);
+    }
+
+    /**
+     * @return hit and miss counts per region
+     */
+    public List<RegionStatistics> getStatistics() {
+        List<RegionStatistics> statistics = new ArrayList<>();
+        for (Region region : Region.values()) {
+            statistics.add(new RegionStatistics(region.getAlias(), hits.get(region).sum(), misses.get(region).sum()));
+        }
+        return statistics;
+    }
+
+    private void evictAll(Region region) {
+        generation.incrementAndGet();
+        Cache<?, ?> cache = cache(region);
+        if (cache != null) {
+            cache.removeAll();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictMatching(Region region, Predicate<String> keyFilter) {
+        Cache<String, ?> cache = (Cache<String, ?>) cache(region);
+        if (cache == null) {
+            return;
+        }
+        // Report regions hold at most a few hundred entries
+        List<String> keys = new ArrayList<>();
+        for (Cache.Entry<String, ?> entry : cache) {
+            if (keyFilter.test(entry.getKey())) {
+                keys.add(entry.getKey());
+            }
+        }
+        keys.forEach(cache::remove);
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Cache<?, ?> cache(Region region) {
+        CacheManager manager = cacheManager();
+        return manager != null ? manager.getCache(region.alias, region.keyType, region.valueType) : null;
+    }
+
+    private CacheManager cacheManager() {
+        if (!resolved) {
+            cacheManager = cacheManagerResolver.get();
+            if (cacheManager == null) {
+                logger.info("Second-level cache is not backed by JCache, report caching is disabled");
+            }
+            resolved = true;
+        }
+        return cacheManager;
+    }
+
+    static CacheManager resolveCacheManager(SessionFactory sessionFactory) {
+        RegionFactory regionFactory = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(RegionFactory.class);
+        return regionFactory instanceof JCacheRegionFactory jCacheRegionFactory
+                ? jCacheRegionFactory.getCacheManager()
+                : null;
+    }
+}
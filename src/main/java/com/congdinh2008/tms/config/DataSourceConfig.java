@@ -1,21 +1,26 @@
 package com.congdinh2008.tms.config;
 
+import com.congdinh2008.tms.context.RequestContext;
+import com.congdinh2008.tms.sql.SlowQueryLog;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
-import java.util.UUID;
+import java.sql.Connection;
+import java.time.Duration;
 
 /**
  * Spring Configuration class for DataSource
- * Configures HikariCP connection pool as a Spring Bean
+ * Configures the HikariCP pools of the primary database and the read replica, and the
+ * routing DataSource that Hibernate uses to pick between them per transaction
  * 
  * @author congdinh2008
  * @since 1.0.0
@@ -47,6 +52,28 @@ public class DataSourceConfig {
     @Value("${hibernate.hikari.idleTimeout}")
     private long idleTimeout;
 
+    @Value("${hibernate.hikari.dataSource.reWriteBatchedInserts:true}")
+    private boolean reWriteBatchedInserts;
+
+    // The replica defaults to the primary database, which still keeps reports out of the write pool
+    @Value("${tms.datasource.replica.url:${hibernate.connection.url}}")
+    private String replicaUrl;
+
+    @Value("${tms.datasource.replica.username:${hibernate.connection.username}}")
+    private String replicaUsername;
+
+    @Value("${tms.datasource.replica.password:${hibernate.connection.password}}")
+    private String replicaPassword;
+
+    @Value("${tms.datasource.replica.minimumIdle:1}")
+    private int replicaMinimumIdle;
+
+    @Value("${tms.datasource.replica.maximumPoolSize:5}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${tms.datasource.read-your-writes-window-ms:5000}")
+    private long readYourWritesWindowMs;
+
     /**
      * Creates and configures HikariCP DataSource as a Spring Bean
      * 
@@ -54,8 +81,7 @@ public class DataSourceConfig {
      */
     @Bean(name = "dataSource", destroyMethod = "close")
     public DataSource dataSource() {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
+        RequestContext.Scope scope = RequestContext.open();
 
         try {
             logger.info("Starting HikariCP DataSource initialization with Spring IoC...");
@@ -76,12 +102,18 @@ public class DataSourceConfig {
             config.setConnectionTestQuery("SELECT 1");
             config.setAutoCommit(true);
             
+            // Let pgjdbc rewrite batched INSERTs into multi-row INSERT statements
+            config.addDataSourceProperty("reWriteBatchedInserts", reWriteBatchedInserts);
+            // Shown in pg_stat_activity, so connections of the two pools can be told apart
+            config.addDataSourceProperty("ApplicationName", "tms-primary");
+            
             logger.debug("HikariCP configuration - URL: {}", url);
             logger.debug("HikariCP configuration - Driver: {}", driverClassName);
             logger.debug("HikariCP configuration - Username: {}", username);
             logger.debug("HikariCP configuration - MinIdle: {}", minimumIdle);
             logger.debug("HikariCP configuration - MaxPoolSize: {}", maximumPoolSize);
             logger.debug("HikariCP configuration - IdleTimeout: {}ms", idleTimeout);
+            logger.debug("HikariCP configuration - ReWriteBatchedInserts: {}", reWriteBatchedInserts);
 
             HikariDataSource dataSource = new HikariDataSource(config);
             
@@ -94,10 +126,101 @@ public class DataSourceConfig {
             logger.error("Failed to initialize HikariCP DataSource with Spring IoC: {}", e.getMessage(), e);
             throw new DataSourceConfigurationException("Failed to initialize HikariCP DataSource", e);
         } finally {
-            MDC.remove("correlationId");
+            scope.close();
+        }
+    }
+
+    /**
+     * Creates the HikariCP pool of the read replica, used by read-only transactions
+     * 
+     * @return configured replica DataSource instance
+     */
+    @Bean(name = "replicaDataSource", destroyMethod = "close")
+    public DataSource replicaDataSource() {
+        try {
+            logger.info("Starting HikariCP replica DataSource initialization...");
+            
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("tms-replica");
+            config.setDriverClassName(driverClassName);
+            config.setJdbcUrl(replicaUrl);
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            config.setMinimumIdle(replicaMinimumIdle);
+            config.setMaximumPoolSize(replicaMaximumPoolSize);
+            config.setIdleTimeout(idleTimeout);
+            config.setConnectionTimeout(30000); // 30 seconds
+            config.setValidationTimeout(5000);  // 5 seconds
+            config.setLeakDetectionThreshold(60000); // 1 minute
+            config.setConnectionTestQuery("SELECT 1");
+            config.setAutoCommit(true);
+            config.setReadOnly(true);
+            config.addDataSourceProperty("ApplicationName", "tms-replica");
+            
+            logger.debug("HikariCP replica configuration - URL: {}", replicaUrl);
+            logger.debug("HikariCP replica configuration - MinIdle: {}", replicaMinimumIdle);
+            logger.debug("HikariCP replica configuration - MaxPoolSize: {}", replicaMaximumPoolSize);
+            
+            return new HikariDataSource(config);
+
+        } catch (Exception e) {
+            logger.error("Failed to initialize HikariCP replica DataSource: {}", e.getMessage(), e);
+            throw new DataSourceConfigurationException("Failed to initialize HikariCP replica DataSource", e);
         }
     }
 
+    /**
+     * Creates the router between the primary and replica pools: read-only transactions go to the
+     * replica pool, everything else to the primary pool. The transaction manager consults it too,
+     * to keep replica reads out of the shared caches.
+     * 
+     * @param dataSource the primary DataSource
+     * @param replicaDataSource the replica DataSource
+     * @return routing DataSource instance
+     */
+    @Bean(name = "readWriteRoutingDataSource")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("dataSource") DataSource dataSource,
+                                                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                dataSource, replicaDataSource, Duration.ofMillis(readYourWritesWindowMs));
+        routingDataSource.afterPropertiesSet();
+        
+        logger.info("Routing DataSource initialized with a read-your-writes window of {}ms", readYourWritesWindowMs);
+        return routingDataSource;
+    }
+
+    /**
+     * Creates the DataSource handed to Hibernate. The lazy proxy defers taking a physical
+     * connection until the first statement, when the transaction's read-only flag is known.
+     * Statements are timed on top of the routing for the slow-query log, which captures plans
+     * on the replica pool.
+     * 
+     * @param readWriteRoutingDataSource the router between the primary and replica pools
+     * @param replicaDataSource the replica DataSource
+     * @param slowQueryLog the slow-query log that times the statements
+     * @return routing DataSource instance
+     */
+    @Bean(name = "routingDataSource")
+    public DataSource routingDataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                        SlowQueryLog slowQueryLog) {
+        return slowQueryLog.wrap(lazyConnectionProxy(readWriteRoutingDataSource), replicaDataSource);
+    }
+
+    /**
+     * Wrap the router so the physical connection is only taken at the first statement
+     * @param routingDataSource the router between the primary and replica pools
+     * @return the lazy connection proxy
+     */
+    static LazyConnectionDataSourceProxy lazyConnectionProxy(ReadWriteRoutingDataSource routingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routingDataSource);
+        // Both pools hand out auto-commit READ COMMITTED connections; set explicitly so the
+        // proxy does not borrow a connection at startup to find out
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
     /**
      * Custom exception for DataSource configuration failures
      */
@@ -1,19 +1,25 @@
 package com.congdinh2008.tms.config;
 
+import com.congdinh2008.tms.context.RequestContext;
 import com.congdinh2008.tms.entities.*;
+import com.congdinh2008.tms.sql.OriginStatementInspector;
 import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import javax.sql.DataSource;
 import java.util.Properties;
-import java.util.UUID;
+import java.util.Set;
 
 /**
  * Spring Configuration class for Hibernate SessionFactory
@@ -23,23 +29,75 @@ import java.util.UUID;
  * @since 1.0.0
  */
 @Configuration
+@EnableTransactionManagement
 @PropertySource("classpath:hibernate.properties")
 public class HibernateConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(HibernateConfig.class);
 
+    // Schema objects not mapped by the entities are created from the migration scripts
+    // themselves, see SqlScript
+    private static final String KEYSET_PAGINATION_SCRIPT = "db/migration/V003__create_keyset_pagination_indexes.sql";
+
+    private static final String[] KEYSET_PAGINATION_DROP_DDL = {
+        "DROP INDEX IF EXISTS idx_tasks_created_at_id",
+        "DROP INDEX IF EXISTS idx_tasks_updated_at_id",
+        "DROP INDEX IF EXISTS idx_tasks_due_date_id",
+        "DROP INDEX IF EXISTS idx_tasks_title_id",
+        "DROP INDEX IF EXISTS idx_task_histories_change_date_id",
+        "DROP INDEX IF EXISTS idx_projects_name_id",
+        "DROP INDEX IF EXISTS idx_users_name_id"
+    };
+
+    private static final String OVERDUE_TASK_INDEXES_SCRIPT = "db/migration/V004__create_overdue_task_indexes.sql";
+
+    private static final String[] OVERDUE_TASK_INDEXES_DROP_DDL = {
+        "DROP INDEX IF EXISTS idx_tasks_overdue_due_date_id",
+        "DROP INDEX IF EXISTS idx_tasks_overdue_project_due_date_id"
+    };
+
+    private static final String TASK_SEARCH_VECTOR_SCRIPT = "db/migration/V006__add_task_search_vector.sql";
+
+    private static final String[] TASK_SEARCH_VECTOR_DROP_DDL = {
+        "DROP INDEX IF EXISTS idx_tasks_search_vector"
+    };
+
+    private static final String NAME_TRIGRAM_SCRIPT = "db/migration/V007__create_name_trigram_indexes.sql";
+
+    private static final String[] NAME_TRIGRAM_DROP_DDL = {
+        "DROP INDEX IF EXISTS idx_users_name_trgm",
+        "DROP INDEX IF EXISTS idx_projects_name_trgm",
+        "DROP INDEX IF EXISTS idx_tags_name_trgm",
+        "DROP INDEX IF EXISTS idx_projects_lower_name"
+    };
+
+    private static final String TASK_CLOSURE_SCRIPT = "db/migration/V008__create_task_closure.sql";
+
+    private static final String[] TASK_CLOSURE_DROP_DDL = {
+        "DROP TABLE IF EXISTS task_closure",
+        "DROP FUNCTION IF EXISTS maintain_task_closure() CASCADE"
+    };
+
+    private static final String PROJECT_STATS_SCRIPT = "db/migration/V009__create_project_stats.sql";
+
+    private static final String[] PROJECT_STATS_DROP_DDL = {
+        "DROP TABLE IF EXISTS project_stats",
+        "DROP FUNCTION IF EXISTS maintain_project_stats() CASCADE"
+    };
+
+    // Called by StoredProcedureService, see db/procedures
+    private static final String COMPLETED_TASKS_PROCEDURE_SCRIPT = "db/procedures/sp_count_completed_tasks_by_user.sql";
+
+    private static final String[] COMPLETED_TASKS_PROCEDURE_DROP_DDL = {
+        "DROP FUNCTION IF EXISTS sp_count_completed_tasks_by_user(BIGINT, INTEGER)"
+    };
+
     @Value("${hibernate.connection.driver_class}")
     private String driverClassName;
 
     @Value("${hibernate.connection.url}")
     private String url;
 
-    @Value("${hibernate.connection.username}")
-    private String username;
-
-    @Value("${hibernate.connection.password}")
-    private String password;
-
     @Value("${hibernate.dialect}")
     private String dialect;
 
@@ -73,18 +131,6 @@ public class HibernateConfig {
     @Value("${hibernate.javax.cache.uri}")
     private String cacheUri;
 
-    @Value("${hibernate.connection.provider_class}")
-    private String connectionProviderClass;
-
-    @Value("${hibernate.hikari.minimumIdle}")
-    private String hikariMinimumIdle;
-
-    @Value("${hibernate.hikari.maximumPoolSize}")
-    private String hikariMaximumPoolSize;
-
-    @Value("${hibernate.hikari.idleTimeout}")
-    private String hikariIdleTimeout;
-
     @Value("${hibernate.jdbc.batch_size}")
     private String jdbcBatchSize;
 
@@ -100,6 +146,9 @@ public class HibernateConfig {
     @Value("${hibernate.batch_versioned_data}")
     private String batchVersionedData;
 
+    @Value("${hibernate.id.optimizer.pooled.preferred:pooled-lo}")
+    private String idOptimizer;
+
     @Value("${hibernate.cache.use_structured_entries}")
     private String cacheUseStructuredEntries;
 
@@ -112,13 +161,14 @@ public class HibernateConfig {
     /**
      * Creates and configures Hibernate SessionFactory as a Spring Bean
      * 
-     * @param dataSource the configured DataSource
+     * @param dataSource the routing DataSource over the primary and replica pools
+     * @param validator the Bean Validation factory used when entities are flushed
      * @return configured SessionFactory instance
      */
     @Bean(name = "sessionFactory", destroyMethod = "close")
-    public SessionFactory sessionFactory(DataSource dataSource) {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
+    public SessionFactory sessionFactory(@Qualifier("routingDataSource") DataSource dataSource,
+                                         LocalValidatorFactoryBean validator) {
+        RequestContext.Scope scope = RequestContext.open();
 
         try {
             logger.info("Starting Hibernate SessionFactory initialization with Spring IoC...");
@@ -136,6 +186,11 @@ public class HibernateConfig {
             
             LocalSessionFactoryBuilder sessionFactoryBuilder = new LocalSessionFactoryBuilder(dataSource);
             sessionFactoryBuilder.addProperties(hibernateProperties);
+            // Entity validation on flush uses Spring's factory so validators can be injected
+            sessionFactoryBuilder.getProperties().put("jakarta.persistence.validation.factory", validator);
+            // Tag each statement with the repository or service method that issued it
+            sessionFactoryBuilder.getProperties().put("hibernate.session_factory.statement_inspector",
+                    new OriginStatementInspector());
             
             // Register entity classes explicitly
             sessionFactoryBuilder.addAnnotatedClass(User.class);
@@ -147,6 +202,23 @@ public class HibernateConfig {
             // Also scan packages for any additional entities
             sessionFactoryBuilder.scanPackages("com.congdinh2008.tms.entities");
             
+            // Schema objects not expressed by the entity mappings, kept in sync with db/migration
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(KEYSET_PAGINATION_SCRIPT), KEYSET_PAGINATION_DROP_DDL));
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(OVERDUE_TASK_INDEXES_SCRIPT), OVERDUE_TASK_INDEXES_DROP_DDL));
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(TASK_SEARCH_VECTOR_SCRIPT), TASK_SEARCH_VECTOR_DROP_DDL));
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(NAME_TRIGRAM_SCRIPT), NAME_TRIGRAM_DROP_DDL));
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(TASK_CLOSURE_SCRIPT), TASK_CLOSURE_DROP_DDL));
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(PROJECT_STATS_SCRIPT), PROJECT_STATS_DROP_DDL));
+            sessionFactoryBuilder.addAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                    Set.of(), null, null, SqlScript.statements(COMPLETED_TASKS_PROCEDURE_SCRIPT),
+                    COMPLETED_TASKS_PROCEDURE_DROP_DDL));
+            
             logger.info("Entity classes registered: User, Project, Task, Tag, TaskHistory");
 
             SessionFactory sessionFactory = sessionFactoryBuilder.buildSessionFactory();
@@ -160,10 +232,47 @@ public class HibernateConfig {
             logger.error("Failed to initialize Hibernate SessionFactory with Spring IoC: {}", e.getMessage(), e);
             throw new HibernateConfigurationException("Failed to initialize Hibernate SessionFactory", e);
         } finally {
-            MDC.remove("correlationId");
+            scope.close();
         }
     }
 
+    /**
+     * Creates the transaction manager for @Transactional services.
+     * Binds one Hibernate session per transaction, which repositories obtain via getCurrentSession().
+     * Sessions of transactions routed to the replica do not populate the shared caches.
+     * 
+     * @param sessionFactory the Hibernate SessionFactory
+     * @param routingDataSource the router between the primary and replica pools
+     * @return transaction manager instance
+     */
+    @Bean(name = "transactionManager")
+    public PlatformTransactionManager transactionManager(SessionFactory sessionFactory,
+                                                         ReadWriteRoutingDataSource routingDataSource) {
+        return new RoutingHibernateTransactionManager(sessionFactory, routingDataSource);
+    }
+
+    /**
+     * Creates the template for reads that must see the primary, such as index builds and cache loads
+     * 
+     * @param transactionManager the transaction manager
+     * @return primary read template
+     */
+    @Bean
+    public PrimaryReadTemplate primaryReadTemplate(PlatformTransactionManager transactionManager) {
+        return new PrimaryReadTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the Bean Validation factory used for entity validation.
+     * Constraint validators are created through Spring and may have dependencies injected.
+     * 
+     * @return validator factory
+     */
+    @Bean
+    public LocalValidatorFactoryBean validator() {
+        return new LocalValidatorFactoryBean();
+    }
+
     /**
      * Creates Hibernate properties from Spring configuration values
      * 
@@ -172,11 +281,8 @@ public class HibernateConfig {
     private Properties createHibernateProperties() {
         Properties properties = new Properties();
 
-        // Database connection properties
-        properties.setProperty("hibernate.connection.driver_class", driverClassName);
-        properties.setProperty("hibernate.connection.url", url);
-        properties.setProperty("hibernate.connection.username", username);
-        properties.setProperty("hibernate.connection.password", password);
+        // Connections come from the Spring-managed DataSource; connection and pool properties
+        // are left out so Hibernate does not start a second pool next to it
 
         // Core Hibernate settings
         properties.setProperty("hibernate.dialect", dialect);
@@ -186,12 +292,6 @@ public class HibernateConfig {
         properties.setProperty("hibernate.use_sql_comments", useSqlComments);
         properties.setProperty("hibernate.generate_statistics", generateStatistics);
 
-        // Connection pooling
-        properties.setProperty("hibernate.connection.provider_class", connectionProviderClass);
-        properties.setProperty("hibernate.hikari.minimumIdle", hikariMinimumIdle);
-        properties.setProperty("hibernate.hikari.maximumPoolSize", hikariMaximumPoolSize);
-        properties.setProperty("hibernate.hikari.idleTimeout", hikariIdleTimeout);
-
         // Second-level cache
         properties.setProperty("hibernate.cache.use_second_level_cache", useSecondLevelCache);
         properties.setProperty("hibernate.cache.use_query_cache", useQueryCache);
@@ -205,6 +305,7 @@ public class HibernateConfig {
         properties.setProperty("hibernate.order_inserts", orderInserts);
         properties.setProperty("hibernate.order_updates", orderUpdates);
         properties.setProperty("hibernate.batch_versioned_data", batchVersionedData);
+        properties.setProperty("hibernate.id.optimizer.pooled.preferred", idOptimizer);
         properties.setProperty("hibernate.cache.use_structured_entries", cacheUseStructuredEntries);
 
         // Naming strategies
@@ -16,6 +16,10 @@ import java.util.UUID;
 /**
  * Hibernate Utility class for managing SessionFactory
  * Implements Singleton pattern for SessionFactory management
+ * <p>
+ * Standalone bootstrap for running Hibernate outside the Spring context only. The application
+ * uses the SessionFactory from {@link HibernateConfig}; the factory here is built lazily on the
+ * first call and has its own connection pool and second-level cache, so services must not use it.
  */
 public class HibernateUtil {
     
@@ -0,0 +1,39 @@
+package com.congdinh2008.tms.config;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads whose results outlive their transaction on the primary database
+ * <p>
+ * Index builds and report cache loads keep what they read until the next write event or TTL, so
+ * reading a lagging replica would serve stale data long after the replica caught up. Each read
+ * runs in a read-only transaction of its own, with its connection pinned to the primary by
+ * {@link ReadWriteRoutingDataSource#onPrimary(Supplier)}. As a separate transaction it also
+ * only sees committed rows, never the uncommitted writes of the caller.
+ *
+ * @author congdinh2008
+ * @since 1.0.0
+ */
+public class PrimaryReadTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PrimaryReadTemplate(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Run a read on the primary in a new read-only transaction
+     * @param read the read; repositories obtain the session of the new transaction
+     * @return the result of the read
+     */
+    public <T> T read(Supplier<T> read) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> transactionTemplate.execute(status -> read.get()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.congdinh2008.tms.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * DataSource that sends read-only transactions to the replica pool and everything else to the primary
+ * <p>
+ * The route is taken from the current Spring transaction when the physical connection is requested,
+ * so this DataSource must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for a connection before the read-only flag is bound to the thread.
+ * <p>
+ * After a write transaction commits, read-only transactions on every thread keep using the primary
+ * for the read-your-writes window, so no caller reads stale rows while the replica catches up. The
+ * window is shared because the next request of a client may run on any thread; with a steady write
+ * load reads therefore stay on the primary, and the replica serves the quiet periods.
+ * <p>
+ * Reads whose results outlive their transaction, such as index builds and cache loads, must not see
+ * a lagging replica at all: {@link #onPrimary(Supplier)} pins the connections they open to the primary.
+ *
+ * @author congdinh2008
+ * @since 1.0.0
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Target pools of the routing DataSource
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    // Depth of nested onPrimary calls on this thread
+    private static final ThreadLocal<Integer> primaryPins = ThreadLocal.withInitial(() -> 0);
+
+    private final long readYourWritesWindowNanos;
+
+    // Commit time of the last write transaction on any thread, in System.nanoTime() units
+    private final AtomicLong lastWriteCommit = new AtomicLong(NEVER);
+
+    /**
+     * @param primary the pool of the primary database
+     * @param replica the pool of the read replica
+     * @param readYourWritesWindow how long reads stay on the primary after a write commits
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    /**
+     * Run an action with every connection it opens taken from the primary, whatever the read-only
+     * flag of its transaction. Only connections opened inside the action are affected, so a read
+     * that must see the primary runs in a transaction of its own, see {@link PrimaryReadTemplate}.
+     * @param action the action
+     * @return the result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        int pins = primaryPins.get();
+        primaryPins.set(pins + 1);
+        try {
+            return action.get();
+        } finally {
+            if (pins == 0) {
+                primaryPins.remove();
+            } else {
+                primaryPins.set(pins);
+            }
+        }
+    }
+
+    /**
+     * @return the pool the next connection of this thread is taken from
+     */
+    public Route currentRoute() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return Route.PRIMARY;
+        }
+        return readOnlyRoute();
+    }
+
+    /**
+     * @return the pool a read-only transaction starting now on this thread is routed to
+     */
+    public Route readOnlyRoute() {
+        if (primaryPins.get() > 0 || withinReadYourWritesWindow()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    private void recordWriteOnCommit() {
+        if (readYourWritesWindowNanos > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteCommit.accumulateAndGet(System.nanoTime(), Math::max);
+                }
+            });
+        }
+    }
+
+    private boolean withinReadYourWritesWindow() {
+        long committedAt = lastWriteCommit.get();
+        return committedAt != NEVER && System.nanoTime() - committedAt < readYourWritesWindowNanos;
+    }
+}
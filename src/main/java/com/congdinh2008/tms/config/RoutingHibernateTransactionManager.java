@@ -0,0 +1,41 @@
+package com.congdinh2008.tms.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
+import org.springframework.orm.hibernate5.SessionHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate transaction manager that keeps replica reads out of the shared caches
+ * <p>
+ * A read-only transaction routed to the replica may read rows the replica has not caught up
+ * with yet. Its session reads from the second-level and query caches but does not put into
+ * them ({@link CacheMode#GET}), so a stale replica result is never served to other sessions
+ * until its TTL. Transactions on the primary use the caches as usual.
+ *
+ * @author congdinh2008
+ * @since 1.0.0
+ */
+public class RoutingHibernateTransactionManager extends HibernateTransactionManager {
+
+    private final transient ReadWriteRoutingDataSource routingDataSource;
+
+    public RoutingHibernateTransactionManager(SessionFactory sessionFactory,
+                                              ReadWriteRoutingDataSource routingDataSource) {
+        super(sessionFactory);
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && routingDataSource.readOnlyRoute() == ReadWriteRoutingDataSource.Route.REPLICA) {
+            SessionHolder sessionHolder = (SessionHolder) TransactionSynchronizationManager.getResource(obtainSessionFactory());
+            if (sessionHolder != null) {
+                sessionHolder.getSession().setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+}
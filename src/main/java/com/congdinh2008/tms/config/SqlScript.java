@@ -0,0 +1,84 @@
+package com.congdinh2008.tms.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a SQL script from the classpath and splits it into statements, so the schema objects
+ * of a db/migration script can be created by Hibernate from the script itself.
+ * <p>
+ * Statements end with a semicolon outside of quotes, dollar-quoted function bodies and
+ * line comments; comments are dropped.
+ */
+final class SqlScript {
+
+    private SqlScript() {
+    }
+
+    /**
+     * Load the statements of a script
+     * @param resource classpath location of the script
+     * @return the statements, without their terminating semicolon
+     * @throws IllegalStateException if the script does not exist
+     */
+    static String[] statements(String resource) {
+        try (InputStream in = SqlScript.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("SQL script not found on the classpath: " + resource);
+            }
+            return split(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read SQL script " + resource, e);
+        }
+    }
+
+    /**
+     * Split a script into statements
+     * @param script the script text
+     * @return the non-empty statements, trimmed
+     */
+    static String[] split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean inDollarQuotes = false;
+        int i = 0;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (!inQuotes && !inDollarQuotes && c == '-' && script.startsWith("--", i)) {
+                int lineEnd = script.indexOf('\n', i);
+                i = lineEnd < 0 ? script.length() : lineEnd;
+                continue;
+            }
+            if (!inQuotes && script.startsWith("$$", i)) {
+                inDollarQuotes = !inDollarQuotes;
+                current.append("$$");
+                i += 2;
+                continue;
+            }
+            if (!inDollarQuotes && c == '\'') {
+                inQuotes = !inQuotes;
+            }
+            if (!inQuotes && !inDollarQuotes && c == ';') {
+                addStatement(statements, current);
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+            i++;
+        }
+        addStatement(statements, current);
+        return statements.toArray(String[]::new);
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder statement) {
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.congdinh2008.tms.context;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Correlation context of one request, opened at the service boundary
+ * <p>
+ * The correlation ID is pushed into the MDC once when the context is opened, so every log line
+ * written while the request runs carries it (see the {@code %X{correlationId}} log pattern).
+ * IDs are a per-process random prefix followed by a counter, so generating one neither
+ * allocates a {@code UUID} nor touches {@code SecureRandom}.
+ * <p>
+ * The context is bound to the current thread. Work handed to another thread, including virtual
+ * threads, keeps the context when it is wrapped with {@link #wrap(Runnable)},
+ * {@link #wrap(Callable)} or {@link #wrap(Executor)}; {@code RequestContext::wrap} also serves
+ * as a Spring {@code TaskDecorator} for async task executors.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class RequestContext {
+
+    /** MDC key of the correlation ID */
+    public static final String CORRELATION_ID = "correlationId";
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private static final String PREFIX = Integer.toHexString(ThreadLocalRandom.current().nextInt(0x100000, 0x1000000));
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final Scope JOINED = () -> { };
+
+    private final String correlationId;
+
+    private RequestContext(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    /**
+     * Scope of an opened or attached context; closing it restores what the thread had before
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Open a new context on the current thread, or join the one that is already open
+     * @return the scope to close when the request is done
+     */
+    public static Scope open() {
+        if (CURRENT.get() != null) {
+            return JOINED;
+        }
+        return new RequestContext(PREFIX + "-" + Long.toString(SEQUENCE.incrementAndGet(), 36)).attach();
+    }
+
+    /**
+     * @return the context of the current thread, or null outside a request
+     */
+    public static RequestContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the correlation ID of the current thread's context, or null outside a request
+     */
+    public static String currentCorrelationId() {
+        RequestContext current = CURRENT.get();
+        return current != null ? current.correlationId : null;
+    }
+
+    /**
+     * Wrap a task so it runs in the current context on whichever thread executes it
+     * @param task the task
+     * @return the wrapped task, or the task itself outside a request
+     */
+    public static Runnable wrap(Runnable task) {
+        RequestContext captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope scope = captured.attach()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Wrap a task so it runs in the current context on whichever thread executes it
+     * @param task the task
+     * @return the wrapped task, or the task itself outside a request
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        RequestContext captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope scope = captured.attach()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Wrap an executor so every task runs in the context of the thread that submitted it
+     * @param executor the executor, e.g. {@code Executors.newVirtualThreadPerTaskExecutor()}
+     * @return the wrapping executor
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * @return the correlation ID of this context
+     */
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    private Scope attach() {
+        RequestContext previous = CURRENT.get();
+        String previousCorrelationId = MDC.get(CORRELATION_ID);
+        CURRENT.set(this);
+        MDC.put(CORRELATION_ID, correlationId);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            if (previousCorrelationId != null) {
+                MDC.put(CORRELATION_ID, previousCorrelationId);
+            } else {
+                MDC.remove(CORRELATION_ID);
+            }
+        };
+    }
+}
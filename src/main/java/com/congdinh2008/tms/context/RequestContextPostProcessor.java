@@ -0,0 +1,46 @@
+package com.congdinh2008.tms.context;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Opens a {@link RequestContext} around every {@code *ServiceImpl} method
+ * <p>
+ * The outermost service call opens the context and nested service calls join it, so a request
+ * logs one correlation ID from the service boundary down to the repositories. The interceptor is
+ * placed in front of the existing advisors, so transaction begin and commit are logged with it too.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class RequestContextPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public RequestContextPostProcessor() {
+        MethodInterceptor interceptor = invocation -> {
+            try (RequestContext.Scope scope = RequestContext.open()) {
+                return invocation.proceed();
+            }
+        };
+        this.advisor = new DefaultPointcutAdvisor(new ServiceMethodPointcut(), interceptor);
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static final class ServiceMethodPointcut extends StaticMethodMatcherPointcut {
+
+        ServiceMethodPointcut() {
+            setClassFilter(targetClass -> targetClass.getSimpleName().endsWith("ServiceImpl"));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return method.getDeclaringClass() != Object.class;
+        }
+    }
+}
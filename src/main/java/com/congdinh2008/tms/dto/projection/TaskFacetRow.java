@@ -0,0 +1,17 @@
+package com.congdinh2008.tms.dto.projection;
+
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+
+/**
+ * Flat projection row with the filterable attributes of a task.
+ * One row is returned per task and tag; the tag ID is null when the task has none.
+ */
+public record TaskFacetRow(
+        Long taskId,
+        TaskStatus status,
+        TaskPriority priority,
+        Long projectId,
+        Long assigneeId,
+        Long tagId) {
+}
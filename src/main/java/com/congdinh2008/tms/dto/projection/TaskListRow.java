@@ -0,0 +1,31 @@
+package com.congdinh2008.tms.dto.projection;
+
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection row for task list queries.
+ * One row is returned per task and tag, with the project, assignee and tag columns
+ * flattened so a list can be read in a single statement without hydrating entities.
+ * Assignee and tag columns are null when the task has none.
+ */
+public record TaskListRow(
+        Long taskId,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDate dueDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long projectId,
+        String projectName,
+        Long assigneeId,
+        String assigneeName,
+        String assigneeEmail,
+        Long tagId,
+        String tagName) {
+}
@@ -0,0 +1,29 @@
+package com.congdinh2008.tms.dto.projection;
+
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection row for subtree queries.
+ * One row is returned per task in the subtree, with its distance from the root
+ * and the path of task IDs leading to it, so the hierarchy can be rebuilt in memory.
+ * The root has depth 0 and a null parent ID within the subtree.
+ */
+public record TaskTreeRow(
+        Long taskId,
+        Long parentTaskId,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDate dueDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long projectId,
+        Long assigneeId,
+        int depth,
+        String path) {
+}
@@ -0,0 +1,78 @@
+package com.congdinh2008.tms.dto.response;
+
+import com.congdinh2008.tms.enums.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO reporting the per-task outcome of a bulk status change
+ */
+public class BulkStatusChangeResult {
+    
+    /**
+     * Outcome of the status change for a single task
+     */
+    public enum Outcome {
+        /** The status was changed */
+        UPDATED,
+        /** The task already had the requested status */
+        UNCHANGED,
+        /** No task exists with the given ID */
+        NOT_FOUND,
+        /** Business rule R7: the task still has incomplete subtasks */
+        BLOCKED_BY_INCOMPLETE_SUBTASKS
+    }
+    
+    /**
+     * Requested target status
+     */
+    private final TaskStatus status;
+    
+    /**
+     * Outcome per task ID, in request order
+     */
+    private final Map<Long, Outcome> outcomes;
+    
+    // Constructors
+    public BulkStatusChangeResult(TaskStatus status, Map<Long, Outcome> outcomes) {
+        this.status = status;
+        this.outcomes = Collections.unmodifiableMap(new LinkedHashMap<>(outcomes));
+    }
+    
+    // Getters
+    public TaskStatus getStatus() {
+        return status;
+    }
+    
+    public Map<Long, Outcome> getOutcomes() {
+        return outcomes;
+    }
+    
+    public Outcome getOutcome(Long taskId) {
+        return outcomes.get(taskId);
+    }
+    
+    /**
+     * Get the IDs of all tasks with the given outcome
+     * 
+     * @param outcome the outcome to filter by
+     * @return matching task IDs, in request order
+     */
+    public List<Long> getTaskIds(Outcome outcome) {
+        List<Long> taskIds = new ArrayList<>();
+        outcomes.forEach((taskId, taskOutcome) -> {
+            if (taskOutcome == outcome) {
+                taskIds.add(taskId);
+            }
+        });
+        return taskIds;
+    }
+    
+    public int getUpdatedCount() {
+        return getTaskIds(Outcome.UPDATED).size();
+    }
+}
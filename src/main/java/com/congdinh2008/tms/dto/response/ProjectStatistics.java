@@ -44,6 +44,10 @@ public class ProjectStatistics {
         this.completionRate = completionRate;
     }
     
+    public ProjectStatistics(ProjectStatistics other) {
+        this(other.totalTasks, other.completedTasks, other.inProgressTasks, other.overdueTasks, other.completionRate);
+    }
+    
     // Getters and Setters
     public Long getTotalTasks() { return totalTasks; }
     public void setTotalTasks(Long totalTasks) { this.totalTasks = totalTasks; }
@@ -31,6 +31,9 @@ public class TaskResponse {
     private Set<TagResponse> tags;
     private TaskResponse parentTask;
     private Set<TaskResponse> subtasks;
+    // Only set by tree queries; named apart from Task.getCompletionPercentage() so that
+    // mapping an entity never copies it and lazily loads the subtasks
+    private Double rolledUpCompletionPercentage;
     
     // Constructors
     public TaskResponse() {}
@@ -162,4 +165,12 @@ public class TaskResponse {
     public void setSubtasks(Set<TaskResponse> subtasks) {
         this.subtasks = subtasks;
     }
+    
+    public Double getRolledUpCompletionPercentage() {
+        return rolledUpCompletionPercentage;
+    }
+    
+    public void setRolledUpCompletionPercentage(Double rolledUpCompletionPercentage) {
+        this.rolledUpCompletionPercentage = rolledUpCompletionPercentage;
+    }
 }
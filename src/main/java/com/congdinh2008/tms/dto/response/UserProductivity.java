@@ -52,6 +52,11 @@ public class UserProductivity {
         this.averageCompletionTime = averageCompletionTime;
     }
     
+    public UserProductivity(UserProductivity other) {
+        this(other.userId, other.userName, other.completedTasks, other.totalAssignedTasks,
+                other.productivityRate, other.averageCompletionTime);
+    }
+    
     // Getters and Setters
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
@@ -12,7 +12,18 @@ import java.util.List;
  */
 public class TaskSearchCriteria {
     
+    /**
+     * How the keyword is matched against title and description
+     */
+    public enum KeywordMatchMode {
+        /** Case-insensitive substring match, no index support */
+        LIKE,
+        /** PostgreSQL full-text search on the indexed search vector, ranked by relevance */
+        FULL_TEXT
+    }
+    
     private String keyword; // Search in title and description
+    private KeywordMatchMode keywordMatchMode = KeywordMatchMode.LIKE;
     private TaskStatus status;
     private TaskPriority priority;
     private Long projectId;
@@ -38,6 +49,9 @@ public class TaskSearchCriteria {
     public String getKeyword() { return keyword; }
     public void setKeyword(String keyword) { this.keyword = keyword; }
 
+    public KeywordMatchMode getKeywordMatchMode() { return keywordMatchMode; }
+    public void setKeywordMatchMode(KeywordMatchMode keywordMatchMode) { this.keywordMatchMode = keywordMatchMode; }
+
     public TaskStatus getStatus() { return status; }
     public void setStatus(TaskStatus status) { this.status = status; }
 
@@ -83,6 +97,11 @@ public class TaskSearchCriteria {
             return this;
         }
 
+        public TaskSearchCriteriaBuilder keywordMatchMode(KeywordMatchMode keywordMatchMode) {
+            criteria.setKeywordMatchMode(keywordMatchMode);
+            return this;
+        }
+
         public TaskSearchCriteriaBuilder status(TaskStatus status) {
             criteria.setStatus(status);
             return this;
@@ -0,0 +1,13 @@
+package com.congdinh2008.tms.events;
+
+/**
+ * Application event published by the service layer when a tag is created or updated.
+ * <p>
+ * Deleting a tag changes the tasks carrying it and publishes a {@link TaskChangedEvent} instead.
+ * 
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public record TagChangedEvent(Long tagId) {
+}
@@ -0,0 +1,145 @@
+package com.congdinh2008.tms.events;
+
+import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Application event published by the service layer whenever tasks are written.
+ * <p>
+ * Saved tasks are captured as {@link TaskState} snapshots when the event is created, so
+ * listeners that run after the transaction has committed never touch the entities.
+ * 
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class TaskChangedEvent {
+    
+    public enum Type {
+        /** Tasks were created or updated; their new state is attached */
+        SAVED,
+        /** Only the status of the tasks changed */
+        STATUS_CHANGED,
+        /** The tasks were deleted */
+        DELETED,
+        /** An unknown set of tasks changed, e.g. removed by a cascading delete */
+        BULK_CHANGE
+    }
+    
+    /**
+     * Filterable attributes of a saved task
+     * @param tagIds IDs of the task's tags, or null if they were not loaded and did not change
+     */
+    public record TaskState(Long taskId, TaskStatus status, TaskPriority priority,
+                            Long projectId, Long assigneeId, Set<Long> tagIds) {
+        
+        public static TaskState of(Task task) {
+            Set<Long> tagIds;
+            if (task.getTags() == null) {
+                tagIds = Set.of();
+            } else if (Hibernate.isInitialized(task.getTags())) {
+                tagIds = task.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+            } else {
+                tagIds = null;
+            }
+            return new TaskState(task.getId(), task.getStatus(), task.getPriority(),
+                    task.getProject() != null ? task.getProject().getId() : null,
+                    task.getAssignee() != null ? task.getAssignee().getId() : null,
+                    tagIds);
+        }
+    }
+    
+    private final Type type;
+    private final List<TaskState> states;
+    private final List<Long> taskIds;
+    private final TaskStatus status;
+    private final Set<Long> projectIds;
+    
+    private TaskChangedEvent(Type type, List<TaskState> states, List<Long> taskIds, TaskStatus status,
+                             Set<Long> projectIds) {
+        this.type = type;
+        this.states = states;
+        this.taskIds = taskIds;
+        this.status = status;
+        this.projectIds = projectIds;
+    }
+    
+    public static TaskChangedEvent saved(Task task) {
+        return saved(List.of(task));
+    }
+    
+    public static TaskChangedEvent saved(Collection<Task> tasks) {
+        List<TaskState> states = new ArrayList<>(tasks.size());
+        List<Long> taskIds = new ArrayList<>(tasks.size());
+        Set<Long> projectIds = new LinkedHashSet<>();
+        for (Task task : tasks) {
+            TaskState state = TaskState.of(task);
+            states.add(state);
+            taskIds.add(state.taskId());
+            if (state.projectId() != null) {
+                projectIds.add(state.projectId());
+            }
+        }
+        return new TaskChangedEvent(Type.SAVED, states, taskIds, null, Set.copyOf(projectIds));
+    }
+    
+    public static TaskChangedEvent statusChanged(Collection<Long> taskIds, TaskStatus status) {
+        return new TaskChangedEvent(Type.STATUS_CHANGED, List.of(), List.copyOf(taskIds), status, Set.of());
+    }
+    
+    public static TaskChangedEvent deleted(Long taskId, Long projectId) {
+        return new TaskChangedEvent(Type.DELETED, List.of(), List.of(taskId), null, Set.of(projectId));
+    }
+    
+    public static TaskChangedEvent bulkChange() {
+        return new TaskChangedEvent(Type.BULK_CHANGE, List.of(), List.of(), null, Set.of());
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * @return new state of each saved task; empty unless the type is SAVED
+     */
+    public List<TaskState> getStates() {
+        return states;
+    }
+    
+    /**
+     * @return IDs of the affected tasks; empty for a bulk change
+     */
+    public List<Long> getTaskIds() {
+        return taskIds;
+    }
+    
+    /**
+     * @return the new status; only set when the type is STATUS_CHANGED
+     */
+    public TaskStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * @return IDs of the projects of the affected tasks; empty when they are not known,
+     *         i.e. for bulk status changes and bulk changes
+     */
+    public Set<Long> getProjectIds() {
+        return projectIds;
+    }
+    
+    @Override
+    public String toString() {
+        return "TaskChangedEvent{type=" + type + ", tasks=" + taskIds.size() + "}";
+    }
+}
@@ -0,0 +1,350 @@
+package com.congdinh2008.tms.index;
+
+import com.congdinh2008.tms.config.PrimaryReadTemplate;
+import com.congdinh2008.tms.dto.projection.TaskFacetRow;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.events.TaskChangedEvent;
+import com.congdinh2008.tms.events.TaskChangedEvent.TaskState;
+import com.congdinh2008.tms.repositories.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory secondary index over tasks for filter counting and faceting.
+ * <p>
+ * Every status, priority, project, assignee and tag value maps to a {@link CompressedBitmap}
+ * of the IDs of the tasks that have it, so a count for any AND/OR combination of values is a
+ * handful of bitmap operations instead of a query. The index is built from a single
+ * projection scan the first time it is queried and then kept in sync from
+ * {@link TaskChangedEvent}s after each transaction commits. The scan reads the primary in a
+ * transaction of its own, as a lagging replica would leave the index stale until the next
+ * rebuild. Task IDs must fit in an unsigned 32-bit integer.
+ * 
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class TaskBitmapIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskBitmapIndex.class);
+    
+    private static final long MAX_TASK_ID = 0xFFFFFFFFL;
+    
+    private static final long[] NO_TAGS = new long[0];
+    
+    private final TaskRepository taskRepository;
+    
+    private final PrimaryReadTemplate primaryReads;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private CompressedBitmap allTasks = new CompressedBitmap();
+    private final Map<TaskStatus, CompressedBitmap> byStatus = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskPriority, CompressedBitmap> byPriority = new EnumMap<>(TaskPriority.class);
+    private final Map<Long, CompressedBitmap> byProject = new HashMap<>();
+    private final Map<Long, CompressedBitmap> byAssignee = new HashMap<>();
+    private final Map<Long, CompressedBitmap> byTag = new HashMap<>();
+    
+    // Indexed attributes per task, needed to clear the old bits when a task changes
+    private final Map<Long, Entry> entries = new HashMap<>();
+    
+    private boolean built;
+    
+    public TaskBitmapIndex(TaskRepository taskRepository, PrimaryReadTemplate primaryReads) {
+        this.taskRepository = taskRepository;
+        this.primaryReads = primaryReads;
+    }
+    
+    /**
+     * Count the tasks matching a filter
+     * @param filter the filter
+     * @return number of matching tasks
+     */
+    public long count(TaskFilter filter) {
+        return read(() -> evaluate(filter).cardinality());
+    }
+    
+    /**
+     * Count the tasks matching a filter per status
+     * @param filter the filter, e.g. {@code TaskFilter.project(projectId)}
+     * @return count per status, including statuses without tasks
+     */
+    public Map<TaskStatus, Long> countByStatus(TaskFilter filter) {
+        return read(() -> {
+            CompressedBitmap matching = evaluate(filter);
+            Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                CompressedBitmap withStatus = byStatus.get(status);
+                counts.put(status, withStatus != null ? matching.andCardinality(withStatus) : 0L);
+            }
+            return counts;
+        });
+    }
+    
+    /**
+     * Count the tasks matching a filter per priority
+     * @param filter the filter
+     * @return count per priority, including priorities without tasks
+     */
+    public Map<TaskPriority, Long> countByPriority(TaskFilter filter) {
+        return read(() -> {
+            CompressedBitmap matching = evaluate(filter);
+            Map<TaskPriority, Long> counts = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                CompressedBitmap withPriority = byPriority.get(priority);
+                counts.put(priority, withPriority != null ? matching.andCardinality(withPriority) : 0L);
+            }
+            return counts;
+        });
+    }
+    
+    /**
+     * Apply committed task writes. Events arriving before the index is built are ignored,
+     * as the build reads the committed state anyway.
+     * @param event the task change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            switch (event.getType()) {
+                case SAVED -> event.getStates().forEach(this::put);
+                case STATUS_CHANGED -> event.getTaskIds().forEach(taskId -> changeStatus(taskId, event.getStatus()));
+                case DELETED -> event.getTaskIds().forEach(this::remove);
+                case BULK_CHANGE -> reset();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Drop the index; it is rebuilt on the next query
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Run a query against a built index. The index is checked under the same read lock the
+     * query runs in: a bulk change can reset it right after a build, in which case it is
+     * built again.
+     */
+    private <T> T read(Supplier<T> query) {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                if (built) {
+                    return query.get();
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            build();
+        }
+    }
+    
+    private void build() {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            long started = System.nanoTime();
+            // Rows of a task are adjacent, so its tags can be collected before it is indexed
+            FacetCollector collector = new FacetCollector();
+            primaryReads.read(() -> {
+                taskRepository.forEachFacetRow(collector);
+                return null;
+            });
+            collector.finish();
+            built = true;
+            logger.info("Built task bitmap index with {} tasks in {} ms", 
+                    entries.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            reset();
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private CompressedBitmap evaluate(TaskFilter filter) {
+        return switch (filter) {
+            case TaskFilter.All all -> allTasks;
+            case TaskFilter.StatusIs statusIs -> bitmapOrEmpty(byStatus.get(statusIs.status()));
+            case TaskFilter.PriorityIs priorityIs -> bitmapOrEmpty(byPriority.get(priorityIs.priority()));
+            case TaskFilter.ProjectIs projectIs -> bitmapOrEmpty(byProject.get(projectIs.projectId()));
+            case TaskFilter.AssigneeIs assigneeIs -> bitmapOrEmpty(byAssignee.get(assigneeIs.userId()));
+            case TaskFilter.HasTag hasTag -> bitmapOrEmpty(byTag.get(hasTag.tagId()));
+            case TaskFilter.And and -> evaluate(and.left()).and(evaluate(and.right()));
+            case TaskFilter.Or or -> evaluate(or.left()).or(evaluate(or.right()));
+        };
+    }
+    
+    private static CompressedBitmap bitmapOrEmpty(CompressedBitmap bitmap) {
+        return bitmap != null ? bitmap : new CompressedBitmap();
+    }
+    
+    private void put(TaskState state) {
+        Entry previous = entries.get(state.taskId());
+        long[] tagIds;
+        if (state.tagIds() != null) {
+            tagIds = toSortedArray(state.tagIds());
+        } else {
+            tagIds = previous != null ? previous.tagIds() : NO_TAGS;
+        }
+        if (previous != null) {
+            remove(state.taskId());
+        }
+        add(state.taskId(), new Entry(state.status(), state.priority(), state.projectId(), state.assigneeId(), tagIds));
+    }
+    
+    private void changeStatus(Long taskId, TaskStatus status) {
+        Entry entry = entries.get(taskId);
+        if (entry == null || entry.status() == status) {
+            return;
+        }
+        int bit = toBit(taskId);
+        clearBit(byStatus, entry.status(), bit);
+        setBit(byStatus, status, bit);
+        entries.put(taskId, new Entry(status, entry.priority(), entry.projectId(), entry.assigneeId(), entry.tagIds()));
+    }
+    
+    private void add(Long taskId, Entry entry) {
+        int bit = toBit(taskId);
+        allTasks.add(bit);
+        setBit(byStatus, entry.status(), bit);
+        setBit(byPriority, entry.priority(), bit);
+        setBit(byProject, entry.projectId(), bit);
+        setBit(byAssignee, entry.assigneeId(), bit);
+        for (long tagId : entry.tagIds()) {
+            setBit(byTag, tagId, bit);
+        }
+        entries.put(taskId, entry);
+    }
+    
+    private void remove(Long taskId) {
+        Entry entry = entries.remove(taskId);
+        if (entry == null) {
+            return;
+        }
+        int bit = toBit(taskId);
+        allTasks.remove(bit);
+        clearBit(byStatus, entry.status(), bit);
+        clearBit(byPriority, entry.priority(), bit);
+        clearBit(byProject, entry.projectId(), bit);
+        clearBit(byAssignee, entry.assigneeId(), bit);
+        for (long tagId : entry.tagIds()) {
+            clearBit(byTag, tagId, bit);
+        }
+    }
+    
+    private void reset() {
+        built = false;
+        entries.clear();
+        allTasks = new CompressedBitmap();
+        byStatus.clear();
+        byPriority.clear();
+        byProject.clear();
+        byAssignee.clear();
+        byTag.clear();
+    }
+    
+    private static <K> void setBit(Map<K, CompressedBitmap> bitmaps, K key, int bit) {
+        if (key != null) {
+            bitmaps.computeIfAbsent(key, k -> new CompressedBitmap()).add(bit);
+        }
+    }
+    
+    private static <K> void clearBit(Map<K, CompressedBitmap> bitmaps, K key, int bit) {
+        if (key == null) {
+            return;
+        }
+        CompressedBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null && bitmap.remove(bit) && bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+    
+    private static int toBit(Long taskId) {
+        if (taskId == null || taskId < 0 || taskId > MAX_TASK_ID) {
+            throw new IllegalArgumentException("Task ID cannot be indexed: " + taskId);
+        }
+        return (int) taskId.longValue();
+    }
+    
+    private static long[] toSortedArray(Set<Long> ids) {
+        long[] values = new long[ids.size()];
+        int size = 0;
+        for (Long id : ids) {
+            values[size++] = id;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+    
+    private record Entry(TaskStatus status, TaskPriority priority, Long projectId, Long assigneeId, long[] tagIds) {
+    }
+    
+    /**
+     * Folds the per-tag rows of each task into one entry
+     */
+    private final class FacetCollector implements Consumer<TaskFacetRow> {
+        
+        private TaskFacetRow current;
+        private long[] tagIds = new long[4];
+        private int tagCount;
+        
+        @Override
+        public void accept(TaskFacetRow row) {
+            if (current != null && !current.taskId().equals(row.taskId())) {
+                flush();
+            }
+            current = row;
+            if (row.tagId() != null) {
+                if (tagCount == tagIds.length) {
+                    tagIds = Arrays.copyOf(tagIds, tagCount * 2);
+                }
+                tagIds[tagCount++] = row.tagId();
+            }
+        }
+        
+        void finish() {
+            if (current != null) {
+                flush();
+            }
+        }
+        
+        private void flush() {
+            long[] tags = tagCount == 0 ? NO_TAGS : Arrays.copyOf(tagIds, tagCount);
+            Arrays.sort(tags);
+            add(current.taskId(), new Entry(current.status(), current.priority(), current.projectId(), 
+                    current.assigneeId(), tags));
+            tagCount = 0;
+        }
+    }
+}
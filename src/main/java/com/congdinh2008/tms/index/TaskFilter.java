@@ -0,0 +1,72 @@
+package com.congdinh2008.tms.index;
+
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+
+import java.util.Objects;
+
+/**
+ * Boolean filter over indexed task attributes, evaluated by {@link TaskBitmapIndex}.
+ * <p>
+ * Filters combine freely, e.g.
+ * {@code TaskFilter.project(1L).and(TaskFilter.status(TODO).or(TaskFilter.status(IN_PROGRESS)))}.
+ */
+public sealed interface TaskFilter {
+
+    static TaskFilter all() {
+        return All.INSTANCE;
+    }
+
+    static TaskFilter status(TaskStatus status) {
+        return new StatusIs(Objects.requireNonNull(status));
+    }
+
+    static TaskFilter priority(TaskPriority priority) {
+        return new PriorityIs(Objects.requireNonNull(priority));
+    }
+
+    static TaskFilter project(Long projectId) {
+        return new ProjectIs(Objects.requireNonNull(projectId));
+    }
+
+    static TaskFilter assignee(Long userId) {
+        return new AssigneeIs(Objects.requireNonNull(userId));
+    }
+
+    static TaskFilter tag(Long tagId) {
+        return new HasTag(Objects.requireNonNull(tagId));
+    }
+
+    default TaskFilter and(TaskFilter other) {
+        return new And(this, Objects.requireNonNull(other));
+    }
+
+    default TaskFilter or(TaskFilter other) {
+        return new Or(this, Objects.requireNonNull(other));
+    }
+
+    enum All implements TaskFilter {
+        INSTANCE
+    }
+
+    record StatusIs(TaskStatus status) implements TaskFilter {
+    }
+
+    record PriorityIs(TaskPriority priority) implements TaskFilter {
+    }
+
+    record ProjectIs(Long projectId) implements TaskFilter {
+    }
+
+    record AssigneeIs(Long userId) implements TaskFilter {
+    }
+
+    record HasTag(Long tagId) implements TaskFilter {
+    }
+
+    record And(TaskFilter left, TaskFilter right) implements TaskFilter {
+    }
+
+    record Or(TaskFilter left, TaskFilter right) implements TaskFilter {
+    }
+}
@@ -0,0 +1,77 @@
+package com.congdinh2008.tms.metrics;
+
+import com.congdinh2008.tms.sql.QueryOrigin;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records the latency of every {@code *RepositoryImpl} and {@code *ServiceImpl} method in the
+ * {@link MethodMetricsRegistry}
+ * <p>
+ * Beans that are already proxied, e.g. for {@code @Transactional}, get the interceptor added in front
+ * of their existing advisors, so service latencies include the transaction commit. Other beans are
+ * wrapped in an interface-based proxy. The method is also marked as the {@link QueryOrigin} of the SQL
+ * it runs.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class MethodMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public MethodMetricsPostProcessor(MethodMetricsRegistry registry) {
+        this.advisor = new DefaultPointcutAdvisor(new InstrumentedMethodPointcut(), new MetricsInterceptor(registry));
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static final class InstrumentedMethodPointcut extends StaticMethodMatcherPointcut {
+
+        InstrumentedMethodPointcut() {
+            setClassFilter(targetClass -> {
+                String name = targetClass.getSimpleName();
+                return name.endsWith("RepositoryImpl") || name.endsWith("ServiceImpl");
+            });
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return method.getDeclaringClass() != Object.class;
+        }
+    }
+
+    private static final class MetricsInterceptor implements MethodInterceptor {
+
+        private final MethodMetricsRegistry registry;
+
+        MetricsInterceptor(MethodMetricsRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            String previousOrigin = QueryOrigin.enter(targetClass, invocation.getMethod());
+            long start = System.nanoTime();
+            Object result = null;
+            boolean failed = true;
+            try {
+                result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                registry.record(targetClass, invocation.getMethod(), System.nanoTime() - start, result, failed);
+                QueryOrigin.restore(previousOrigin);
+            }
+        }
+    }
+}
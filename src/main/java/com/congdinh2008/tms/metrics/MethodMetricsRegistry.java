@@ -0,0 +1,210 @@
+package com.congdinh2008.tms.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Latency, error and row counts per instrumented repository and service method
+ * <p>
+ * Filled by {@link MethodMetricsPostProcessor}. Methods are named after the implementation class,
+ * e.g. {@code TaskRepositoryImpl.findOverdueTasks(Long,int,int)}, so overloads and the methods every
+ * repository inherits from {@code BaseRepositoryImpl} are kept apart. The methods with the most
+ * total time are logged on an interval and once more when the context shuts down.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class MethodMetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodMetricsRegistry.class);
+
+    /**
+     * Statistics of one method since startup; latencies in nanoseconds
+     */
+    public record MethodStatistics(String method, long calls, long errors, long rows, long totalNanos,
+                                   long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+    }
+
+    private record MethodKey(Class<?> targetClass, Method method) {
+    }
+
+    private static final class MethodMetrics {
+
+        private final String name;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        private MethodMetrics(String name) {
+            this.name = name;
+        }
+    }
+
+    private final Map<MethodKey, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final long intervalSeconds;
+    private final int logLimit;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * A registry that only logs when asked to
+     */
+    public MethodMetricsRegistry() {
+        this(0, 0);
+    }
+
+    /**
+     * @param intervalSeconds seconds between logs of the slowest methods, 0 to disable
+     * @param logLimit the number of methods logged each time
+     */
+    @Autowired
+    public MethodMetricsRegistry(@Value("${tms.metrics.methods.log-interval-seconds:300}") long intervalSeconds,
+                                 @Value("${tms.metrics.methods.log-limit:20}") int logLimit) {
+        this.intervalSeconds = intervalSeconds;
+        this.logLimit = logLimit;
+    }
+
+    /**
+     * Start logging the slowest methods on the interval
+     */
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0 || logLimit <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "method-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::logSlowestMethods, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Logging the {} slowest methods every {}s", logLimit, intervalSeconds);
+    }
+
+    /**
+     * Stop the scheduled logging and log the slowest methods a last time
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (logLimit > 0) {
+            logSlowestMethods();
+        }
+    }
+
+    /**
+     * Record one call of a method
+     * @param targetClass the implementation class the method was called on
+     * @param method the method
+     * @param nanos the latency in nanoseconds
+     * @param result the returned value, used to count rows; null when the call failed
+     * @param failed whether the call threw
+     */
+    public void record(Class<?> targetClass, Method method, long nanos, Object result, boolean failed) {
+        MethodMetrics methodMetrics = metrics.computeIfAbsent(new MethodKey(targetClass, method),
+                key -> new MethodMetrics(methodName(key)));
+        methodMetrics.latencies.record(nanos);
+        if (failed) {
+            methodMetrics.errors.increment();
+        } else {
+            methodMetrics.rows.add(rowCount(result));
+        }
+    }
+
+    /**
+     * @return statistics of every method called so far, the most total time first
+     */
+    public List<MethodStatistics> getStatistics() {
+        List<MethodStatistics> statistics = new ArrayList<>();
+        for (MethodMetrics methodMetrics : metrics.values()) {
+            LatencyHistogram latencies = methodMetrics.latencies;
+            statistics.add(new MethodStatistics(methodMetrics.name, latencies.getCount(),
+                    methodMetrics.errors.sum(), methodMetrics.rows.sum(), latencies.getTotalNanos(),
+                    latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99),
+                    latencies.getValueAtPercentile(99.9), latencies.getMaxNanos()));
+        }
+        statistics.sort(Comparator.comparingLong(MethodStatistics::totalNanos).reversed());
+        return statistics;
+    }
+
+    /**
+     * Log the methods with the most total time
+     * @param limit the number of methods to log
+     */
+    public void logSlowestMethods(int limit) {
+        for (MethodStatistics method : getStatistics().stream().limit(limit).toList()) {
+            logger.info("{} - calls: {}, errors: {}, rows: {}, total: {}ms, p50: {}us, p99: {}us, p999: {}us, max: {}us",
+                    method.method(), method.calls(), method.errors(), method.rows(),
+                    TimeUnit.NANOSECONDS.toMillis(method.totalNanos()),
+                    TimeUnit.NANOSECONDS.toMicros(method.p50Nanos()), TimeUnit.NANOSECONDS.toMicros(method.p99Nanos()),
+                    TimeUnit.NANOSECONDS.toMicros(method.p999Nanos()), TimeUnit.NANOSECONDS.toMicros(method.maxNanos()));
+        }
+    }
+
+    private void logSlowestMethods() {
+        try {
+            logSlowestMethods(logLimit);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to log method metrics: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Discard all recorded metrics
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private static String methodName(MethodKey key) {
+        String parameters = Arrays.stream(key.method().getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(","));
+        return key.targetClass().getSimpleName() + "." + key.method().getName() + "(" + parameters + ")";
+    }
+
+    // Collections, maps and arrays count their elements, other results one row; counts and flags none
+    private static long rowCount(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean || result instanceof CharSequence) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Object[] array) {
+            return array.length;
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
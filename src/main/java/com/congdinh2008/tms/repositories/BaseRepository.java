@@ -1,5 +1,10 @@
 package com.congdinh2008.tms.repositories;
 
+import com.congdinh2008.tms.repositories.support.KeysetPage;
+import com.congdinh2008.tms.repositories.support.MultiLoadResult;
+import com.congdinh2008.tms.repositories.support.SortSpec;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,16 @@ public interface BaseRepository<T, ID> {
      */
     T save(T entity);
     
+    /**
+     * Save a list of new entities using JDBC batching.
+     * The session is flushed every {@code hibernate.jdbc.batch_size} entities and the flushed
+     * entities are detached, so the persistence context stays bounded for large imports.
+     * Entities referenced by the saved ones are left managed.
+     * @param entities the entities to save
+     * @return the saved (now detached) entities
+     */
+    List<T> saveAll(List<T> entities);
+    
     /**
      * Find entity by ID
      * @param id the entity ID
@@ -33,6 +48,15 @@ public interface BaseRepository<T, ID> {
      */
     Optional<T> findByIdOptional(ID id);
     
+    /**
+     * Find all entities with the given IDs using Hibernate multi-load.
+     * Entities already in the session or the second-level cache are returned without a query;
+     * the remaining IDs are loaded in chunked IN queries.
+     * @param ids the entity IDs, duplicates and nulls are ignored
+     * @return the entities found, in request order, together with all missing IDs
+     */
+    MultiLoadResult<T, ID> findAllByIds(Collection<ID> ids);
+    
     /**
      * Find all entities
      * @return list of all entities
@@ -51,12 +75,24 @@ public interface BaseRepository<T, ID> {
      * Find all entities with pagination and sorting
      * @param page the page number (0-based)
      * @param size the page size
-     * @param sortBy the field to sort by
+     * @param sortBy the field to sort by, must be one of the sortable properties
      * @param sortDir the sort direction (ASC or DESC)
      * @return list of entities for the specified page
+     * @throws IllegalArgumentException if sortBy is not a sortable property
      */
     List<T> findAll(int page, int size, String sortBy, String sortDir);
     
+    /**
+     * Find the page of entities following the given cursor using keyset (seek) pagination.
+     * Unlike offset paging, the cost does not grow with page depth.
+     * @param cursor the continuation token from the previous page, or null for the first page
+     * @param size the page size
+     * @param sortSpec the sort key and direction, the key must be one of the sortable properties
+     * @return the page with the continuation token for the next page
+     * @throws IllegalArgumentException if the sort key is not sortable or the cursor is invalid
+     */
+    KeysetPage<T> findAfter(String cursor, int size, SortSpec sortSpec);
+    
     /**
      * Update an entity
      * @param entity the entity to update
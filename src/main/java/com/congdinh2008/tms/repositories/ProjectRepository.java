@@ -1,6 +1,8 @@
 package com.congdinh2008.tms.repositories;
 
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
 import com.congdinh2008.tms.entities.Project;
+
 import java.util.List;
 
 /**
@@ -15,6 +17,23 @@ public interface ProjectRepository extends BaseRepository<Project, Long> {
      */
     List<Project> findByNameContaining(String name);
     
+    /**
+     * Find projects whose names contain or closely resemble the term, best matches first.
+     * Backed by a trigram index, intended for type-ahead lookups.
+     * @param term the (possibly misspelled) name fragment
+     * @param limit maximum number of projects to return
+     * @return matching projects ordered by similarity
+     */
+    List<Project> findByNameSimilar(String term, int limit);
+    
+    /**
+     * Check if a project with exactly this name exists, ignoring case
+     * @param name the project name
+     * @param excludedId ID of a project to ignore (e.g. the one being renamed), or null
+     * @return true if another project has the name
+     */
+    boolean existsByNameIgnoreCase(String name, Long excludedId);
+    
     /**
      * Find projects where a user is a member
      * @param userId the user ID
@@ -53,4 +72,14 @@ public interface ProjectRepository extends BaseRepository<Project, Long> {
      * @return list of projects that have overdue tasks
      */
     List<Project> findProjectsWithOverdueTasks();
+    
+    /**
+     * Read the statistics of a project from its project_stats row, which triggers on tasks
+     * keep current on every task insert, update and delete. Only the overdue count is
+     * computed, and only when the project has open tasks with a due date, through the
+     * partial overdue index.
+     * @param projectId the project ID
+     * @return project statistics; all zero when the project has no tasks
+     */
+    ProjectStatistics findStatistics(Long projectId);
 }
@@ -22,6 +22,15 @@ public interface TagRepository extends BaseRepository<Tag, Long> {
      */
     List<Tag> findByNameContaining(String name);
     
+    /**
+     * Find tags whose names contain or closely resemble the term, best matches first.
+     * Backed by a trigram index, intended for type-ahead lookups.
+     * @param term the (possibly misspelled) name fragment
+     * @param limit maximum number of tags to return
+     * @return matching tags ordered by similarity
+     */
+    List<Tag> findByNameSimilar(String term, int limit);
+    
     /**
      * Check if tag exists by name
      * @param name the tag name to check
@@ -1,12 +1,18 @@
 package com.congdinh2008.tms.repositories;
 
+import com.congdinh2008.tms.dto.projection.TaskFacetRow;
+import com.congdinh2008.tms.dto.projection.TaskTreeRow;
+import com.congdinh2008.tms.dto.response.TaskResponse;
 import com.congdinh2008.tms.dto.search.TaskSearchCriteria;
 import com.congdinh2008.tms.entities.Task;
 import com.congdinh2008.tms.enums.TaskPriority;
 import com.congdinh2008.tms.enums.TaskStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Task entity operations
@@ -47,6 +53,64 @@ public interface TaskRepository extends BaseRepository<Task, Long> {
      */
     List<Task> findOverdueTasks();
     
+    /**
+     * Find one page of overdue tasks, paginated in the database
+     * @param projectId the project ID, or null for all projects
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return overdue tasks for the page, ordered by due date
+     */
+    List<Task> findOverdueTasks(Long projectId, int page, int size);
+    
+    /**
+     * Count overdue tasks without loading them
+     * @param projectId the project ID, or null for all projects
+     * @return number of overdue tasks
+     */
+    long countOverdueTasks(Long projectId);
+    
+    /**
+     * Stream tasks by project ID without loading the whole result.
+     * Rows are scrolled forward-only using the JDBC fetch size and are detached once the
+     * action returns, so they must be treated as read-only. Called on an empty session, the
+     * session is cleared every fetch-size rows, together with what the action loaded.
+     * @param projectId the project ID
+     * @param action callback invoked for each task
+     * @return number of tasks processed
+     */
+    long forEachByProject(Long projectId, Consumer<? super Task> action);
+    
+    /**
+     * Stream tasks assigned to a specific user without loading the whole result
+     * @param userId the user ID
+     * @param action callback invoked for each task, see {@link #forEachByProject}
+     * @return number of tasks processed
+     */
+    long forEachByAssignee(Long userId, Consumer<? super Task> action);
+    
+    /**
+     * Stream tasks by status without loading the whole result
+     * @param status the task status
+     * @param action callback invoked for each task, see {@link #forEachByProject}
+     * @return number of tasks processed
+     */
+    long forEachByStatus(TaskStatus status, Consumer<? super Task> action);
+    
+    /**
+     * Stream overdue tasks without loading the whole result
+     * @param action callback invoked for each task, see {@link #forEachByProject}
+     * @return number of tasks processed
+     */
+    long forEachOverdueTask(Consumer<? super Task> action);
+    
+    /**
+     * Stream the indexed attributes of every task as scalar rows, one row per task and tag.
+     * Rows are ordered by task ID, so all rows of a task are adjacent.
+     * @param action callback invoked for each row
+     * @return number of rows processed
+     */
+    long forEachFacetRow(Consumer<? super TaskFacetRow> action);
+    
     /**
      * Find tasks with complex filters using native query
      * @param assigneeId the assignee ID (optional)
@@ -78,6 +142,64 @@ public interface TaskRepository extends BaseRepository<Task, Long> {
      */
     List<Task> findSubTasks(Long parentTaskId);
     
+    /**
+     * Find all tasks as response DTOs using a single projection query.
+     * Project, assignee and tags are populated with their identifying fields only;
+     * no entities are loaded into the persistence context.
+     * @return list of all tasks ordered by ID
+     */
+    List<TaskResponse> findAllTaskResponses();
+    
+    /**
+     * Find tasks of a project as response DTOs using a single projection query
+     * @param projectId the project ID
+     * @return list of tasks in the project, newest first
+     */
+    List<TaskResponse> findTaskResponsesByProject(Long projectId);
+    
+    /**
+     * Find tasks assigned to a user as response DTOs using a single projection query
+     * @param userId the user ID
+     * @return list of tasks assigned to the user, by due date
+     */
+    List<TaskResponse> findTaskResponsesByAssignee(Long userId);
+    
+    /**
+     * Find direct subtasks of a task as response DTOs using a single projection query
+     * @param parentTaskId the parent task ID
+     * @return list of subtasks, oldest first
+     */
+    List<TaskResponse> findSubTaskResponses(Long parentTaskId);
+    
+    /**
+     * Find a task and all of its descendants with a single lookup on the task closure table,
+     * which the database keeps in step with every insert and parent change of a task.
+     * Rows are ordered by depth, then oldest first among siblings, so every parent
+     * precedes its subtasks.
+     * @param rootId the root task ID
+     * @param maxDepth how many levels below the root to load; 0 loads the root only
+     * @return subtree rows, empty if the root does not exist
+     */
+    List<TaskTreeRow> findSubtree(Long rootId, int maxDepth);
+    
+    /**
+     * Find the current status of several tasks with a scalar query, without loading entities
+     * @param taskIds the task IDs
+     * @return status keyed by task ID; unknown IDs are absent
+     */
+    Map<Long, TaskStatus> findStatusesByIds(Collection<Long> taskIds);
+    
+    /**
+     * Set the status of several tasks with a single conditional bulk UPDATE.
+     * Tasks already in the target status are skipped. When the target status is DONE,
+     * tasks with an incomplete subtask are skipped as well (business rule R7).
+     * The version of every updated row is incremented.
+     * @param taskIds the task IDs
+     * @param status the new status
+     * @return number of tasks updated
+     */
+    int updateStatus(Collection<Long> taskIds, TaskStatus status);
+    
     /**
      * Check if setting a parent task would create a circular reference
      * @param taskId the task ID
@@ -87,7 +209,17 @@ public interface TaskRepository extends BaseRepository<Task, Long> {
     boolean isCircularReference(Long taskId, Long parentTaskId);
     
     /**
-     * Search tasks using complex criteria
+     * Find the IDs of all ancestors of a task, at any depth
+     * @param taskId the task ID
+     * @return ancestor IDs, nearest (the parent) first
+     */
+    List<Long> findAncestorIds(Long taskId);
+    
+    /**
+     * Search tasks using complex criteria.
+     * In FULL_TEXT keyword mode the keyword is matched against the indexed search vector
+     * (web search syntax, e.g. {@code "login bug" -ios}) and results are ordered by relevance,
+     * limited to the 1000 best matches; otherwise results are ordered by due date.
      * @param criteria the search criteria
      * @return list of tasks matching the criteria
      */
@@ -141,6 +273,15 @@ public interface TaskRepository extends BaseRepository<Task, Long> {
      */
     List<Object[]> findTasksWithManyChanges(Long projectId, Integer minChanges);
     
+    /**
+     * Find the IDs of a project's tasks with at least a number of history entries
+     * Counts the history of all tasks in one aggregate query
+     * @param projectId the project ID
+     * @param minChanges minimum number of history entries
+     * @return task IDs, newest task first
+     */
+    List<Long> findTaskIdsWithManyChanges(Long projectId, int minChanges);
+    
     /**
      * Find tasks by priority with project information
      * Native query for optimized data retrieval
@@ -1,7 +1,10 @@
 package com.congdinh2008.tms.repositories;
 
 import com.congdinh2008.tms.entities.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository interface for User entity operations
@@ -22,6 +25,15 @@ public interface UserRepository extends BaseRepository<User, Long> {
      */
     List<User> findByNameContaining(String name);
     
+    /**
+     * Find users whose names contain or closely resemble the term, best matches first.
+     * Backed by a trigram index, intended for type-ahead lookups.
+     * @param term the (possibly misspelled) name fragment
+     * @param limit maximum number of users to return
+     * @return matching users ordered by similarity
+     */
+    List<User> findByNameSimilar(String term, int limit);
+    
     /**
      * Check if user exists by email
      * @param email the email to check
@@ -44,6 +56,13 @@ public interface UserRepository extends BaseRepository<User, Long> {
      */
     boolean isUserMemberOfProject(Long userId, Long projectId);
     
+    /**
+     * Find the member IDs of several projects in a single query
+     * @param projectIds the project IDs
+     * @return member user IDs keyed by project ID; projects without members are absent
+     */
+    Map<Long, Set<Long>> findMemberIdsByProjectIds(Collection<Long> projectIds);
+    
     /**
      * Find users who have tasks assigned in a specific project
      * @param projectId the project ID
@@ -4,18 +4,33 @@ import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.exceptions.OptimisticLockingException;
 import com.congdinh2008.tms.exceptions.RepositoryException;
 import com.congdinh2008.tms.repositories.BaseRepository;
+import com.congdinh2008.tms.repositories.support.KeysetPage;
+import com.congdinh2008.tms.repositories.support.MultiLoadResult;
+import com.congdinh2008.tms.repositories.support.SortSpec;
 import jakarta.persistence.OptimisticLockException;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
+import org.hibernate.stat.SessionStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.lang.reflect.ParameterizedType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Base repository implementation providing common CRUD operations
@@ -30,48 +45,165 @@ public abstract class BaseRepositoryImpl<T, ID> implements BaseRepository<T, ID>
     
     protected final Class<T> entityClass;
     
+    protected final Class<ID> idClass;
+    
+    @Value("${hibernate.jdbc.fetch_size:50}")
+    protected int fetchSize = 50;
+    
+    @Value("${hibernate.jdbc.batch_size:20}")
+    protected int batchSize = 20;
+    
+    private static final String ID_PROPERTY = "id";
+    
+    private static final int MULTI_LOAD_BATCH_SIZE = 100;
+    
+    private static final Map<String, Class<?>> DEFAULT_SORTABLE_PROPERTIES = Map.of(
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class);
+    
     @SuppressWarnings("unchecked")
     public BaseRepositoryImpl() {
-        this.entityClass = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass())
-                .getActualTypeArguments()[0];
+        ParameterizedType type = (ParameterizedType) getClass().getGenericSuperclass();
+        this.entityClass = (Class<T>) type.getActualTypeArguments()[0];
+        this.idClass = (Class<ID>) type.getActualTypeArguments()[1];
     }
     
     protected Session getCurrentSession() {
         return sessionFactory.getCurrentSession();
     }
     
+    /**
+     * Scroll through a query forward-only and hand each row to the action.
+     * Rows are fetched in chunks of the JDBC fetch size (PostgreSQL only honours it inside
+     * a transaction). When the scroll starts on an empty persistence context, the session is
+     * cleared after every chunk, which also evicts the associations the action loaded, so
+     * memory use stays flat regardless of the number of matching rows. Otherwise clearing
+     * would detach the caller's own entities, and each row is only detached on its own.
+     * @param query the query to scroll
+     * @param action callback invoked for each row
+     * @return number of rows processed
+     */
+    protected long scroll(Query<T> query, Consumer<? super T> action) {
+        Session session = getCurrentSession();
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        
+        SessionStatistics statistics = session.getStatistics();
+        boolean clearable = statistics.getEntityCount() == 0 && statistics.getCollectionCount() == 0;
+        
+        long processed = 0;
+        try (ScrollableResults<T> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                T entity = results.get();
+                action.accept(entity);
+                processed++;
+                if (!clearable) {
+                    session.detach(entity);
+                } else if (processed % fetchSize == 0) {
+                    session.clear();
+                }
+            }
+        }
+        if (clearable) {
+            session.clear();
+        }
+        return processed;
+    }
+    
+    /**
+     * Build a lower-case LIKE pattern matching the term anywhere, with LIKE wildcards in the
+     * term escaped so they match literally
+     * @param term the search term
+     * @return the pattern, e.g. {@code %50\% off%} for {@code 50% OFF}
+     */
+    protected static String containsPattern(String term) {
+        String escaped = term.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+    
+    /**
+     * Whitelist of properties that may be used as sort keys, mapped to their Java type.
+     * Only non-null, indexed columns belong here; keyset predicates cannot seek past NULLs.
+     * The ID is always sortable and does not need to be listed.
+     * @return sortable property names and types
+     */
+    protected Map<String, Class<?>> getSortableProperties() {
+        return DEFAULT_SORTABLE_PROPERTIES;
+    }
+    
+    private Class<?> resolveSortKeyType(String sortKey) {
+        if (ID_PROPERTY.equals(sortKey)) {
+            return idClass;
+        }
+        Class<?> type = sortKey != null ? getSortableProperties().get(sortKey) : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unsupported sort key for " + entityClass.getSimpleName() 
+                    + ": " + sortKey);
+        }
+        return type;
+    }
+    
     @Override
     public T save(T entity) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Saving entity: {}", correlationId, entityClass.getSimpleName());
+        log.debug("Saving entity: {}", entityClass.getSimpleName());
         
         try {
             Session session = getCurrentSession();
             session.persist(entity);
-            log.info("{} - Successfully saved entity: {}", correlationId, entityClass.getSimpleName());
+            log.info("Successfully saved entity: {}", entityClass.getSimpleName());
             return entity;
         } catch (Exception e) {
-            log.error("{} - Error saving entity: {}", correlationId, e.getMessage(), e);
+            log.error("Error saving entity: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to save " + entityClass.getSimpleName(), e);
         }
     }
     
+    @Override
+    public List<T> saveAll(List<T> entities) {
+        log.debug("Saving {} entities of type {} in batches of {}", 
+                 entities.size(), entityClass.getSimpleName(), batchSize);
+        
+        try {
+            Session session = getCurrentSession();
+            int batchStart = 0;
+            for (int i = 0; i < entities.size(); i++) {
+                session.persist(entities.get(i));
+                if ((i + 1) % batchSize == 0 || i == entities.size() - 1) {
+                    session.flush();
+                    // Detach only this batch; referenced entities stay managed for the next one
+                    for (T entity : entities.subList(batchStart, i + 1)) {
+                        session.detach(entity);
+                    }
+                    batchStart = i + 1;
+                }
+            }
+            log.info("Successfully saved {} entities: {}", entities.size(), 
+                    entityClass.getSimpleName());
+            return entities;
+        } catch (Exception e) {
+            log.error("Error saving entities: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to save " + entityClass.getSimpleName() + " batch", e);
+        }
+    }
+    
     @Override
     public T findById(ID id) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding {} by id: {}", correlationId, entityClass.getSimpleName(), id);
+        log.debug("Finding {} by id: {}", entityClass.getSimpleName(), id);
         
         try {
             Session session = getCurrentSession();
             T entity = session.get(entityClass, id);
             if (entity != null) {
-                log.debug("{} - Found entity: {}", correlationId, entityClass.getSimpleName());
+                log.debug("Found entity: {}", entityClass.getSimpleName());
             } else {
-                log.debug("{} - Entity not found: {} with id: {}", correlationId, entityClass.getSimpleName(), id);
+                log.debug("Entity not found: {} with id: {}", entityClass.getSimpleName(), id);
             }
             return entity;
         } catch (Exception e) {
-            log.error("{} - Error finding entity by id: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding entity by id: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find " + entityClass.getSimpleName() + " by id", e);
         }
     }
@@ -81,29 +213,57 @@ public abstract class BaseRepositoryImpl<T, ID> implements BaseRepository<T, ID>
         return Optional.ofNullable(findById(id));
     }
     
+    @Override
+    public MultiLoadResult<T, ID> findAllByIds(Collection<ID> ids) {
+        log.debug("Finding {} by {} ids", entityClass.getSimpleName(), ids.size());
+        
+        List<ID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return MultiLoadResult.empty();
+        }
+        
+        try {
+            Session session = getCurrentSession();
+            // Entities already in the session or the second-level cache are not queried again;
+            // the rest are loaded with one IN query per chunk
+            List<T> loaded = session.byMultipleIds(entityClass)
+                    .with(CacheMode.NORMAL)
+                    .enableSessionCheck(true)
+                    .enableOrderedReturn(true)
+                    .withBatchSize(MULTI_LOAD_BATCH_SIZE)
+                    .multiLoad(distinctIds);
+            MultiLoadResult<T, ID> result = new MultiLoadResult<>(distinctIds, loaded);
+            log.debug("Found {} of {} requested entities", 
+                     distinctIds.size() - result.getMissingIds().size(), distinctIds.size());
+            return result;
+        } catch (Exception e) {
+            log.error("Error finding entities by ids: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find " + entityClass.getSimpleName() + " by ids", e);
+        }
+    }
+    
     @Override
     public List<T> findAll() {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding all {}", correlationId, entityClass.getSimpleName());
+        log.debug("Finding all {}", entityClass.getSimpleName());
         
         try {
             Session session = getCurrentSession();
             String hql = "FROM " + entityClass.getSimpleName();
             Query<T> query = session.createQuery(hql, entityClass);
             List<T> results = query.getResultList();
-            log.debug("{} - Found {} entities", correlationId, results.size());
+            log.debug("Found {} entities", results.size());
             return results;
         } catch (Exception e) {
-            log.error("{} - Error finding all entities: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding all entities: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find all " + entityClass.getSimpleName(), e);
         }
     }
     
     @Override
     public List<T> findAll(int page, int size) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding {} with pagination: page={}, size={}", 
-                 correlationId, entityClass.getSimpleName(), page, size);
+        log.debug("Finding {} with pagination: page={}, size={}", 
+                 entityClass.getSimpleName(), page, size);
         
         try {
             Session session = getCurrentSession();
@@ -112,74 +272,131 @@ public abstract class BaseRepositoryImpl<T, ID> implements BaseRepository<T, ID>
             query.setFirstResult(page * size);
             query.setMaxResults(size);
             List<T> results = query.getResultList();
-            log.debug("{} - Found {} entities for page {}", correlationId, results.size(), page);
+            log.debug("Found {} entities for page {}", results.size(), page);
             return results;
         } catch (Exception e) {
-            log.error("{} - Error finding entities with pagination: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding entities with pagination: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find " + entityClass.getSimpleName() + " with pagination", e);
         }
     }
     
     @Override
     public List<T> findAll(int page, int size, String sortBy, String sortDir) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding {} with pagination and sorting: page={}, size={}, sortBy={}, sortDir={}", 
-                 correlationId, entityClass.getSimpleName(), page, size, sortBy, sortDir);
+        log.debug("Finding {} with pagination and sorting: page={}, size={}, sortBy={}, sortDir={}", 
+                 entityClass.getSimpleName(), page, size, sortBy, sortDir);
+        resolveSortKeyType(sortBy);
         
         try {
             Session session = getCurrentSession();
             String direction = "DESC".equalsIgnoreCase(sortDir) ? "DESC" : "ASC";
-            String hql = "FROM " + entityClass.getSimpleName() + " ORDER BY " + sortBy + " " + direction;
+            String hql = "FROM " + entityClass.getSimpleName() + " e ORDER BY e." + sortBy + " " + direction 
+                    + ", e.id " + direction;
             Query<T> query = session.createQuery(hql, entityClass);
             query.setFirstResult(page * size);
             query.setMaxResults(size);
             List<T> results = query.getResultList();
-            log.debug("{} - Found {} entities for page {} with sorting", correlationId, results.size(), page);
+            log.debug("Found {} entities for page {} with sorting", results.size(), page);
             return results;
         } catch (Exception e) {
-            log.error("{} - Error finding entities with pagination and sorting: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding entities with pagination and sorting: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find " + entityClass.getSimpleName() + " with pagination and sorting", e);
         }
     }
     
+    @Override
+    public KeysetPage<T> findAfter(String cursor, int size, SortSpec sortSpec) {
+        log.debug("Finding {} with keyset pagination: size={}, sort={}, hasCursor={}", 
+                 entityClass.getSimpleName(), size, sortSpec, cursor != null);
+        
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        String sortKey = sortSpec.getKey();
+        Class<?> sortKeyType = resolveSortKeyType(sortKey);
+        KeysetCursor position = cursor != null 
+                ? KeysetCursor.decode(cursor, sortSpec, sortKeyType, idClass) 
+                : null;
+        boolean sortById = ID_PROPERTY.equals(sortKey);
+        
+        try {
+            Session session = getCurrentSession();
+            String direction = sortSpec.isDescending() ? "DESC" : "ASC";
+            String comparison = sortSpec.isDescending() ? "<" : ">";
+            
+            StringBuilder hql = new StringBuilder("FROM ").append(entityClass.getSimpleName()).append(" e");
+            if (position != null) {
+                // Row-value comparison lets the database seek on the (sortKey, id) index
+                hql.append(sortById 
+                        ? " WHERE e.id " + comparison + " :lastId" 
+                        : " WHERE (e." + sortKey + ", e.id) " + comparison + " (:lastValue, :lastId)");
+            }
+            hql.append(" ORDER BY e.").append(sortKey).append(' ').append(direction);
+            if (!sortById) {
+                hql.append(", e.id ").append(direction);
+            }
+            
+            Query<T> query = session.createQuery(hql.toString(), entityClass);
+            if (position != null) {
+                query.setParameter("lastId", position.getId());
+                if (!sortById) {
+                    query.setParameter("lastValue", position.getValue());
+                }
+            }
+            // Fetch one extra row to find out whether another page exists
+            query.setMaxResults(size + 1);
+            List<T> rows = query.getResultList();
+            
+            boolean hasNext = rows.size() > size;
+            List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+            String nextCursor = null;
+            if (hasNext) {
+                BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(content.get(content.size() - 1));
+                nextCursor = KeysetCursor.encode(sortSpec, last.getPropertyValue(sortKey), 
+                        last.getPropertyValue(ID_PROPERTY));
+            }
+            log.debug("Found {} entities with keyset pagination, hasNext={}", content.size(), hasNext);
+            return new KeysetPage<>(content, nextCursor);
+        } catch (Exception e) {
+            log.error("Error finding entities with keyset pagination: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find " + entityClass.getSimpleName() + " with keyset pagination", e);
+        }
+    }
+    
     @Override
     public T update(T entity) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Updating entity: {}", correlationId, entityClass.getSimpleName());
+        log.debug("Updating entity: {}", entityClass.getSimpleName());
         
         try {
             Session session = getCurrentSession();
             T updated = session.merge(entity);
-            log.info("{} - Successfully updated entity: {}", correlationId, entityClass.getSimpleName());
+            log.info("Successfully updated entity: {}", entityClass.getSimpleName());
             return updated;
         } catch (OptimisticLockException e) {
-            log.error("{} - Optimistic locking failure: {}", correlationId, e.getMessage());
+            log.error("Optimistic locking failure: {}", e.getMessage());
             throw new OptimisticLockingException(entityClass.getSimpleName(), "unknown");
         } catch (Exception e) {
-            log.error("{} - Error updating entity: {}", correlationId, e.getMessage(), e);
+            log.error("Error updating entity: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to update " + entityClass.getSimpleName(), e);
         }
     }
     
     @Override
     public void delete(T entity) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Deleting entity: {}", correlationId, entityClass.getSimpleName());
+        log.debug("Deleting entity: {}", entityClass.getSimpleName());
         
         try {
             Session session = getCurrentSession();
             session.remove(entity);
-            log.info("{} - Successfully deleted entity: {}", correlationId, entityClass.getSimpleName());
+            log.info("Successfully deleted entity: {}", entityClass.getSimpleName());
         } catch (Exception e) {
-            log.error("{} - Error deleting entity: {}", correlationId, e.getMessage(), e);
+            log.error("Error deleting entity: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to delete " + entityClass.getSimpleName(), e);
         }
     }
     
     @Override
     public void deleteById(ID id) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Deleting {} by id: {}", correlationId, entityClass.getSimpleName(), id);
+        log.debug("Deleting {} by id: {}", entityClass.getSimpleName(), id);
         
         T entity = findById(id);
         if (entity == null) {
@@ -190,26 +407,24 @@ public abstract class BaseRepositoryImpl<T, ID> implements BaseRepository<T, ID>
     
     @Override
     public long count() {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Counting {}", correlationId, entityClass.getSimpleName());
+        log.debug("Counting {}", entityClass.getSimpleName());
         
         try {
             Session session = getCurrentSession();
             String hql = "SELECT COUNT(*) FROM " + entityClass.getSimpleName();
             Query<Long> query = session.createQuery(hql, Long.class);
             Long count = query.getSingleResult();
-            log.debug("{} - Count result: {}", correlationId, count);
+            log.debug("Count result: {}", count);
             return count;
         } catch (Exception e) {
-            log.error("{} - Error counting entities: {}", correlationId, e.getMessage(), e);
+            log.error("Error counting entities: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to count " + entityClass.getSimpleName(), e);
         }
     }
     
     @Override
     public boolean existsById(ID id) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Checking existence of {} by id: {}", correlationId, entityClass.getSimpleName(), id);
+        log.debug("Checking existence of {} by id: {}", entityClass.getSimpleName(), id);
         
         try {
             Session session = getCurrentSession();
@@ -218,10 +433,10 @@ public abstract class BaseRepositoryImpl<T, ID> implements BaseRepository<T, ID>
             query.setParameter("id", id);
             Long count = query.getSingleResult();
             boolean exists = count > 0;
-            log.debug("{} - Entity exists: {}", correlationId, exists);
+            log.debug("Entity exists: {}", exists);
             return exists;
         } catch (Exception e) {
-            log.error("{} - Error checking entity existence: {}", correlationId, e.getMessage(), e);
+            log.error("Error checking entity existence: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to check existence of " + entityClass.getSimpleName(), e);
         }
     }
@@ -0,0 +1,104 @@
+package com.congdinh2008.tms.repositories.impl;
+
+import com.congdinh2008.tms.repositories.support.SortSpec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ * Encodes the sort specification together with the sort value and ID of the last row
+ * of a page, so the next page can seek directly past it.
+ */
+final class KeysetCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final int PART_COUNT = 5;
+
+    private final Object value;
+    private final Object id;
+
+    private KeysetCursor(Object value, Object id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    Object getId() {
+        return id;
+    }
+
+    /**
+     * Encode the position of the last row of a page
+     * @param sortSpec the sort specification used for the page
+     * @param value the sort key value of the last row
+     * @param id the ID of the last row
+     * @return the opaque cursor token
+     */
+    static String encode(SortSpec sortSpec, Object value, Object id) {
+        String raw = String.join(SEPARATOR,
+                VERSION,
+                sortSpec.getKey(),
+                sortSpec.getDirection().name(),
+                String.valueOf(id),
+                String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token previously produced by {@link #encode}
+     * @param token the cursor token
+     * @param sortSpec the sort specification of the current request
+     * @param valueType the Java type of the sort key
+     * @param idType the Java type of the entity ID
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort
+     */
+    static KeysetCursor decode(String token, SortSpec sortSpec, Class<?> valueType, Class<?> idType) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed pagination cursor", e);
+        }
+
+        String[] parts = raw.split("\\" + SEPARATOR, PART_COUNT);
+        if (parts.length != PART_COUNT || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed pagination cursor");
+        }
+        if (!sortSpec.getKey().equals(parts[1]) || !sortSpec.getDirection().name().equals(parts[2])) {
+            throw new IllegalArgumentException("Pagination cursor was issued for a different sort: " + parts[1] + " " + parts[2]);
+        }
+
+        try {
+            return new KeysetCursor(convert(parts[4], valueType), convert(parts[3], idType));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed pagination cursor", e);
+        }
+    }
+
+    private static Object convert(String text, Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(text);
+        }
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(text);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(text);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(text);
+        }
+        if (type == String.class) {
+            return text;
+        }
+        throw new IllegalArgumentException("Unsupported cursor value type: " + type.getName());
+    }
+}
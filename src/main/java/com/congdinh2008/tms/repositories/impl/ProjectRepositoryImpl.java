@@ -1,16 +1,23 @@
 package com.congdinh2008.tms.repositories.impl;
 
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
 import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
 import com.congdinh2008.tms.exceptions.RepositoryException;
 import com.congdinh2008.tms.repositories.ProjectRepository;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 /**
  * Implementation of ProjectRepository interface
@@ -24,10 +31,34 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
         super();
     }
     
+    private static final String PROJECT_STATS_TABLE = "project_stats";
+    
+    // Same condition as the overdue task queries, so the partial overdue index serves it
+    private static final String FIND_STATISTICS_SQL = """
+            SELECT s.total_tasks, s.done_tasks, s.in_progress_tasks,
+                   CASE WHEN s.overdue_eligible_tasks > 0 THEN (
+                       SELECT COUNT(*) FROM tasks t
+                       WHERE t.project_id = s.project_id
+                         AND t.due_date <= CURRENT_DATE
+                         AND t.status IN ('TODO', 'IN_PROGRESS'))
+                   ELSE 0 END AS overdue_tasks
+            FROM project_stats s
+            WHERE s.project_id = :projectId""";
+    
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class,
+            "name", String.class,
+            "startDate", LocalDate.class);
+    
+    @Override
+    protected Map<String, Class<?>> getSortableProperties() {
+        return SORTABLE_PROPERTIES;
+    }
+    
     @Override
     public List<Project> findByNameContaining(String name) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding projects by name containing: {}", correlationId, name);
+        logger.debug("Finding projects by name containing: {}", name);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -36,18 +67,67 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
             query.setParameter("name", "%" + name + "%");
             
             List<Project> results = query.getResultList();
-            logger.debug("[{}] Found {} projects by name containing: {}", correlationId, results.size(), name);
+            logger.debug("Found {} projects by name containing: {}", results.size(), name);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding projects by name containing: {}", correlationId, name, e);
+            logger.error("Error finding projects by name containing: {}", name, e);
             throw new RepositoryException("Error finding projects by name containing", e);
         }
     }
     
+    @Override
+    public List<Project> findByNameSimilar(String term, int limit) {
+        logger.debug("Finding up to {} projects with name similar to: {}", limit, term);
+        
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            // Both predicates are served by the trigram index on lower(name)
+            Query<Project> query = session.createNativeQuery("""
+                SELECT p.* FROM projects p
+                WHERE lower(p.name) LIKE :pattern OR :term <% lower(p.name)
+                ORDER BY word_similarity(:term, lower(p.name)) DESC, p.name
+                LIMIT :limit
+                """, Project.class);
+            query.setParameter("pattern", containsPattern(term));
+            query.setParameter("term", term.toLowerCase());
+            query.setParameter("limit", limit);
+            
+            List<Project> results = query.getResultList();
+            logger.debug("Found {} projects with name similar to: {}", results.size(), term);
+            return results;
+        } catch (Exception e) {
+            logger.error("Error finding projects by similar name: {}", term, e);
+            throw new RepositoryException("Error finding projects by similar name", e);
+        }
+    }
+    
+    @Override
+    public boolean existsByNameIgnoreCase(String name, Long excludedId) {
+        logger.debug("Checking if project exists by name (ignoring case): {}", name);
+        
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            String hql = "SELECT p.id FROM Project p WHERE LOWER(p.name) = LOWER(:name)"
+                    + (excludedId != null ? " AND p.id <> :excludedId" : "");
+            Query<Long> query = session.createQuery(hql, Long.class);
+            query.setParameter("name", name);
+            if (excludedId != null) {
+                query.setParameter("excludedId", excludedId);
+            }
+            query.setMaxResults(1);
+            
+            boolean exists = !query.getResultList().isEmpty();
+            logger.debug("Project exists by name {}: {}", name, exists);
+            return exists;
+        } catch (Exception e) {
+            logger.error("Error checking if project exists by name: {}", name, e);
+            throw new RepositoryException("Error checking if project exists by name", e);
+        }
+    }
+    
     @Override
     public List<Project> findProjectsByUser(Long userId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding projects by user ID: {}", correlationId, userId);
+        logger.debug("Finding projects by user ID: {}", userId);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -57,18 +137,17 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
             query.setParameter("userId", userId);
             
             List<Project> results = query.getResultList();
-            logger.debug("[{}] Found {} projects for user ID: {}", correlationId, results.size(), userId);
+            logger.debug("Found {} projects for user ID: {}", results.size(), userId);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding projects by user ID: {}", correlationId, userId, e);
+            logger.error("Error finding projects by user ID: {}", userId, e);
             throw new RepositoryException("Error finding projects by user ID", e);
         }
     }
     
     @Override
     public boolean hasIncompleteTasks(Long projectId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Checking if project has incomplete tasks: {}", correlationId, projectId);
+        logger.debug("Checking if project has incomplete tasks: {}", projectId);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -80,19 +159,18 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
             Long count = query.uniqueResult();
             boolean hasIncompleteTasks = count != null && count > 0;
             
-            logger.debug("[{}] Project ID: {} has incomplete tasks: {} (count: {})", 
-                correlationId, projectId, hasIncompleteTasks, count);
+            logger.debug("Project ID: {} has incomplete tasks: {} (count: {})", 
+                projectId, hasIncompleteTasks, count);
             return hasIncompleteTasks;
         } catch (Exception e) {
-            logger.error("[{}] Error checking if project has incomplete tasks: {}", correlationId, projectId, e);
+            logger.error("Error checking if project has incomplete tasks: {}", projectId, e);
             throw new RepositoryException("Error checking if project has incomplete tasks", e);
         }
     }
     
     @Override
     public List<Object[]> findProjectsWithTaskCount() {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding projects with task count", correlationId);
+        logger.debug("Finding projects with task count");
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -112,32 +190,30 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
             Query<Object[]> query = session.createNativeQuery(sql, Object[].class);
             List<Object[]> results = query.getResultList();
             
-            logger.debug("[{}] Found {} projects with task count", correlationId, results.size());
+            logger.debug("Found {} projects with task count", results.size());
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding projects with task count", correlationId, e);
+            logger.error("Error finding projects with task count", e);
             throw new RepositoryException("Error finding projects with task count", e);
         }
     }
     
     @Override
     public boolean canDeleteProject(Long projectId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Checking if project can be deleted: {}", correlationId, projectId);
+        logger.debug("Checking if project can be deleted: {}", projectId);
         
         try {
             // Business Rule R1: Project can only be deleted if it has no tasks
             return !hasIncompleteTasks(projectId);
         } catch (Exception e) {
-            logger.error("[{}] Error checking if project can be deleted: {}", correlationId, projectId, e);
+            logger.error("Error checking if project can be deleted: {}", projectId, e);
             throw new RepositoryException("Error checking if project can be deleted", e);
         }
     }
     
     @Override
     public List<Project> findActiveProjects() {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding active projects", correlationId);
+        logger.debug("Finding active projects");
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -146,18 +222,17 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
                 Project.class);
             
             List<Project> results = query.getResultList();
-            logger.debug("[{}] Found {} active projects", correlationId, results.size());
+            logger.debug("Found {} active projects", results.size());
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding active projects", correlationId, e);
+            logger.error("Error finding active projects", e);
             throw new RepositoryException("Error finding active projects", e);
         }
     }
     
     @Override
     public List<Project> findProjectsWithOverdueTasks() {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding projects with overdue tasks", correlationId);
+        logger.debug("Finding projects with overdue tasks");
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -166,11 +241,46 @@ public class ProjectRepositoryImpl extends BaseRepositoryImpl<Project, Long> imp
                 Project.class);
             
             List<Project> results = query.getResultList();
-            logger.debug("[{}] Found {} projects with overdue tasks", correlationId, results.size());
+            logger.debug("Found {} projects with overdue tasks", results.size());
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding projects with overdue tasks", correlationId, e);
+            logger.error("Error finding projects with overdue tasks", e);
             throw new RepositoryException("Error finding projects with overdue tasks", e);
         }
     }
+    
+    @Override
+    public ProjectStatistics findStatistics(Long projectId) {
+        logger.debug("Finding statistics for project ID: {}", projectId);
+        
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            // The counters are written by triggers on tasks, so pending task changes are flushed first
+            NativeQuery<Object[]> query = session.createNativeQuery(FIND_STATISTICS_SQL, Object[].class)
+                    .addSynchronizedQuerySpace(PROJECT_STATS_TABLE)
+                    .addSynchronizedEntityClass(Task.class);
+            query.setParameter("projectId", projectId);
+            
+            List<Object[]> rows = query.getResultList();
+            if (rows.isEmpty()) {
+                logger.debug("No statistics row for project ID: {}", projectId);
+                return new ProjectStatistics(0L, 0L, 0L, 0L, BigDecimal.ZERO);
+            }
+            Object[] row = rows.get(0);
+            long total = ((Number) row[0]).longValue();
+            long done = ((Number) row[1]).longValue();
+            BigDecimal completionRate = total > 0
+                    ? BigDecimal.valueOf(done * 100).divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            ProjectStatistics statistics = new ProjectStatistics(total, done, ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(), completionRate);
+            
+            logger.debug("Found statistics for project ID: {}: {} total, {} done", 
+                projectId, total, done);
+            return statistics;
+        } catch (Exception e) {
+            logger.error("Error finding statistics for project ID: {}", projectId, e);
+            throw new RepositoryException("Error finding project statistics", e);
+        }
+    }
 }
@@ -9,8 +9,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 /**
  * Implementation of TagRepository interface
@@ -24,10 +25,19 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
         super();
     }
     
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class,
+            "name", String.class);
+    
+    @Override
+    protected Map<String, Class<?>> getSortableProperties() {
+        return SORTABLE_PROPERTIES;
+    }
+    
     @Override
     public Tag findByName(String name) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding tag by name: {}", correlationId, name);
+        logger.debug("Finding tag by name: {}", name);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -36,18 +46,17 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
             query.setParameter("name", name);
             
             Tag result = query.uniqueResult();
-            logger.debug("[{}] Found tag by name: {}", correlationId, result != null);
+            logger.debug("Found tag by name: {}", result != null);
             return result;
         } catch (Exception e) {
-            logger.error("[{}] Error finding tag by name: {}", correlationId, name, e);
+            logger.error("Error finding tag by name: {}", name, e);
             throw new RepositoryException("Error finding tag by name", e);
         }
     }
     
     @Override
     public List<Tag> findByNameContaining(String name) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding tags by name containing: {}", correlationId, name);
+        logger.debug("Finding tags by name containing: {}", name);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -56,18 +65,43 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
             query.setParameter("name", "%" + name + "%");
             
             List<Tag> results = query.getResultList();
-            logger.debug("[{}] Found {} tags by name containing: {}", correlationId, results.size(), name);
+            logger.debug("Found {} tags by name containing: {}", results.size(), name);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding tags by name containing: {}", correlationId, name, e);
+            logger.error("Error finding tags by name containing: {}", name, e);
             throw new RepositoryException("Error finding tags by name containing", e);
         }
     }
     
+    @Override
+    public List<Tag> findByNameSimilar(String term, int limit) {
+        logger.debug("Finding up to {} tags with name similar to: {}", limit, term);
+        
+        try {
+            Session session = sessionFactory.getCurrentSession();
+            // Both predicates are served by the trigram index on lower(name)
+            Query<Tag> query = session.createNativeQuery("""
+                SELECT t.* FROM tags t
+                WHERE lower(t.name) LIKE :pattern OR :term <% lower(t.name)
+                ORDER BY word_similarity(:term, lower(t.name)) DESC, t.name
+                LIMIT :limit
+                """, Tag.class);
+            query.setParameter("pattern", containsPattern(term));
+            query.setParameter("term", term.toLowerCase());
+            query.setParameter("limit", limit);
+            
+            List<Tag> results = query.getResultList();
+            logger.debug("Found {} tags with name similar to: {}", results.size(), term);
+            return results;
+        } catch (Exception e) {
+            logger.error("Error finding tags by similar name: {}", term, e);
+            throw new RepositoryException("Error finding tags by similar name", e);
+        }
+    }
+    
     @Override
     public boolean existsByName(String name) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Checking if tag exists by name: {}", correlationId, name);
+        logger.debug("Checking if tag exists by name: {}", name);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -77,18 +111,17 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
             
             Long count = query.uniqueResult();
             boolean exists = count != null && count > 0;
-            logger.debug("[{}] Tag exists by name {}: {}", correlationId, name, exists);
+            logger.debug("Tag exists by name {}: {}", name, exists);
             return exists;
         } catch (Exception e) {
-            logger.error("[{}] Error checking if tag exists by name: {}", correlationId, name, e);
+            logger.error("Error checking if tag exists by name: {}", name, e);
             throw new RepositoryException("Error checking if tag exists by name", e);
         }
     }
     
     @Override
     public List<Tag> findPopularTags(int limit) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding {} popular tags", correlationId, limit);
+        logger.debug("Finding {} popular tags", limit);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -120,24 +153,23 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
                 })
                 .toList();
             
-            logger.debug("[{}] Found {} popular tags", correlationId, tags.size());
+            logger.debug("Found {} popular tags", tags.size());
             return tags;
         } catch (Exception e) {
-            logger.error("[{}] Error finding popular tags", correlationId, e);
+            logger.error("Error finding popular tags", e);
             throw new RepositoryException("Error finding popular tags", e);
         }
     }
     
     @Override
     public Tag findOrCreate(String tagName) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding or creating tag: {}", correlationId, tagName);
+        logger.debug("Finding or creating tag: {}", tagName);
         
         try {
             // First try to find existing tag
             Tag existingTag = findByName(tagName);
             if (existingTag != null) {
-                logger.debug("[{}] Found existing tag: {}", correlationId, tagName);
+                logger.debug("Found existing tag: {}", tagName);
                 return existingTag;
             }
             
@@ -146,18 +178,17 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
             newTag.setName(tagName);
             
             Tag savedTag = save(newTag);
-            logger.debug("[{}] Created new tag: {} with ID: {}", correlationId, tagName, savedTag.getId());
+            logger.debug("Created new tag: {} with ID: {}", tagName, savedTag.getId());
             return savedTag;
         } catch (Exception e) {
-            logger.error("[{}] Error finding or creating tag: {}", correlationId, tagName, e);
+            logger.error("Error finding or creating tag: {}", tagName, e);
             throw new RepositoryException("Error finding or creating tag", e);
         }
     }
     
     @Override
     public List<Object[]> getTagUsageStatistics() {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Getting tag usage statistics", correlationId);
+        logger.debug("Getting tag usage statistics");
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -172,10 +203,10 @@ public class TagRepositoryImpl extends BaseRepositoryImpl<Tag, Long> implements
             Query<Object[]> query = session.createNativeQuery(sql, Object[].class);
             List<Object[]> results = query.getResultList();
             
-            logger.debug("[{}] Retrieved usage statistics for {} tags", correlationId, results.size());
+            logger.debug("Retrieved usage statistics for {} tags", results.size());
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error getting tag usage statistics", correlationId, e);
+            logger.error("Error getting tag usage statistics", e);
             throw new RepositoryException("Error getting tag usage statistics", e);
         }
     }
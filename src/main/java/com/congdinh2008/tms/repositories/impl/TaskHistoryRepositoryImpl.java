@@ -11,7 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 /**
  * Implementation of TaskHistoryRepository interface
@@ -25,10 +25,19 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
         super();
     }
     
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class,
+            "changeDate", LocalDateTime.class);
+    
+    @Override
+    protected Map<String, Class<?>> getSortableProperties() {
+        return SORTABLE_PROPERTIES;
+    }
+    
     @Override
     public List<TaskHistory> findByTaskIdOrderByTimestampDesc(Long taskId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding task history by task ID: {}", correlationId, taskId);
+        logger.debug("Finding task history by task ID: {}", taskId);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -38,19 +47,18 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("taskId", taskId);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} task history entries for task ID: {}", 
-                correlationId, results.size(), taskId);
+            logger.debug("Found {} task history entries for task ID: {}", 
+                results.size(), taskId);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding task history by task ID: {}", correlationId, taskId, e);
+            logger.error("Error finding task history by task ID: {}", taskId, e);
             throw new RepositoryException("Error finding task history by task ID", e);
         }
     }
     
     @Override
     public List<TaskHistory> findByUserIdOrderByTimestampDesc(Long userId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding task history by user ID: {}", correlationId, userId);
+        logger.debug("Finding task history by user ID: {}", userId);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -60,20 +68,19 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("userId", userId);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} task history entries for user ID: {}", 
-                correlationId, results.size(), userId);
+            logger.debug("Found {} task history entries for user ID: {}", 
+                results.size(), userId);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding task history by user ID: {}", correlationId, userId, e);
+            logger.error("Error finding task history by user ID: {}", userId, e);
             throw new RepositoryException("Error finding task history by user ID", e);
         }
     }
     
     @Override
     public List<TaskHistory> findByTaskIdAndUserId(Long taskId, Long userId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding task history by task ID: {} and user ID: {}", 
-            correlationId, taskId, userId);
+        logger.debug("Finding task history by task ID: {} and user ID: {}", 
+            taskId, userId);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -84,20 +91,19 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("userId", userId);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} task history entries for task ID: {} and user ID: {}", 
-                correlationId, results.size(), taskId, userId);
+            logger.debug("Found {} task history entries for task ID: {} and user ID: {}", 
+                results.size(), taskId, userId);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding task history by task ID: {} and user ID: {}", 
-                correlationId, taskId, userId, e);
+            logger.error("Error finding task history by task ID: {} and user ID: {}", 
+                taskId, userId, e);
             throw new RepositoryException("Error finding task history by task and user", e);
         }
     }
     
     @Override
     public List<TaskHistory> findByTimestampBetween(LocalDateTime startDate, LocalDateTime endDate) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding task history between {} and {}", correlationId, startDate, endDate);
+        logger.debug("Finding task history between {} and {}", startDate, endDate);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -108,19 +114,18 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("endDate", endDate);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} task history entries between {} and {}", 
-                correlationId, results.size(), startDate, endDate);
+            logger.debug("Found {} task history entries between {} and {}", 
+                results.size(), startDate, endDate);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding task history between dates", correlationId, e);
+            logger.error("Error finding task history between dates", e);
             throw new RepositoryException("Error finding task history between dates", e);
         }
     }
     
     @Override
     public List<TaskHistory> findRecentHistory(int limit) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding {} recent task history entries", correlationId, limit);
+        logger.debug("Finding {} recent task history entries", limit);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -129,18 +134,17 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setMaxResults(limit);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} recent task history entries", correlationId, results.size());
+            logger.debug("Found {} recent task history entries", results.size());
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding recent task history", correlationId, e);
+            logger.error("Error finding recent task history", e);
             throw new RepositoryException("Error finding recent task history", e);
         }
     }
     
     @Override
     public List<TaskHistory> findByChangeType(String changeType) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding task history by change type: {}", correlationId, changeType);
+        logger.debug("Finding task history by change type: {}", changeType);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -150,19 +154,18 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("changeType", changeType);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} task history entries for change type: {}", 
-                correlationId, results.size(), changeType);
+            logger.debug("Found {} task history entries for change type: {}", 
+                results.size(), changeType);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding task history by change type: {}", correlationId, changeType, e);
+            logger.error("Error finding task history by change type: {}", changeType, e);
             throw new RepositoryException("Error finding task history by change type", e);
         }
     }
     
     @Override
     public List<TaskHistory> findByTaskIdIn(List<Long> taskIds) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Finding task history for {} tasks", correlationId, taskIds.size());
+        logger.debug("Finding task history for {} tasks", taskIds.size());
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -172,20 +175,19 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("taskIds", taskIds);
             
             List<TaskHistory> results = query.getResultList();
-            logger.debug("[{}] Found {} task history entries for {} tasks", 
-                correlationId, results.size(), taskIds.size());
+            logger.debug("Found {} task history entries for {} tasks", 
+                results.size(), taskIds.size());
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error finding task history for multiple tasks", correlationId, e);
+            logger.error("Error finding task history for multiple tasks", e);
             throw new RepositoryException("Error finding task history for multiple tasks", e);
         }
     }
     
     @Override
     public List<Object[]> getUserActivityStatistics(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Getting user activity statistics for user: {} between {} and {}", 
-            correlationId, userId, startDate, endDate);
+        logger.debug("Getting user activity statistics for user: {} between {} and {}", 
+            userId, startDate, endDate);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -207,19 +209,18 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("endDate", endDate);
             
             List<Object[]> results = query.getResultList();
-            logger.debug("[{}] Retrieved activity statistics: {} entries for user: {}", 
-                correlationId, results.size(), userId);
+            logger.debug("Retrieved activity statistics: {} entries for user: {}", 
+                results.size(), userId);
             return results;
         } catch (Exception e) {
-            logger.error("[{}] Error getting user activity statistics for user: {}", correlationId, userId, e);
+            logger.error("Error getting user activity statistics for user: {}", userId, e);
             throw new RepositoryException("Error getting user activity statistics", e);
         }
     }
     
     @Override
     public Long getTaskChangeCount(Long taskId) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Getting change count for task ID: {}", correlationId, taskId);
+        logger.debug("Getting change count for task ID: {}", taskId);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -228,18 +229,17 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("taskId", taskId);
             
             Long count = query.uniqueResult();
-            logger.debug("[{}] Task ID: {} has {} changes", correlationId, taskId, count);
+            logger.debug("Task ID: {} has {} changes", taskId, count);
             return count != null ? count : 0L;
         } catch (Exception e) {
-            logger.error("[{}] Error getting task change count for task ID: {}", correlationId, taskId, e);
+            logger.error("Error getting task change count for task ID: {}", taskId, e);
             throw new RepositoryException("Error getting task change count", e);
         }
     }
     
     @Override
     public int deleteOldHistory(LocalDateTime beforeDate) {
-        String correlationId = UUID.randomUUID().toString().substring(0, 8);
-        logger.debug("[{}] Deleting task history before: {}", correlationId, beforeDate);
+        logger.debug("Deleting task history before: {}", beforeDate);
         
         try {
             Session session = sessionFactory.getCurrentSession();
@@ -248,11 +248,11 @@ public class TaskHistoryRepositoryImpl extends BaseRepositoryImpl<TaskHistory, L
             query.setParameter("beforeDate", beforeDate);
             
             int deletedCount = query.executeUpdate();
-            logger.debug("[{}] Deleted {} old task history entries before: {}", 
-                correlationId, deletedCount, beforeDate);
+            logger.debug("Deleted {} old task history entries before: {}", 
+                deletedCount, beforeDate);
             return deletedCount;
         } catch (Exception e) {
-            logger.error("[{}] Error deleting old task history before: {}", correlationId, beforeDate, e);
+            logger.error("Error deleting old task history before: {}", beforeDate, e);
             throw new RepositoryException("Error deleting old task history", e);
         }
     }
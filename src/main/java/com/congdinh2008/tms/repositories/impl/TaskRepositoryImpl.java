@@ -1,5 +1,12 @@
 package com.congdinh2008.tms.repositories.impl;
 
+import com.congdinh2008.tms.dto.projection.TaskFacetRow;
+import com.congdinh2008.tms.dto.projection.TaskListRow;
+import com.congdinh2008.tms.dto.projection.TaskTreeRow;
+import com.congdinh2008.tms.dto.response.ProjectResponse;
+import com.congdinh2008.tms.dto.response.TagResponse;
+import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.dto.response.UserResponse;
 import com.congdinh2008.tms.dto.search.TaskSearchCriteria;
 import com.congdinh2008.tms.entities.Task;
 import com.congdinh2008.tms.enums.TaskPriority;
@@ -12,14 +19,24 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repository implementation for Task entity operations
@@ -27,70 +44,148 @@ import java.util.UUID;
 @Repository
 public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implements TaskRepository {
     
+    private static final String TASK_LIST_PROJECTION_HQL = """
+            SELECT new com.congdinh2008.tms.dto.projection.TaskListRow(
+                t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt,
+                p.id, p.name, a.id, a.name, a.email, tg.id, tg.name)
+            FROM Task t
+            JOIN t.project p
+            LEFT JOIN t.assignee a
+            LEFT JOIN t.tags tg""";
+    
+    // One row per task and tag; ordered by ID so the rows of a task are adjacent
+    private static final String TASK_FACET_PROJECTION_HQL = """
+            SELECT new com.congdinh2008.tms.dto.projection.TaskFacetRow(
+                t.id, t.status, t.priority, t.project.id, a.id, tg.id)
+            FROM Task t
+            LEFT JOIN t.assignee a
+            LEFT JOIN t.tags tg
+            ORDER BY t.id""";
+    
+    private static final String FIND_BY_PROJECT_HQL = 
+            "FROM Task t WHERE t.project.id = :projectId ORDER BY t.createdAt DESC";
+    
+    private static final String FIND_TASK_IDS_WITH_MANY_CHANGES_HQL = """
+            SELECT t.id FROM Task t
+            LEFT JOIN TaskHistory th ON th.task = t
+            WHERE t.project.id = :projectId
+            GROUP BY t.id, t.createdAt
+            HAVING COUNT(th.id) >= :minChanges
+            ORDER BY t.createdAt DESC""";
+    
+    private static final String FIND_BY_ASSIGNEE_HQL = 
+            "FROM Task t WHERE t.assignee.id = :userId ORDER BY t.dueDate ASC";
+    
+    private static final String FIND_BY_STATUS_HQL = 
+            "FROM Task t WHERE t.status = :status ORDER BY t.dueDate ASC";
+    
+    // due_date <= CURRENT_DATE matches the former due_date < NOW() but stays sargable,
+    // so the partial overdue indexes can serve it
+    private static final String OVERDUE_CONDITION = """
+            t.due_date <= CURRENT_DATE
+              AND t.status IN ('TODO', 'IN_PROGRESS')""";
+    
+    private static final String FIND_OVERDUE_SQL = 
+            "SELECT t.* FROM tasks t WHERE " + OVERDUE_CONDITION + " ORDER BY t.due_date ASC, t.id ASC";
+    
+    // Every subtree row comes from the closure table in one index range scan; the path is
+    // rebuilt from the row's own ancestors up to the root of the subtree
+    private static final String FIND_SUBTREE_SQL = """
+            SELECT t.id AS task_id,
+                   CASE WHEN c.depth = 0 THEN NULL ELSE t.parent_task_id END AS parent_task_id,
+                   t.title, t.description, t.status, t.priority, t.due_date,
+                   t.created_at, t.updated_at, t.project_id, t.assignee_id,
+                   c.depth,
+                   (SELECT string_agg(a.ancestor_id::text, '/' ORDER BY a.depth DESC)
+                    FROM task_closure a
+                    WHERE a.descendant_id = c.descendant_id AND a.depth <= c.depth) AS path
+            FROM task_closure c
+            INNER JOIN tasks t ON t.id = c.descendant_id
+            WHERE c.ancestor_id = :rootId AND c.depth <= :maxDepth
+            ORDER BY c.depth ASC, t.created_at ASC, t.id ASC""";
+    
+    private static final String TASK_CLOSURE_TABLE = "task_closure";
+    
+    private static final int MAX_FULL_TEXT_CANDIDATES = 1000;
+    
+    // Query cache regions of the hot task lists, see ehcache.xml. Cached results hold task IDs
+    // only; the tasks are re-hydrated from the Task entity region and a cached list is dropped
+    // as soon as one of the tables it reads from is written.
+    private static final String TASKS_BY_PROJECT_REGION = "tasks-by-project-query";
+    private static final String SUBTASKS_REGION = "subtasks-query";
+    private static final String ROOT_TASKS_REGION = "root-tasks-query";
+    private static final String TASKS_BY_TAG_REGION = "tasks-by-tag-query";
+    
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class,
+            "title", String.class,
+            "dueDate", LocalDate.class);
+    
+    @Override
+    protected Map<String, Class<?>> getSortableProperties() {
+        return SORTABLE_PROPERTIES;
+    }
+    
     @Override
     public List<Task> findByProject(Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks by project ID: {}", correlationId, projectId);
+        log.debug("Finding tasks by project ID: {}", projectId);
         
         try {
             Session session = getCurrentSession();
-            String hql = "FROM Task t WHERE t.project.id = :projectId ORDER BY t.createdAt DESC";
-            Query<Task> query = session.createQuery(hql, Task.class);
+            Query<Task> query = session.createQuery(FIND_BY_PROJECT_HQL, Task.class);
             query.setParameter("projectId", projectId);
+            query.setCacheable(true);
+            query.setCacheRegion(TASKS_BY_PROJECT_REGION);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks for project ID: {}", correlationId, tasks.size(), projectId);
+            log.debug("Found {} tasks for project ID: {}", tasks.size(), projectId);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks by project: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks by project: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks by project", e);
         }
     }
     
     @Override
     public List<Task> findByAssignee(Long userId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks by assignee ID: {}", correlationId, userId);
+        log.debug("Finding tasks by assignee ID: {}", userId);
         
         try {
             Session session = getCurrentSession();
-            String hql = "FROM Task t WHERE t.assignee.id = :userId ORDER BY t.dueDate ASC";
-            Query<Task> query = session.createQuery(hql, Task.class);
+            Query<Task> query = session.createQuery(FIND_BY_ASSIGNEE_HQL, Task.class);
             query.setParameter("userId", userId);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks for user ID: {}", correlationId, tasks.size(), userId);
+            log.debug("Found {} tasks for user ID: {}", tasks.size(), userId);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks by assignee: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks by assignee: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks by assignee", e);
         }
     }
     
     @Override
     public List<Task> findByStatus(TaskStatus status) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks by status: {}", correlationId, status);
+        log.debug("Finding tasks by status: {}", status);
         
         try {
             Session session = getCurrentSession();
-            String hql = "FROM Task t WHERE t.status = :status ORDER BY t.dueDate ASC";
-            Query<Task> query = session.createQuery(hql, Task.class);
+            Query<Task> query = session.createQuery(FIND_BY_STATUS_HQL, Task.class);
             query.setParameter("status", status);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks with status: {}", correlationId, tasks.size(), status);
+            log.debug("Found {} tasks with status: {}", tasks.size(), status);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks by status: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks by status: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks by status", e);
         }
     }
     
     @Override
     public List<Task> findByPriority(TaskPriority priority) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks by priority: {}", correlationId, priority);
+        log.debug("Finding tasks by priority: {}", priority);
         
         try {
             Session session = getCurrentSession();
@@ -99,81 +194,248 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter("priority", priority);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks with priority: {}", correlationId, tasks.size(), priority);
+            log.debug("Found {} tasks with priority: {}", tasks.size(), priority);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks by priority: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks by priority: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks by priority", e);
         }
     }
     
     @Override
     public List<Task> findSubTasks(Long parentTaskId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding subtasks for parent task ID: {}", correlationId, parentTaskId);
+        log.debug("Finding subtasks for parent task ID: {}", parentTaskId);
         
         try {
             Session session = getCurrentSession();
             String hql = "FROM Task t WHERE t.parentTask.id = :parentTaskId ORDER BY t.createdAt ASC";
             Query<Task> query = session.createQuery(hql, Task.class);
             query.setParameter("parentTaskId", parentTaskId);
+            query.setCacheable(true);
+            query.setCacheRegion(SUBTASKS_REGION);
             List<Task> subtasks = query.getResultList();
             
-            log.debug("{} - Found {} subtasks for parent task ID: {}", 
-                     correlationId, subtasks.size(), parentTaskId);
+            log.debug("Found {} subtasks for parent task ID: {}", 
+                     subtasks.size(), parentTaskId);
             return subtasks;
         } catch (Exception e) {
-            log.error("{} - Error finding subtasks: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding subtasks: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find subtasks", e);
         }
     }
     
+    @Override
+    public List<TaskResponse> findAllTaskResponses() {
+        return findTaskResponses(null, null, null, "t.id ASC");
+    }
+    
+    @Override
+    public List<TaskResponse> findTaskResponsesByProject(Long projectId) {
+        return findTaskResponses("t.project.id = :projectId", "projectId", projectId, "t.createdAt DESC");
+    }
+    
+    @Override
+    public List<TaskResponse> findTaskResponsesByAssignee(Long userId) {
+        return findTaskResponses("t.assignee.id = :userId", "userId", userId, "t.dueDate ASC");
+    }
+    
+    @Override
+    public List<TaskResponse> findSubTaskResponses(Long parentTaskId) {
+        return findTaskResponses("t.parentTask.id = :parentTaskId", "parentTaskId", parentTaskId, "t.createdAt ASC");
+    }
+    
+    @Override
+    public List<TaskTreeRow> findSubtree(Long rootId, int maxDepth) {
+        log.debug("Finding subtree of task {} up to depth {}", rootId, maxDepth);
+        
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth must not be negative: " + maxDepth);
+        }
+        
+        try {
+            Session session = getCurrentSession();
+            NativeQuery<Object[]> query = closureQuery(session, FIND_SUBTREE_SQL, Object[].class)
+                    .addScalar("task_id", Long.class)
+                    .addScalar("parent_task_id", Long.class)
+                    .addScalar("title", String.class)
+                    .addScalar("description", String.class)
+                    .addScalar("status", String.class)
+                    .addScalar("priority", String.class)
+                    .addScalar("due_date", LocalDate.class)
+                    .addScalar("created_at", LocalDateTime.class)
+                    .addScalar("updated_at", LocalDateTime.class)
+                    .addScalar("project_id", Long.class)
+                    .addScalar("assignee_id", Long.class)
+                    .addScalar("depth", Integer.class)
+                    .addScalar("path", String.class);
+            query.setParameter("rootId", rootId);
+            query.setParameter("maxDepth", maxDepth);
+            
+            List<TaskTreeRow> rows = new ArrayList<>();
+            for (Object[] tuple : query.getResultList()) {
+                rows.add(new TaskTreeRow(
+                        (Long) tuple[0],
+                        (Long) tuple[1],
+                        (String) tuple[2],
+                        (String) tuple[3],
+                        TaskStatus.valueOf((String) tuple[4]),
+                        TaskPriority.valueOf((String) tuple[5]),
+                        (LocalDate) tuple[6],
+                        (LocalDateTime) tuple[7],
+                        (LocalDateTime) tuple[8],
+                        (Long) tuple[9],
+                        (Long) tuple[10],
+                        (Integer) tuple[11],
+                        (String) tuple[12]));
+            }
+            
+            log.debug("Found {} tasks in subtree of task {}", rows.size(), rootId);
+            return rows;
+        } catch (Exception e) {
+            log.error("Error finding subtree: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find task subtree", e);
+        }
+    }
+    
+    /**
+     * Run a task list projection query and fold the per-tag rows into responses.
+     * The task ID is appended to the ordering so that all rows of a task stay adjacent
+     * and the order is deterministic.
+     */
+    private List<TaskResponse> findTaskResponses(String condition, String paramName, Object paramValue, 
+                                                 String orderBy) {
+        log.debug("Finding task responses where {} = {}", paramName, paramValue);
+        
+        try {
+            Session session = getCurrentSession();
+            StringBuilder hql = new StringBuilder(TASK_LIST_PROJECTION_HQL);
+            if (condition != null) {
+                hql.append(" WHERE ").append(condition);
+            }
+            hql.append(" ORDER BY ").append(orderBy);
+            if (!orderBy.startsWith("t.id ")) {
+                hql.append(", t.id ASC");
+            }
+            hql.append(", tg.name ASC");
+            
+            Query<TaskListRow> query = session.createQuery(hql.toString(), TaskListRow.class);
+            if (paramName != null) {
+                query.setParameter(paramName, paramValue);
+            }
+            List<TaskResponse> responses = toTaskResponses(query.getResultList());
+            
+            log.debug("Found {} task responses", responses.size());
+            return responses;
+        } catch (Exception e) {
+            log.error("Error finding task responses: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find task responses", e);
+        }
+    }
+    
+    private static List<TaskResponse> toTaskResponses(List<TaskListRow> rows) {
+        Map<Long, TaskResponse> responses = new LinkedHashMap<>();
+        for (TaskListRow row : rows) {
+            TaskResponse response = responses.computeIfAbsent(row.taskId(), id -> toTaskResponse(row));
+            if (row.tagId() != null) {
+                TagResponse tag = new TagResponse();
+                tag.setId(row.tagId());
+                tag.setName(row.tagName());
+                response.getTags().add(tag);
+            }
+        }
+        return new ArrayList<>(responses.values());
+    }
+    
+    private static TaskResponse toTaskResponse(TaskListRow row) {
+        TaskResponse response = new TaskResponse(row.taskId(), row.title(), row.status(), row.priority());
+        response.setDescription(row.description());
+        response.setDueDate(row.dueDate());
+        response.setCreatedAt(row.createdAt());
+        response.setUpdatedAt(row.updatedAt());
+        
+        ProjectResponse project = new ProjectResponse();
+        project.setId(row.projectId());
+        project.setName(row.projectName());
+        response.setProject(project);
+        
+        if (row.assigneeId() != null) {
+            UserResponse assignee = new UserResponse();
+            assignee.setId(row.assigneeId());
+            assignee.setName(row.assigneeName());
+            assignee.setEmail(row.assigneeEmail());
+            response.setAssignee(assignee);
+        }
+        
+        response.setTags(new LinkedHashSet<>());
+        return response;
+    }
+    
     @Override
     public boolean isCircularReference(Long taskId, Long parentTaskId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Checking circular reference: task {} -> parent {}", 
-                 correlationId, taskId, parentTaskId);
+        log.debug("Checking circular reference: task {} -> parent {}", 
+                 taskId, parentTaskId);
         
         try {
             Session session = getCurrentSession();
-            // Recursive query to check for circular reference
+            // The new parent must not be the task itself (depth 0) or one of its descendants
             String sql = """
-                WITH RECURSIVE task_hierarchy AS (
-                    -- Base case: start from the proposed parent
-                    SELECT id, parent_task_id, 1 AS level
-                    FROM tasks
-                    WHERE id = :parentTaskId
-                    
-                    UNION ALL
-                    
-                    -- Recursive case: follow parent chain
-                    SELECT t.id, t.parent_task_id, th.level + 1
-                    FROM tasks t
-                    INNER JOIN task_hierarchy th ON t.id = th.parent_task_id
-                    WHERE th.level < 10 -- Prevent infinite recursion
+                SELECT EXISTS (
+                    SELECT 1 FROM task_closure
+                    WHERE ancestor_id = :taskId AND descendant_id = :parentTaskId
                 )
-                SELECT COUNT(*) FROM task_hierarchy
-                WHERE id = :taskId
                 """;
             
-            Query<Number> query = session.createNativeQuery(sql, Number.class);
+            NativeQuery<Boolean> query = closureQuery(session, sql, Boolean.class);
             query.setParameter("parentTaskId", parentTaskId);
             query.setParameter("taskId", taskId);
-            Number count = query.getSingleResult();
+            boolean isCircular = query.getSingleResult();
             
-            boolean isCircular = count.longValue() > 0;
-            log.debug("{} - Circular reference check result: {}", correlationId, isCircular);
+            log.debug("Circular reference check result: {}", isCircular);
             return isCircular;
         } catch (Exception e) {
-            log.error("{} - Error checking circular reference: {}", correlationId, e.getMessage(), e);
+            log.error("Error checking circular reference: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to check circular reference", e);
         }
     }
     
+    @Override
+    public List<Long> findAncestorIds(Long taskId) {
+        log.debug("Finding ancestors of task {}", taskId);
+        
+        try {
+            Session session = getCurrentSession();
+            String sql = """
+                SELECT ancestor_id FROM task_closure
+                WHERE descendant_id = :taskId AND depth > 0
+                ORDER BY depth ASC
+                """;
+            
+            NativeQuery<Long> query = closureQuery(session, sql, Long.class);
+            query.setParameter("taskId", taskId);
+            List<Long> ancestorIds = query.getResultList();
+            
+            log.debug("Found {} ancestors of task {}", ancestorIds.size(), taskId);
+            return ancestorIds;
+        } catch (Exception e) {
+            log.error("Error finding task ancestors: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find task ancestors", e);
+        }
+    }
+    
+    /**
+     * Create a native query on the task closure table. The table is written by database
+     * triggers on tasks, so pending task inserts and parent changes are flushed before the
+     * query runs; other entities are left alone.
+     */
+    private static <T> NativeQuery<T> closureQuery(Session session, String sql, Class<T> resultType) {
+        return session.createNativeQuery(sql, resultType)
+                .addSynchronizedQuerySpace(TASK_CLOSURE_TABLE)
+                .addSynchronizedEntityClass(Task.class);
+    }
+    
     @Override
     public List<Task> searchTasks(TaskSearchCriteria criteria) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Searching tasks with criteria", correlationId);
+        log.debug("Searching tasks with criteria");
         
         try {
             Session session = getCurrentSession();
@@ -184,7 +446,16 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             List<Predicate> predicates = new ArrayList<>();
             
             // Keyword search in title and description
-            if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()) {
+            List<Long> rankedIds = null;
+            if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()
+                    && criteria.getKeywordMatchMode() == TaskSearchCriteria.KeywordMatchMode.FULL_TEXT) {
+                rankedIds = findFullTextCandidateIds(session, criteria);
+                if (rankedIds.isEmpty()) {
+                    log.debug("No tasks match full-text keyword");
+                    return new ArrayList<>();
+                }
+                predicates.add(task.get("id").in(rankedIds));
+            } else if (criteria.getKeyword() != null && !criteria.getKeyword().trim().isEmpty()) {
                 String keyword = "%" + criteria.getKeyword().toLowerCase() + "%";
                 Predicate titlePredicate = cb.like(cb.lower(task.get("title")), keyword);
                 Predicate descPredicate = cb.like(cb.lower(task.get("description")), keyword);
@@ -278,18 +549,110 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             Query<Task> query = session.createQuery(cq);
             List<Task> results = query.getResultList();
             
-            log.debug("{} - Found {} tasks matching search criteria", correlationId, results.size());
+            // Full-text results are ordered by relevance rather than due date
+            if (rankedIds != null) {
+                Map<Long, Integer> rankById = new HashMap<>();
+                for (int i = 0; i < rankedIds.size(); i++) {
+                    rankById.put(rankedIds.get(i), i);
+                }
+                results = new ArrayList<>(results);
+                results.sort(Comparator.comparing(t -> rankById.get(t.getId())));
+            }
+            
+            log.debug("Found {} tasks matching search criteria", results.size());
             return results;
         } catch (Exception e) {
-            log.error("{} - Error searching tasks: {}", correlationId, e.getMessage(), e);
+            log.error("Error searching tasks: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to search tasks", e);
         }
     }
     
+    /**
+     * Find the IDs of the best full-text matches for the keyword, most relevant first.
+     * Uses the GIN-indexed search_vector column. Every other filter of the criteria is applied
+     * here as well, before the candidate limit, so the limit only ever cuts the least relevant
+     * of the tasks the criteria query would return.
+     */
+    private List<Long> findFullTextCandidateIds(Session session, TaskSearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT t.id FROM tasks t, websearch_to_tsquery('simple', :keyword) q
+            WHERE t.search_vector @@ q
+            """);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("keyword", criteria.getKeyword().trim());
+        
+        if (criteria.getStatus() != null) {
+            sql.append(" AND t.status = :status");
+            parameters.put("status", criteria.getStatus().name());
+        }
+        if (criteria.getPriority() != null) {
+            sql.append(" AND t.priority = :priority");
+            parameters.put("priority", criteria.getPriority().name());
+        }
+        if (criteria.getProjectId() != null) {
+            sql.append(" AND t.project_id = :projectId");
+            parameters.put("projectId", criteria.getProjectId());
+        }
+        if (criteria.getAssigneeId() != null) {
+            sql.append(" AND t.assignee_id = :assigneeId");
+            parameters.put("assigneeId", criteria.getAssigneeId());
+        }
+        if (criteria.getParentTaskId() != null) {
+            sql.append(" AND t.parent_task_id = :parentTaskId");
+            parameters.put("parentTaskId", criteria.getParentTaskId());
+        }
+        if (criteria.getDueDateFrom() != null) {
+            sql.append(" AND t.due_date >= :dueDateFrom");
+            parameters.put("dueDateFrom", criteria.getDueDateFrom());
+        }
+        if (criteria.getDueDateTo() != null) {
+            sql.append(" AND t.due_date <= :dueDateTo");
+            parameters.put("dueDateTo", criteria.getDueDateTo());
+        }
+        if (criteria.getCreatedAtFrom() != null) {
+            sql.append(" AND t.created_at >= :createdAtFrom");
+            parameters.put("createdAtFrom", criteria.getCreatedAtFrom());
+        }
+        if (criteria.getCreatedAtTo() != null) {
+            sql.append(" AND t.created_at <= :createdAtTo");
+            parameters.put("createdAtTo", criteria.getCreatedAtTo());
+        }
+        if (criteria.getHasSubTasks() != null) {
+            sql.append(criteria.getHasSubTasks() ? " AND EXISTS" : " AND NOT EXISTS")
+               .append(" (SELECT 1 FROM tasks s WHERE s.parent_task_id = t.id)");
+        }
+        if (criteria.getIsOverdue() != null) {
+            sql.append(criteria.getIsOverdue()
+                    ? " AND t.due_date < :now AND t.status <> 'DONE'"
+                    : " AND (t.due_date >= :now OR t.status = 'DONE')");
+            parameters.put("now", LocalDateTime.now());
+        }
+        if (criteria.getTagIds() != null && !criteria.getTagIds().isEmpty()) {
+            sql.append(" AND EXISTS (SELECT 1 FROM task_tags tt WHERE tt.task_id = t.id AND tt.tag_id IN (:tagIds))");
+            parameters.put("tagIds", criteria.getTagIds());
+        }
+        sql.append(" ORDER BY ts_rank_cd(t.search_vector, q) DESC, t.id LIMIT :limit");
+        parameters.put("limit", MAX_FULL_TEXT_CANDIDATES);
+        
+        Query<Number> query = session.createNativeQuery(sql.toString(), Number.class);
+        parameters.forEach((name, value) -> {
+            if (value instanceof Collection<?> values) {
+                query.setParameterList(name, values);
+            } else {
+                query.setParameter(name, value);
+            }
+        });
+        
+        List<Long> ids = new ArrayList<>();
+        for (Number id : query.getResultList()) {
+            ids.add(id.longValue());
+        }
+        return ids;
+    }
+    
     @Override
     public List<Task> findTasksByTag(Long tagId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks by tag ID: {}", correlationId, tagId);
+        log.debug("Finding tasks by tag ID: {}", tagId);
         
         try {
             Session session = getCurrentSession();
@@ -302,20 +665,21 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             
             Query<Task> query = session.createQuery(hql, Task.class);
             query.setParameter("tagId", tagId);
+            query.setCacheable(true);
+            query.setCacheRegion(TASKS_BY_TAG_REGION);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks with tag ID: {}", correlationId, tasks.size(), tagId);
+            log.debug("Found {} tasks with tag ID: {}", tasks.size(), tagId);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks by tag: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks by tag: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks by tag", e);
         }
     }
     
     @Override
     public boolean canAssignTask(Long taskId, Long userId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Checking if task {} can be assigned to user {}", correlationId, taskId, userId);
+        log.debug("Checking if task {} can be assigned to user {}", taskId, userId);
         
         try {
             Session session = getCurrentSession();
@@ -332,18 +696,17 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             Number count = query.getSingleResult();
             
             boolean canAssign = count.longValue() > 0;
-            log.debug("{} - Can assign task {} to user {}: {}", correlationId, taskId, userId, canAssign);
+            log.debug("Can assign task {} to user {}: {}", taskId, userId, canAssign);
             return canAssign;
         } catch (Exception e) {
-            log.error("{} - Error checking task assignment: {}", correlationId, e.getMessage(), e);
+            log.error("Error checking task assignment: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to check task assignment", e);
         }
     }
     
     @Override
     public List<Task> findTasksDueWithinDays(int days) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks due within {} days", correlationId, days);
+        log.debug("Finding tasks due within {} days", days);
         
         try {
             Session session = getCurrentSession();
@@ -363,18 +726,17 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter("doneStatus", TaskStatus.DONE);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks due within {} days", correlationId, tasks.size(), days);
+            log.debug("Found {} tasks due within {} days", tasks.size(), days);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks due within days: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks due within days: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks due within days", e);
         }
     }
     
     @Override
     public List<Task> findRootTasks(Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding root tasks in project ID: {}", correlationId, projectId);
+        log.debug("Finding root tasks in project ID: {}", projectId);
         
         try {
             Session session = getCurrentSession();
@@ -387,47 +749,249 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             
             Query<Task> query = session.createQuery(hql, Task.class);
             query.setParameter("projectId", projectId);
+            query.setCacheable(true);
+            query.setCacheRegion(ROOT_TASKS_REGION);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} root tasks in project ID: {}", 
-                     correlationId, tasks.size(), projectId);
+            log.debug("Found {} root tasks in project ID: {}", 
+                     tasks.size(), projectId);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding root tasks: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding root tasks: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find root tasks", e);
         }
     }
     
     @Override
     public List<Task> findOverdueTasks() {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding overdue tasks", correlationId);
+        log.debug("Finding overdue tasks");
         
         try {
             Session session = getCurrentSession();
-            String sql = """
-                SELECT t.* FROM tasks t
-                WHERE t.due_date < NOW()
-                  AND t.status IN ('TODO', 'IN_PROGRESS')
-                ORDER BY t.due_date ASC
-                """;
-            
-            Query<Task> query = session.createNativeQuery(sql, Task.class);
+            Query<Task> query = session.createNativeQuery(FIND_OVERDUE_SQL, Task.class);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} overdue tasks", correlationId, tasks.size());
+            log.debug("Found {} overdue tasks", tasks.size());
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding overdue tasks: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding overdue tasks: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find overdue tasks", e);
         }
     }
     
+    @Override
+    public List<Task> findOverdueTasks(Long projectId, int page, int size) {
+        log.debug("Finding overdue tasks - project: {}, page: {}, size: {}", 
+                 projectId, page, size);
+        
+        try {
+            Session session = getCurrentSession();
+            StringBuilder sql = new StringBuilder("SELECT t.* FROM tasks t WHERE ").append(OVERDUE_CONDITION);
+            if (projectId != null) {
+                sql.append(" AND t.project_id = :projectId");
+            }
+            sql.append(" ORDER BY t.due_date ASC, t.id ASC");
+            
+            Query<Task> query = session.createNativeQuery(sql.toString(), Task.class);
+            if (projectId != null) {
+                query.setParameter("projectId", projectId);
+            }
+            query.setFirstResult(page * size);
+            query.setMaxResults(size);
+            List<Task> tasks = query.getResultList();
+            
+            log.debug("Found {} overdue tasks for page {}", tasks.size(), page);
+            return tasks;
+        } catch (Exception e) {
+            log.error("Error finding overdue tasks page: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find overdue tasks page", e);
+        }
+    }
+    
+    @Override
+    public long countOverdueTasks(Long projectId) {
+        log.debug("Counting overdue tasks - project: {}", projectId);
+        
+        try {
+            Session session = getCurrentSession();
+            StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM tasks t WHERE ").append(OVERDUE_CONDITION);
+            if (projectId != null) {
+                sql.append(" AND t.project_id = :projectId");
+            }
+            
+            Query<Number> query = session.createNativeQuery(sql.toString(), Number.class);
+            if (projectId != null) {
+                query.setParameter("projectId", projectId);
+            }
+            long count = query.getSingleResult().longValue();
+            
+            log.debug("Overdue task count: {}", count);
+            return count;
+        } catch (Exception e) {
+            log.error("Error counting overdue tasks: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to count overdue tasks", e);
+        }
+    }
+    
+    @Override
+    public Map<Long, TaskStatus> findStatusesByIds(Collection<Long> taskIds) {
+        log.debug("Finding statuses of {} tasks", taskIds.size());
+        
+        Map<Long, TaskStatus> statuses = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return statuses;
+        }
+        
+        try {
+            Session session = getCurrentSession();
+            String hql = "SELECT t.id, t.status FROM Task t WHERE t.id IN :taskIds";
+            Query<Object[]> query = session.createQuery(hql, Object[].class);
+            query.setParameterList("taskIds", taskIds);
+            for (Object[] row : query.getResultList()) {
+                statuses.put((Long) row[0], (TaskStatus) row[1]);
+            }
+            
+            log.debug("Found statuses of {} tasks", statuses.size());
+            return statuses;
+        } catch (Exception e) {
+            log.error("Error finding task statuses: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find task statuses", e);
+        }
+    }
+    
+    @Override
+    public int updateStatus(Collection<Long> taskIds, TaskStatus status) {
+        log.debug("Bulk updating status of {} tasks to {}", taskIds.size(), status);
+        
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            Session session = getCurrentSession();
+            StringBuilder hql = new StringBuilder("""
+                UPDATE VERSIONED Task t SET t.status = :status, t.updatedAt = :now
+                WHERE t.id IN :taskIds AND t.status <> :status
+                """);
+            if (status == TaskStatus.DONE) {
+                // Business Rule R7: anti-join on incomplete subtasks
+                hql.append("""
+                    AND NOT EXISTS (
+                        SELECT 1 FROM Task s WHERE s.parentTask.id = t.id AND s.status <> :status
+                    )
+                    """);
+            }
+            
+            int updated = session.createMutationQuery(hql.toString())
+                    .setParameter("status", status)
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameterList("taskIds", taskIds)
+                    .executeUpdate();
+            
+            log.debug("Updated status of {} tasks", updated);
+            return updated;
+        } catch (Exception e) {
+            log.error("Error bulk updating task status: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to update task status", e);
+        }
+    }
+    
+    @Override
+    public long forEachByProject(Long projectId, Consumer<? super Task> action) {
+        log.debug("Streaming tasks by project ID: {}", projectId);
+        
+        try {
+            Query<Task> query = getCurrentSession().createQuery(FIND_BY_PROJECT_HQL, Task.class);
+            query.setParameter("projectId", projectId);
+            long processed = scroll(query, action);
+            
+            log.debug("Streamed {} tasks for project ID: {}", processed, projectId);
+            return processed;
+        } catch (Exception e) {
+            log.error("Error streaming tasks by project: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to stream tasks by project", e);
+        }
+    }
+    
+    @Override
+    public long forEachByAssignee(Long userId, Consumer<? super Task> action) {
+        log.debug("Streaming tasks by assignee ID: {}", userId);
+        
+        try {
+            Query<Task> query = getCurrentSession().createQuery(FIND_BY_ASSIGNEE_HQL, Task.class);
+            query.setParameter("userId", userId);
+            long processed = scroll(query, action);
+            
+            log.debug("Streamed {} tasks for user ID: {}", processed, userId);
+            return processed;
+        } catch (Exception e) {
+            log.error("Error streaming tasks by assignee: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to stream tasks by assignee", e);
+        }
+    }
+    
+    @Override
+    public long forEachByStatus(TaskStatus status, Consumer<? super Task> action) {
+        log.debug("Streaming tasks by status: {}", status);
+        
+        try {
+            Query<Task> query = getCurrentSession().createQuery(FIND_BY_STATUS_HQL, Task.class);
+            query.setParameter("status", status);
+            long processed = scroll(query, action);
+            
+            log.debug("Streamed {} tasks with status: {}", processed, status);
+            return processed;
+        } catch (Exception e) {
+            log.error("Error streaming tasks by status: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to stream tasks by status", e);
+        }
+    }
+    
+    @Override
+    public long forEachOverdueTask(Consumer<? super Task> action) {
+        log.debug("Streaming overdue tasks");
+        
+        try {
+            Query<Task> query = getCurrentSession().createNativeQuery(FIND_OVERDUE_SQL, Task.class);
+            long processed = scroll(query, action);
+            
+            log.debug("Streamed {} overdue tasks", processed);
+            return processed;
+        } catch (Exception e) {
+            log.error("Error streaming overdue tasks: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to stream overdue tasks", e);
+        }
+    }
+    
+    @Override
+    public long forEachFacetRow(Consumer<? super TaskFacetRow> action) {
+        log.debug("Streaming task facet rows");
+        
+        try {
+            Query<TaskFacetRow> query = getCurrentSession().createQuery(TASK_FACET_PROJECTION_HQL, TaskFacetRow.class);
+            query.setFetchSize(fetchSize);
+            query.setReadOnly(true);
+            
+            long processed = 0;
+            try (ScrollableResults<TaskFacetRow> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    action.accept(results.get());
+                    processed++;
+                }
+            }
+            
+            log.debug("Streamed {} task facet rows", processed);
+            return processed;
+        } catch (Exception e) {
+            log.error("Error streaming task facet rows: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to stream task facet rows", e);
+        }
+    }
+    
     @Override
     public List<Task> findTasksWithComplexFilters(Long assigneeId, TaskStatus status, TaskPriority priority, LocalDateTime dueBefore) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks with complex filters - assignee: {}, status: {}, priority: {}, dueBefore: {}", 
-                 correlationId, assigneeId, status, priority, dueBefore);
+        log.debug("Finding tasks with complex filters - assignee: {}, status: {}, priority: {}, dueBefore: {}", 
+                 assigneeId, status, priority, dueBefore);
         
         try {
             Session session = getCurrentSession();
@@ -470,18 +1034,17 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks with complex filters", correlationId, tasks.size());
+            log.debug("Found {} tasks with complex filters", tasks.size());
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks with complex filters: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks with complex filters: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks with complex filters", e);
         }
     }
     
     @Override
     public List<Object[]> getTaskStatisticsByProject(Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Getting task statistics by project ID: {}", correlationId, projectId);
+        log.debug("Getting task statistics by project ID: {}", projectId);
         
         try {
             Session session = getCurrentSession();
@@ -501,18 +1064,17 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter(1, projectId);
             List<Object[]> results = query.getResultList();
             
-            log.debug("{} - Found {} status groups for project ID: {}", correlationId, results.size(), projectId);
+            log.debug("Found {} status groups for project ID: {}", results.size(), projectId);
             return results;
         } catch (Exception e) {
-            log.error("{} - Error getting task statistics by project: {}", correlationId, e.getMessage(), e);
+            log.error("Error getting task statistics by project: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to get task statistics by project", e);
         }
     }
     
     @Override
     public List<Object[]> getPopularTags(int limit) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Getting popular tags with limit: {}", correlationId, limit);
+        log.debug("Getting popular tags with limit: {}", limit);
         
         try {
             Session session = getCurrentSession();
@@ -532,18 +1094,17 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter(1, limit);
             List<Object[]> results = query.getResultList();
             
-            log.debug("{} - Found {} popular tags", correlationId, results.size());
+            log.debug("Found {} popular tags", results.size());
             return results;
         } catch (Exception e) {
-            log.error("{} - Error getting popular tags: {}", correlationId, e.getMessage(), e);
+            log.error("Error getting popular tags: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to get popular tags", e);
         }
     }
     
     @Override
     public List<Task> findCompletedTasksInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding completed tasks between {} and {}", correlationId, startDate, endDate);
+        log.debug("Finding completed tasks between {} and {}", startDate, endDate);
         
         try {
             Session session = getCurrentSession();
@@ -559,18 +1120,17 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter(2, endDate);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} completed tasks in date range", correlationId, tasks.size());
+            log.debug("Found {} completed tasks in date range", tasks.size());
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding completed tasks in date range: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding completed tasks in date range: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find completed tasks in date range", e);
         }
     }
     
     @Override
     public List<Task> findTasksByPriorityNative(String priority) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks by priority: {}", correlationId, priority);
+        log.debug("Finding tasks by priority: {}", priority);
         
         try {
             Session session = getCurrentSession();
@@ -585,19 +1145,18 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter(1, priority);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} tasks with priority: {}", correlationId, tasks.size(), priority);
+            log.debug("Found {} tasks with priority: {}", tasks.size(), priority);
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks by priority: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks by priority: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks by priority", e);
         }
     }
     
     @Override
     public List<Task> findUserTasksInProject(Long userId, String status, Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding user tasks in project - userId: {}, status: {}, projectId: {}", 
-                 correlationId, userId, status, projectId);
+        log.debug("Finding user tasks in project - userId: {}, status: {}, projectId: {}", 
+                 userId, status, projectId);
         
         try {
             Session session = getCurrentSession();
@@ -615,19 +1174,18 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter(3, projectId);
             List<Task> tasks = query.getResultList();
             
-            log.debug("{} - Found {} user tasks in project", correlationId, tasks.size());
+            log.debug("Found {} user tasks in project", tasks.size());
             return tasks;
         } catch (Exception e) {
-            log.error("{} - Error finding user tasks in project: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding user tasks in project: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find user tasks in project", e);
         }
     }
     
     @Override
     public List<Object[]> findTasksWithManyChanges(Long projectId, Integer minChanges) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding tasks with many changes - projectId: {}, minChanges: {}", 
-                 correlationId, projectId, minChanges);
+        log.debug("Finding tasks with many changes - projectId: {}, minChanges: {}", 
+                 projectId, minChanges);
         
         try {
             Session session = getCurrentSession();
@@ -649,10 +1207,30 @@ public class TaskRepositoryImpl extends BaseRepositoryImpl<Task, Long> implement
             query.setParameter(2, minChanges);
             List<Object[]> results = query.getResultList();
             
-            log.debug("{} - Found {} tasks with many changes", correlationId, results.size());
+            log.debug("Found {} tasks with many changes", results.size());
             return results;
         } catch (Exception e) {
-            log.error("{} - Error finding tasks with many changes: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding tasks with many changes: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find tasks with many changes", e);
+        }
+    }
+    
+    @Override
+    public List<Long> findTaskIdsWithManyChanges(Long projectId, int minChanges) {
+        log.debug("Finding task IDs with many changes - projectId: {}, minChanges: {}", 
+                 projectId, minChanges);
+        
+        try {
+            Session session = getCurrentSession();
+            Query<Long> query = session.createQuery(FIND_TASK_IDS_WITH_MANY_CHANGES_HQL, Long.class);
+            query.setParameter("projectId", projectId);
+            query.setParameter("minChanges", (long) minChanges);
+            List<Long> taskIds = query.getResultList();
+            
+            log.debug("Found {} tasks with at least {} changes", taskIds.size(), minChanges);
+            return taskIds;
+        } catch (Exception e) {
+            log.error("Error finding task IDs with many changes: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find tasks with many changes", e);
         }
     }
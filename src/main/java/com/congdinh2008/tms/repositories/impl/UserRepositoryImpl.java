@@ -4,11 +4,17 @@ import com.congdinh2008.tms.entities.User;
 import com.congdinh2008.tms.exceptions.RepositoryException;
 import com.congdinh2008.tms.repositories.UserRepository;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository implementation for User entity operations
@@ -16,10 +22,29 @@ import java.util.UUID;
 @Repository
 public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implements UserRepository {
     
+    private static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class,
+            "name", String.class,
+            "email", String.class);
+    
+    // Membership lookups read the join table of Project.members; declaring it as a query space
+    // lets Hibernate drop the cached results when members are added or removed
+    private static final String PROJECT_MEMBERS_TABLE = "project_members";
+    
+    // Query cache regions of the membership lookups, see ehcache.xml
+    private static final String PROJECT_MEMBERS_REGION = "project-members-query";
+    private static final String PROJECT_MEMBERSHIP_REGION = "project-membership-query";
+    private static final String PROJECT_MEMBER_IDS_REGION = "project-member-ids-query";
+    
+    @Override
+    protected Map<String, Class<?>> getSortableProperties() {
+        return SORTABLE_PROPERTIES;
+    }
+    
     @Override
     public User findByEmail(String email) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding user by email: {}", correlationId, email);
+        log.debug("Finding user by email: {}", email);
         
         try {
             Session session = getCurrentSession();
@@ -29,21 +54,20 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             User user = query.uniqueResult();
             
             if (user != null) {
-                log.debug("{} - Found user by email: {}", correlationId, email);
+                log.debug("Found user by email: {}", email);
             } else {
-                log.debug("{} - No user found with email: {}", correlationId, email);
+                log.debug("No user found with email: {}", email);
             }
             return user;
         } catch (Exception e) {
-            log.error("{} - Error finding user by email: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding user by email: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find user by email", e);
         }
     }
     
     @Override
     public List<User> findByNameContaining(String name) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding users by name containing: {}", correlationId, name);
+        log.debug("Finding users by name containing: {}", name);
         
         try {
             Session session = getCurrentSession();
@@ -52,18 +76,45 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             query.setParameter("name", "%" + name + "%");
             List<User> users = query.getResultList();
             
-            log.debug("{} - Found {} users with name containing: {}", correlationId, users.size(), name);
+            log.debug("Found {} users with name containing: {}", users.size(), name);
             return users;
         } catch (Exception e) {
-            log.error("{} - Error finding users by name: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding users by name: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find users by name", e);
         }
     }
     
+    @Override
+    public List<User> findByNameSimilar(String term, int limit) {
+        log.debug("Finding up to {} users with name similar to: {}", limit, term);
+        
+        try {
+            Session session = getCurrentSession();
+            // Both predicates are served by the trigram index on lower(name)
+            String sql = """
+                SELECT u.* FROM users u
+                WHERE lower(u.name) LIKE :pattern OR :term <% lower(u.name)
+                ORDER BY word_similarity(:term, lower(u.name)) DESC, u.name
+                LIMIT :limit
+                """;
+            
+            Query<User> query = session.createNativeQuery(sql, User.class);
+            query.setParameter("pattern", containsPattern(term));
+            query.setParameter("term", term.toLowerCase());
+            query.setParameter("limit", limit);
+            List<User> users = query.getResultList();
+            
+            log.debug("Found {} users with name similar to: {}", users.size(), term);
+            return users;
+        } catch (Exception e) {
+            log.error("Error finding users by similar name: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find users by similar name", e);
+        }
+    }
+    
     @Override
     public boolean existsByEmail(String email) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Checking if user exists by email: {}", correlationId, email);
+        log.debug("Checking if user exists by email: {}", email);
         
         try {
             Session session = getCurrentSession();
@@ -73,18 +124,17 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             Long count = query.getSingleResult();
             
             boolean exists = count > 0;
-            log.debug("{} - User exists by email: {}", correlationId, exists);
+            log.debug("User exists by email: {}", exists);
             return exists;
         } catch (Exception e) {
-            log.error("{} - Error checking user existence by email: {}", correlationId, e.getMessage(), e);
+            log.error("Error checking user existence by email: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to check user existence by email", e);
         }
     }
     
     @Override
     public List<User> findProjectMembers(Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding project members for project ID: {}", correlationId, projectId);
+        log.debug("Finding project members for project ID: {}", projectId);
         
         try {
             Session session = getCurrentSession();
@@ -96,23 +146,25 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
                 ORDER BY u.name
                 """;
             
-            Query<User> query = session.createNativeQuery(sql, User.class);
+            NativeQuery<User> query = session.createNativeQuery(sql, User.class);
+            query.addSynchronizedQuerySpace(PROJECT_MEMBERS_TABLE);
             query.setParameter("projectId", projectId);
+            query.setCacheable(true);
+            query.setCacheRegion(PROJECT_MEMBERS_REGION);
             List<User> members = query.getResultList();
             
-            log.debug("{} - Found {} project members for project ID: {}", 
-                     correlationId, members.size(), projectId);
+            log.debug("Found {} project members for project ID: {}", 
+                     members.size(), projectId);
             return members;
         } catch (Exception e) {
-            log.error("{} - Error finding project members: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding project members: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find project members", e);
         }
     }
     
     @Override
     public boolean isUserMemberOfProject(Long userId, Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Checking if user {} is member of project {}", correlationId, userId, projectId);
+        log.debug("Checking if user {} is member of project {}", userId, projectId);
         
         try {
             Session session = getCurrentSession();
@@ -121,25 +173,62 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
                 WHERE pm.user_id = :userId AND pm.project_id = :projectId
                 """;
             
-            Query<Number> query = session.createNativeQuery(sql, Number.class);
+            NativeQuery<Number> query = session.createNativeQuery(sql, Number.class);
+            query.addSynchronizedQuerySpace(PROJECT_MEMBERS_TABLE);
             query.setParameter("userId", userId);
             query.setParameter("projectId", projectId);
+            query.setCacheable(true);
+            query.setCacheRegion(PROJECT_MEMBERSHIP_REGION);
             Number count = query.getSingleResult();
             
             boolean isMember = count.longValue() > 0;
-            log.debug("{} - User {} is member of project {}: {}", 
-                     correlationId, userId, projectId, isMember);
+            log.debug("User {} is member of project {}: {}", 
+                     userId, projectId, isMember);
             return isMember;
         } catch (Exception e) {
-            log.error("{} - Error checking user project membership: {}", correlationId, e.getMessage(), e);
+            log.error("Error checking user project membership: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to check user project membership", e);
         }
     }
     
+    @Override
+    public Map<Long, Set<Long>> findMemberIdsByProjectIds(Collection<Long> projectIds) {
+        log.debug("Finding member IDs for {} projects", projectIds.size());
+        
+        Map<Long, Set<Long>> membersByProject = new HashMap<>();
+        if (projectIds.isEmpty()) {
+            return membersByProject;
+        }
+        
+        try {
+            Session session = getCurrentSession();
+            String sql = """
+                SELECT pm.project_id, pm.user_id FROM project_members pm
+                WHERE pm.project_id IN (:projectIds)
+                """;
+            
+            NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
+            query.addSynchronizedQuerySpace(PROJECT_MEMBERS_TABLE);
+            query.setParameterList("projectIds", projectIds);
+            query.setCacheable(true);
+            query.setCacheRegion(PROJECT_MEMBER_IDS_REGION);
+            for (Object[] row : query.getResultList()) {
+                Long projectId = ((Number) row[0]).longValue();
+                Long userId = ((Number) row[1]).longValue();
+                membersByProject.computeIfAbsent(projectId, id -> new HashSet<>()).add(userId);
+            }
+            
+            log.debug("Found members for {} projects", membersByProject.size());
+            return membersByProject;
+        } catch (Exception e) {
+            log.error("Error finding project member IDs: {}", e.getMessage(), e);
+            throw new RepositoryException("Failed to find project member IDs", e);
+        }
+    }
+    
     @Override
     public List<User> findUsersWithTasksInProject(Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding users with tasks in project ID: {}", correlationId, projectId);
+        log.debug("Finding users with tasks in project ID: {}", projectId);
         
         try {
             Session session = getCurrentSession();
@@ -154,19 +243,18 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             query.setParameter("projectId", projectId);
             List<User> users = query.getResultList();
             
-            log.debug("{} - Found {} users with tasks in project ID: {}", 
-                     correlationId, users.size(), projectId);
+            log.debug("Found {} users with tasks in project ID: {}", 
+                     users.size(), projectId);
             return users;
         } catch (Exception e) {
-            log.error("{} - Error finding users with tasks in project: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding users with tasks in project: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find users with tasks in project", e);
         }
     }
     
     @Override
     public List<Object[]> getUserProductivityInProject(Long projectId) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Getting user productivity in project ID: {}", correlationId, projectId);
+        log.debug("Getting user productivity in project ID: {}", projectId);
         
         try {
             Session session = getCurrentSession();
@@ -197,19 +285,18 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             query.setParameter(1, projectId);
             List<Object[]> results = query.getResultList();
             
-            log.debug("{} - Found productivity data for {} users in project ID: {}", 
-                     correlationId, results.size(), projectId);
+            log.debug("Found productivity data for {} users in project ID: {}", 
+                     results.size(), projectId);
             return results;
         } catch (Exception e) {
-            log.error("{} - Error getting user productivity in project: {}", correlationId, e.getMessage(), e);
+            log.error("Error getting user productivity in project: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to get user productivity in project", e);
         }
     }
     
     @Override
     public List<User> findTopPerformers(Integer limit) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Finding top performers with limit: {}", correlationId, limit);
+        log.debug("Finding top performers with limit: {}", limit);
         
         try {
             Session session = getCurrentSession();
@@ -238,18 +325,17 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             query.setParameter(1, limit);
             List<User> users = query.getResultList();
             
-            log.debug("{} - Found {} top performers", correlationId, users.size());
+            log.debug("Found {} top performers", users.size());
             return users;
         } catch (Exception e) {
-            log.error("{} - Error finding top performers: {}", correlationId, e.getMessage(), e);
+            log.error("Error finding top performers: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to find top performers", e);
         }
     }
     
     @Override
     public List<Object[]> getUserWorkloadAnalysis(java.time.LocalDateTime startDate, java.time.LocalDateTime endDate) {
-        String correlationId = UUID.randomUUID().toString();
-        log.debug("{} - Getting user workload analysis from {} to {}", correlationId, startDate, endDate);
+        log.debug("Getting user workload analysis from {} to {}", startDate, endDate);
         
         try {
             Session session = getCurrentSession();
@@ -280,10 +366,10 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User, Long> implement
             query.setParameter(2, endDate);
             List<Object[]> results = query.getResultList();
             
-            log.debug("{} - Found workload analysis for {} users", correlationId, results.size());
+            log.debug("Found workload analysis for {} users", results.size());
             return results;
         } catch (Exception e) {
-            log.error("{} - Error getting user workload analysis: {}", correlationId, e.getMessage(), e);
+            log.error("Error getting user workload analysis: {}", e.getMessage(), e);
             throw new RepositoryException("Failed to get user workload analysis", e);
         }
     }
@@ -0,0 +1,46 @@
+package com.congdinh2008.tms.repositories.support;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset (seek) paginated query.
+ * The next cursor is an opaque token to pass back to {@code findAfter};
+ * it is null when there are no further rows.
+ *
+ * @param <T> The element type
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content != null ? Collections.unmodifiableList(content) : Collections.emptyList();
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public int size() {
+        return content.size();
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+                "size=" + content.size() +
+                ", hasNext=" + hasNext() +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.congdinh2008.tms.repositories.support;
+
+import com.congdinh2008.tms.exceptions.EntityNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of loading several entities by ID at once.
+ * Found entities are kept in request order and every requested ID that does not exist
+ * is reported, so callers can fail with all missing IDs instead of the first one.
+ *
+ * @param <T> The entity type
+ * @param <ID> The entity ID type
+ */
+public class MultiLoadResult<T, ID> {
+
+    private final Map<ID, T> found;
+    private final List<ID> missingIds;
+
+    /**
+     * @param requestedIds the distinct requested IDs
+     * @param loaded the loaded entities, positionally aligned with the IDs; null where missing
+     */
+    public MultiLoadResult(List<ID> requestedIds, List<T> loaded) {
+        Map<ID, T> foundById = new LinkedHashMap<>();
+        List<ID> missing = new ArrayList<>();
+        for (int i = 0; i < requestedIds.size(); i++) {
+            T entity = i < loaded.size() ? loaded.get(i) : null;
+            if (entity != null) {
+                foundById.put(requestedIds.get(i), entity);
+            } else {
+                missing.add(requestedIds.get(i));
+            }
+        }
+        this.found = Collections.unmodifiableMap(foundById);
+        this.missingIds = Collections.unmodifiableList(missing);
+    }
+
+    public static <T, ID> MultiLoadResult<T, ID> empty() {
+        return new MultiLoadResult<>(Collections.emptyList(), Collections.emptyList());
+    }
+
+    public T get(ID id) {
+        return found.get(id);
+    }
+
+    public List<T> getFound() {
+        return new ArrayList<>(found.values());
+    }
+
+    public List<ID> getMissingIds() {
+        return missingIds;
+    }
+
+    public boolean isComplete() {
+        return missingIds.isEmpty();
+    }
+
+    /**
+     * Get all found entities, failing if any requested ID is missing
+     * @param entityName the entity name used in the error message
+     * @return the entities in request order
+     * @throws EntityNotFoundException listing every missing ID
+     */
+    public List<T> requireAll(String entityName) {
+        if (missingIds.size() == 1) {
+            throw new EntityNotFoundException(entityName, missingIds.get(0));
+        }
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException(String.format("%s with ids %s not found", entityName, missingIds));
+        }
+        return getFound();
+    }
+
+    @Override
+    public String toString() {
+        return "MultiLoadResult{" +
+                "found=" + found.size() +
+                ", missingIds=" + missingIds +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.congdinh2008.tms.repositories.support;
+
+import java.util.Objects;
+
+/**
+ * Sort specification for keyset (seek) pagination.
+ * The sort key must be one of the sortable properties whitelisted by the repository;
+ * the entity ID is always appended as a tie-breaker.
+ */
+public final class SortSpec {
+
+    public enum Direction {
+        ASC, DESC
+    }
+
+    private final String key;
+    private final Direction direction;
+
+    private SortSpec(String key, Direction direction) {
+        this.key = Objects.requireNonNull(key, "Sort key must not be null");
+        this.direction = Objects.requireNonNull(direction, "Sort direction must not be null");
+    }
+
+    public static SortSpec asc(String key) {
+        return new SortSpec(key, Direction.ASC);
+    }
+
+    public static SortSpec desc(String key) {
+        return new SortSpec(key, Direction.DESC);
+    }
+
+    /**
+     * Create a sort specification from a raw direction string
+     * @param key the sort key
+     * @param direction ASC or DESC (case-insensitive, defaults to ASC)
+     * @return the sort specification
+     */
+    public static SortSpec of(String key, String direction) {
+        return "DESC".equalsIgnoreCase(direction) ? desc(key) : asc(key);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isDescending() {
+        return direction == Direction.DESC;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SortSpec that)) return false;
+        return key.equals(that.key) && direction == that.direction;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, direction);
+    }
+
+    @Override
+    public String toString() {
+        return key + " " + direction;
+    }
+}
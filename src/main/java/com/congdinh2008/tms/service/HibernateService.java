@@ -1,16 +1,15 @@
 package com.congdinh2008.tms.service;
 
+import com.congdinh2008.tms.context.RequestContext;
 import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import java.util.UUID;
 
 /**
  * Spring Service for managing Hibernate SessionFactory
@@ -23,7 +22,6 @@ import java.util.UUID;
 public class HibernateService {
 
     private static final Logger logger = LoggerFactory.getLogger(HibernateService.class);
-    private static final String CORRELATION_ID = "correlationId";
 
     private final SessionFactory sessionFactory;
 
@@ -42,8 +40,7 @@ public class HibernateService {
      */
     @PostConstruct
     public void initialize() {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put(CORRELATION_ID, correlationId);
+        RequestContext.Scope scope = RequestContext.open();
 
         try {
             logger.info("HibernateService initialized with Spring IoC");
@@ -53,7 +50,7 @@ public class HibernateService {
                 logger.debug("Hibernate statistics are enabled");
             }
         } finally {
-            MDC.remove(CORRELATION_ID);
+            scope.close();
         }
     }
 
@@ -62,13 +59,12 @@ public class HibernateService {
      */
     @PreDestroy
     public void cleanup() {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put(CORRELATION_ID, correlationId);
+        RequestContext.Scope scope = RequestContext.open();
 
         try {
             logger.info("HibernateService cleanup initiated");
         } finally {
-            MDC.remove(CORRELATION_ID);
+            scope.close();
         }
     }
 
@@ -106,8 +102,7 @@ public class HibernateService {
      * Logs current connection pool statistics if available
      */
     public void logConnectionPoolStats() {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put(CORRELATION_ID, correlationId);
+        RequestContext.Scope scope = RequestContext.open();
 
         try {
             Statistics stats = getStatistics();
@@ -116,14 +111,28 @@ public class HibernateService {
                 logger.info("Hibernate Statistics - Sessions closed: {}", stats.getSessionCloseCount());
                 logger.info("Hibernate Statistics - Transactions: {}", stats.getTransactionCount());
                 
-                double hitRatio = stats.getQueryCacheHitCount() > 0 ? 
-                    (double) stats.getQueryCacheHitCount() / stats.getQueryExecutionCount() * 100 : 0.0;
-                logger.info("Hibernate Statistics - Cache hit ratio: {}%", String.format("%.2f", hitRatio));
+                logger.info("Hibernate Statistics - Second-level cache hit ratio: {}%", String.format("%.2f",
+                        hitRatio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount())));
+                logger.info("Hibernate Statistics - Query cache hit ratio: {}%", String.format("%.2f",
+                        hitRatio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount())));
             } else {
                 logger.debug("Hibernate statistics are not enabled");
             }
         } finally {
-            MDC.remove(CORRELATION_ID);
+            scope.close();
         }
     }
+
+    /**
+     * Hit ratio as a percentage of cache lookups (hits and misses); per-region figures are
+     * available from {@link com.congdinh2008.tms.cache.CacheStatisticsService}
+     * 
+     * @param hits cache hits
+     * @param misses cache misses
+     * @return hit ratio in percent, 0 when there were no lookups
+     */
+    private static double hitRatio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups > 0 ? (double) hits / lookups * 100 : 0.0;
+    }
 }
@@ -25,6 +25,24 @@ public interface ReportService {
      */
     List<Task> getOverdueTasks(int page, int size);
     
+    /**
+     * Get overdue tasks of a single project with pagination
+     * 
+     * @param projectId the project ID, or null for all projects
+     * @param page page number (0-based)
+     * @param size page size
+     * @return list of overdue tasks
+     */
+    List<Task> getOverdueTasks(Long projectId, int page, int size);
+    
+    /**
+     * Count overdue tasks without loading them
+     * 
+     * @param projectId the project ID, or null for all projects
+     * @return number of overdue tasks
+     */
+    long countOverdueTasks(Long projectId);
+    
     /**
      * Get task change history for a specific task
      * 
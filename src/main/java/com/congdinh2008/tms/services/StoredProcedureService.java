@@ -23,7 +23,7 @@ public interface StoredProcedureService {
     
     /**
      * Get comprehensive project statistics
-     * Uses stored procedure: sp_project_statistics
+     * Reads the project_stats row maintained on every task write
      * 
      * @param projectId the project ID
      * @return project statistics including completion rate, task counts
@@ -2,9 +2,11 @@ package com.congdinh2008.tms.services;
 
 import com.congdinh2008.tms.dto.request.CreateTaskRequest;
 import com.congdinh2008.tms.dto.request.UpdateTaskRequest;
+import com.congdinh2008.tms.dto.response.BulkStatusChangeResult;
 import com.congdinh2008.tms.dto.response.TaskResponse;
 import com.congdinh2008.tms.enums.TaskStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,6 +26,17 @@ public interface TaskService extends BaseService<TaskResponse, Long> {
      */
     TaskResponse create(CreateTaskRequest request);
     
+    /**
+     * Create many tasks at once, e.g. for a sprint import.
+     * Referenced projects, users, tags and parent tasks are resolved with one query per type
+     * and the tasks are inserted in JDBC batches. All requests are validated before any task
+     * is inserted.
+     * 
+     * @param requests task creation requests
+     * @return created task responses, in request order
+     */
+    List<TaskResponse> createAll(List<CreateTaskRequest> requests);
+    
     /**
      * Update an existing task
      * 
@@ -59,6 +72,17 @@ public interface TaskService extends BaseService<TaskResponse, Long> {
      */
     TaskResponse changeStatus(Long taskId, TaskStatus status);
     
+    /**
+     * Change the status of many tasks at once without loading them.
+     * Business rule R7 is enforced in the database: when completing, a task is only updated
+     * if all its subtasks are done, counting subtasks completed by the same call.
+     * 
+     * @param taskIds task IDs
+     * @param status new status
+     * @return outcome per task
+     */
+    BulkStatusChangeResult changeStatusBulk(Collection<Long> taskIds, TaskStatus status);
+    
     /**
      * Get tasks by project ID
      * 
@@ -83,6 +107,18 @@ public interface TaskService extends BaseService<TaskResponse, Long> {
      */
     List<TaskResponse> getSubtasks(Long parentTaskId);
     
+    /**
+     * Get a task with its subtasks nested below it, loaded in a single query.
+     * Every node carries a rolled-up completion percentage: a task without subtasks
+     * is 100 when done and 0 otherwise, a parent is the mean of its subtasks.
+     * Tasks on the deepest loaded level count as leaves.
+     * 
+     * @param rootId root task ID
+     * @param maxDepth how many levels below the root to load
+     * @return the root task with nested subtasks
+     */
+    TaskResponse getTaskTree(Long rootId, int maxDepth);
+    
     /**
      * Add a tag to a task
      * 
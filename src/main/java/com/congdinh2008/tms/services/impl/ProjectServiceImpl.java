@@ -1,10 +1,12 @@
 package com.congdinh2008.tms.services.impl;
 
+import com.congdinh2008.tms.cache.ProjectMembershipIndex;
 import com.congdinh2008.tms.dto.request.CreateProjectRequest;
 import com.congdinh2008.tms.dto.request.UpdateProjectRequest;
 import com.congdinh2008.tms.dto.response.ProjectResponse;
 import com.congdinh2008.tms.entities.Project;
 import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.BusinessRuleViolationException;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
@@ -14,6 +16,7 @@ import com.congdinh2008.tms.services.ProjectService;
 import com.congdinh2008.tms.utils.MapperUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,10 +38,15 @@ public class ProjectServiceImpl implements ProjectService {
     
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectMembershipIndex membershipIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public ProjectServiceImpl(ProjectRepository projectRepository, UserRepository userRepository) {
+    public ProjectServiceImpl(ProjectRepository projectRepository, UserRepository userRepository,
+                             ProjectMembershipIndex membershipIndex, ApplicationEventPublisher eventPublisher) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
+        this.membershipIndex = membershipIndex;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -46,11 +54,7 @@ public class ProjectServiceImpl implements ProjectService {
         logger.info("Creating project with name: {}", request.getName());
         
         // Business Rule: Check for duplicate project name
-        List<Project> existingProjects = projectRepository.findByNameContaining(request.getName());
-        boolean duplicateExists = existingProjects.stream()
-                .anyMatch(p -> p.getName().equalsIgnoreCase(request.getName()));
-        
-        if (duplicateExists) {
+        if (projectRepository.existsByNameIgnoreCase(request.getName(), null)) {
             throw new DuplicateEntityException("Project", "name", request.getName());
         }
         
@@ -59,17 +63,12 @@ public class ProjectServiceImpl implements ProjectService {
         
         // Add members if provided
         if (request.getMemberIds() != null && !request.getMemberIds().isEmpty()) {
-            List<User> members = new ArrayList<>();
-            for (Long memberId : request.getMemberIds()) {
-                User user = userRepository.findByIdOptional(memberId)
-                        .orElseThrow(() -> new EntityNotFoundException("User", memberId));
-                members.add(user);
-            }
-            project.setMembers(members);
+            project.setMembers(userRepository.findAllByIds(request.getMemberIds()).requireAll("User"));
         }
         
         // Save project
         Project savedProject = projectRepository.save(project);
+        membershipIndex.membersReplaced(savedProject.getId(), memberIds(savedProject));
         
         logger.info("Project created successfully with ID: {}", savedProject.getId());
         return MapperUtil.mapToDto(savedProject, ProjectResponse.class);
@@ -95,11 +94,7 @@ public class ProjectServiceImpl implements ProjectService {
         
         // Business Rule: Check for duplicate name if name is being changed
         if (request.getName() != null && !request.getName().equals(existingProject.getName())) {
-            List<Project> existingProjects = projectRepository.findByNameContaining(request.getName());
-            boolean duplicateExists = existingProjects.stream()
-                    .anyMatch(p -> p.getName().equalsIgnoreCase(request.getName()) && !p.getId().equals(id));
-            
-            if (duplicateExists) {
+            if (projectRepository.existsByNameIgnoreCase(request.getName(), id)) {
                 throw new DuplicateEntityException("Project", "name", request.getName());
             }
         }
@@ -109,16 +104,13 @@ public class ProjectServiceImpl implements ProjectService {
         
         // Update members if provided
         if (request.getMemberIds() != null) {
-            List<User> members = new ArrayList<>();
-            for (Long memberId : request.getMemberIds()) {
-                User user = userRepository.findByIdOptional(memberId)
-                        .orElseThrow(() -> new EntityNotFoundException("User", memberId));
-                members.add(user);
-            }
-            existingProject.setMembers(members);
+            existingProject.setMembers(userRepository.findAllByIds(request.getMemberIds()).requireAll("User"));
         }
         
         Project updatedProject = projectRepository.save(existingProject);
+        if (request.getMemberIds() != null) {
+            membershipIndex.membersReplaced(id, memberIds(updatedProject));
+        }
         
         logger.info("Project updated successfully with ID: {}", updatedProject.getId());
         return MapperUtil.mapToDto(updatedProject, ProjectResponse.class);
@@ -138,6 +130,9 @@ public class ProjectServiceImpl implements ProjectService {
         }
         
         projectRepository.delete(project);
+        // The project's tasks are removed by cascade
+        eventPublisher.publishEvent(TaskChangedEvent.bulkChange());
+        membershipIndex.projectRemoved(id);
         logger.info("Project deleted successfully with ID: {}", id);
     }
     
@@ -184,6 +179,7 @@ public class ProjectServiceImpl implements ProjectService {
         
         project.getMembers().add(user);
         Project updatedProject = projectRepository.save(project);
+        membershipIndex.memberAdded(projectId, userId);
         
         logger.info("Member added successfully to project");
         return MapperUtil.mapToDto(updatedProject, ProjectResponse.class);
@@ -205,6 +201,7 @@ public class ProjectServiceImpl implements ProjectService {
         
         project.getMembers().remove(user);
         Project updatedProject = projectRepository.save(project);
+        membershipIndex.memberRemoved(projectId, userId);
         
         logger.info("Member removed successfully from project");
         return MapperUtil.mapToDto(updatedProject, ProjectResponse.class);
@@ -228,4 +225,12 @@ public class ProjectServiceImpl implements ProjectService {
         
         return responses;
     }
+    
+    private static List<Long> memberIds(Project project) {
+        List<Long> memberIds = new ArrayList<>(project.getMembers().size());
+        for (User member : project.getMembers()) {
+            memberIds.add(member.getId());
+        }
+        return memberIds;
+    }
 }
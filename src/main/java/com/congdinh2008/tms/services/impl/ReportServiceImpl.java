@@ -1,11 +1,14 @@
 package com.congdinh2008.tms.services.impl;
 
+import com.congdinh2008.tms.cache.ReportCache;
 import com.congdinh2008.tms.dto.response.ProjectStatistics;
 import com.congdinh2008.tms.dto.response.UserProductivity;
 import com.congdinh2008.tms.entities.Tag;
 import com.congdinh2008.tms.entities.Task;
 import com.congdinh2008.tms.entities.TaskHistory;
 import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.index.TaskBitmapIndex;
+import com.congdinh2008.tms.index.TaskFilter;
 import com.congdinh2008.tms.repositories.TagRepository;
 import com.congdinh2008.tms.repositories.TaskHistoryRepository;
 import com.congdinh2008.tms.repositories.TaskRepository;
@@ -19,11 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of ReportService for generating various reports and analytics
@@ -38,38 +39,49 @@ public class ReportServiceImpl implements ReportService {
     private final TaskHistoryRepository taskHistoryRepository;
     private final TagRepository tagRepository;
     private final StoredProcedureService storedProcedureService;
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final ReportCache reportCache;
     
     public ReportServiceImpl(TaskRepository taskRepository, 
                            TaskHistoryRepository taskHistoryRepository,
                            TagRepository tagRepository,
-                           StoredProcedureService storedProcedureService) {
+                           StoredProcedureService storedProcedureService,
+                           TaskBitmapIndex taskBitmapIndex,
+                           ReportCache reportCache) {
         this.taskRepository = taskRepository;
         this.taskHistoryRepository = taskHistoryRepository;
         this.tagRepository = tagRepository;
         this.storedProcedureService = storedProcedureService;
+        this.taskBitmapIndex = taskBitmapIndex;
+        this.reportCache = reportCache;
     }
     
     @Override
     public List<Task> getOverdueTasks(int page, int size) {
-        logger.info("Getting overdue tasks - page: {}, size: {}", page, size);
-        
-        List<Task> overdueTasks = taskRepository.findOverdueTasks();
-        
-        // Manual pagination since we're not using Spring Data
-        int start = page * size;
-        int end = Math.min(start + size, overdueTasks.size());
-        
-        if (start >= overdueTasks.size()) {
-            return new ArrayList<>();
-        }
+        return getOverdueTasks(null, page, size);
+    }
+    
+    @Override
+    public List<Task> getOverdueTasks(Long projectId, int page, int size) {
+        logger.info("Getting overdue tasks - project: {}, page: {}, size: {}", projectId, page, size);
         
-        List<Task> pagedResults = overdueTasks.subList(start, end);
-        logger.info("Found {} overdue tasks (page {} of {})", pagedResults.size(), page, 
-                   (overdueTasks.size() + size - 1) / size);
+        // Only the IDs are cached; the tasks are loaded by ID, mostly from the second-level cache
+        List<Long> taskIds = reportCache.get(ReportCache.Region.OVERDUE_TASKS, 
+                ReportCache.projectKey(projectId, page, size),
+                () -> taskRepository.findOverdueTasks(projectId, page, size).stream().map(Task::getId).toList());
+        List<Task> pagedResults = taskRepository.findAllByIds(taskIds).getFound();
         
+        logger.info("Found {} overdue tasks (page {})", pagedResults.size(), page);
         return pagedResults;
     }
     
+    @Override
+    public long countOverdueTasks(Long projectId) {
+        logger.info("Counting overdue tasks - project: {}", projectId);
+        
+        return taskRepository.countOverdueTasks(projectId);
+    }
+    
     @Override
     public List<TaskHistory> getTaskChangeHistory(Long taskId) {
         logger.info("Getting change history for task {}", taskId);
@@ -116,18 +128,8 @@ public class ReportServiceImpl implements ReportService {
     public Map<TaskStatus, Long> getTaskDistributionByStatus(Long projectId) {
         logger.info("Getting task distribution by status for project {}", projectId);
         
-        List<Task> projectTasks = taskRepository.findByProject(projectId);
-        
-        Map<TaskStatus, Long> distribution = projectTasks.stream()
-            .collect(Collectors.groupingBy(
-                Task::getStatus,
-                Collectors.counting()
-            ));
-        
-        // Ensure all statuses are represented (even with 0 count)
-        for (TaskStatus status : TaskStatus.values()) {
-            distribution.putIfAbsent(status, 0L);
-        }
+        // Counted from the in-memory bitmap index; every status is present, even with 0 count
+        Map<TaskStatus, Long> distribution = taskBitmapIndex.countByStatus(TaskFilter.project(projectId));
         
         logger.info("Task distribution for project {}: {}", projectId, distribution);
         return distribution;
@@ -139,7 +141,9 @@ public class ReportServiceImpl implements ReportService {
         
         // This would require a complex query; for now, return all tags
         // In a real implementation, we'd use a native query to count tag usage
-        List<Tag> allTags = tagRepository.findAll(0, limit, "name", "ASC");
+        List<Long> tagIds = reportCache.get(ReportCache.Region.POPULAR_TAGS, ReportCache.projectKey(null, limit),
+                () -> tagRepository.findAll(0, limit, "name", "ASC").stream().map(Tag::getId).toList());
+        List<Tag> allTags = tagRepository.findAllByIds(tagIds).getFound();
         
         logger.info("Returning {} tags", allTags.size());
         return allTags;
@@ -150,15 +154,9 @@ public class ReportServiceImpl implements ReportService {
         logger.info("Getting tasks with many changes for project {} (min changes: {})", 
                    projectId, minChanges);
         
-        List<Task> projectTasks = taskRepository.findByProject(projectId);
-        List<Task> tasksWithManyChanges = new ArrayList<>();
-        
-        for (Task task : projectTasks) {
-            List<TaskHistory> history = taskHistoryRepository.findByTaskIdOrderByTimestampDesc(task.getId());
-            if (history.size() >= minChanges) {
-                tasksWithManyChanges.add(task);
-            }
-        }
+        // History is counted in the database instead of being fetched task by task
+        List<Long> taskIds = taskRepository.findTaskIdsWithManyChanges(projectId, minChanges);
+        List<Task> tasksWithManyChanges = taskRepository.findAllByIds(taskIds).getFound();
         
         logger.info("Found {} tasks with {} or more changes", tasksWithManyChanges.size(), minChanges);
         return tasksWithManyChanges;
@@ -187,10 +185,7 @@ public class ReportServiceImpl implements ReportService {
         healthSummary.put("taskDistribution", distribution);
         
         // Get overdue tasks count
-        List<Task> overdueTasks = getOverdueTasks(0, Integer.MAX_VALUE);
-        long projectOverdueTasks = overdueTasks.stream()
-            .filter(task -> task.getProject().getId().equals(projectId))
-            .count();
+        long projectOverdueTasks = taskRepository.countOverdueTasks(projectId);
         healthSummary.put("overdueTasksCount", projectOverdueTasks);
         
         // Calculate health score (0-100)
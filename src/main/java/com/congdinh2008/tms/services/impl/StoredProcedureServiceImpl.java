@@ -1,10 +1,13 @@
 package com.congdinh2008.tms.services.impl;
 
-import com.congdinh2008.tms.config.HibernateUtil;
+import com.congdinh2008.tms.cache.ReportCache;
 import com.congdinh2008.tms.dto.response.ProjectStatistics;
 import com.congdinh2008.tms.dto.response.UserProductivity;
+import com.congdinh2008.tms.exceptions.RepositoryException;
+import com.congdinh2008.tms.repositories.ProjectRepository;
 import com.congdinh2008.tms.services.StoredProcedureService;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.query.NativeQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +21,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Implementation of StoredProcedureService for executing stored procedures and complex database operations
+ * Implementation of StoredProcedureService for executing stored procedures and complex database operations.
+ * Runs on the Spring-managed SessionFactory, so every call joins the caller's transaction.
+ * A failed statement aborts that transaction in PostgreSQL, so errors are rethrown as
+ * RepositoryException rather than answered with an empty result the caller might build on.
  */
 @Service
 @Transactional(readOnly = true)
@@ -26,11 +32,23 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
     
     private static final Logger logger = LoggerFactory.getLogger(StoredProcedureServiceImpl.class);
     
+    private final SessionFactory sessionFactory;
+    private final ProjectRepository projectRepository;
+    private final ReportCache reportCache;
+    
+    public StoredProcedureServiceImpl(SessionFactory sessionFactory, ProjectRepository projectRepository,
+                                      ReportCache reportCache) {
+        this.sessionFactory = sessionFactory;
+        this.projectRepository = projectRepository;
+        this.reportCache = reportCache;
+    }
+    
     @Override
     public Long countCompletedTasksByUser(Long userId, Integer numberOfDays) {
         logger.info("Counting completed tasks for user {} in last {} days", userId, numberOfDays);
         
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try {
+            Session session = sessionFactory.getCurrentSession();
             // Use native SQL to call stored procedure since Hibernate Core doesn't have good stored procedure support
             String sql = "SELECT sp_count_completed_tasks_by_user(:userId, :numberOfDays)";
             
@@ -46,7 +64,7 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
             
         } catch (Exception e) {
             logger.error("Error counting completed tasks for user {}: {}", userId, e.getMessage(), e);
-            return 0L;
+            throw new RepositoryException("Error counting completed tasks for user", e);
         }
     }
     
@@ -54,34 +72,19 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
     public ProjectStatistics getProjectStatistics(Long projectId) {
         logger.info("Getting statistics for project {}", projectId);
         
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Use native SQL to call stored procedure
-            String sql = "SELECT * FROM sp_project_statistics(:projectId)";
-            
-            NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
-            query.setParameter("projectId", projectId);
-            
-            Object[] result = query.getSingleResult();
+        try {
+            // Read from the incrementally maintained project_stats row instead of
+            // sp_project_statistics, which counts every task of the project
+            ProjectStatistics stats = reportCache.get(ReportCache.Region.PROJECT_STATISTICS, projectId,
+                    () -> projectRepository.findStatistics(projectId));
             
-            if (result != null && result.length >= 5) {
-                ProjectStatistics stats = new ProjectStatistics();
-                stats.setTotalTasks(result[0] != null ? ((Number) result[0]).longValue() : 0L);
-                stats.setCompletedTasks(result[1] != null ? ((Number) result[1]).longValue() : 0L);
-                stats.setInProgressTasks(result[2] != null ? ((Number) result[2]).longValue() : 0L);
-                stats.setOverdueTasks(result[3] != null ? ((Number) result[3]).longValue() : 0L);
-                stats.setCompletionRate(result[4] != null ? (BigDecimal) result[4] : BigDecimal.ZERO);
-                
-                logger.info("Project {} statistics: {} total, {} completed, {}% completion rate", 
-                           projectId, stats.getTotalTasks(), stats.getCompletedTasks(), stats.getCompletionRate());
-                return stats;
-            } else {
-                logger.warn("No statistics found for project {}", projectId);
-                return new ProjectStatistics(0L, 0L, 0L, 0L, BigDecimal.ZERO);
-            }
+            logger.info("Project {} statistics: {} total, {} completed, {}% completion rate", 
+                       projectId, stats.getTotalTasks(), stats.getCompletedTasks(), stats.getCompletionRate());
+            return stats;
             
         } catch (Exception e) {
             logger.error("Error getting statistics for project {}: {}", projectId, e.getMessage(), e);
-            return new ProjectStatistics(0L, 0L, 0L, 0L, BigDecimal.ZERO);
+            throw new RepositoryException("Error getting project statistics", e);
         }
     }
     
@@ -89,64 +92,70 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
     public List<UserProductivity> getUserProductivityReport(LocalDate startDate, LocalDate endDate) {
         logger.info("Generating user productivity report from {} to {}", startDate, endDate);
         
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Use native query for complex productivity analysis
-            String sql = """
-                SELECT u.id as user_id,
-                       u.name as user_name,
-                       COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
-                                           AND th.change_date >= :startDate AND th.change_date <= :endDate 
-                                           THEN th.task_id END) as completed_tasks,
-                       COUNT(DISTINCT t.id) as total_assigned_tasks,
-                       CASE WHEN COUNT(DISTINCT t.id) > 0 THEN 
-                           ROUND((COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
-                                                      AND th.change_date >= :startDate AND th.change_date <= :endDate 
-                                                      THEN th.task_id END) * 100.0 / COUNT(DISTINCT t.id)), 2)
-                           ELSE 0 
-                       END as productivity_rate
-                FROM users u
-                LEFT JOIN tasks t ON u.id = t.assignee_id
-                LEFT JOIN task_history th ON t.id = th.task_id AND th.changed_by_id = u.id
-                WHERE u.id IS NOT NULL
-                GROUP BY u.id, u.name
-                HAVING COUNT(DISTINCT t.id) > 0
-                ORDER BY productivity_rate DESC, completed_tasks DESC
-                """;
-            
-            NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
-            query.setParameter("startDate", startDate.atStartOfDay());
-            query.setParameter("endDate", endDate.atTime(23, 59, 59));
-            
-            List<Object[]> results = query.getResultList();
-            List<UserProductivity> productivityList = new ArrayList<>();
-            
-            for (Object[] row : results) {
-                UserProductivity productivity = new UserProductivity();
-                productivity.setUserId(row[0] != null ? ((Number) row[0]).longValue() : null);
-                productivity.setUserName(row[1] != null ? row[1].toString() : "Unknown");
-                productivity.setCompletedTasks(row[2] != null ? ((Number) row[2]).longValue() : 0L);
-                productivity.setTotalAssignedTasks(row[3] != null ? ((Number) row[3]).longValue() : 0L);
-                productivity.setProductivityRate(row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO);
-                
-                productivityList.add(productivity);
-            }
-            
-            logger.info("Generated productivity report for {} users", productivityList.size());
-            return productivityList;
-            
+        try {
+            String key = ReportCache.projectKey(null, startDate, endDate);
+            return reportCache.get(ReportCache.Region.USER_PRODUCTIVITY, key,
+                    () -> queryUserProductivityReport(startDate, endDate));
         } catch (Exception e) {
             logger.error("Error generating user productivity report: {}", e.getMessage(), e);
-            return new ArrayList<>();
+            throw new RepositoryException("Error generating user productivity report", e);
         }
     }
     
+    private List<UserProductivity> queryUserProductivityReport(LocalDate startDate, LocalDate endDate) {
+        Session session = sessionFactory.getCurrentSession();
+        // Use native query for complex productivity analysis
+        String sql = """
+            SELECT u.id as user_id,
+                   u.name as user_name,
+                   COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
+                                       AND th.change_date >= :startDate AND th.change_date <= :endDate 
+                                       THEN th.task_id END) as completed_tasks,
+                   COUNT(DISTINCT t.id) as total_assigned_tasks,
+                   CASE WHEN COUNT(DISTINCT t.id) > 0 THEN 
+                       ROUND((COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
+                                                  AND th.change_date >= :startDate AND th.change_date <= :endDate 
+                                                  THEN th.task_id END) * 100.0 / COUNT(DISTINCT t.id)), 2)
+                       ELSE 0 
+                   END as productivity_rate
+            FROM users u
+            LEFT JOIN tasks t ON u.id = t.assignee_id
+            LEFT JOIN task_history th ON t.id = th.task_id AND th.changed_by_id = u.id
+            WHERE u.id IS NOT NULL
+            GROUP BY u.id, u.name
+            HAVING COUNT(DISTINCT t.id) > 0
+            ORDER BY productivity_rate DESC, completed_tasks DESC
+            """;
+        
+        NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
+        query.setParameter("startDate", startDate.atStartOfDay());
+        query.setParameter("endDate", endDate.atTime(23, 59, 59));
+        
+        List<Object[]> results = query.getResultList();
+        List<UserProductivity> productivityList = new ArrayList<>();
+        
+        for (Object[] row : results) {
+            UserProductivity productivity = new UserProductivity();
+            productivity.setUserId(row[0] != null ? ((Number) row[0]).longValue() : null);
+            productivity.setUserName(row[1] != null ? row[1].toString() : "Unknown");
+            productivity.setCompletedTasks(row[2] != null ? ((Number) row[2]).longValue() : 0L);
+            productivity.setTotalAssignedTasks(row[3] != null ? ((Number) row[3]).longValue() : 0L);
+            productivity.setProductivityRate(row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO);
+            
+            productivityList.add(productivity);
+        }
+        
+        logger.info("Generated productivity report for {} users", productivityList.size());
+        return List.copyOf(productivityList);
+    }
+    
     @Override
     @Transactional
     public Integer cleanupOldHistory(Integer daysToKeep) {
         logger.info("Cleaning up task history older than {} days", daysToKeep);
         
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            session.beginTransaction();
+        try {
+            Session session = sessionFactory.getCurrentSession();
             
             // Calculate cutoff date
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
@@ -157,14 +166,12 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
                 .setParameter("cutoffDate", cutoffDate)
                 .executeUpdate();
             
-            session.getTransaction().commit();
-            
             logger.info("Cleaned up {} old task history records", deletedCount);
             return deletedCount;
             
         } catch (Exception e) {
             logger.error("Error cleaning up old history: {}", e.getMessage(), e);
-            return 0;
+            throw new RepositoryException("Error cleaning up old task history", e);
         }
     }
     
@@ -172,56 +179,62 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
     public List<UserProductivity> getProjectUserProductivity(Long projectId, LocalDate startDate, LocalDate endDate) {
         logger.info("Getting user productivity for project {} from {} to {}", projectId, startDate, endDate);
         
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Native query for project-specific user productivity
-            String sql = """
-                SELECT u.id as user_id,
-                       u.name as user_name,
-                       COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
-                                           AND th.change_date >= :startDate AND th.change_date <= :endDate 
-                                           THEN th.task_id END) as completed_tasks,
-                       COUNT(DISTINCT t.id) as total_assigned_tasks,
-                       CASE WHEN COUNT(DISTINCT t.id) > 0 THEN 
-                           ROUND((COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
-                                                      AND th.change_date >= :startDate AND th.change_date <= :endDate 
-                                                      THEN th.task_id END) * 100.0 / COUNT(DISTINCT t.id)), 2)
-                           ELSE 0 
-                       END as productivity_rate
-                FROM users u
-                JOIN user_project up ON u.id = up.user_id
-                LEFT JOIN tasks t ON u.id = t.assignee_id AND t.project_id = :projectId
-                LEFT JOIN task_history th ON t.id = th.task_id AND th.changed_by_id = u.id
-                WHERE up.project_id = :projectId
-                GROUP BY u.id, u.name
-                ORDER BY productivity_rate DESC, completed_tasks DESC
-                """;
-            
-            NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
-            query.setParameter("projectId", projectId);
-            query.setParameter("startDate", startDate.atStartOfDay());
-            query.setParameter("endDate", endDate.atTime(23, 59, 59));
-            
-            List<Object[]> results = query.getResultList();
-            List<UserProductivity> productivityList = new ArrayList<>();
-            
-            for (Object[] row : results) {
-                UserProductivity productivity = new UserProductivity();
-                productivity.setUserId(row[0] != null ? ((Number) row[0]).longValue() : null);
-                productivity.setUserName(row[1] != null ? row[1].toString() : "Unknown");
-                productivity.setCompletedTasks(row[2] != null ? ((Number) row[2]).longValue() : 0L);
-                productivity.setTotalAssignedTasks(row[3] != null ? ((Number) row[3]).longValue() : 0L);
-                productivity.setProductivityRate(row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO);
-                
-                productivityList.add(productivity);
-            }
-            
-            logger.info("Generated project {} productivity report for {} users", projectId, productivityList.size());
-            return productivityList;
-            
+        try {
+            String key = ReportCache.projectKey(projectId, startDate, endDate);
+            return reportCache.get(ReportCache.Region.USER_PRODUCTIVITY, key, 
+                    () -> queryProjectUserProductivity(projectId, startDate, endDate));
         } catch (Exception e) {
             logger.error("Error getting project user productivity: {}", e.getMessage(), e);
-            return new ArrayList<>();
+            throw new RepositoryException("Error getting project user productivity", e);
+        }
+    }
+    
+    private List<UserProductivity> queryProjectUserProductivity(Long projectId, LocalDate startDate, LocalDate endDate) {
+        Session session = sessionFactory.getCurrentSession();
+        // Native query for project-specific user productivity
+        String sql = """
+            SELECT u.id as user_id,
+                   u.name as user_name,
+                   COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
+                                       AND th.change_date >= :startDate AND th.change_date <= :endDate 
+                                       THEN th.task_id END) as completed_tasks,
+                   COUNT(DISTINCT t.id) as total_assigned_tasks,
+                   CASE WHEN COUNT(DISTINCT t.id) > 0 THEN 
+                       ROUND((COUNT(DISTINCT CASE WHEN th.field_changed = 'STATUS' AND th.new_value = 'DONE' 
+                                                  AND th.change_date >= :startDate AND th.change_date <= :endDate 
+                                                  THEN th.task_id END) * 100.0 / COUNT(DISTINCT t.id)), 2)
+                       ELSE 0 
+                   END as productivity_rate
+            FROM users u
+            JOIN user_project up ON u.id = up.user_id
+            LEFT JOIN tasks t ON u.id = t.assignee_id AND t.project_id = :projectId
+            LEFT JOIN task_history th ON t.id = th.task_id AND th.changed_by_id = u.id
+            WHERE up.project_id = :projectId
+            GROUP BY u.id, u.name
+            ORDER BY productivity_rate DESC, completed_tasks DESC
+            """;
+        
+        NativeQuery<Object[]> query = session.createNativeQuery(sql, Object[].class);
+        query.setParameter("projectId", projectId);
+        query.setParameter("startDate", startDate.atStartOfDay());
+        query.setParameter("endDate", endDate.atTime(23, 59, 59));
+        
+        List<Object[]> results = query.getResultList();
+        List<UserProductivity> productivityList = new ArrayList<>();
+        
+        for (Object[] row : results) {
+            UserProductivity productivity = new UserProductivity();
+            productivity.setUserId(row[0] != null ? ((Number) row[0]).longValue() : null);
+            productivity.setUserName(row[1] != null ? row[1].toString() : "Unknown");
+            productivity.setCompletedTasks(row[2] != null ? ((Number) row[2]).longValue() : 0L);
+            productivity.setTotalAssignedTasks(row[3] != null ? ((Number) row[3]).longValue() : 0L);
+            productivity.setProductivityRate(row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO);
+            
+            productivityList.add(productivity);
         }
+        
+        logger.info("Generated project {} productivity report for {} users", projectId, productivityList.size());
+        return List.copyOf(productivityList);
     }
     
     @Override
@@ -237,18 +250,14 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
             summary.append("Deleted ").append(deletedRecords).append(" old history records. ");
             
             // 2. Update database statistics (PostgreSQL specific)
-            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-                session.beginTransaction();
-                
-                // Analyze tables for better query performance
-                String[] tables = {"tasks", "users", "projects", "task_history", "tags"};
-                for (String table : tables) {
-                    session.createNativeMutationQuery("ANALYZE " + table).executeUpdate();
-                }
-                
-                session.getTransaction().commit();
-                summary.append("Updated statistics for database tables. ");
+            Session session = sessionFactory.getCurrentSession();
+            
+            // Analyze tables for better query performance
+            String[] tables = {"tasks", "users", "projects", "task_history", "tags"};
+            for (String table : tables) {
+                session.createNativeMutationQuery("ANALYZE " + table).executeUpdate();
             }
+            summary.append("Updated statistics for database tables. ");
             
             // 3. Report summary
             summary.append("Maintenance completed successfully.");
@@ -260,7 +269,7 @@ public class StoredProcedureServiceImpl implements StoredProcedureService {
             
         } catch (Exception e) {
             logger.error("Error during maintenance operations: {}", e.getMessage(), e);
-            return "Maintenance failed: " + e.getMessage();
+            throw new RepositoryException("Error during maintenance operations", e);
         }
     }
 }
@@ -4,6 +4,8 @@ import com.congdinh2008.tms.dto.request.CreateTagRequest;
 import com.congdinh2008.tms.dto.request.UpdateTagRequest;
 import com.congdinh2008.tms.dto.response.TagResponse;
 import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.events.TagChangedEvent;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.repositories.TagRepository;
@@ -11,6 +13,7 @@ import com.congdinh2008.tms.services.TagService;
 import com.congdinh2008.tms.utils.MapperUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,9 +35,11 @@ public class TagServiceImpl implements TagService {
     private static final String TAG_ENTITY = "Tag";
     
     private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public TagServiceImpl(TagRepository tagRepository) {
+    public TagServiceImpl(TagRepository tagRepository, ApplicationEventPublisher eventPublisher) {
         this.tagRepository = tagRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -52,6 +57,7 @@ public class TagServiceImpl implements TagService {
         
         // Save tag
         Tag savedTag = tagRepository.save(tag);
+        eventPublisher.publishEvent(new TagChangedEvent(savedTag.getId()));
         
         logger.info("Tag created successfully with ID: {}", savedTag.getId());
         return MapperUtil.mapToDto(savedTag, TagResponse.class);
@@ -87,6 +93,7 @@ public class TagServiceImpl implements TagService {
         MapperUtil.updateEntityFromDto(request, existingTag);
         
         Tag updatedTag = tagRepository.save(existingTag);
+        eventPublisher.publishEvent(new TagChangedEvent(updatedTag.getId()));
         
         logger.info("Tag updated successfully with ID: {}", updatedTag.getId());
         return MapperUtil.mapToDto(updatedTag, TagResponse.class);
@@ -100,6 +107,8 @@ public class TagServiceImpl implements TagService {
                 .orElseThrow(() -> new EntityNotFoundException(TAG_ENTITY, id));
         
         tagRepository.delete(tag);
+        // The tag is dropped from every task carrying it
+        eventPublisher.publishEvent(TaskChangedEvent.bulkChange());
         logger.info("Tag deleted successfully with ID: {}", id);
     }
     
@@ -1,13 +1,19 @@
 package com.congdinh2008.tms.services.impl;
 
+import com.congdinh2008.tms.cache.ProjectMembershipIndex;
+import com.congdinh2008.tms.dto.projection.TaskTreeRow;
 import com.congdinh2008.tms.dto.request.CreateTaskRequest;
 import com.congdinh2008.tms.dto.request.UpdateTaskRequest;
+import com.congdinh2008.tms.dto.response.BulkStatusChangeResult;
+import com.congdinh2008.tms.dto.response.ProjectResponse;
 import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.dto.response.UserResponse;
 import com.congdinh2008.tms.entities.Project;
 import com.congdinh2008.tms.entities.Tag;
 import com.congdinh2008.tms.entities.Task;
 import com.congdinh2008.tms.entities.User;
 import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.BusinessRuleViolationException;
 import com.congdinh2008.tms.exceptions.CircularReferenceException;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
@@ -17,15 +23,24 @@ import com.congdinh2008.tms.repositories.ProjectRepository;
 import com.congdinh2008.tms.repositories.TagRepository;
 import com.congdinh2008.tms.repositories.TaskRepository;
 import com.congdinh2008.tms.repositories.UserRepository;
+import com.congdinh2008.tms.repositories.support.MultiLoadResult;
 import com.congdinh2008.tms.services.TaskService;
 import com.congdinh2008.tms.utils.MapperUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of TaskService providing business logic for task operations
@@ -45,13 +60,18 @@ public class TaskServiceImpl implements TaskService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final TagRepository tagRepository;
+    private final ProjectMembershipIndex membershipIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public TaskServiceImpl(TaskRepository taskRepository, ProjectRepository projectRepository,
-                          UserRepository userRepository, TagRepository tagRepository) {
+                          UserRepository userRepository, TagRepository tagRepository,
+                          ProjectMembershipIndex membershipIndex, ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.tagRepository = tagRepository;
+        this.membershipIndex = membershipIndex;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -69,7 +89,7 @@ public class TaskServiceImpl implements TaskService {
                     .orElseThrow(() -> new EntityNotFoundException("User", request.getAssigneeId()));
             
             // Business Rule R3: Only project members can be assigned tasks
-            if (!userRepository.isUserMemberOfProject(request.getAssigneeId(), request.getProjectId())) {
+            if (!membershipIndex.isMember(request.getProjectId(), request.getAssigneeId())) {
                 throw new InvalidAssignmentException("User must be a project member to be assigned tasks");
             }
         }
@@ -96,22 +116,113 @@ public class TaskServiceImpl implements TaskService {
         
         // Add tags if provided
         if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            List<Tag> tags = new ArrayList<>();
-            for (Long tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findByIdOptional(tagId)
-                        .orElseThrow(() -> new EntityNotFoundException("Tag", tagId));
-                tags.add(tag);
-            }
-            task.setTags(tags);
+            task.setTags(tagRepository.findAllByIds(request.getTagIds()).requireAll("Tag"));
         }
         
         // Save task
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(savedTask));
         
         logger.info("Task created successfully with ID: {}", savedTask.getId());
         return MapperUtil.mapToDto(savedTask, TaskResponse.class);
     }
     
+    @Override
+    public List<TaskResponse> createAll(List<CreateTaskRequest> requests) {
+        logger.info("Creating {} tasks in bulk", requests.size());
+        
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Collect every referenced ID so each entity type is resolved with a single query
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> assigneeIds = new HashSet<>();
+        Set<Long> tagIds = new HashSet<>();
+        Set<Long> parentTaskIds = new HashSet<>();
+        for (CreateTaskRequest request : requests) {
+            projectIds.add(request.getProjectId());
+            if (request.getAssigneeId() != null) {
+                assigneeIds.add(request.getAssigneeId());
+            }
+            if (request.getTagIds() != null) {
+                tagIds.addAll(request.getTagIds());
+            }
+            if (request.getParentTaskId() != null) {
+                parentTaskIds.add(request.getParentTaskId());
+            }
+        }
+        
+        MultiLoadResult<Project, Long> projects = projectRepository.findAllByIds(projectIds);
+        MultiLoadResult<User, Long> assignees = userRepository.findAllByIds(assigneeIds);
+        MultiLoadResult<Tag, Long> tags = tagRepository.findAllByIds(tagIds);
+        MultiLoadResult<Task, Long> parentTasks = taskRepository.findAllByIds(parentTaskIds);
+        
+        // Report every missing reference at once rather than the first one found
+        projects.requireAll("Project");
+        assignees.requireAll("User");
+        tags.requireAll("Tag");
+        parentTasks.requireAll(TASK_ENTITY);
+        Map<Long, Set<Long>> membersByProject = assigneeIds.isEmpty()
+                ? new HashMap<>()
+                : userRepository.findMemberIdsByProjectIds(projectIds);
+        
+        // Validate everything before the first insert so a bad request creates nothing
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (CreateTaskRequest request : requests) {
+            Project project = projects.get(request.getProjectId());
+            
+            User assignee = null;
+            if (request.getAssigneeId() != null) {
+                assignee = assignees.get(request.getAssigneeId());
+                
+                // Business Rule R3: Only project members can be assigned tasks
+                Set<Long> memberIds = membersByProject.getOrDefault(request.getProjectId(), Set.of());
+                if (!memberIds.contains(request.getAssigneeId())) {
+                    throw new InvalidAssignmentException("User must be a project member to be assigned tasks");
+                }
+            }
+            
+            Task parentTask = null;
+            if (request.getParentTaskId() != null) {
+                parentTask = parentTasks.get(request.getParentTaskId());
+                
+                // Business Rule R4: Parent task must be in the same project
+                if (!parentTask.getProject().getId().equals(request.getProjectId())) {
+                    throw new BusinessRuleViolationException("R4", 
+                            "Parent task must be in the same project as the subtask");
+                }
+            }
+            
+            Task task = MapperUtil.mapToEntity(request, Task.class);
+            task.setProject(project);
+            task.setAssignee(assignee);
+            task.setParentTask(parentTask);
+            task.setStatus(TaskStatus.TODO); // Default status
+            
+            if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
+                List<Tag> taskTags = new ArrayList<>();
+                for (Long tagId : request.getTagIds()) {
+                    taskTags.add(tags.get(tagId));
+                }
+                task.setTags(taskTags);
+            }
+            tasks.add(task);
+        }
+        
+        // Inserted in JDBC batches; each flushed batch is detached to keep the session small
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        
+        List<TaskResponse> responses = new ArrayList<>(savedTasks.size());
+        for (Task savedTask : savedTasks) {
+            responses.add(MapperUtil.mapToDto(savedTask, TaskResponse.class));
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.saved(savedTasks));
+        
+        logger.info("{} tasks created successfully", responses.size());
+        return responses;
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public TaskResponse getById(Long id) {
@@ -136,8 +247,7 @@ public class TaskServiceImpl implements TaskService {
                     .orElseThrow(() -> new EntityNotFoundException("User", request.getAssigneeId()));
             
             // Business Rule R3: Only project members can be assigned tasks
-            if (!userRepository.isUserMemberOfProject(request.getAssigneeId(), 
-                    existingTask.getProject().getId())) {
+            if (!membershipIndex.isMember(existingTask.getProject().getId(), request.getAssigneeId())) {
                 throw new InvalidAssignmentException("User must be a project member to be assigned tasks");
             }
             
@@ -145,12 +255,14 @@ public class TaskServiceImpl implements TaskService {
         }
         
         // Validate parent task if being changed
-        if (request.getParentTaskId() != null) {
+        boolean parentChanged = request.getParentTaskId() != null && (existingTask.getParentTask() == null
+                || !existingTask.getParentTask().getId().equals(request.getParentTaskId()));
+        if (parentChanged) {
             Task parentTask = taskRepository.findByIdOptional(request.getParentTaskId())
                     .orElseThrow(() -> new EntityNotFoundException(TASK_ENTITY, request.getParentTaskId()));
             
-            // Business Rule R5: Prevent circular references
-            if (isCircularReference(id, request.getParentTaskId())) {
+            // Business Rule R5: Prevent circular references (one closure table lookup at any depth)
+            if (taskRepository.isCircularReference(id, request.getParentTaskId())) {
                 throw new CircularReferenceException("Cannot set parent task - would create circular reference");
             }
             
@@ -168,16 +280,11 @@ public class TaskServiceImpl implements TaskService {
         
         // Update tags if provided
         if (request.getTagIds() != null) {
-            List<Tag> tags = new ArrayList<>();
-            for (Long tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findByIdOptional(tagId)
-                        .orElseThrow(() -> new EntityNotFoundException("Tag", tagId));
-                tags.add(tag);
-            }
-            existingTask.setTags(tags);
+            existingTask.setTags(tagRepository.findAllByIds(request.getTagIds()).requireAll("Tag"));
         }
         
         Task updatedTask = taskRepository.save(existingTask);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask));
         
         logger.info("Task updated successfully with ID: {}", updatedTask.getId());
         return MapperUtil.mapToDto(updatedTask, TaskResponse.class);
@@ -198,6 +305,7 @@ public class TaskServiceImpl implements TaskService {
         }
         
         taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(id, task.getProject().getId()));
         logger.info("Task deleted successfully with ID: {}", id);
     }
     
@@ -206,14 +314,8 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskResponse> getAll() {
         logger.debug("Retrieving all tasks");
         
-        List<Task> tasks = taskRepository.findAll();
-        List<TaskResponse> responses = new ArrayList<>();
-        
-        for (Task task : tasks) {
-            responses.add(MapperUtil.mapToDto(task, TaskResponse.class));
-        }
-        
-        return responses;
+        // Projection query: no entities are loaded into the persistence context
+        return taskRepository.findAllTaskResponses();
     }
     
     @Override
@@ -239,12 +341,13 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new EntityNotFoundException("User", userId));
         
         // Business Rule R3: Only project members can be assigned tasks
-        if (!userRepository.isUserMemberOfProject(userId, task.getProject().getId())) {
+        if (!membershipIndex.isMember(task.getProject().getId(), userId)) {
             throw new InvalidAssignmentException("User must be a project member to be assigned tasks");
         }
         
         task.setAssignee(user);
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask));
         
         logger.info("Task assigned successfully");
         return MapperUtil.mapToDto(updatedTask, TaskResponse.class);
@@ -259,6 +362,7 @@ public class TaskServiceImpl implements TaskService {
         
         task.setAssignee(null);
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask));
         
         logger.info("Task unassigned successfully");
         return MapperUtil.mapToDto(updatedTask, TaskResponse.class);
@@ -285,11 +389,58 @@ public class TaskServiceImpl implements TaskService {
         
         task.setStatus(status);
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask));
         
         logger.info("Task status changed successfully");
         return MapperUtil.mapToDto(updatedTask, TaskResponse.class);
     }
     
+    @Override
+    public BulkStatusChangeResult changeStatusBulk(Collection<Long> taskIds, TaskStatus status) {
+        logger.info("Changing status of {} tasks to {}", taskIds.size(), status);
+        
+        Set<Long> ids = new LinkedHashSet<>(taskIds);
+        Map<Long, TaskStatus> statusesBefore = taskRepository.findStatusesByIds(ids);
+        
+        // Completing a parent can depend on subtasks completed by the same call,
+        // so repeat the conditional update until it no longer changes anything
+        int updated = taskRepository.updateStatus(ids, status);
+        int totalUpdated = updated;
+        while (status == TaskStatus.DONE && updated > 0) {
+            updated = taskRepository.updateStatus(ids, status);
+            totalUpdated += updated;
+        }
+        
+        Map<Long, TaskStatus> statusesAfter = totalUpdated > 0
+                ? taskRepository.findStatusesByIds(ids)
+                : statusesBefore;
+        
+        Map<Long, BulkStatusChangeResult.Outcome> outcomes = new LinkedHashMap<>();
+        List<Long> updatedIds = new ArrayList<>();
+        for (Long id : ids) {
+            TaskStatus before = statusesBefore.get(id);
+            BulkStatusChangeResult.Outcome outcome;
+            if (before == null) {
+                outcome = BulkStatusChangeResult.Outcome.NOT_FOUND;
+            } else if (before == status) {
+                outcome = BulkStatusChangeResult.Outcome.UNCHANGED;
+            } else if (statusesAfter.get(id) == status) {
+                outcome = BulkStatusChangeResult.Outcome.UPDATED;
+                updatedIds.add(id);
+            } else {
+                outcome = BulkStatusChangeResult.Outcome.BLOCKED_BY_INCOMPLETE_SUBTASKS;
+            }
+            outcomes.put(id, outcome);
+        }
+        
+        if (!updatedIds.isEmpty()) {
+            eventPublisher.publishEvent(TaskChangedEvent.statusChanged(updatedIds, status));
+        }
+        
+        logger.info("Bulk status change finished: {} of {} tasks updated", totalUpdated, ids.size());
+        return new BulkStatusChangeResult(status, outcomes);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<TaskResponse> getTasksByProject(Long projectId) {
@@ -299,14 +450,7 @@ public class TaskServiceImpl implements TaskService {
             throw new EntityNotFoundException("Project", projectId);
         }
         
-        List<Task> tasks = taskRepository.findByProject(projectId);
-        List<TaskResponse> responses = new ArrayList<>();
-        
-        for (Task task : tasks) {
-            responses.add(MapperUtil.mapToDto(task, TaskResponse.class));
-        }
-        
-        return responses;
+        return taskRepository.findTaskResponsesByProject(projectId);
     }
     
     @Override
@@ -318,14 +462,7 @@ public class TaskServiceImpl implements TaskService {
             throw new EntityNotFoundException("User", userId);
         }
         
-        List<Task> tasks = taskRepository.findByAssignee(userId);
-        List<TaskResponse> responses = new ArrayList<>();
-        
-        for (Task task : tasks) {
-            responses.add(MapperUtil.mapToDto(task, TaskResponse.class));
-        }
-        
-        return responses;
+        return taskRepository.findTaskResponsesByAssignee(userId);
     }
     
     @Override
@@ -337,14 +474,69 @@ public class TaskServiceImpl implements TaskService {
             throw new EntityNotFoundException(TASK_ENTITY, parentTaskId);
         }
         
-        List<Task> subtasks = taskRepository.findSubTasks(parentTaskId);
-        List<TaskResponse> responses = new ArrayList<>();
+        return taskRepository.findSubTaskResponses(parentTaskId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public TaskResponse getTaskTree(Long rootId, int maxDepth) {
+        logger.debug("Retrieving task tree of task {} up to depth {}", rootId, maxDepth);
         
-        for (Task task : subtasks) {
-            responses.add(MapperUtil.mapToDto(task, TaskResponse.class));
+        List<TaskTreeRow> rows = taskRepository.findSubtree(rootId, maxDepth);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException(TASK_ENTITY, rootId);
         }
         
-        return responses;
+        // Rows arrive parents first, so each node's parent is already in the map
+        Map<Long, TaskResponse> nodes = new LinkedHashMap<>();
+        for (TaskTreeRow row : rows) {
+            TaskResponse node = toTreeNode(row);
+            nodes.put(row.taskId(), node);
+            if (row.parentTaskId() != null) {
+                TaskResponse parent = nodes.get(row.parentTaskId());
+                node.setParentTask(new TaskResponse(parent.getId(), parent.getTitle(), 
+                        parent.getStatus(), parent.getPriority()));
+                parent.getSubtasks().add(node);
+            }
+        }
+        
+        // Children are deeper than their parent, so visiting the rows in reverse
+        // rolls completion up in one pass
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            TaskResponse node = nodes.get(rows.get(i).taskId());
+            if (node.getSubtasks().isEmpty()) {
+                node.setRolledUpCompletionPercentage(node.getStatus() == TaskStatus.DONE ? 100.0 : 0.0);
+            } else {
+                double total = 0.0;
+                for (TaskResponse subtask : node.getSubtasks()) {
+                    total += subtask.getRolledUpCompletionPercentage();
+                }
+                node.setRolledUpCompletionPercentage(total / node.getSubtasks().size());
+            }
+        }
+        
+        return nodes.get(rootId);
+    }
+    
+    private static TaskResponse toTreeNode(TaskTreeRow row) {
+        TaskResponse node = new TaskResponse(row.taskId(), row.title(), row.status(), row.priority());
+        node.setDescription(row.description());
+        node.setDueDate(row.dueDate());
+        node.setCreatedAt(row.createdAt());
+        node.setUpdatedAt(row.updatedAt());
+        
+        ProjectResponse project = new ProjectResponse();
+        project.setId(row.projectId());
+        node.setProject(project);
+        
+        if (row.assigneeId() != null) {
+            UserResponse assignee = new UserResponse();
+            assignee.setId(row.assigneeId());
+            node.setAssignee(assignee);
+        }
+        
+        node.setSubtasks(new LinkedHashSet<>());
+        return node;
     }
     
     @Override
@@ -363,6 +555,7 @@ public class TaskServiceImpl implements TaskService {
         
         task.getTags().add(tag);
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask));
         
         logger.info("Tag added successfully to task");
         return MapperUtil.mapToDto(updatedTask, TaskResponse.class);
@@ -384,36 +577,9 @@ public class TaskServiceImpl implements TaskService {
         
         task.getTags().remove(tag);
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask));
         
         logger.info("Tag removed successfully from task");
         return MapperUtil.mapToDto(updatedTask, TaskResponse.class);
     }
-    
-    /**
-     * Check if setting a parent task would create a circular reference
-     * 
-     * @param taskId current task ID
-     * @param parentTaskId proposed parent task ID
-     * @return true if circular reference would be created
-     */
-    private boolean isCircularReference(Long taskId, Long parentTaskId) {
-        if (taskId.equals(parentTaskId)) {
-            return true;
-        }
-        
-        Task parentTask = taskRepository.findByIdOptional(parentTaskId).orElse(null);
-        if (parentTask == null) {
-            return false;
-        }
-        
-        // Check if any ancestor of the parent task is the current task
-        while (parentTask.getParentTask() != null) {
-            if (parentTask.getParentTask().getId().equals(taskId)) {
-                return true;
-            }
-            parentTask = parentTask.getParentTask();
-        }
-        
-        return false;
-    }
 }
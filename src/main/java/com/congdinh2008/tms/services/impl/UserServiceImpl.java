@@ -4,6 +4,7 @@ import com.congdinh2008.tms.dto.request.CreateUserRequest;
 import com.congdinh2008.tms.dto.request.UpdateUserRequest;
 import com.congdinh2008.tms.dto.response.UserResponse;
 import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.exceptions.InvalidAssignmentException;
@@ -12,6 +13,7 @@ import com.congdinh2008.tms.services.UserService;
 import com.congdinh2008.tms.utils.MapperUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,9 +35,11 @@ public class UserServiceImpl implements UserService {
     private static final String USER_ENTITY = "User";
     
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -109,6 +113,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new EntityNotFoundException(USER_ENTITY, id));
         
         userRepository.delete(user);
+        // Tasks assigned to the user are removed by cascade
+        eventPublisher.publishEvent(TaskChangedEvent.bulkChange());
         logger.info("User deleted successfully with ID: {}", id);
     }
     
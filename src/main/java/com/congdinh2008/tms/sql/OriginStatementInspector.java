@@ -0,0 +1,23 @@
+package com.congdinh2008.tms.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Prefixes every statement Hibernate prepares with a comment naming its {@link QueryOrigin}
+ * <p>
+ * The comment reaches the database, so statements in {@code pg_stat_activity}, the PostgreSQL
+ * slow statement log and {@code pg_stat_statements} can be traced back to the method that ran them,
+ * e.g. {@code /* TaskRepositoryImpl.findByProjectId *&#47; select ...}.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class OriginStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        String origin = QueryOrigin.current();
+        return origin != null ? "/* " + origin + " */ " + sql : sql;
+    }
+}
@@ -0,0 +1,71 @@
+package com.congdinh2008.tms.sql;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The repository or service method whose SQL the current thread is running
+ * <p>
+ * Set by {@link com.congdinh2008.tms.metrics.MethodMetricsPostProcessor} around every
+ * {@code *RepositoryImpl} and {@code *ServiceImpl} method; the innermost method wins, so SQL issued
+ * by a repository is attributed to it and native SQL issued by a service to the service method.
+ * Origin names are built once per method and reused.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class QueryOrigin {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    // Keyed by implementation class, since inherited repository methods share one Method object
+    private static final ClassValue<Map<Method, String>> NAMES = new ClassValue<>() {
+        @Override
+        protected Map<Method, String> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private QueryOrigin() {
+    }
+
+    /**
+     * Mark a method as the origin of the SQL the current thread runs next
+     * @param targetClass the implementation class
+     * @param method the method
+     * @return the previous origin, to be passed to {@link #restore(String)}
+     */
+    public static String enter(Class<?> targetClass, Method method) {
+        Map<Method, String> names = NAMES.get(targetClass);
+        String name = names.get(method);
+        if (name == null) {
+            name = targetClass.getSimpleName() + "." + method.getName();
+            names.putIfAbsent(method, name);
+        }
+        String previous = CURRENT.get();
+        CURRENT.set(name);
+        return previous;
+    }
+
+    /**
+     * Restore the origin that was current before {@link #enter(Class, Method)}
+     * @param previous the value returned by {@code enter}
+     */
+    public static void restore(String previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the origin of the current thread's SQL, e.g. {@code TaskRepositoryImpl.findByProjectId},
+     * or null outside a repository or service method
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,181 @@
+package com.congdinh2008.tms.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DataSource that times every statement executed on its connections and reports it to the
+ * {@link SlowQueryLog}
+ * <p>
+ * Connections and statements are JDK proxies over the target's. Parameters bound on prepared
+ * statements are recorded so a slow statement can be logged, and explained, with its values.
+ * The time measured is that of the {@code execute*} call; rows fetched later from the result set
+ * are not included.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final DataSource explainDataSource;
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+        this(targetDataSource, targetDataSource, slowQueryLog);
+    }
+
+    /**
+     * @param explainDataSource the DataSource the plans of slow statements are captured on
+     */
+    public SlowQueryDataSource(DataSource targetDataSource, DataSource explainDataSource, SlowQueryLog slowQueryLog) {
+        super(targetDataSource);
+        this.explainDataSource = explainDataSource;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Timed connection [" + target + "]";
+                default:
+                    break;
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, (Connection) proxy, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, (Connection) proxy, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, (Connection) proxy, null));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+        private final String sql;
+
+        // Parameters of the current execution, by position starting at index 0 for parameter 1
+        private final List<Object> parameters;
+        private int batchSize;
+
+        StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+            this.parameters = sql != null ? new ArrayList<>() : Collections.emptyList();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Timed statement [" + target + "]";
+                case "getConnection":
+                    return connection;
+                case "clearParameters":
+                    parameters.clear();
+                    break;
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                            && sql != null) {
+                        bind(index, name.equals("setNull") ? new SlowQueryLog.NullParameter((Integer) args[1]) : args[1]);
+                    } else if (name.startsWith("execute")) {
+                        return execute(method, args);
+                    }
+                    break;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            // Plain statements carry their SQL in the execute call, except for executeBatch
+            String executedSql = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String statementSql ? statementSql
+                    : "<batch>";
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                slowQueryLog.executed(explainDataSource, executedSql, parameters, batchSize, System.nanoTime() - start);
+                batchSize = 0;
+            }
+        }
+
+        private void bind(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value instanceof InputStream || value instanceof Reader
+                    ? new SlowQueryLog.StreamParameter(value.getClass().getSimpleName())
+                    : value);
+        }
+    }
+}
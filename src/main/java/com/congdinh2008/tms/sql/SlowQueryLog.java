@@ -0,0 +1,323 @@
+package com.congdinh2008.tms.sql;
+
+import com.congdinh2008.tms.context.RequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs statements slower than a threshold, and the execution plans of a sample of them
+ * <p>
+ * Statements are timed by the {@link SlowQueryDataSource} that {@link #wrap(DataSource)} puts in
+ * front of the DataSource Hibernate uses. Each slow statement is logged to the {@code tms.slowquery}
+ * logger with its bound parameters and {@link QueryOrigin}. For a sample of the slow
+ * {@code SELECT}s the statement is explained with the same parameters and the plan is logged to
+ * {@code tms.slowquery.explain}. Only when {@code EXPLAIN (ANALYZE, BUFFERS)} is enabled is the
+ * statement executed again, as it costs as much as the slow statement itself.
+ * <p>
+ * Plans are captured on a background thread, on a connection of their own that is read-only and
+ * rolled back, so the request that ran the slow statement neither waits for the plan nor shares a
+ * transaction with it. That connection comes from the explain DataSource, the replica pool in the
+ * application, as the background thread has no transaction to route it away from the primary. A
+ * statement is explained at most once per {@link #EXPLAIN_INTERVAL_NANOS} and plans that cannot be
+ * captured while the explain queue is full are skipped.
+ *
+ * @author Cong Dinh
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger logger = LoggerFactory.getLogger("tms.slowquery");
+    private static final Logger explainLogger = LoggerFactory.getLogger("tms.slowquery.explain");
+
+    private static final String EXPLAIN_PREFIX = "EXPLAIN ";
+    private static final String EXPLAIN_ANALYZE_PREFIX = "EXPLAIN (ANALYZE, BUFFERS) ";
+    private static final long EXPLAIN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int EXPLAIN_QUEUE_CAPACITY = 16;
+    private static final int RECENT_CAPACITY = 100;
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    /**
+     * A statement that ran longer than the threshold
+     * @param batchSize the number of batched parameter sets, 0 for a single execution; the
+     *                  parameters are those of the last set
+     */
+    public record SlowQuery(Instant executedAt, String sql, List<Object> parameters, int batchSize,
+                            long elapsedNanos, String origin, String correlationId) {
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+    }
+
+    /**
+     * Bound SQL NULL, recorded with its JDBC type so it can be bound again for EXPLAIN
+     */
+    record NullParameter(int sqlType) {
+
+        @Override
+        public String toString() {
+            return "null";
+        }
+    }
+
+    /**
+     * Bound stream, recorded by type only; statements with streams are not explained
+     */
+    record StreamParameter(String type) {
+
+        @Override
+        public String toString() {
+            return "<" + type + ">";
+        }
+    }
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final boolean explainAnalyze;
+    private final Executor explainExecutor;
+
+    private final Deque<SlowQuery> recent = new ArrayDeque<>(RECENT_CAPACITY);
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlowQueryLog(@Value("${tms.slowquery.enabled:true}") boolean enabled,
+                        @Value("${tms.slowquery.threshold-ms:200}") long thresholdMs,
+                        @Value("${tms.slowquery.explain-sample-rate:0.1}") double explainSampleRate,
+                        @Value("${tms.slowquery.explain-analyze:false}") boolean explainAnalyze) {
+        this(enabled, TimeUnit.MILLISECONDS.toNanos(thresholdMs), explainSampleRate, explainAnalyze,
+                explainExecutor());
+    }
+
+    /**
+     * @param explainAnalyze whether sampled statements are executed under EXPLAIN ANALYZE
+     * @param explainExecutor runs the EXPLAIN of sampled statements
+     */
+    SlowQueryLog(boolean enabled, long thresholdNanos, double explainSampleRate, boolean explainAnalyze,
+                 Executor explainExecutor) {
+        this.enabled = enabled;
+        this.thresholdNanos = thresholdNanos;
+        this.explainSampleRate = explainSampleRate;
+        this.explainAnalyze = explainAnalyze;
+        this.explainExecutor = explainExecutor;
+    }
+
+    /**
+     * Time the statements run through a DataSource, capturing plans on the same DataSource
+     * @param dataSource the DataSource handed to Hibernate
+     * @return the timing DataSource, or the DataSource itself when the slow-query log is disabled
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return wrap(dataSource, dataSource);
+    }
+
+    /**
+     * Time the statements run through a DataSource
+     * @param dataSource the DataSource handed to Hibernate
+     * @param explainDataSource the DataSource plans are captured on
+     * @return the timing DataSource, or the DataSource itself when the slow-query log is disabled
+     */
+    public DataSource wrap(DataSource dataSource, DataSource explainDataSource) {
+        if (!enabled) {
+            logger.info("Slow-query log is disabled");
+            return dataSource;
+        }
+        logger.info("Logging statements slower than {}ms, explaining {}% of slow SELECTs{}",
+                TimeUnit.NANOSECONDS.toMillis(thresholdNanos), explainSampleRate * 100,
+                explainAnalyze ? " with ANALYZE" : "");
+        return new SlowQueryDataSource(dataSource, explainDataSource, this);
+    }
+
+    /**
+     * Stop capturing plans. Runs when the context starts closing, before the pools the plans
+     * are captured on are closed.
+     */
+    @EventListener(ContextClosedEvent.class)
+    @PreDestroy
+    public void shutdown() {
+        if (explainExecutor instanceof ExecutorService executorService && !executorService.isShutdown()) {
+            executorService.shutdownNow();
+            try {
+                if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
+                    logger.warn("EXPLAIN of a slow statement still running at shutdown");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the most recent slow statements, oldest first
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    /**
+     * Called by {@link SlowQueryDataSource} after every statement execution
+     * @param dataSource the DataSource to capture the plan on
+     * @param sql the statement
+     * @param parameters the bound parameters by position, starting at index 0 for parameter 1
+     * @param batchSize the number of batched parameter sets, 0 for a single execution
+     * @param elapsedNanos the execution time
+     */
+    void executed(DataSource dataSource, String sql, List<Object> parameters, int batchSize, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), sql, Collections.unmodifiableList(new ArrayList<>(parameters)), batchSize,
+                elapsedNanos, QueryOrigin.current(), RequestContext.currentCorrelationId());
+        synchronized (recent) {
+            if (recent.size() == RECENT_CAPACITY) {
+                recent.removeFirst();
+            }
+            recent.addLast(slowQuery);
+        }
+        logger.warn("Slow statement ({}ms) from {}{}: {} - parameters: {}",
+                slowQuery.elapsedMillis(), slowQuery.origin() != null ? slowQuery.origin() : "unknown origin",
+                batchSize > 0 ? " in a batch of " + batchSize : "", sql, formatParameters(parameters));
+
+        if (shouldExplain(sql, parameters)) {
+            try {
+                explainExecutor.execute(RequestContext.wrap(() -> explain(dataSource, slowQuery)));
+            } catch (RuntimeException e) {
+                logger.debug("Skipped EXPLAIN of slow statement: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean shouldExplain(String sql, List<Object> parameters) {
+        if (explainSampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= explainSampleRate) {
+            return false;
+        }
+        if (!isQuery(sql) || parameters.stream().anyMatch(parameter -> !isBindable(parameter))) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Long previous = lastExplained.get(sql);
+        if (previous != null && now - previous < EXPLAIN_INTERVAL_NANOS) {
+            return false;
+        }
+        lastExplained.put(sql, now);
+        return true;
+    }
+
+    private void explain(DataSource dataSource, SlowQuery slowQuery) {
+        try (Connection connection = dataSource.getConnection()) {
+            // EXPLAIN ANALYZE executes the statement: read-only and rolled back so it cannot write
+            connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+            String prefix = explainAnalyze ? EXPLAIN_ANALYZE_PREFIX : EXPLAIN_PREFIX;
+            try (PreparedStatement statement = connection.prepareStatement(prefix + slowQuery.sql())) {
+                List<Object> parameters = slowQuery.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    Object parameter = parameters.get(i);
+                    if (parameter instanceof NullParameter nullParameter) {
+                        statement.setNull(i + 1, nullParameter.sqlType());
+                    } else {
+                        statement.setObject(i + 1, parameter);
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(System.lineSeparator()).append(resultSet.getString(1));
+                    }
+                }
+                explainLogger.info("Plan of slow statement ({}ms) from {}: {}{}", slowQuery.elapsedMillis(),
+                        slowQuery.origin(), slowQuery.sql(), plan);
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            explainLogger.warn("Failed to explain slow statement from {}: {}", slowQuery.origin(), e.getMessage());
+        }
+    }
+
+    static boolean isQuery(String sql) {
+        String statement = stripLeadingComments(sql).toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with");
+    }
+
+    private static String stripLeadingComments(String sql) {
+        String statement = sql.stripLeading();
+        while (true) {
+            if (statement.startsWith("/*")) {
+                int end = statement.indexOf("*/");
+                if (end < 0) {
+                    return "";
+                }
+                statement = statement.substring(end + 2).stripLeading();
+            } else if (statement.startsWith("--")) {
+                int end = statement.indexOf('\n');
+                if (end < 0) {
+                    return "";
+                }
+                statement = statement.substring(end + 1).stripLeading();
+            } else {
+                return statement;
+            }
+        }
+    }
+
+    private static boolean isBindable(Object parameter) {
+        return parameter == null || parameter instanceof NullParameter || parameter instanceof Number
+                || parameter instanceof CharSequence || parameter instanceof Boolean
+                || parameter instanceof java.time.temporal.Temporal || parameter instanceof java.util.Date
+                || parameter instanceof java.util.UUID;
+    }
+
+    private static String formatParameters(List<Object> parameters) {
+        List<String> formatted = new ArrayList<>(parameters.size());
+        for (Object parameter : parameters) {
+            String value = parameter instanceof CharSequence ? "'" + parameter + "'" : String.valueOf(parameter);
+            formatted.add(value.length() > MAX_PARAMETER_LENGTH
+                    ? value.substring(0, MAX_PARAMETER_LENGTH) + "...(" + value.length() + " chars)"
+                    : value);
+        }
+        return formatted.toString();
+    }
+
+    private static ExecutorService explainExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+}
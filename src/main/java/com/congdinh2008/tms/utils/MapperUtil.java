@@ -1,9 +1,10 @@
 package com.congdinh2008.tms.utils;
 
-import org.springframework.beans.BeanUtils;
-
 /**
  * Utility class for mapping between DTOs and entities
+ * <p>
+ * Mapping plans are compiled once per type pair by {@link MappingEngine}; see there for the
+ * copy semantics and how nested DTOs are handled.
  * 
  * @author Cong Dinh
  * @version 1.0.0
@@ -16,7 +17,8 @@ public final class MapperUtil {
     }
     
     /**
-     * Maps source object to target type
+     * Maps source object to target type, including nested DTOs one level deep.
+     * Lazy associations that are not yet loaded are never initialized by the mapping.
      * 
      * @param source the source object
      * @param targetClass the target class
@@ -29,9 +31,7 @@ public final class MapperUtil {
         }
         
         try {
-            T target = targetClass.getDeclaredConstructor().newInstance();
-            BeanUtils.copyProperties(source, target);
-            return target;
+            return MappingEngine.map(source, targetClass, true);
         } catch (Exception e) {
             throw new IllegalArgumentException("Error mapping object to DTO: " + e.getMessage(), e);
         }
@@ -51,9 +51,7 @@ public final class MapperUtil {
         }
         
         try {
-            T target = targetClass.getDeclaredConstructor().newInstance();
-            BeanUtils.copyProperties(source, target);
-            return target;
+            return MappingEngine.map(source, targetClass, false);
         } catch (Exception e) {
             throw new IllegalArgumentException("Error mapping DTO to entity: " + e.getMessage(), e);
         }
@@ -71,7 +69,7 @@ public final class MapperUtil {
         }
         
         try {
-            BeanUtils.copyProperties(source, target);
+            MappingEngine.copy(source, target);
         } catch (Exception e) {
             throw new IllegalArgumentException("Error updating entity from DTO: " + e.getMessage(), e);
         }
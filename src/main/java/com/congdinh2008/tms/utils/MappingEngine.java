@@ -0,0 +1,390 @@
+package com.congdinh2008.tms.utils;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Property mapping engine behind {@link MapperUtil}.
+ * <p>
+ * Properties are introspected once per (source, target) type pair and compiled into a plan of
+ * getter/setter lambdas generated with {@link LambdaMetafactory}, so a mapping call is a plain
+ * loop of interface calls without reflection. Copy semantics match
+ * {@link BeanUtils#copyProperties(Object, Object)}: every writable target property with a
+ * readable, type-compatible source property of the same name is copied, including nulls.
+ * <p>
+ * Plans built for DTO mapping additionally convert nested application types one level deep,
+ * e.g. {@code Task.project} into {@code TaskResponse.project}. Nested values are copied flat,
+ * which rules out cycles, and never trigger lazy loading: an uninitialized proxy becomes a DTO
+ * carrying only its ID, an uninitialized collection is skipped, and only field-backed properties
+ * are read, so derived getters such as {@code Project.getTaskCount()} cannot walk lazy collections.
+ */
+final class MappingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappingEngine.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String APPLICATION_PACKAGE = "com.congdinh2008.tms.";
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final Map<TypePair, MappingPlan> FLAT_PLANS = new ConcurrentHashMap<>();
+
+    private static final Map<TypePair, MappingPlan> NESTED_PLANS = new ConcurrentHashMap<>();
+
+    private static final Map<TypePair, MappingPlan> NESTED_VALUE_PLANS = new ConcurrentHashMap<>();
+
+    private static final ClassValue<TargetType> TARGET_TYPES = new ClassValue<>() {
+        @Override
+        protected TargetType computeValue(Class<?> type) {
+            return TargetType.of(type);
+        }
+    };
+
+    private MappingEngine() {
+        // Private constructor to hide implicit public one
+    }
+
+    /**
+     * Create a new instance of the target type and copy the source properties into it
+     * @param source the source object, must not be null
+     * @param targetClass the target class, must have a public no-arg constructor
+     * @param nested whether nested application types are converted as well
+     * @return the mapped object
+     */
+    static <T> T map(Object source, Class<T> targetClass, boolean nested) {
+        Object actual = unproxy(source);
+        T target = targetClass.cast(TARGET_TYPES.get(targetClass).newInstance());
+        plan(actual.getClass(), targetClass, nested ? PlanKind.NESTED : PlanKind.FLAT).copy(actual, target);
+        return target;
+    }
+
+    /**
+     * Copy the source properties into an existing target (flat copy only)
+     * @param source the source object, must not be null
+     * @param target the target object, must not be null
+     */
+    static void copy(Object source, Object target) {
+        Object actual = unproxy(source);
+        Object actualTarget = unproxy(target);
+        plan(actual.getClass(), actualTarget.getClass(), PlanKind.FLAT).copy(actual, actualTarget);
+    }
+
+    private static MappingPlan plan(Class<?> sourceClass, Class<?> targetClass, PlanKind kind) {
+        Map<TypePair, MappingPlan> plans = switch (kind) {
+            case FLAT -> FLAT_PLANS;
+            case NESTED -> NESTED_PLANS;
+            case NESTED_VALUE -> NESTED_VALUE_PLANS;
+        };
+        return plans.computeIfAbsent(new TypePair(sourceClass, targetClass),
+                pair -> MappingPlan.build(pair.source(), pair.target(), kind));
+    }
+
+    private static Object unproxy(Object value) {
+        return value instanceof HibernateProxy ? Hibernate.unproxy(value) : value;
+    }
+
+    private static boolean isApplicationBean(Class<?> type) {
+        return type != null
+                && type.getName().startsWith(APPLICATION_PACKAGE)
+                && !type.isEnum()
+                && !type.isInterface()
+                && !Modifier.isAbstract(type.getModifiers());
+    }
+
+    /**
+     * Convert a nested single-valued property without triggering lazy loading
+     */
+    private static Object convertNested(Object value, Class<?> targetType) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof HibernateProxy proxy) {
+            LazyInitializer initializer = proxy.getHibernateLazyInitializer();
+            if (initializer.isUninitialized()) {
+                return TARGET_TYPES.get(targetType).withId(initializer.getIdentifier());
+            }
+            value = initializer.getImplementation();
+        }
+        Object target = TARGET_TYPES.get(targetType).newInstance();
+        plan(value.getClass(), targetType, PlanKind.NESTED_VALUE).copy(value, target);
+        return target;
+    }
+
+    /**
+     * Convert a nested collection property, or return null if it is not initialized
+     */
+    private static Collection<Object> convertNestedCollection(Object value, Class<?> collectionType,
+                                                              Class<?> elementType) {
+        if (!(value instanceof Collection<?> source) || !Hibernate.isInitialized(source)) {
+            return null;
+        }
+        Collection<Object> target = Set.class.isAssignableFrom(collectionType)
+                ? new LinkedHashSet<>(source.size() * 2)
+                : new ArrayList<>(source.size());
+        for (Object element : source) {
+            target.add(convertNested(element, elementType));
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type().wrap());
+            return (Function<Object, Object>) newLambda(site);
+        } catch (IllegalAccessException | LambdaConversionException e) {
+            logger.debug("Reading {} by reflection, no lambda can be linked to it: {}", method, e.toString());
+            return reflectiveGetter(method);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) newLambda(site);
+        } catch (IllegalAccessException | LambdaConversionException e) {
+            logger.debug("Writing {} by reflection, no lambda can be linked to it: {}", method, e.toString());
+            return reflectiveSetter(method);
+        }
+    }
+
+    /**
+     * Create the lambda instance of a linked call site. Its factory takes no arguments and
+     * only allocates, so anything it throws is a bug rather than a reason to fall back.
+     */
+    private static Object newLambda(CallSite site) {
+        try {
+            return site.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Lambda factory failed", e);
+        }
+    }
+
+    /**
+     * Fallback for methods a generated lambda cannot link to, e.g. public methods
+     * declared on non-public classes
+     */
+    private static Function<Object, Object> reflectiveGetter(Method method) {
+        method.setAccessible(true);
+        return source -> {
+            try {
+                return method.invoke(source);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read property via " + method, e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> reflectiveSetter(Method method) {
+        method.setAccessible(true);
+        return (target, value) -> {
+            try {
+                method.invoke(target, value);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot write property via " + method, e);
+            }
+        };
+    }
+
+    private static boolean hasField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private enum PlanKind {
+        /** Plain copy of assignable properties, as BeanUtils does */
+        FLAT,
+        /** Flat copy plus conversion of nested application types */
+        NESTED,
+        /** Flat copy of field-backed properties only, used for nested values */
+        NESTED_VALUE
+    }
+
+    private record TypePair(Class<?> source, Class<?> target) {
+    }
+
+    /**
+     * Compiled list of property copies for one (source, target) type pair
+     */
+    private static final class MappingPlan {
+
+        private final PropertyCopier[] copiers;
+
+        private MappingPlan(PropertyCopier[] copiers) {
+            this.copiers = copiers;
+        }
+
+        void copy(Object source, Object target) {
+            for (PropertyCopier copier : copiers) {
+                copier.copy(source, target);
+            }
+        }
+
+        static MappingPlan build(Class<?> sourceClass, Class<?> targetClass, PlanKind kind) {
+            List<PropertyCopier> copiers = new ArrayList<>();
+            for (PropertyDescriptor targetProperty : BeanUtils.getPropertyDescriptors(targetClass)) {
+                Method writeMethod = targetProperty.getWriteMethod();
+                if (writeMethod == null) {
+                    continue;
+                }
+                PropertyDescriptor sourceProperty = BeanUtils.getPropertyDescriptor(sourceClass, targetProperty.getName());
+                Method readMethod = sourceProperty != null ? sourceProperty.getReadMethod() : null;
+                if (readMethod == null
+                        || (kind == PlanKind.NESTED_VALUE && !hasField(sourceClass, targetProperty.getName()))) {
+                    continue;
+                }
+
+                ResolvableType sourceType = ResolvableType.forMethodReturnType(readMethod);
+                ResolvableType targetType = ResolvableType.forMethodParameter(writeMethod, 0);
+                if (isAssignable(readMethod, writeMethod, sourceType, targetType)) {
+                    copiers.add(new PropertyCopier(getter(readMethod), setter(writeMethod), null));
+                } else if (kind == PlanKind.NESTED) {
+                    Function<Object, Object> converter = nestedConverter(sourceType, targetType);
+                    if (converter != null) {
+                        copiers.add(new PropertyCopier(getter(readMethod), setter(writeMethod), converter));
+                    }
+                }
+            }
+            return new MappingPlan(copiers.toArray(new PropertyCopier[0]));
+        }
+
+        // Same rule as BeanUtils.copyProperties
+        private static boolean isAssignable(Method readMethod, Method writeMethod,
+                                            ResolvableType sourceType, ResolvableType targetType) {
+            if (sourceType.hasUnresolvableGenerics() || targetType.hasUnresolvableGenerics()) {
+                return ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+            }
+            return targetType.isAssignableFrom(sourceType);
+        }
+
+        private static Function<Object, Object> nestedConverter(ResolvableType sourceType, ResolvableType targetType) {
+            Class<?> targetClass = targetType.resolve();
+            if (targetClass == null) {
+                return null;
+            }
+            if (isApplicationBean(targetClass) && isApplicationBean(sourceType.resolve())) {
+                return value -> convertNested(value, targetClass);
+            }
+            if (Collection.class.isAssignableFrom(targetClass)
+                    && (targetClass.isAssignableFrom(LinkedHashSet.class) || targetClass.isAssignableFrom(ArrayList.class))
+                    && Collection.class.isAssignableFrom(sourceType.toClass())) {
+                Class<?> targetElement = targetType.asCollection().resolveGeneric(0);
+                Class<?> sourceElement = sourceType.asCollection().resolveGeneric(0);
+                if (isApplicationBean(targetElement) && isApplicationBean(sourceElement)) {
+                    return value -> convertNestedCollection(value, targetClass, targetElement);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Copies a single property, optionally converting the value.
+     * A null conversion result means the property is left untouched.
+     */
+    private record PropertyCopier(Function<Object, Object> getter,
+                                  BiConsumer<Object, Object> setter,
+                                  Function<Object, Object> converter) {
+
+        void copy(Object source, Object target) {
+            Object value = getter.apply(source);
+            if (converter == null) {
+                setter.accept(target, value);
+                return;
+            }
+            Object converted = converter.apply(value);
+            if (converted != null || value == null) {
+                setter.accept(target, converted);
+            }
+        }
+    }
+
+    /**
+     * Cached instantiation data for a target type
+     */
+    private record TargetType(Class<?> type, Supplier<Object> constructor, BiConsumer<Object, Object> idSetter) {
+
+        @SuppressWarnings("unchecked")
+        static TargetType of(Class<?> type) {
+            Supplier<Object> constructor;
+            try {
+                MethodHandle handle = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(type));
+                constructor = (Supplier<Object>) newLambda(site);
+            } catch (NoSuchMethodException | IllegalAccessException | LambdaConversionException e) {
+                logger.debug("Instantiating {} by reflection, no lambda can be linked to its constructor: {}",
+                        type.getName(), e.toString());
+                constructor = () -> BeanUtils.instantiateClass(type);
+            }
+
+            PropertyDescriptor idProperty = BeanUtils.getPropertyDescriptor(type, ID_PROPERTY);
+            BiConsumer<Object, Object> idSetter = idProperty != null && idProperty.getWriteMethod() != null
+                    ? setter(idProperty.getWriteMethod())
+                    : null;
+            return new TargetType(type, constructor, idSetter);
+        }
+
+        Object newInstance() {
+            return constructor.get();
+        }
+
+        Object withId(Object id) {
+            Object target = newInstance();
+            if (idSetter != null) {
+                idSetter.accept(target, id);
+            }
+            return target;
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.congdinh2008.tms.validators;
 
+import com.congdinh2008.tms.cache.ProjectMembershipIndex;
+import com.congdinh2008.tms.entities.Project;
 import com.congdinh2008.tms.entities.Task;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * Validator implementation for ValidAssignee annotation
- * Validates that the assigned user is a member of the project
+ * Validates that the assigned user is a member of the project.
+ * When created by Spring, already indexed projects are checked against the membership
+ * index instead of initializing the project's member collection.
  * 
  * @author Cong Dinh
  * @version 1.0.0
@@ -14,6 +20,9 @@ import jakarta.validation.ConstraintValidatorContext;
  */
 public class ValidAssigneeValidator implements ConstraintValidator<ValidAssignee, Task> {
 
+    @Autowired(required = false)
+    private ProjectMembershipIndex membershipIndex;
+
     @Override
     public void initialize(ValidAssignee constraintAnnotation) {
         // No initialization needed
@@ -36,7 +45,7 @@ public class ValidAssigneeValidator implements ConstraintValidator<ValidAssignee
         }
 
         // Check if assignee is a member of the project
-        boolean isValid = task.getProject().isMember(task.getAssignee());
+        boolean isValid = isMember(task);
 
         if (!isValid) {
             context.disableDefaultConstraintViolation();
@@ -49,4 +58,20 @@ public class ValidAssigneeValidator implements ConstraintValidator<ValidAssignee
 
         return isValid;
     }
+
+    private boolean isMember(Task task) {
+        Project project = task.getProject();
+        // Members already in memory are checked directly; otherwise the index avoids
+        // loading them. The index never queries here, as this runs during a flush.
+        boolean membersLoaded = Hibernate.isInitialized(project) && Hibernate.isInitialized(project.getMembers());
+        if (!membersLoaded && membershipIndex != null
+                && project.getId() != null && task.getAssignee().getId() != null) {
+            Boolean indexed = membershipIndex.findCachedMembership(project.getId(), task.getAssignee().getId())
+                    .orElse(null);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        return project.isMember(task.getAssignee());
+    }
 }
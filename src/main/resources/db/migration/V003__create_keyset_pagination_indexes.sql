@@ -0,0 +1,37 @@
+-- Keyset pagination indexes for Task Management System
+-- Version: V003
+-- Description: Composite (sort key, id) indexes backing BaseRepository.findAfter
+-- so that WHERE (sort_key, id) > (?, ?) ORDER BY sort_key, id seeks instead of scanning
+
+-- Index for tasks table - keyset paging by creation time
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at_id 
+ON tasks(created_at, id);
+
+-- Index for tasks table - keyset paging by last update
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at_id 
+ON tasks(updated_at, id);
+
+-- Index for tasks table - keyset paging by due date
+CREATE INDEX IF NOT EXISTS idx_tasks_due_date_id 
+ON tasks(due_date, id);
+
+-- Index for tasks table - keyset paging by title
+CREATE INDEX IF NOT EXISTS idx_tasks_title_id 
+ON tasks(title, id);
+
+-- Index for task_histories table - keyset paging by change date
+CREATE INDEX IF NOT EXISTS idx_task_histories_change_date_id 
+ON task_histories(change_date, id);
+
+-- Index for projects table - keyset paging by name
+CREATE INDEX IF NOT EXISTS idx_projects_name_id 
+ON projects(name, id);
+
+-- Index for users table - keyset paging by name
+CREATE INDEX IF NOT EXISTS idx_users_name_id 
+ON users(name, id);
+
+ANALYZE tasks;
+ANALYZE task_histories;
+ANALYZE projects;
+ANALYZE users;
@@ -0,0 +1,16 @@
+-- Overdue task indexes for Task Management System
+-- Version: V004
+-- Description: Partial indexes backing the paged overdue queries and counts
+-- used by the overdue dashboard and the project health summary
+
+-- Index for tasks table - overdue tasks across all projects, ordered by due date
+CREATE INDEX IF NOT EXISTS idx_tasks_overdue_due_date_id 
+ON tasks(due_date, id) 
+WHERE status IN ('TODO', 'IN_PROGRESS');
+
+-- Index for tasks table - overdue tasks of a single project, ordered by due date
+CREATE INDEX IF NOT EXISTS idx_tasks_overdue_project_due_date_id 
+ON tasks(project_id, due_date, id) 
+WHERE status IN ('TODO', 'IN_PROGRESS');
+
+ANALYZE tasks;
@@ -0,0 +1,22 @@
+-- Entity ID sequences for Task Management System
+-- Version: V005
+-- Description: Pooled sequences replacing IDENTITY key generation so that inserts can be
+-- JDBC-batched. Names follow Hibernate's implicit <EntityName>_SEQ convention and the
+-- increment matches the default allocation size of 50 (pooled-lo optimizer).
+-- Each sequence starts after the highest existing ID; the old identity defaults stay in
+-- place but are no longer used by the application.
+
+CREATE SEQUENCE IF NOT EXISTS user_seq INCREMENT BY 50;
+SELECT setval('user_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+
+CREATE SEQUENCE IF NOT EXISTS project_seq INCREMENT BY 50;
+SELECT setval('project_seq', COALESCE((SELECT MAX(id) FROM projects), 0) + 1, false);
+
+CREATE SEQUENCE IF NOT EXISTS task_seq INCREMENT BY 50;
+SELECT setval('task_seq', COALESCE((SELECT MAX(id) FROM tasks), 0) + 1, false);
+
+CREATE SEQUENCE IF NOT EXISTS tag_seq INCREMENT BY 50;
+SELECT setval('tag_seq', COALESCE((SELECT MAX(id) FROM tags), 0) + 1, false);
+
+CREATE SEQUENCE IF NOT EXISTS taskhistory_seq INCREMENT BY 50;
+SELECT setval('taskhistory_seq', COALESCE((SELECT MAX(id) FROM task_histories), 0) + 1, false);
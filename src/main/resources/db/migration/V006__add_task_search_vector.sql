@@ -0,0 +1,17 @@
+-- Full-text search for Task Management System
+-- Version: V006
+-- Description: Stored tsvector over task title (weight A) and description (weight B),
+-- maintained by PostgreSQL on every insert/update, with a GIN index backing
+-- TaskRepository.searchTasks in FULL_TEXT keyword mode.
+-- The 'simple' configuration is used because task text mixes languages and identifiers.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector
+ON tasks USING GIN (search_vector);
+
+ANALYZE tasks;
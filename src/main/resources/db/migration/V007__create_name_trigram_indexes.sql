@@ -0,0 +1,24 @@
+-- Name search indexes for Task Management System
+-- Version: V007
+-- Description: Trigram GIN indexes on lower(name) for users, projects and tags.
+-- They serve both the existing substring searches (LOWER(name) LIKE '%term%', which a
+-- btree cannot use) and the typo-tolerant findByNameSimilar lookups (word_similarity).
+-- The btree on lower(name) backs the exact, case-insensitive project name duplicate check.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm
+ON users USING GIN (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_projects_name_trgm
+ON projects USING GIN (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_tags_name_trgm
+ON tags USING GIN (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_projects_lower_name
+ON projects (lower(name));
+
+ANALYZE users;
+ANALYZE projects;
+ANALYZE tags;
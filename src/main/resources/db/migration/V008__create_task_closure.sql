@@ -0,0 +1,82 @@
+-- Task hierarchy closure table for Task Management System
+-- Version: V008
+-- Description: One row per (ancestor, descendant) pair of the task hierarchy, including a
+-- depth-0 row for every task. Cycle checks, ancestor lookups and subtree queries become
+-- single index lookups at any depth. Rows are maintained by a trigger on tasks for every
+-- insert and parent change, whichever code path writes the task, and removed by the
+-- foreign keys when a task is deleted.
+
+CREATE TABLE IF NOT EXISTS task_closure (
+    ancestor_id BIGINT NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    descendant_id BIGINT NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+-- Ancestor lookups and subtree moves search by descendant
+CREATE INDEX IF NOT EXISTS idx_task_closure_descendant_depth
+ON task_closure(descendant_id, depth);
+
+-- Backfill from the existing parent links; the path guards against corrupt cycles
+INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE hierarchy AS (
+    SELECT t.id AS ancestor_id, t.id AS descendant_id, 0 AS depth, ARRAY[t.id] AS path
+    FROM tasks t
+
+    UNION ALL
+
+    SELECT h.ancestor_id, c.id, h.depth + 1, h.path || c.id
+    FROM hierarchy h
+    INNER JOIN tasks c ON c.parent_task_id = h.descendant_id
+    WHERE NOT c.id = ANY(h.path)
+)
+SELECT ancestor_id, descendant_id, depth FROM hierarchy
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
+
+-- Inserts add the self row and one row per ancestor of the parent. A parent change unlinks
+-- the subtree from the ancestors it is leaving, keeping its internal paths, and links every
+-- node of the subtree to every ancestor of the new parent (including the parent itself).
+-- Rows fire in insert order, so a parent inserted in the same statement is recorded first.
+CREATE OR REPLACE FUNCTION maintain_task_closure() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+        SELECT NEW.id, NEW.id, 0
+        UNION ALL
+        SELECT p.ancestor_id, NEW.id, p.depth + 1
+        FROM task_closure p
+        WHERE p.descendant_id = NEW.parent_task_id;
+        RETURN NULL;
+    END IF;
+
+    IF OLD.parent_task_id IS NOT DISTINCT FROM NEW.parent_task_id THEN
+        RETURN NULL;
+    END IF;
+
+    -- Business rule R5, for writes that bypass the task service
+    IF EXISTS (SELECT 1 FROM task_closure
+               WHERE ancestor_id = NEW.id AND descendant_id = NEW.parent_task_id) THEN
+        RAISE EXCEPTION 'Task % cannot be moved below its own subtask %', NEW.id, NEW.parent_task_id
+            USING ERRCODE = 'check_violation';
+    END IF;
+
+    DELETE FROM task_closure
+    WHERE descendant_id IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = NEW.id)
+      AND ancestor_id NOT IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = NEW.id);
+
+    INSERT INTO task_closure (ancestor_id, descendant_id, depth)
+    SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1
+    FROM task_closure above
+    CROSS JOIN task_closure below
+    WHERE above.descendant_id = NEW.parent_task_id AND below.ancestor_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- UPDATE OF fires whenever the column is in the SET list; the function skips unchanged parents
+DROP TRIGGER IF EXISTS trg_tasks_task_closure ON tasks;
+CREATE TRIGGER trg_tasks_task_closure
+AFTER INSERT OR UPDATE OF parent_task_id ON tasks
+FOR EACH ROW EXECUTE FUNCTION maintain_task_closure();
+
+ANALYZE task_closure;
@@ -0,0 +1,119 @@
+-- Project statistics table for Task Management System
+-- Version: V009
+-- Description: One row of task counters per project, maintained incrementally by triggers
+-- on tasks for every insert, update and delete, so project statistics are read from a
+-- single row instead of counting the project's tasks. Overdue-eligible tasks are open
+-- tasks with a due date; only when there are any is the overdue partial index consulted.
+
+CREATE TABLE IF NOT EXISTS project_stats (
+    project_id BIGINT PRIMARY KEY REFERENCES projects(id) ON DELETE CASCADE,
+    total_tasks BIGINT NOT NULL DEFAULT 0,
+    done_tasks BIGINT NOT NULL DEFAULT 0,
+    in_progress_tasks BIGINT NOT NULL DEFAULT 0,
+    overdue_eligible_tasks BIGINT NOT NULL DEFAULT 0
+);
+
+-- Backfill from the existing tasks
+INSERT INTO project_stats (project_id, total_tasks, done_tasks, in_progress_tasks, overdue_eligible_tasks)
+SELECT t.project_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE t.status = 'DONE'),
+       COUNT(*) FILTER (WHERE t.status = 'IN_PROGRESS'),
+       COUNT(*) FILTER (WHERE t.status <> 'DONE' AND t.due_date IS NOT NULL)
+FROM tasks t
+GROUP BY t.project_id
+ON CONFLICT (project_id) DO UPDATE SET
+    total_tasks = EXCLUDED.total_tasks,
+    done_tasks = EXCLUDED.done_tasks,
+    in_progress_tasks = EXCLUDED.in_progress_tasks,
+    overdue_eligible_tasks = EXCLUDED.overdue_eligible_tasks;
+
+-- Statement-level triggers add up the changed rows per project from the transition tables,
+-- so a bulk status change issues one upsert per project rather than one per task. Projects
+-- deleted in the same transaction are skipped; their row goes with the foreign key.
+CREATE OR REPLACE FUNCTION maintain_project_stats() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO project_stats AS s
+            (project_id, total_tasks, done_tasks, in_progress_tasks, overdue_eligible_tasks)
+        SELECT d.project_id,
+               COUNT(*),
+               COUNT(*) FILTER (WHERE d.status = 'DONE'),
+               COUNT(*) FILTER (WHERE d.status = 'IN_PROGRESS'),
+               COUNT(*) FILTER (WHERE d.status <> 'DONE' AND d.due_date IS NOT NULL)
+        FROM new_rows d
+        JOIN projects p ON p.id = d.project_id
+        GROUP BY d.project_id
+        ON CONFLICT (project_id) DO UPDATE SET
+            total_tasks = s.total_tasks + EXCLUDED.total_tasks,
+            done_tasks = s.done_tasks + EXCLUDED.done_tasks,
+            in_progress_tasks = s.in_progress_tasks + EXCLUDED.in_progress_tasks,
+            overdue_eligible_tasks = s.overdue_eligible_tasks + EXCLUDED.overdue_eligible_tasks;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO project_stats AS s
+            (project_id, total_tasks, done_tasks, in_progress_tasks, overdue_eligible_tasks)
+        SELECT d.project_id,
+               -COUNT(*),
+               -COUNT(*) FILTER (WHERE d.status = 'DONE'),
+               -COUNT(*) FILTER (WHERE d.status = 'IN_PROGRESS'),
+               -COUNT(*) FILTER (WHERE d.status <> 'DONE' AND d.due_date IS NOT NULL)
+        FROM old_rows d
+        JOIN projects p ON p.id = d.project_id
+        GROUP BY d.project_id
+        ON CONFLICT (project_id) DO UPDATE SET
+            total_tasks = s.total_tasks + EXCLUDED.total_tasks,
+            done_tasks = s.done_tasks + EXCLUDED.done_tasks,
+            in_progress_tasks = s.in_progress_tasks + EXCLUDED.in_progress_tasks,
+            overdue_eligible_tasks = s.overdue_eligible_tasks + EXCLUDED.overdue_eligible_tasks;
+    ELSE
+        -- Updates that leave every counter unchanged (title, assignee, ...) write nothing
+        INSERT INTO project_stats AS s
+            (project_id, total_tasks, done_tasks, in_progress_tasks, overdue_eligible_tasks)
+        SELECT d.project_id, SUM(d.total), SUM(d.done), SUM(d.in_progress), SUM(d.overdue_eligible)
+        FROM (
+            SELECT n.project_id, 1 AS total,
+                   CASE WHEN n.status = 'DONE' THEN 1 ELSE 0 END AS done,
+                   CASE WHEN n.status = 'IN_PROGRESS' THEN 1 ELSE 0 END AS in_progress,
+                   CASE WHEN n.status <> 'DONE' AND n.due_date IS NOT NULL THEN 1 ELSE 0 END AS overdue_eligible
+            FROM new_rows n
+            UNION ALL
+            SELECT o.project_id, -1,
+                   CASE WHEN o.status = 'DONE' THEN -1 ELSE 0 END,
+                   CASE WHEN o.status = 'IN_PROGRESS' THEN -1 ELSE 0 END,
+                   CASE WHEN o.status <> 'DONE' AND o.due_date IS NOT NULL THEN -1 ELSE 0 END
+            FROM old_rows o
+        ) d
+        JOIN projects p ON p.id = d.project_id
+        GROUP BY d.project_id
+        HAVING SUM(d.total) <> 0 OR SUM(d.done) <> 0 OR SUM(d.in_progress) <> 0
+            OR SUM(d.overdue_eligible) <> 0
+        ON CONFLICT (project_id) DO UPDATE SET
+            total_tasks = s.total_tasks + EXCLUDED.total_tasks,
+            done_tasks = s.done_tasks + EXCLUDED.done_tasks,
+            in_progress_tasks = s.in_progress_tasks + EXCLUDED.in_progress_tasks,
+            overdue_eligible_tasks = s.overdue_eligible_tasks + EXCLUDED.overdue_eligible_tasks;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A trigger with transition tables handles a single event
+DROP TRIGGER IF EXISTS trg_tasks_project_stats_insert ON tasks;
+CREATE TRIGGER trg_tasks_project_stats_insert
+AFTER INSERT ON tasks
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION maintain_project_stats();
+
+DROP TRIGGER IF EXISTS trg_tasks_project_stats_update ON tasks;
+CREATE TRIGGER trg_tasks_project_stats_update
+AFTER UPDATE ON tasks
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION maintain_project_stats();
+
+DROP TRIGGER IF EXISTS trg_tasks_project_stats_delete ON tasks;
+CREATE TRIGGER trg_tasks_project_stats_delete
+AFTER DELETE ON tasks
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION maintain_project_stats();
+
+ANALYZE project_stats;
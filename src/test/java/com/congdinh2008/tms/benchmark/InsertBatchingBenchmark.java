@@ -0,0 +1,91 @@
+package com.congdinh2008.tms.benchmark;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.entities.TaskHistory;
+import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.enums.FieldType;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+
+/**
+ * Counts the JDBC statements needed to insert 10,000 tasks plus one history entry each.
+ * <p>
+ * Requires the PostgreSQL database from {@code hibernate.properties}; all rows are rolled back.
+ * Run it twice and compare the logged counts: once as configured, and once with
+ * {@code -Dhibernate.jdbc.batch_size=1}, which sends one INSERT per row as IDENTITY keys did
+ * (Hibernate never batches IDENTITY inserts). Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.congdinh2008.tms.benchmark.InsertBatchingBenchmark}.
+ */
+public final class InsertBatchingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBatchingBenchmark.class);
+
+    private static final int TASK_COUNT = 10_000;
+
+    private InsertBatchingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ApplicationConfig.class)) {
+            SessionFactory sessionFactory = context.getBean(SessionFactory.class);
+            int batchSize = Integer.parseInt(context.getEnvironment().getProperty("hibernate.jdbc.batch_size", "20"));
+
+            Statistics statistics = sessionFactory.getStatistics();
+            statistics.setStatisticsEnabled(true);
+
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                try {
+                    User user = new User("Benchmark User", "insert-benchmark@example.com", "secret");
+                    Project project = new Project("Insert Benchmark", "Statement counting", LocalDate.now());
+                    session.persist(user);
+                    session.persist(project);
+                    session.flush();
+                    Long userId = user.getId();
+                    Long projectId = project.getId();
+                    session.clear();
+
+                    statistics.clear();
+                    long start = System.nanoTime();
+                    for (int i = 0; i < TASK_COUNT; i++) {
+                        if (i % batchSize == 0) {
+                            user = session.getReference(User.class, userId);
+                            project = session.getReference(Project.class, projectId);
+                        }
+                        Task task = new Task("Task " + i, null, TaskStatus.TODO, TaskPriority.MEDIUM,
+                                LocalDate.now().plusDays(7), project);
+                        session.persist(task);
+                        session.persist(new TaskHistory(task, user, FieldType.STATUS, null, TaskStatus.TODO.name()));
+
+                        if ((i + 1) % batchSize == 0) {
+                            session.flush();
+                            session.clear();
+                        }
+                    }
+                    session.flush();
+                    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+                    long inserts = statistics.getEntityInsertCount();
+                    long statements = statistics.getPrepareStatementCount();
+                    logger.info("batch_size={} entity inserts={} prepared statements={} "
+                                    + "statements per 10k inserts={} elapsed={} ms",
+                            batchSize, inserts, statements, String.format("%.1f", statements * 10_000.0 / inserts),
+                            elapsedMillis);
+                } finally {
+                    transaction.rollback();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.congdinh2008.tms.benchmark;
+
+import com.congdinh2008.tms.dto.response.TagResponse;
+import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.utils.MapperUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the previous {@link BeanUtils#copyProperties(Object, Object)} based mapping
+ * with the compiled mapping plans behind {@link MapperUtil}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+
+    private Tag tag;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        Project project = new Project("Website", "Redesign", LocalDate.of(2024, 1, 1));
+        project.setId(1L);
+
+        tag = new Tag("backend");
+        tag.setId(2L);
+
+        task = new Task("Benchmark task", "Mapping benchmark", TaskStatus.IN_PROGRESS, TaskPriority.HIGH,
+                LocalDate.of(2024, 2, 1), project);
+        task.setId(3L);
+        task.setTags(new ArrayList<>(List.of(tag)));
+    }
+
+    @Benchmark
+    public TagResponse beanUtilsTag() {
+        TagResponse response = BeanUtils.instantiateClass(TagResponse.class);
+        BeanUtils.copyProperties(tag, response);
+        return response;
+    }
+
+    @Benchmark
+    public TagResponse mapperUtilTag() {
+        return MapperUtil.mapToDto(tag, TagResponse.class);
+    }
+
+    @Benchmark
+    public TaskResponse beanUtilsTask() {
+        TaskResponse response = BeanUtils.instantiateClass(TaskResponse.class);
+        BeanUtils.copyProperties(task, response);
+        return response;
+    }
+
+    @Benchmark
+    public TaskResponse mapperUtilTask() {
+        return MapperUtil.mapToDto(task, TaskResponse.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.congdinh2008.tms.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CacheStatisticsService, run against the regions declared in ehcache.xml
+ */
+class CacheStatisticsServiceTest {
+
+    private static final String REGION = "subtasks-query";
+
+    private CacheManager cacheManager;
+
+    private CacheStatisticsService cacheStatisticsService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // A URI of its own keeps the statistics beans apart from other cache managers in the JVM
+        URI uri = getClass().getResource("/ehcache.xml").toURI();
+        cacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider")
+                .getCacheManager(uri, new ClassLoader(getClass().getClassLoader()) { });
+        cacheStatisticsService = new CacheStatisticsService(() -> cacheManager, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void sample_ShouldReportCounterDeltasAndOccupancy() {
+        // Given
+        cacheStatisticsService.sample();
+        Cache<Object, Object> cache = cacheManager.getCache(REGION);
+        cache.put(1L, "first");
+        cache.put(2L, "second");
+        cache.get(1L);
+        cache.get(3L);
+
+        // When
+        CacheStatisticsService.RegionStatistics first = region(cacheStatisticsService.sample());
+        cache.get(2L);
+        CacheStatisticsService.RegionStatistics second = region(cacheStatisticsService.sample());
+
+        // Then
+        assertEquals(1, first.hits());
+        assertEquals(1, first.misses());
+        assertEquals(2, first.puts());
+        assertEquals(2, first.entries());
+        assertEquals(1000, first.capacity());
+        assertTrue(first.estimatedBytes() > 0);
+        assertEquals(0.5, first.hitRatio());
+        assertEquals(1, second.hits());
+        assertEquals(0, second.misses());
+        assertEquals(0, second.puts());
+        assertEquals(2, second.entries());
+    }
+
+    @Test
+    void snapshot_ShouldBeEmpty_WhenCacheIsNotJCache() {
+        // Given
+        CacheStatisticsService withoutCache = new CacheStatisticsService(() -> null, 0);
+
+        // When & Then
+        assertTrue(withoutCache.snapshot().isEmpty());
+        assertTrue(withoutCache.sample().regions().isEmpty());
+    }
+
+    private static CacheStatisticsService.RegionStatistics region(CacheStatisticsService.Sample sample) {
+        return sample.regions().stream()
+                .filter(region -> REGION.equals(region.region()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,151 @@
+package com.congdinh2008.tms.cache;
+
+import com.congdinh2008.tms.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProjectMembershipIndex
+ */
+class ProjectMembershipIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ProjectMembershipIndex membershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        membershipIndex = new ProjectMembershipIndex(userRepository);
+    }
+
+    @Test
+    void isMember_ShouldLoadProjectOnce_AndConfirmOnlyMissesWithRepository() {
+        // Given
+        when(userRepository.findMemberIdsByProjectIds(Set.of(1L))).thenReturn(Map.of(1L, Set.of(3L, 7L)));
+
+        // When
+        boolean member = membershipIndex.isMember(1L, 7L);
+        boolean nonMember = membershipIndex.isMember(1L, 5L);
+
+        // Then
+        assertTrue(member);
+        assertFalse(nonMember);
+        verify(userRepository, times(1)).findMemberIdsByProjectIds(Set.of(1L));
+        verify(userRepository, never()).isUserMemberOfProject(7L, 1L);
+        verify(userRepository, times(1)).isUserMemberOfProject(5L, 1L);
+    }
+
+    @Test
+    void isMember_ShouldFindMemberAddedInCurrentTransaction() {
+        // Given
+        when(userRepository.findMemberIdsByProjectIds(Set.of(1L))).thenReturn(Map.of(1L, Set.of(3L)));
+        when(userRepository.isUserMemberOfProject(9L, 1L)).thenReturn(true);
+        membershipIndex.isMember(1L, 3L);
+
+        // When: the addition is only applied to the index once the transaction commits
+        TransactionSynchronizationManager.initSynchronization();
+        boolean added;
+        try {
+            membershipIndex.memberAdded(1L, 9L);
+            added = membershipIndex.isMember(1L, 9L);
+        } finally {
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Then
+        assertTrue(added);
+        assertEquals(Optional.empty(), membershipIndex.findCachedMembership(1L, 9L));
+    }
+
+    @Test
+    void isMember_ShouldUseRepository_WhileRemovalIsPendingInCurrentTransaction() {
+        // Given
+        when(userRepository.findMemberIdsByProjectIds(Set.of(1L))).thenReturn(Map.of(1L, Set.of(3L)));
+        membershipIndex.isMember(1L, 3L);
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        boolean removed;
+        Optional<Boolean> cached;
+        try {
+            membershipIndex.memberRemoved(1L, 3L);
+            removed = !membershipIndex.isMember(1L, 3L);
+            cached = membershipIndex.findCachedMembership(1L, 3L);
+        } finally {
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Then: the rolled-back removal never reached the index
+        assertTrue(removed);
+        assertTrue(cached.isEmpty());
+        assertEquals(Optional.of(true), membershipIndex.findCachedMembership(1L, 3L));
+    }
+
+    @Test
+    void isMember_ShouldNotIndexLoad_WhenChangeCommitsDuringLoad() {
+        // Given: a membership change commits while the members are read
+        when(userRepository.findMemberIdsByProjectIds(Set.of(1L))).thenAnswer(invocation -> {
+            membershipIndex.clear();
+            return Map.of(1L, Set.of(3L));
+        });
+
+        // When
+        membershipIndex.isMember(1L, 3L);
+
+        // Then
+        assertTrue(membershipIndex.findCachedMembership(1L, 3L).isEmpty());
+    }
+
+    @Test
+    void memberChanges_ShouldKeepIndexedProjectCurrent() {
+        // Given
+        when(userRepository.findMemberIdsByProjectIds(Set.of(1L))).thenReturn(Map.of(1L, Set.of(3L)));
+        membershipIndex.isMember(1L, 3L);
+
+        // When
+        membershipIndex.memberAdded(1L, 9L);
+        membershipIndex.memberAdded(1L, 1L);
+        membershipIndex.memberRemoved(1L, 3L);
+
+        // Then
+        assertTrue(membershipIndex.isMember(1L, 9L));
+        assertTrue(membershipIndex.isMember(1L, 1L));
+        assertFalse(membershipIndex.isMember(1L, 3L));
+        verify(userRepository, times(1)).findMemberIdsByProjectIds(Set.of(1L));
+    }
+
+    @Test
+    void findCachedMembership_ShouldNotQuery_WhenProjectNotIndexed() {
+        // When
+        Optional<Boolean> beforeIndexing = membershipIndex.findCachedMembership(2L, 4L);
+        membershipIndex.membersReplaced(2L, List.of(4L, 4L, 8L));
+        Optional<Boolean> afterReplace = membershipIndex.findCachedMembership(2L, 4L);
+        membershipIndex.projectRemoved(2L);
+
+        // Then
+        assertTrue(beforeIndexing.isEmpty());
+        assertEquals(Optional.of(true), afterReplace);
+        assertTrue(membershipIndex.findCachedMembership(2L, 4L).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
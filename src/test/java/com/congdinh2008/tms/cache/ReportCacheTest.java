@@ -0,0 +1,158 @@
+package com.congdinh2008.tms.cache;
+
+import com.congdinh2008.tms.config.PrimaryReadTemplate;
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
+import com.congdinh2008.tms.events.TagChangedEvent;
+import com.congdinh2008.tms.events.TaskChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ReportCache, run against the regions declared in ehcache.xml
+ */
+class ReportCacheTest {
+
+    private CacheManager cacheManager;
+
+    private ReportCache reportCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider")
+                .getCacheManager(getClass().getResource("/ehcache.xml").toURI(), getClass().getClassLoader());
+        reportCache = new ReportCache(() -> cacheManager, new PrimaryReadTemplate(mock(PlatformTransactionManager.class)));
+        reportCache.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void get_ShouldLoadOnce_AndCountHitsAndMisses() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        ProjectStatistics first = reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L, () -> {
+            loads.incrementAndGet();
+            return new ProjectStatistics(4L, 1L, 2L, 0L, BigDecimal.valueOf(25));
+        });
+        ProjectStatistics second = reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L, () -> {
+            loads.incrementAndGet();
+            return new ProjectStatistics();
+        });
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(4L, second.getTotalTasks());
+        assertEquals(first.getCompletedTasks(), second.getCompletedTasks());
+        ReportCache.RegionStatistics statistics = reportCache.getStatistics().get(0);
+        assertEquals("project-statistics-cache", statistics.region());
+        assertEquals(1L, statistics.hits());
+        assertEquals(1L, statistics.misses());
+        assertEquals(0.5, statistics.hitRatio());
+    }
+
+    @Test
+    void onTaskChanged_ShouldEvictOnlyAffectedProjectAndCrossProjectReports() {
+        // Given
+        String projectOne = ReportCache.projectKey(1L, 0, 20);
+        String projectTwo = ReportCache.projectKey(2L, 0, 20);
+        String allProjects = ReportCache.projectKey(null, 0, 20);
+        for (String key : List.of(projectOne, projectTwo, allProjects)) {
+            reportCache.get(ReportCache.Region.OVERDUE_TASKS, key, () -> List.of(1L));
+        }
+
+        // When
+        reportCache.onTaskChanged(TaskChangedEvent.deleted(10L, 1L));
+
+        // Then
+        assertEquals(List.of(2L), reportCache.get(ReportCache.Region.OVERDUE_TASKS, projectOne, () -> List.of(2L)));
+        assertEquals(List.of(1L), reportCache.get(ReportCache.Region.OVERDUE_TASKS, projectTwo, () -> List.of(2L)));
+        assertEquals(List.of(2L), reportCache.get(ReportCache.Region.OVERDUE_TASKS, allProjects, () -> List.of(2L)));
+    }
+
+    @Test
+    void get_ShouldNotCache_WhenEvictedDuringLoad() {
+        // Given: a task write of the project commits while the statistics load
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L, () -> {
+            loads.incrementAndGet();
+            reportCache.onTaskChanged(TaskChangedEvent.deleted(10L, 1L));
+            return new ProjectStatistics(4L, 1L, 2L, 0L, BigDecimal.valueOf(25));
+        });
+        ProjectStatistics reloaded = reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L, () -> {
+            loads.incrementAndGet();
+            return new ProjectStatistics(3L, 1L, 2L, 0L, BigDecimal.valueOf(33));
+        });
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(3L, reloaded.getTotalTasks());
+    }
+
+    @Test
+    void get_ShouldBypassCache_InReadWriteTransaction() {
+        // Given
+        reportCache.get(ReportCache.Region.OVERDUE_TASKS, ReportCache.projectKey(1L, 0, 20), () -> List.of(1L));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        try {
+            // When: the transaction sees its own, uncommitted task
+            List<Long> ownWrites = reportCache.get(ReportCache.Region.OVERDUE_TASKS,
+                    ReportCache.projectKey(1L, 0, 20), () -> List.of(1L, 2L));
+
+            // Then
+            assertEquals(List.of(1L, 2L), ownWrites);
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+        assertEquals(List.of(1L), reportCache.get(ReportCache.Region.OVERDUE_TASKS,
+                ReportCache.projectKey(1L, 0, 20), () -> List.of(3L)));
+    }
+
+    @Test
+    void get_ShouldReturnCopies_OfMutableResults() {
+        // Given
+        ProjectStatistics loaded = reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L,
+                () -> new ProjectStatistics(4L, 1L, 2L, 0L, BigDecimal.valueOf(25)));
+
+        // When
+        loaded.setTotalTasks(0L);
+        reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L, ProjectStatistics::new).setCompletedTasks(0L);
+
+        // Then
+        ProjectStatistics cached = reportCache.get(ReportCache.Region.PROJECT_STATISTICS, 1L, ProjectStatistics::new);
+        assertEquals(4L, cached.getTotalTasks());
+        assertEquals(1L, cached.getCompletedTasks());
+    }
+
+    @Test
+    void onTagChanged_ShouldEvictPopularTags() {
+        // Given
+        String key = ReportCache.projectKey(null, 10);
+        reportCache.get(ReportCache.Region.POPULAR_TAGS, key, () -> List.of(1L));
+
+        // When
+        reportCache.onTagChanged(new TagChangedEvent(2L));
+
+        // Then
+        assertEquals(List.of(1L, 2L), reportCache.get(ReportCache.Region.POPULAR_TAGS, key, () -> List.of(1L, 2L)));
+    }
+}
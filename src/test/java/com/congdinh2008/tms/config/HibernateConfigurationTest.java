@@ -80,7 +80,7 @@ class HibernateConfigurationTest {
                 properties.getProperty("hibernate.hikari.minimumIdle"));
         
         // Validate performance settings
-        assertEquals("true", 
+        assertEquals("false", 
                 properties.getProperty("hibernate.show_sql"));
         assertEquals("true", 
                 properties.getProperty("hibernate.format_sql"));
@@ -113,7 +113,7 @@ class HibernateConfigurationTest {
             // Verify some key properties are set
             assertEquals("org.hibernate.dialect.PostgreSQLDialect", 
                     configuration.getProperty("hibernate.dialect"));
-            assertEquals("true", 
+            assertEquals("false", 
                     configuration.getProperty("hibernate.show_sql"));
         }, "Configuration creation should not throw exceptions");
     }
@@ -0,0 +1,146 @@
+package com.congdinh2008.tms.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReadWriteRoutingDataSource
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+    }
+
+    @Test
+    void getConnection_ShouldUseReplica_WhenTransactionIsReadOnly() throws Exception {
+        // Given
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(Duration.ZERO);
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(connection);
+        beginTransaction(true);
+
+        // When
+        Connection result = routingDataSource.getConnection();
+
+        // Then
+        assertSame(connection, result);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void currentRoute_ShouldUsePrimary_WhenTransactionWritesOrIsAbsent() {
+        // Given
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(Duration.ZERO);
+
+        // When & Then
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routingDataSource.currentRoute());
+        beginTransaction(false);
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routingDataSource.currentRoute());
+    }
+
+    @Test
+    void currentRoute_ShouldStayOnPrimary_WithinReadYourWritesWindowAfterCommit() {
+        // Given
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(Duration.ofMinutes(1));
+        beginTransaction(false);
+        routingDataSource.currentRoute();
+        commitTransaction();
+
+        // When
+        beginTransaction(true);
+        ReadWriteRoutingDataSource.Route route = routingDataSource.currentRoute();
+
+        // Then
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, route);
+    }
+
+    @Test
+    void currentRoute_ShouldUseReplica_WhenWriteRolledBack() {
+        // Given
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(Duration.ofMinutes(1));
+        beginTransaction(false);
+        routingDataSource.currentRoute();
+        endTransaction();
+
+        // When
+        beginTransaction(true);
+        ReadWriteRoutingDataSource.Route route = routingDataSource.currentRoute();
+
+        // Then
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, route);
+    }
+
+    @Test
+    void currentRoute_ShouldStayOnPrimary_AfterCommitOnAnotherThread() throws Exception {
+        // Given
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(Duration.ofMinutes(1));
+        Thread writer = new Thread(() -> {
+            beginTransaction(false);
+            routingDataSource.currentRoute();
+            commitTransaction();
+        });
+        writer.start();
+        writer.join();
+
+        // When
+        beginTransaction(true);
+        ReadWriteRoutingDataSource.Route route = routingDataSource.currentRoute();
+
+        // Then
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, route);
+    }
+
+    @Test
+    void currentRoute_ShouldUsePrimary_WhenReadOnlyTransactionIsPinned() {
+        // Given
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(Duration.ZERO);
+        beginTransaction(true);
+
+        // When
+        ReadWriteRoutingDataSource.Route pinned = ReadWriteRoutingDataSource.onPrimary(() ->
+                ReadWriteRoutingDataSource.onPrimary(routingDataSource::currentRoute));
+
+        // Then
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, pinned);
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routingDataSource.currentRoute());
+    }
+
+    private ReadWriteRoutingDataSource routingDataSource(Duration readYourWritesWindow) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replica, readYourWritesWindow);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commitTransaction() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        endTransaction();
+    }
+
+    private static void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+}
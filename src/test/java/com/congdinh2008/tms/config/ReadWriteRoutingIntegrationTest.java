@@ -0,0 +1,150 @@
+package com.congdinh2008.tms.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBuilder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the routing wiring of DataSourceConfig and HibernateConfig against the test database:
+ * the lazy connection proxy and the Hibernate transaction manager in front of two real pools.
+ * The pools connect to the same database under different application names, so the pool a
+ * transaction was routed to can be read back with a query.
+ */
+class ReadWriteRoutingIntegrationTest {
+
+    private static final String PRIMARY = "tms-test-primary";
+    private static final String REPLICA = "tms-test-replica";
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private SessionFactory sessionFactory;
+    private RoutingHibernateTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    @Test
+    void transactions_ShouldBeRoutedByReadOnlyFlag() {
+        // Given
+        wire(Duration.ZERO);
+
+        // When & Then
+        assertEquals(REPLICA, inTransaction(true, this::applicationName));
+        assertEquals(PRIMARY, inTransaction(false, this::applicationName));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldNotPopulateSharedCaches_WhenRoutedToReplica() {
+        // Given
+        wire(Duration.ZERO);
+
+        // When & Then
+        assertEquals(CacheMode.GET, inTransaction(true, () -> sessionFactory.getCurrentSession().getCacheMode()));
+        assertEquals(CacheMode.NORMAL, inTransaction(false, () -> sessionFactory.getCurrentSession().getCacheMode()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimary_AfterWriteCommittedOnAnotherThread() {
+        // Given
+        wire(Duration.ofMinutes(1));
+        CompletableFuture.runAsync(() -> inTransaction(false, this::applicationName)).join();
+
+        // When
+        String route = inTransaction(true, this::applicationName);
+
+        // Then
+        assertEquals(PRIMARY, route);
+    }
+
+    @Test
+    void primaryRead_ShouldUsePrimary_InsideReadOnlyTransactionOnReplica() {
+        // Given
+        wire(Duration.ZERO);
+        PrimaryReadTemplate primaryReads = new PrimaryReadTemplate(transactionManager);
+
+        // When
+        String[] routes = inTransaction(true, () -> {
+            String outer = applicationName();
+            String inner = primaryReads.read(this::applicationName);
+            return new String[] {outer, inner, applicationName()};
+        });
+
+        // Then
+        assertArrayEquals(new String[] {REPLICA, PRIMARY, REPLICA}, routes);
+    }
+
+    private void wire(Duration readYourWritesWindow) {
+        Properties properties = hibernateProperties();
+        primary = pool(properties, PRIMARY, false);
+        replica = pool(properties, REPLICA, true);
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replica, readYourWritesWindow);
+        routingDataSource.afterPropertiesSet();
+
+        LocalSessionFactoryBuilder builder = new LocalSessionFactoryBuilder(DataSourceConfig.lazyConnectionProxy(routingDataSource));
+        builder.setProperty("hibernate.dialect", properties.getProperty("hibernate.dialect"));
+        builder.setProperty("hibernate.hbm2ddl.auto", "none");
+        sessionFactory = builder.buildSessionFactory();
+        transactionManager = new RoutingHibernateTransactionManager(sessionFactory, routingDataSource);
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        return template.execute(status -> action.get());
+    }
+
+    private String applicationName() {
+        return sessionFactory.getCurrentSession()
+                .createNativeQuery("SELECT current_setting('application_name')", String.class)
+                .getSingleResult();
+    }
+
+    private static HikariDataSource pool(Properties properties, String applicationName, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(applicationName);
+        config.setJdbcUrl(properties.getProperty("hibernate.connection.url"));
+        config.setUsername(properties.getProperty("hibernate.connection.username"));
+        config.setPassword(properties.getProperty("hibernate.connection.password"));
+        config.setMaximumPoolSize(2);
+        config.setReadOnly(readOnly);
+        config.addDataSourceProperty("ApplicationName", applicationName);
+        return new HikariDataSource(config);
+    }
+
+    private static Properties hibernateProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = ReadWriteRoutingIntegrationTest.class.getResourceAsStream("/hibernate.properties")) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read hibernate.properties", e);
+        }
+        return properties;
+    }
+}
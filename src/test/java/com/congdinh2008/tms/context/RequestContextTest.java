@@ -0,0 +1,114 @@
+package com.congdinh2008.tms.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestContext
+ */
+class RequestContextTest {
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void open_ShouldPushCorrelationIdIntoMdc_AndRestoreOnClose() {
+        // Given
+        assertNull(RequestContext.current());
+
+        // When
+        String correlationId;
+        try (RequestContext.Scope scope = RequestContext.open()) {
+            correlationId = RequestContext.currentCorrelationId();
+
+            // Then
+            assertNotNull(correlationId);
+            assertEquals(correlationId, MDC.get(RequestContext.CORRELATION_ID));
+        }
+        assertNull(RequestContext.current());
+        assertNull(MDC.get(RequestContext.CORRELATION_ID));
+    }
+
+    @Test
+    void open_ShouldJoinOuterContext_WhenAlreadyOpen() {
+        try (RequestContext.Scope outer = RequestContext.open()) {
+            String outerId = RequestContext.currentCorrelationId();
+
+            // When
+            try (RequestContext.Scope inner = RequestContext.open()) {
+                // Then
+                assertEquals(outerId, RequestContext.currentCorrelationId());
+            }
+            assertEquals(outerId, RequestContext.currentCorrelationId());
+            assertEquals(outerId, MDC.get(RequestContext.CORRELATION_ID));
+        }
+    }
+
+    @Test
+    void open_ShouldGenerateDistinctIds_ForSeparateRequests() {
+        // Given
+        String first;
+        try (RequestContext.Scope scope = RequestContext.open()) {
+            first = RequestContext.currentCorrelationId();
+        }
+
+        // When
+        String second;
+        try (RequestContext.Scope scope = RequestContext.open()) {
+            second = RequestContext.currentCorrelationId();
+        }
+
+        // Then
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void wrap_ShouldPropagateContext_ToVirtualThreads() throws Exception {
+        // Given
+        AtomicReference<String> seenId = new AtomicReference<>();
+        AtomicReference<String> seenMdc = new AtomicReference<>();
+        String correlationId;
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             RequestContext.Scope scope = RequestContext.open()) {
+            correlationId = RequestContext.currentCorrelationId();
+            executor.submit(RequestContext.wrap(() -> {
+                seenId.set(RequestContext.currentCorrelationId());
+                seenMdc.set(MDC.get(RequestContext.CORRELATION_ID));
+            })).get();
+        }
+
+        // Then
+        assertEquals(correlationId, seenId.get());
+        assertEquals(correlationId, seenMdc.get());
+    }
+
+    @Test
+    void wrap_ShouldClearContext_AfterTaskCompletes() throws Exception {
+        // Given
+        AtomicReference<RequestContext> afterTask = new AtomicReference<>(RequestContext.current());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When
+            try (RequestContext.Scope scope = RequestContext.open()) {
+                RequestContext.wrap(executor).execute(() -> { });
+            }
+            executor.submit(() -> afterTask.set(RequestContext.current())).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertNull(afterTask.get());
+    }
+}
@@ -0,0 +1,53 @@
+package com.congdinh2008.tms.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompressedBitmap
+ */
+class CompressedBitmapTest {
+
+    @Test
+    void addAndRemove_ShouldTrackMembership_AcrossContainerConversions() {
+        // Given
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        // When: enough values in one chunk to switch from the array to the bitmap container
+        for (int value = 0; value < 10_000; value += 2) {
+            bitmap.add(value);
+        }
+        bitmap.add(1 << 20);
+        for (int value = 0; value < 10_000; value += 4) {
+            bitmap.remove(value);
+        }
+
+        // Then
+        assertEquals(2_501, bitmap.cardinality());
+        assertTrue(bitmap.contains(2));
+        assertFalse(bitmap.contains(4));
+        assertTrue(bitmap.contains(1 << 20));
+        assertFalse(bitmap.add(2));
+        assertFalse(bitmap.remove(3));
+    }
+
+    @Test
+    void andOr_ShouldCombineBitmaps_WithoutChangingOperands() {
+        // Given
+        CompressedBitmap left = CompressedBitmap.of(1, 5, 70_000, -1);
+        CompressedBitmap right = CompressedBitmap.of(5, 9, -1);
+
+        // When
+        CompressedBitmap and = left.and(right);
+        CompressedBitmap or = left.or(right);
+
+        // Then
+        assertEquals(2, and.cardinality());
+        assertEquals(2, left.andCardinality(right));
+        assertTrue(and.contains(-1));
+        assertEquals(5, or.cardinality());
+        assertEquals(4, left.cardinality());
+        assertEquals(3, right.cardinality());
+    }
+}
@@ -0,0 +1,154 @@
+package com.congdinh2008.tms.index;
+
+import com.congdinh2008.tms.config.PrimaryReadTemplate;
+import com.congdinh2008.tms.dto.projection.TaskFacetRow;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.events.TaskChangedEvent;
+import com.congdinh2008.tms.repositories.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskBitmapIndex
+ */
+class TaskBitmapIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskBitmapIndex taskBitmapIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskBitmapIndex = new TaskBitmapIndex(taskRepository, new PrimaryReadTemplate(mock(PlatformTransactionManager.class)));
+        
+        List<TaskFacetRow> rows = List.of(
+                new TaskFacetRow(1L, TaskStatus.TODO, TaskPriority.HIGH, 10L, 100L, 7L),
+                new TaskFacetRow(1L, TaskStatus.TODO, TaskPriority.HIGH, 10L, 100L, 8L),
+                new TaskFacetRow(2L, TaskStatus.DONE, TaskPriority.LOW, 10L, null, null),
+                new TaskFacetRow(3L, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, 20L, 100L, 7L),
+                new TaskFacetRow(70_000L, TaskStatus.TODO, TaskPriority.MEDIUM, 10L, 200L, null));
+        when(taskRepository.forEachFacetRow(any())).thenAnswer(invocation -> {
+            Consumer<TaskFacetRow> action = invocation.getArgument(0);
+            rows.forEach(action);
+            return (long) rows.size();
+        });
+    }
+
+    @Test
+    void count_ShouldEvaluateFilterCombinations_AfterSingleScan() {
+        // When
+        long all = taskBitmapIndex.count(TaskFilter.all());
+        long projectTodo = taskBitmapIndex.count(TaskFilter.project(10L).and(TaskFilter.status(TaskStatus.TODO)));
+        long taggedOrLow = taskBitmapIndex.count(TaskFilter.tag(7L).or(TaskFilter.priority(TaskPriority.LOW)));
+        long unknownAssignee = taskBitmapIndex.count(TaskFilter.assignee(999L));
+
+        // Then
+        assertEquals(4L, all);
+        assertEquals(2L, projectTodo);
+        assertEquals(3L, taggedOrLow);
+        assertEquals(0L, unknownAssignee);
+        verify(taskRepository, times(1)).forEachFacetRow(any());
+    }
+
+    @Test
+    void countByStatus_ShouldIncludeEveryStatus() {
+        // When
+        Map<TaskStatus, Long> distribution = taskBitmapIndex.countByStatus(TaskFilter.project(20L));
+
+        // Then
+        assertEquals(0L, distribution.get(TaskStatus.TODO));
+        assertEquals(1L, distribution.get(TaskStatus.IN_PROGRESS));
+        assertEquals(0L, distribution.get(TaskStatus.DONE));
+    }
+
+    @Test
+    void onTaskChanged_ShouldKeepBuiltIndexCurrent() {
+        // Given
+        taskBitmapIndex.count(TaskFilter.all());
+        Project project = new Project();
+        project.setId(20L);
+        Task moved = new Task();
+        moved.setId(2L);
+        moved.setStatus(TaskStatus.DONE);
+        moved.setPriority(TaskPriority.LOW);
+        moved.setProject(project);
+        moved.setTags(new ArrayList<>());
+
+        // When
+        taskBitmapIndex.onTaskChanged(TaskChangedEvent.saved(moved));
+        taskBitmapIndex.onTaskChanged(TaskChangedEvent.statusChanged(List.of(1L, 70_000L), TaskStatus.DONE));
+        taskBitmapIndex.onTaskChanged(TaskChangedEvent.deleted(3L, 20L));
+
+        // Then
+        assertEquals(3L, taskBitmapIndex.count(TaskFilter.all()));
+        assertEquals(1L, taskBitmapIndex.count(TaskFilter.project(20L)));
+        assertEquals(3L, taskBitmapIndex.count(TaskFilter.status(TaskStatus.DONE)));
+        assertEquals(1L, taskBitmapIndex.count(TaskFilter.tag(7L)));
+        verify(taskRepository, times(1)).forEachFacetRow(any());
+    }
+
+    @Test
+    void onTaskChanged_ShouldRebuildLazily_AfterBulkChange() {
+        // Given
+        taskBitmapIndex.count(TaskFilter.all());
+
+        // When
+        taskBitmapIndex.onTaskChanged(TaskChangedEvent.bulkChange());
+        long all = taskBitmapIndex.count(TaskFilter.all());
+
+        // Then
+        assertEquals(4L, all);
+        verify(taskRepository, times(2)).forEachFacetRow(any());
+    }
+
+    @Test
+    void count_ShouldRebuild_WhenBulkChangeResetsIndexRightAfterBuild() throws InterruptedException {
+        // Given: a bulk change waiting for the write lock while the first build holds it
+        AtomicReference<TaskBitmapIndex> index = new AtomicReference<>();
+        AtomicReference<Thread> bulkChange = new AtomicReference<>();
+        PrimaryReadTemplate primaryReads = new PrimaryReadTemplate(mock(PlatformTransactionManager.class)) {
+            @Override
+            public <T> T read(Supplier<T> read) {
+                T result = super.read(read);
+                if (bulkChange.get() == null) {
+                    Thread writer = new Thread(() -> index.get().onTaskChanged(TaskChangedEvent.bulkChange()));
+                    bulkChange.set(writer);
+                    writer.start();
+                    while (writer.getState() != Thread.State.WAITING) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return result;
+            }
+        };
+        index.set(new TaskBitmapIndex(taskRepository, primaryReads));
+
+        // When
+        long all = index.get().count(TaskFilter.all());
+        bulkChange.get().join();
+
+        // Then
+        assertEquals(4L, all);
+        verify(taskRepository, times(2)).forEachFacetRow(any());
+    }
+}
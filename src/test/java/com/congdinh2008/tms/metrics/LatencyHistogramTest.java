@@ -0,0 +1,72 @@
+package com.congdinh2008.tms.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void getValueAtPercentile_ShouldStayWithinBucketPrecision() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        // When
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        long p999 = histogram.getValueAtPercentile(99.9);
+
+        // Then
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.getMaxNanos());
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(500), p50);
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(990), p99);
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(999), p999);
+    }
+
+    @Test
+    void getValueAtPercentile_ShouldReturnZero_WhenEmpty() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When & Then
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    void record_ShouldCapValuesAboveTrackableRange_ButKeepExactMax() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        long twoHours = TimeUnit.HOURS.toNanos(2);
+
+        // When
+        histogram.record(twoHours);
+
+        // Then
+        assertEquals(twoHours, histogram.getMaxNanos());
+        assertTrue(histogram.getValueAtPercentile(100) >= TimeUnit.HOURS.toNanos(1));
+    }
+
+    @Test
+    void bucketIndex_ShouldBeContiguousAndContainItsUpperBound() {
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.highestValueInBucket(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueInBucket(index - 1) < value);
+        }
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 32,
+                () -> "expected about " + expected + " but was " + actual);
+    }
+}
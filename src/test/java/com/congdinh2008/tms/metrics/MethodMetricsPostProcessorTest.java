@@ -0,0 +1,92 @@
+package com.congdinh2008.tms.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MethodMetricsPostProcessor and MethodMetricsRegistry
+ */
+class MethodMetricsPostProcessorTest {
+
+    interface SampleService {
+        List<String> findAll();
+
+        long count();
+
+        void fail();
+    }
+
+    static class SampleServiceImpl implements SampleService {
+
+        @Override
+        public List<String> findAll() {
+            return List.of("a", "b", "c");
+        }
+
+        @Override
+        public long count() {
+            return 3;
+        }
+
+        @Override
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    static class SampleHelper {
+    }
+
+    private final MethodMetricsRegistry registry = new MethodMetricsRegistry();
+
+    private final MethodMetricsPostProcessor postProcessor = new MethodMetricsPostProcessor(registry);
+
+    @Test
+    void postProcessAfterInitialization_ShouldRecordCallsErrorsAndRows_ForServiceImpl() {
+        // Given
+        SampleService service = (SampleService) postProcessor.postProcessAfterInitialization(
+                new SampleServiceImpl(), "sampleService");
+
+        // When
+        service.findAll();
+        service.findAll();
+        service.count();
+        assertThrows(IllegalStateException.class, service::fail);
+
+        // Then
+        assertTrue(AopUtils.isAopProxy(service));
+        List<MethodMetricsRegistry.MethodStatistics> statistics = registry.getStatistics();
+        assertEquals(3, statistics.size());
+        MethodMetricsRegistry.MethodStatistics findAll = statistics(statistics, "SampleServiceImpl.findAll()");
+        assertEquals(2, findAll.calls());
+        assertEquals(6, findAll.rows());
+        assertEquals(0, findAll.errors());
+        assertTrue(findAll.maxNanos() >= findAll.p50Nanos());
+        assertEquals(0, statistics(statistics, "SampleServiceImpl.count()").rows());
+        assertEquals(1, statistics(statistics, "SampleServiceImpl.fail()").errors());
+    }
+
+    @Test
+    void postProcessAfterInitialization_ShouldLeaveOtherBeansUnproxied() {
+        // Given
+        SampleHelper helper = new SampleHelper();
+
+        // When
+        Object result = postProcessor.postProcessAfterInitialization(helper, "sampleHelper");
+
+        // Then
+        assertSame(helper, result);
+    }
+
+    private static MethodMetricsRegistry.MethodStatistics statistics(
+            List<MethodMetricsRegistry.MethodStatistics> statistics, String method) {
+        return statistics.stream()
+                .filter(candidate -> candidate.method().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+}
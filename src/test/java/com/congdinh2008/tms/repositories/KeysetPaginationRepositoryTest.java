@@ -0,0 +1,184 @@
+package com.congdinh2008.tms.repositories;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.repositories.support.KeysetPage;
+import com.congdinh2008.tms.repositories.support.SortSpec;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database tests of keyset pagination through TaskRepository.findAfter. Pages are walked to the
+ * end and the tasks of the test are checked for order, with ties on the sort key broken by ID;
+ * rows left by other tests may be interleaved and are skipped. Each test runs in a transaction
+ * that is rolled back.
+ */
+class KeysetPaginationRepositoryTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    private static AnnotationConfigApplicationContext context;
+    private static PlatformTransactionManager transactionManager;
+    private static SessionFactory sessionFactory;
+
+    private TaskRepository taskRepository;
+
+    private TransactionStatus transactionStatus;
+    private List<Task> tasks;
+
+    @BeforeAll
+    static void setUpClass() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = context.getBean(TaskRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+
+        transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        Project project = new Project();
+        project.setName("Keyset Project");
+        project.setStartDate(LocalDate.now());
+        projectRepository.save(project);
+
+        // Three tasks share a due date, so that page boundaries fall inside the tie
+        LocalDate tied = LocalDate.now().plusDays(10);
+        tasks = new ArrayList<>();
+        for (LocalDate dueDate : List.of(tied, tied.plusDays(1), tied, tied.minusDays(1), tied)) {
+            Task task = new Task();
+            task.setTitle("Keyset task " + tasks.size());
+            task.setDueDate(dueDate);
+            task.setProject(project);
+            task.setStatus(TaskStatus.TODO);
+            task.setPriority(TaskPriority.MEDIUM);
+            tasks.add(taskRepository.save(task));
+        }
+        sessionFactory.getCurrentSession().flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transactionStatus != null && !transactionStatus.isCompleted()) {
+            transactionManager.rollback(transactionStatus);
+        }
+    }
+
+    @Test
+    @DisplayName("The (sort key, id) indexes of the migration script exist")
+    void schema_ShouldContainKeysetIndexes() {
+        List<String> indexes = sessionFactory.getCurrentSession().createNativeQuery("""
+                SELECT indexname FROM pg_indexes
+                WHERE tablename = 'tasks' AND indexname IN ('idx_tasks_created_at_id', 'idx_tasks_updated_at_id',
+                                                            'idx_tasks_due_date_id', 'idx_tasks_title_id')
+                ORDER BY indexname""", String.class).getResultList();
+
+        assertEquals(List.of("idx_tasks_created_at_id", "idx_tasks_due_date_id", "idx_tasks_title_id",
+                "idx_tasks_updated_at_id"), indexes);
+    }
+
+    @Test
+    @DisplayName("Ascending pages follow the due date, then the ID within ties")
+    void findAfter_ShouldPageAscending_WithTiesBrokenById() {
+        List<Long> walked = walk(SortSpec.asc("dueDate"));
+
+        assertEquals(expectedOrder(Comparator.comparing(Task::getDueDate).thenComparing(Task::getId)),
+                ownTaskIds(walked));
+    }
+
+    @Test
+    @DisplayName("Descending pages follow the due date, then the ID within ties")
+    void findAfter_ShouldPageDescending_WithTiesBrokenById() {
+        List<Long> walked = walk(SortSpec.desc("dueDate"));
+
+        assertEquals(expectedOrder(Comparator.comparing(Task::getDueDate).thenComparing(Task::getId).reversed()),
+                ownTaskIds(walked));
+    }
+
+    @Test
+    @DisplayName("The last page carries no cursor and a full page size is never exceeded")
+    void findAfter_ShouldEndWithoutCursor() {
+        KeysetPage<Task> page = taskRepository.findAfter(null, PAGE_SIZE, SortSpec.asc("title"));
+        int pages = 1;
+        while (page.hasNext()) {
+            assertEquals(PAGE_SIZE, page.size());
+            page = taskRepository.findAfter(page.getNextCursor(), PAGE_SIZE, SortSpec.asc("title"));
+            pages++;
+        }
+
+        assertNull(page.getNextCursor());
+        assertTrue(page.size() >= 1 && page.size() <= PAGE_SIZE);
+        assertTrue(pages >= (tasks.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("A cursor issued for one sort is rejected by another")
+    void findAfter_ShouldRejectCursor_IssuedForDifferentSort() {
+        String cursor = taskRepository.findAfter(null, PAGE_SIZE, SortSpec.asc("dueDate")).getNextCursor();
+        assertNotNull(cursor);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskRepository.findAfter(cursor, PAGE_SIZE, SortSpec.desc("dueDate")));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskRepository.findAfter(cursor, PAGE_SIZE, SortSpec.asc("title")));
+    }
+
+    /**
+     * Walk every page of a sort and return the IDs in page order, failing on a repeated row
+     */
+    private List<Long> walk(SortSpec sortSpec) {
+        List<Long> ids = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            KeysetPage<Task> page = taskRepository.findAfter(cursor, PAGE_SIZE, sortSpec);
+            for (Task task : page.getContent()) {
+                assertTrue(seen.add(task.getId()), () -> "Task " + task.getId() + " returned twice");
+                ids.add(task.getId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> ownTaskIds(List<Long> ids) {
+        Set<Long> own = new HashSet<>();
+        tasks.forEach(task -> own.add(task.getId()));
+        return ids.stream().filter(own::contains).toList();
+    }
+
+    private List<Long> expectedOrder(Comparator<Task> order) {
+        return tasks.stream().sorted(order).map(Task::getId).toList();
+    }
+}
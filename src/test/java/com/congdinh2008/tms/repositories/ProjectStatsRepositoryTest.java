@@ -0,0 +1,198 @@
+package com.congdinh2008.tms.repositories;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.dto.request.CreateProjectRequest;
+import com.congdinh2008.tms.dto.request.CreateTaskRequest;
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
+import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.services.ProjectService;
+import com.congdinh2008.tms.services.TaskService;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database tests of the project_stats counters: after every kind of task write, whether it
+ * goes through the task service, the repository or the subtask cascade, the counters must
+ * equal a recount of the project's tasks. Each test runs in a transaction that is rolled back.
+ */
+class ProjectStatsRepositoryTest {
+
+    private static final String RECOUNT_SQL = """
+            SELECT COUNT(*),
+                   COUNT(*) FILTER (WHERE t.status = 'DONE'),
+                   COUNT(*) FILTER (WHERE t.status = 'IN_PROGRESS'),
+                   COUNT(*) FILTER (WHERE t.status <> 'DONE' AND t.due_date IS NOT NULL)
+            FROM tasks t
+            WHERE t.project_id = :projectId""";
+
+    private static final String COUNTERS_SQL = """
+            SELECT s.total_tasks, s.done_tasks, s.in_progress_tasks, s.overdue_eligible_tasks
+            FROM project_stats s
+            WHERE s.project_id = :projectId""";
+
+    private static AnnotationConfigApplicationContext context;
+    private static PlatformTransactionManager transactionManager;
+    private static SessionFactory sessionFactory;
+
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private ProjectRepository projectRepository;
+
+    private TransactionStatus transactionStatus;
+    private Long projectId;
+
+    @BeforeAll
+    static void setUpClass() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        projectRepository = context.getBean(ProjectRepository.class);
+
+        // Services join the test transaction, so everything is rolled back afterwards
+        transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        projectId = context.getBean(ProjectService.class)
+                .create(new CreateProjectRequest("Stats Project", null, LocalDate.now())).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transactionStatus != null && !transactionStatus.isCompleted()) {
+            transactionManager.rollback(transactionStatus);
+        }
+    }
+
+    @Test
+    @DisplayName("Counters match a recount after creates through the service, repository and cascade")
+    void counters_ShouldMatchRecount_AfterCreate() {
+        TaskResponse root = taskService.create(taskRequest("Root", null));
+        taskService.createAll(List.of(taskRequest("Bulk 1", root.getId()), taskRequest("Bulk 2", root.getId())));
+
+        Project project = projectRepository.findById(projectId);
+        Task saved = task(project, "Saved", TaskStatus.IN_PROGRESS);
+        saved.addSubTask(task(project, "Cascaded", TaskStatus.DONE));
+        taskRepository.save(saved);
+
+        assertCountersMatchRecount(5);
+    }
+
+    @Test
+    @DisplayName("Counters match a recount after single and bulk status changes")
+    void counters_ShouldMatchRecount_AfterStatusChanges() {
+        TaskResponse root = taskService.create(taskRequest("Root", null));
+        List<Long> subtaskIds = new ArrayList<>();
+        for (TaskResponse subtask : taskService.createAll(List.of(
+                taskRequest("Subtask 1", root.getId()), taskRequest("Subtask 2", root.getId())))) {
+            subtaskIds.add(subtask.getId());
+        }
+
+        taskService.changeStatus(subtaskIds.get(0), TaskStatus.IN_PROGRESS);
+        assertCountersMatchRecount(3);
+
+        List<Long> allIds = new ArrayList<>(subtaskIds);
+        allIds.add(root.getId());
+        taskService.changeStatusBulk(allIds, TaskStatus.DONE);
+        assertCountersMatchRecount(3);
+
+        // A status change written through the repository rather than the service
+        Task task = taskRepository.findById(subtaskIds.get(1));
+        task.setStatus(TaskStatus.TODO);
+        taskRepository.update(task);
+        assertCountersMatchRecount(3);
+    }
+
+    @Test
+    @DisplayName("Counters match a recount after deletes through the service and repository")
+    void counters_ShouldMatchRecount_AfterDelete() {
+        TaskResponse root = taskService.create(taskRequest("Root", null));
+        List<TaskResponse> subtasks = taskService.createAll(List.of(
+                taskRequest("Subtask 1", root.getId()), taskRequest("Subtask 2", root.getId())));
+        taskService.changeStatus(subtasks.get(0).getId(), TaskStatus.DONE);
+
+        taskService.delete(subtasks.get(0).getId());
+        assertCountersMatchRecount(2);
+
+        // Deleting the root removes its remaining subtask through the cascade
+        taskRepository.delete(taskRepository.findById(root.getId()));
+        assertCountersMatchRecount(0);
+
+        ProjectStatistics statistics = projectRepository.findStatistics(projectId);
+        assertEquals(0L, statistics.getTotalTasks());
+    }
+
+    private void assertCountersMatchRecount(long expectedTotal) {
+        Session session = sessionFactory.getCurrentSession();
+        session.flush();
+
+        Object[] recount = session.createNativeQuery(RECOUNT_SQL, Object[].class)
+                .setParameter("projectId", projectId)
+                .getSingleResult();
+        List<Object[]> counters = session.createNativeQuery(COUNTERS_SQL, Object[].class)
+                .setParameter("projectId", projectId)
+                .getResultList();
+
+        assertEquals(expectedTotal, ((Number) recount[0]).longValue());
+        long[] expected = toLongs(recount);
+        long[] actual = counters.isEmpty() ? new long[4] : toLongs(counters.get(0));
+        assertArrayEquals(expected, actual,
+                "project_stats (total, done, in progress, overdue eligible) differs from a recount");
+    }
+
+    private static long[] toLongs(Object[] row) {
+        long[] values = new long[row.length];
+        for (int i = 0; i < row.length; i++) {
+            values[i] = ((Number) row[i]).longValue();
+        }
+        return values;
+    }
+
+    private CreateTaskRequest taskRequest(String title, Long parentTaskId) {
+        CreateTaskRequest request = new CreateTaskRequest(title, null, projectId);
+        request.setPriority(TaskPriority.MEDIUM);
+        request.setDueDate(LocalDate.now().plusDays(3));
+        request.setParentTaskId(parentTaskId);
+        return request;
+    }
+
+    private static Task task(Project project, String title, TaskStatus status) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDueDate(LocalDate.now().plusDays(3));
+        task.setProject(project);
+        task.setStatus(status);
+        task.setPriority(TaskPriority.LOW);
+        return task;
+    }
+}
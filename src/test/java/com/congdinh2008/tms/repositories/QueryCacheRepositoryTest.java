@@ -0,0 +1,148 @@
+package com.congdinh2008.tms.repositories;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database tests of the cacheable queries of TaskRepository and UserRepository: a repeated query
+ * must be served from the query cache, and a committed write to its tables must invalidate it.
+ * The query cache only sees committed writes, so each step commits its own transaction and the
+ * rows are deleted afterwards.
+ */
+class QueryCacheRepositoryTest {
+
+    private static AnnotationConfigApplicationContext context;
+    private static TransactionTemplate transactionTemplate;
+    private static Statistics statistics;
+
+    private TaskRepository taskRepository;
+    private ProjectRepository projectRepository;
+    private UserRepository userRepository;
+
+    private Long projectId;
+    private Long userId;
+
+    @BeforeAll
+    static void setUpClass() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = context.getBean(TaskRepository.class);
+        projectRepository = context.getBean(ProjectRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        inTransaction(() -> {
+            Project project = new Project();
+            project.setName("Query Cache Project");
+            project.setStartDate(LocalDate.now());
+            projectId = projectRepository.save(project).getId();
+
+            User user = new User();
+            user.setName("Query Cache User");
+            user.setEmail("query-cache-" + System.nanoTime() + "@example.com");
+            user.setPassword("secret");
+            userId = userRepository.save(user).getId();
+
+            taskRepository.save(task(project, "First"));
+            return null;
+        });
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(() -> {
+            Project project = projectRepository.findById(projectId);
+            if (project != null) {
+                projectRepository.delete(project);
+            }
+            User user = userRepository.findById(userId);
+            if (user != null) {
+                userRepository.delete(user);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Tasks by project are served from the query cache until a task is written")
+    void findByProject_ShouldHitQueryCache_UntilTaskWriteCommits() {
+        assertEquals(1, inTransaction(() -> taskRepository.findByProject(projectId)).size());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCachePutCount());
+
+        assertEquals(1, inTransaction(() -> taskRepository.findByProject(projectId)).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        inTransaction(() -> taskRepository.save(task(projectRepository.findById(projectId), "Second")));
+        long hitsBeforeRead = statistics.getQueryCacheHitCount();
+
+        assertEquals(2, inTransaction(() -> taskRepository.findByProject(projectId)).size());
+        assertEquals(hitsBeforeRead, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Project members are served from the query cache until membership changes")
+    void findProjectMembers_ShouldHitQueryCache_UntilMembershipChangeCommits() {
+        assertTrue(inTransaction(() -> userRepository.findProjectMembers(projectId)).isEmpty());
+        assertTrue(inTransaction(() -> userRepository.findProjectMembers(projectId)).isEmpty());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        inTransaction(() -> {
+            Project project = projectRepository.findById(projectId);
+            project.addMember(userRepository.findById(userId));
+            return projectRepository.update(project);
+        });
+        long hitsBeforeRead = statistics.getQueryCacheHitCount();
+
+        List<User> members = inTransaction(() -> userRepository.findProjectMembers(projectId));
+        assertEquals(List.of(userId), members.stream().map(User::getId).toList());
+        assertEquals(hitsBeforeRead, statistics.getQueryCacheHitCount());
+    }
+
+    private static <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private static Task task(Project project, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDueDate(LocalDate.now().plusDays(7));
+        task.setProject(project);
+        task.setStatus(TaskStatus.TODO);
+        task.setPriority(TaskPriority.MEDIUM);
+        return task;
+    }
+}
@@ -0,0 +1,207 @@
+package com.congdinh2008.tms.repositories;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.dto.search.TaskSearchCriteria;
+import com.congdinh2008.tms.dto.search.TaskSearchCriteria.KeywordMatchMode;
+import com.congdinh2008.tms.entities.BaseEntity;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database tests of the PostgreSQL-specific searches: the tsvector full-text search of tasks and
+ * the trigram name searches of users, projects and tags. The schema objects they rely on are
+ * created from the V006 and V007 migration scripts. Each test runs in a transaction that is
+ * rolled back.
+ */
+class SearchRepositoryTest {
+
+    // More keyword matches than the full-text candidate limit of TaskRepositoryImpl
+    private static final int FULL_TEXT_MATCHES = 1100;
+
+    private static AnnotationConfigApplicationContext context;
+    private static PlatformTransactionManager transactionManager;
+    private static SessionFactory sessionFactory;
+
+    private TaskRepository taskRepository;
+    private ProjectRepository projectRepository;
+    private UserRepository userRepository;
+    private TagRepository tagRepository;
+
+    private TransactionStatus transactionStatus;
+    private Project project;
+
+    @BeforeAll
+    static void setUpClass() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = context.getBean(TaskRepository.class);
+        projectRepository = context.getBean(ProjectRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        tagRepository = context.getBean(TagRepository.class);
+
+        transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        project = new Project();
+        project.setName("Quarterly Roadmap");
+        project.setStartDate(LocalDate.now());
+        project = projectRepository.save(project);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transactionStatus != null && !transactionStatus.isCompleted()) {
+            transactionManager.rollback(transactionStatus);
+        }
+    }
+
+    @Test
+    @DisplayName("The search and trigram indexes of the migration scripts exist")
+    void schema_ShouldContainIndexesFromMigrationScripts() {
+        List<String> indexes = sessionFactory.getCurrentSession().createNativeQuery("""
+                SELECT indexname FROM pg_indexes
+                WHERE indexname IN ('idx_tasks_search_vector', 'idx_users_name_trgm',
+                                    'idx_projects_name_trgm', 'idx_tags_name_trgm', 'idx_projects_lower_name')
+                ORDER BY indexname""", String.class).getResultList();
+
+        assertEquals(List.of("idx_projects_lower_name", "idx_projects_name_trgm", "idx_tags_name_trgm",
+                "idx_tasks_search_vector", "idx_users_name_trgm"), indexes);
+    }
+
+    @Test
+    @DisplayName("Full-text search ranks title matches above description matches")
+    void searchTasks_ShouldRankTitleMatchesFirst_InFullTextMode() {
+        Task inDescription = taskRepository.save(task("Fix report totals", "The invoice totals are wrong"));
+        Task inTitle = taskRepository.save(task("Invoice export fails", null));
+        taskRepository.save(task("Update onboarding guide", "Screenshots are outdated"));
+        sessionFactory.getCurrentSession().flush();
+
+        List<Task> results = taskRepository.searchTasks(fullText("invoice"));
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), ids(results));
+    }
+
+    @Test
+    @DisplayName("Full-text search accepts web search syntax")
+    void searchTasks_ShouldExcludeNegatedTerms_InFullTextMode() {
+        Task inDescription = taskRepository.save(task("Fix report totals", "The invoice totals are wrong"));
+        taskRepository.save(task("Invoice export fails", null));
+        sessionFactory.getCurrentSession().flush();
+
+        List<Task> results = taskRepository.searchTasks(fullText("invoice -export"));
+
+        assertEquals(List.of(inDescription.getId()), ids(results));
+    }
+
+    @Test
+    @DisplayName("Full-text search applies tag and due-date filters before the candidate limit")
+    void searchTasks_ShouldFindFilteredMatches_BeyondCandidateLimit() {
+        // Equal ranks are ordered by ID, so the tasks saved last fall outside the first 1000 matches
+        Tag tag = tagRepository.save(new Tag("invoice-tail-" + System.nanoTime()));
+        LocalDate tailDueDate = LocalDate.now().plusYears(5);
+        List<Long> tailIds = new ArrayList<>();
+        for (int i = 0; i < FULL_TEXT_MATCHES; i++) {
+            boolean tail = i >= FULL_TEXT_MATCHES - 5;
+            Task task = task("Invoice batch " + i, null);
+            if (tail) {
+                task.getTags().add(tag);
+                task.setDueDate(tailDueDate);
+            }
+            taskRepository.save(task);
+            if (tail) {
+                tailIds.add(task.getId());
+            }
+        }
+        sessionFactory.getCurrentSession().flush();
+
+        TaskSearchCriteria byTag = fullText("invoice");
+        byTag.setTagIds(List.of(tag.getId()));
+        TaskSearchCriteria byDueDate = fullText("invoice");
+        byDueDate.setDueDateFrom(tailDueDate.atStartOfDay());
+
+        assertEquals(tailIds, ids(taskRepository.searchTasks(byTag)));
+        assertEquals(tailIds, ids(taskRepository.searchTasks(byDueDate)));
+    }
+
+    @Test
+    @DisplayName("Similar-name searches find users, projects and tags despite a typo")
+    void findByNameSimilar_ShouldMatchTypos() {
+        User user = new User();
+        user.setName("Alexandra Nguyen");
+        user.setEmail("search-" + System.nanoTime() + "@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        Tag tag = tagRepository.save(new Tag("backend-" + System.nanoTime()));
+        sessionFactory.getCurrentSession().flush();
+
+        assertTrue(ids(userRepository.findByNameSimilar("Alexandar", 10)).contains(user.getId()));
+        assertTrue(ids(projectRepository.findByNameSimilar("roadmp", 10)).contains(project.getId()));
+        assertTrue(ids(tagRepository.findByNameSimilar("bakend", 10)).contains(tag.getId()));
+        assertFalse(ids(projectRepository.findByNameSimilar("onboarding", 10)).contains(project.getId()));
+    }
+
+    @Test
+    @DisplayName("Project names are compared case-insensitively, excluding the project itself")
+    void existsByNameIgnoreCase_ShouldIgnoreCase_AndExcludedProject() {
+        sessionFactory.getCurrentSession().flush();
+
+        assertTrue(projectRepository.existsByNameIgnoreCase("QUARTERLY ROADMAP", null));
+        assertFalse(projectRepository.existsByNameIgnoreCase("QUARTERLY ROADMAP", project.getId()));
+        assertFalse(projectRepository.existsByNameIgnoreCase("Quarterly", null));
+    }
+
+    private TaskSearchCriteria fullText(String keyword) {
+        return TaskSearchCriteria.builder()
+                .keyword(keyword)
+                .keywordMatchMode(KeywordMatchMode.FULL_TEXT)
+                .projectId(project.getId())
+                .build();
+    }
+
+    private Task task(String title, String description) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setDueDate(LocalDate.now().plusDays(7));
+        task.setProject(project);
+        task.setStatus(TaskStatus.TODO);
+        task.setPriority(TaskPriority.MEDIUM);
+        return task;
+    }
+
+    private static List<Long> ids(List<? extends BaseEntity> entities) {
+        return entities.stream().map(BaseEntity::getId).toList();
+    }
+}
@@ -0,0 +1,170 @@
+package com.congdinh2008.tms.repositories;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.dto.projection.TaskTreeRow;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database tests of the task closure table: the trigger on tasks must keep it in step with
+ * tasks written through the repository and through the subtask cascade, not only the service.
+ * Each test runs in a transaction that is rolled back.
+ */
+class TaskHierarchyRepositoryTest {
+
+    private static AnnotationConfigApplicationContext context;
+    private static PlatformTransactionManager transactionManager;
+    private static SessionFactory sessionFactory;
+
+    private TaskRepository taskRepository;
+    private ProjectRepository projectRepository;
+
+    private TransactionStatus transactionStatus;
+    private Project project;
+
+    @BeforeAll
+    static void setUpClass() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = context.getBean(TaskRepository.class);
+        projectRepository = context.getBean(ProjectRepository.class);
+
+        transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        project = new Project();
+        project.setName("Hierarchy Project");
+        project.setStartDate(LocalDate.now());
+        project = projectRepository.save(project);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transactionStatus != null && !transactionStatus.isCompleted()) {
+            transactionManager.rollback(transactionStatus);
+        }
+    }
+
+    @Test
+    @DisplayName("Tasks saved through the repository are found in the subtree at every depth")
+    void findSubtree_ShouldIncludeTasksSavedThroughRepository() {
+        Task root = taskRepository.save(task("Root", null));
+        Task child = taskRepository.save(task("Child", root));
+        Task grandchild = taskRepository.save(task("Grandchild", child));
+
+        List<TaskTreeRow> subtree = taskRepository.findSubtree(root.getId(), 10);
+
+        assertEquals(List.of(root.getId(), child.getId(), grandchild.getId()), taskIds(subtree));
+        assertEquals(List.of(0, 1, 2), subtree.stream().map(TaskTreeRow::depth).toList());
+        assertEquals(root.getId() + "/" + child.getId() + "/" + grandchild.getId(), subtree.get(2).path());
+        assertEquals(List.of(child.getId(), root.getId()), taskRepository.findAncestorIds(grandchild.getId()));
+    }
+
+    @Test
+    @DisplayName("Subtasks cascaded from their parent are recorded in the closure table")
+    void findSubtree_ShouldIncludeCascadedSubtasks() {
+        Task root = task("Root", null);
+        Task child = task("Child", null);
+        Task grandchild = task("Grandchild", null);
+        root.addSubTask(child);
+        child.addSubTask(grandchild);
+        taskRepository.save(root);
+
+        List<TaskTreeRow> subtree = taskRepository.findSubtree(root.getId(), 10);
+
+        assertEquals(List.of(root.getId(), child.getId(), grandchild.getId()), taskIds(subtree));
+        assertEquals(List.of(0, 1), taskRepository.findSubtree(root.getId(), 1).stream()
+                .map(TaskTreeRow::depth).toList());
+    }
+
+    @Test
+    @DisplayName("Moving a task moves its whole subtree below the new parent")
+    void parentChange_ShouldMoveSubtree() {
+        Task first = taskRepository.save(task("First root", null));
+        Task second = taskRepository.save(task("Second root", null));
+        Task moved = taskRepository.save(task("Moved", first));
+        Task movedChild = taskRepository.save(task("Moved child", moved));
+
+        moved.setParentTask(second);
+        taskRepository.update(moved);
+
+        assertEquals(List.of(first.getId()), taskIds(taskRepository.findSubtree(first.getId(), 10)));
+        assertEquals(List.of(second.getId(), moved.getId(), movedChild.getId()),
+                taskIds(taskRepository.findSubtree(second.getId(), 10)));
+        assertEquals(List.of(moved.getId(), second.getId()), taskRepository.findAncestorIds(movedChild.getId()));
+    }
+
+    @Test
+    @DisplayName("A task cannot be moved below itself or one of its descendants")
+    void isCircularReference_ShouldDetectDescendantsAtAnyDepth() {
+        Task root = taskRepository.save(task("Root", null));
+        Task child = taskRepository.save(task("Child", root));
+        Task grandchild = taskRepository.save(task("Grandchild", child));
+        Task other = taskRepository.save(task("Other", null));
+
+        assertTrue(taskRepository.isCircularReference(root.getId(), root.getId()));
+        assertTrue(taskRepository.isCircularReference(root.getId(), grandchild.getId()));
+        assertFalse(taskRepository.isCircularReference(grandchild.getId(), root.getId()));
+        assertFalse(taskRepository.isCircularReference(root.getId(), other.getId()));
+
+        // Moves are reflected as soon as they are flushed
+        other.setParentTask(grandchild);
+        taskRepository.update(other);
+        assertTrue(taskRepository.isCircularReference(root.getId(), other.getId()));
+    }
+
+    @Test
+    @DisplayName("The trigger rejects a cycle written without the service check")
+    void parentChange_ShouldBeRejectedByDatabase_WhenItCreatesCycle() {
+        Task root = taskRepository.save(task("Root", null));
+        Task child = taskRepository.save(task("Child", root));
+
+        root.setParentTask(child);
+
+        assertThrows(RuntimeException.class, () -> sessionFactory.getCurrentSession().flush());
+    }
+
+    private Task task(String title, Task parent) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDueDate(LocalDate.now().plusDays(7));
+        task.setProject(project);
+        task.setStatus(TaskStatus.TODO);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setParentTask(parent);
+        return task;
+    }
+
+    private static List<Long> taskIds(List<TaskTreeRow> rows) {
+        return rows.stream().map(TaskTreeRow::taskId).toList();
+    }
+}
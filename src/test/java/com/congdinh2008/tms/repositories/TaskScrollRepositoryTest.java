@@ -0,0 +1,193 @@
+package com.congdinh2008.tms.repositories;
+
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database tests of the streaming methods of TaskRepository: every matching task must reach the
+ * callback exactly once, and the persistence context must not grow with the number of rows,
+ * including the associations the callback loads. The fixture spans several fetch-size chunks
+ * and gives each task its own assignee. Each test runs in a transaction that is rolled back.
+ */
+class TaskScrollRepositoryTest {
+
+    private static final int TASK_COUNT = 120;
+
+    private static AnnotationConfigApplicationContext context;
+    private static PlatformTransactionManager transactionManager;
+    private static SessionFactory sessionFactory;
+
+    private TaskRepository taskRepository;
+    private ProjectRepository projectRepository;
+
+    private TransactionStatus transactionStatus;
+    private Long projectId;
+    private Set<Long> taskIds;
+    private Long firstAssigneeId;
+
+    @BeforeAll
+    static void setUpClass() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        sessionFactory = context.getBean(SessionFactory.class);
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = context.getBean(TaskRepository.class);
+        projectRepository = context.getBean(ProjectRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        Project project = new Project();
+        project.setName("Scroll Project");
+        project.setStartDate(LocalDate.now());
+        projectId = projectRepository.save(project).getId();
+
+        taskIds = new HashSet<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            User assignee = new User();
+            assignee.setName("Scroll User " + i);
+            assignee.setEmail("scroll-" + i + "-" + System.nanoTime() + "@example.com");
+            assignee.setPassword("secret");
+            assignee = userRepository.save(assignee);
+            if (i == 0) {
+                firstAssigneeId = assignee.getId();
+            }
+
+            // Even tasks are overdue and in progress, odd tasks are due later and done
+            Task task = new Task();
+            task.setTitle("Scroll task " + i);
+            task.setProject(project);
+            task.setAssignee(assignee);
+            task.setPriority(TaskPriority.MEDIUM);
+            task.setStatus(i % 2 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.DONE);
+            task.setDueDate(i % 2 == 0 ? LocalDate.now().minusDays(1) : LocalDate.now().plusDays(7));
+            taskIds.add(taskRepository.save(task).getId());
+        }
+
+        // The streams are called on an empty persistence context, as a batch job would
+        Session session = sessionFactory.getCurrentSession();
+        session.flush();
+        session.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transactionStatus != null && !transactionStatus.isCompleted()) {
+            transactionManager.rollback(transactionStatus);
+        }
+    }
+
+    @Test
+    @DisplayName("Every task of the project reaches the callback once")
+    void forEachByProject_ShouldVisitEveryTaskOnce() {
+        List<Long> visited = new ArrayList<>();
+
+        long processed = taskRepository.forEachByProject(projectId, task -> visited.add(task.getId()));
+
+        assertEquals(TASK_COUNT, processed);
+        assertEquals(TASK_COUNT, visited.size());
+        assertEquals(taskIds, new HashSet<>(visited));
+    }
+
+    @Test
+    @DisplayName("The session does not keep the tasks or the assignees loaded by the callback")
+    void forEachByProject_ShouldNotAccumulateEntities_WhenCallbackLoadsAssociations() {
+        Session session = sessionFactory.getCurrentSession();
+        int[] maxManaged = new int[1];
+
+        taskRepository.forEachByProject(projectId, task -> {
+            assertNotNull(task.getAssignee().getName());
+            maxManaged[0] = Math.max(maxManaged[0], session.getStatistics().getEntityCount());
+        });
+
+        // A task and its assignee per row would reach twice the task count
+        assertTrue(maxManaged[0] < TASK_COUNT,
+                () -> "Persistence context grew to " + maxManaged[0] + " entities");
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Entities the caller loaded before the stream stay managed")
+    void forEachByProject_ShouldKeepCallerEntitiesManaged() {
+        Session session = sessionFactory.getCurrentSession();
+        Project project = projectRepository.findById(projectId);
+
+        long processed = taskRepository.forEachByProject(projectId, task -> assertNotNull(task.getAssignee().getName()));
+
+        assertEquals(TASK_COUNT, processed);
+        assertTrue(session.contains(project));
+    }
+
+    @Test
+    @DisplayName("The partial overdue indexes of the migration script exist")
+    void schema_ShouldContainPartialOverdueIndexes() {
+        List<String> indexes = sessionFactory.getCurrentSession().createNativeQuery("""
+                SELECT indexname FROM pg_indexes
+                WHERE tablename = 'tasks' AND indexdef LIKE '%WHERE%'
+                  AND indexname IN ('idx_tasks_overdue_due_date_id', 'idx_tasks_overdue_project_due_date_id')
+                ORDER BY indexname""", String.class).getResultList();
+
+        assertEquals(List.of("idx_tasks_overdue_due_date_id", "idx_tasks_overdue_project_due_date_id"), indexes);
+    }
+
+    @Test
+    @DisplayName("Streams by assignee, status and due date pass only matching tasks")
+    void forEachByFilter_ShouldPassOnlyMatchingTasks() {
+        List<Long> byAssignee = new ArrayList<>();
+        taskRepository.forEachByAssignee(firstAssigneeId, task -> byAssignee.add(task.getId()));
+        assertEquals(1, byAssignee.size());
+
+        // Status and overdue streams cover every project, so only this project's tasks are counted
+        int[] done = new int[1];
+        taskRepository.forEachByStatus(TaskStatus.DONE, task -> {
+            assertEquals(TaskStatus.DONE, task.getStatus());
+            if (taskIds.contains(task.getId())) {
+                done[0]++;
+            }
+        });
+        assertEquals(TASK_COUNT / 2, done[0]);
+
+        int[] overdue = new int[1];
+        taskRepository.forEachOverdueTask(task -> {
+            assertFalse(task.getDueDate().isAfter(LocalDate.now()));
+            if (taskIds.contains(task.getId())) {
+                overdue[0]++;
+            }
+        });
+        assertEquals(TASK_COUNT / 2, overdue[0]);
+    }
+}
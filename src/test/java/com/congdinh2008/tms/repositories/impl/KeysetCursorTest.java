@@ -0,0 +1,61 @@
+package com.congdinh2008.tms.repositories.impl;
+
+import com.congdinh2008.tms.repositories.support.SortSpec;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeysetCursor token encoding
+ */
+class KeysetCursorTest {
+
+    @Test
+    void decode_ShouldRestorePosition_WhenTokenWasEncodedForSameSort() {
+        // Given
+        SortSpec sort = SortSpec.desc("createdAt");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+        String token = KeysetCursor.encode(sort, createdAt, 42L);
+
+        // When
+        KeysetCursor cursor = KeysetCursor.decode(token, sort, LocalDateTime.class, Long.class);
+
+        // Then
+        assertEquals(createdAt, cursor.getValue());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void decode_ShouldKeepSeparatorsInStringValues() {
+        // Given
+        SortSpec sort = SortSpec.asc("title");
+        String token = KeysetCursor.encode(sort, "Fix | pipe handling", 7L);
+
+        // When
+        KeysetCursor cursor = KeysetCursor.decode(token, sort, String.class, Long.class);
+
+        // Then
+        assertEquals("Fix | pipe handling", cursor.getValue());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    void decode_ShouldThrowIllegalArgumentException_WhenSortDiffers() {
+        // Given
+        String token = KeysetCursor.encode(SortSpec.asc("dueDate"), LocalDate.of(2024, 1, 1), 1L);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(token, SortSpec.desc("dueDate"), LocalDate.class, Long.class));
+    }
+
+    @Test
+    void decode_ShouldThrowIllegalArgumentException_WhenTokenIsMalformed() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode("not-a-cursor!", SortSpec.asc("id"), Long.class, Long.class));
+    }
+}
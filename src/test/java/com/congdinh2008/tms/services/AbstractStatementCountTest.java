@@ -0,0 +1,154 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.cache.ReportCache;
+import com.congdinh2008.tms.config.ApplicationConfig;
+import com.congdinh2008.tms.dto.request.CreateProjectRequest;
+import com.congdinh2008.tms.dto.request.CreateTagRequest;
+import com.congdinh2008.tms.dto.request.CreateTaskRequest;
+import com.congdinh2008.tms.dto.request.CreateUserRequest;
+import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.dto.response.UserResponse;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.entities.TaskHistory;
+import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.enums.FieldType;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.index.TaskBitmapIndex;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Base class of the statement-count tests: starts the application against the test database and
+ * creates a fixture of {@value #FIXTURE_SIZE} users, tags, projects and subtasks.
+ * <p>
+ * The statement bounds of the tests are kept below {@value #FIXTURE_SIZE}, so a call that runs a
+ * statement per row of the fixture (an N+1 pattern) fails its test. The bounds leave room for
+ * the statements a call is expected to run, not for a margin: when a change adds a statement on
+ * purpose, the bound is raised with it.
+ */
+abstract class AbstractStatementCountTest {
+
+    protected static final int FIXTURE_SIZE = 20;
+    protected static final int HISTORY_PER_TASK = 3;
+
+    protected static AnnotationConfigApplicationContext context;
+    protected static StatementCounter statements;
+
+    protected static TaskService taskService;
+    protected static ProjectService projectService;
+    protected static UserService userService;
+    protected static TagService tagService;
+    protected static ReportService reportService;
+    protected static StoredProcedureService storedProcedureService;
+
+    protected static LocalDate projectStartDate;
+    protected static List<Long> userIds;
+    protected static List<Long> tagIds;
+    protected static List<Long> projectIds;
+    protected static Long projectId;
+    protected static Long rootTaskId;
+    protected static List<Long> subtaskIds;
+
+    private static int uniqueSuffix;
+
+    @BeforeAll
+    static void setUpContext() {
+        context = new AnnotationConfigApplicationContext(ApplicationConfig.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        SessionFactory sessionFactory = context.getBean(SessionFactory.class);
+        statements = new StatementCounter(sessionFactory, transactionManager, context.getBean(ReportCache.class),
+                context.getBean(TaskBitmapIndex.class));
+
+        taskService = context.getBean(TaskService.class);
+        projectService = context.getBean(ProjectService.class);
+        userService = context.getBean(UserService.class);
+        tagService = context.getBean(TagService.class);
+        reportService = context.getBean(ReportService.class);
+        storedProcedureService = context.getBean(StoredProcedureService.class);
+
+        createFixture(sessionFactory, transactionManager);
+    }
+
+    @AfterAll
+    static void tearDownContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static void createFixture(SessionFactory sessionFactory, PlatformTransactionManager transactionManager) {
+        projectStartDate = LocalDate.now().minusDays(30);
+
+        userIds = new ArrayList<>();
+        tagIds = new ArrayList<>();
+        projectIds = new ArrayList<>();
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            userIds.add(createUser().getId());
+            tagIds.add(tagService.create(new CreateTagRequest("fixture-tag-" + i, "#0000FF", null)).getId());
+        }
+
+        // Every user is a member of every project; tasks are created in the first one
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            CreateProjectRequest request = new CreateProjectRequest("Fixture Project " + i, null, projectStartDate);
+            request.setMemberIds(Set.copyOf(userIds));
+            projectIds.add(projectService.create(request).getId());
+        }
+        projectId = projectIds.get(0);
+
+        rootTaskId = taskService.create(taskRequest("Root task", 0, null)).getId();
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            requests.add(taskRequest("Subtask " + i, i, rootTaskId));
+        }
+        subtaskIds = new ArrayList<>();
+        for (TaskResponse subtask : taskService.createAll(requests)) {
+            subtaskIds.add(subtask.getId());
+        }
+
+        // No service writes task history, so it is inserted directly
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Session session = sessionFactory.getCurrentSession();
+            List<Long> taskIds = new ArrayList<>(subtaskIds);
+            taskIds.add(rootTaskId);
+            for (Long taskId : taskIds) {
+                for (int i = 0; i < HISTORY_PER_TASK; i++) {
+                    session.persist(new TaskHistory(session.getReference(Task.class, taskId),
+                            session.getReference(User.class, userIds.get(i)), FieldType.TITLE,
+                            "Title " + i, "Title " + (i + 1)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Create a user with an e-mail address not used by any other user
+     */
+    protected static UserResponse createUser() {
+        int suffix = uniqueSuffix++;
+        return userService.create(new CreateUserRequest("user" + suffix, "user" + suffix + "@example.com",
+                "Fixture User " + suffix, "password" + suffix));
+    }
+
+    /**
+     * Task of the fixture project assigned to the i-th user with two tags; even subtasks are overdue
+     */
+    protected static CreateTaskRequest taskRequest(String title, int i, Long parentTaskId) {
+        CreateTaskRequest request = new CreateTaskRequest(title, null, projectId);
+        request.setAssigneeId(userIds.get(i % FIXTURE_SIZE));
+        request.setPriority(TaskPriority.MEDIUM);
+        request.setDueDate(i % 2 == 0 ? LocalDate.now().minusDays(5) : LocalDate.now().plusDays(3));
+        request.setTagIds(Set.of(tagIds.get(i % FIXTURE_SIZE), tagIds.get((i + 1) % FIXTURE_SIZE)));
+        request.setParentTaskId(parentTaskId);
+        return request;
+    }
+}
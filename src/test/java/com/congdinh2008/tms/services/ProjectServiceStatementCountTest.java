@@ -0,0 +1,114 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.dto.request.CreateProjectRequest;
+import com.congdinh2008.tms.dto.request.UpdateProjectRequest;
+import com.congdinh2008.tms.dto.response.ProjectResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for ProjectService
+ */
+class ProjectServiceStatementCountTest extends AbstractStatementCountTest {
+
+    @Test
+    void create_ShouldInsertMembersInOneBatch() {
+        // Given
+        CreateProjectRequest request = new CreateProjectRequest("New Project", null, projectStartDate);
+        request.setMemberIds(Set.copyOf(userIds));
+
+        // When
+        ProjectResponse response = statements.assertAtMost(8, () -> projectService.create(request));
+
+        // Then
+        assertNotNull(response.getId());
+    }
+
+    @Test
+    void getById_ShouldNotLoadMembersOrTasks() {
+        // When
+        ProjectResponse response = statements.assertAtMost(3, () -> projectService.getById(projectId));
+
+        // Then
+        assertEquals(projectId, response.getId());
+    }
+
+    @Test
+    void update_ShouldReplaceMembers_WithBoundedStatements() {
+        // Given
+        UpdateProjectRequest request = new UpdateProjectRequest("Updated Project", null, projectStartDate, null);
+        request.setMemberIds(Set.copyOf(userIds.subList(0, FIXTURE_SIZE / 2)));
+
+        // When
+        ProjectResponse response = statements.assertAtMost(10, () -> projectService.update(projectIds.get(1), request));
+
+        // Then
+        assertEquals("Updated Project", response.getName());
+    }
+
+    @Test
+    void delete_ShouldRemoveMemberships_WithBoundedStatements() {
+        // When & Then
+        statements.assertAtMost(8, () -> projectService.delete(projectIds.get(1)));
+    }
+
+    @Test
+    void getAll_ShouldNotLoadAssociationsPerProject() {
+        // When
+        List<ProjectResponse> responses = statements.assertAtMost(3, () -> projectService.getAll());
+
+        // Then
+        assertEquals(FIXTURE_SIZE, responses.size());
+    }
+
+    @Test
+    void count_ShouldUseOneStatement() {
+        // When
+        long count = statements.assertAtMost(1, () -> projectService.count());
+
+        // Then
+        assertEquals(FIXTURE_SIZE, count);
+    }
+
+    @Test
+    void existsById_ShouldUseOneStatement() {
+        // When & Then
+        assertTrue(statements.assertAtMost(1, () -> projectService.existsById(projectId)));
+    }
+
+    @Test
+    void addMember_ShouldUseBoundedStatements() {
+        // Given
+        Long userId = createUser().getId();
+
+        // When
+        ProjectResponse response = statements.assertAtMost(6, () -> projectService.addMember(projectId, userId));
+
+        // Then
+        assertEquals(projectId, response.getId());
+    }
+
+    @Test
+    void removeMember_ShouldUseBoundedStatements() {
+        // When
+        ProjectResponse response = statements.assertAtMost(6,
+                () -> projectService.removeMember(projectIds.get(1), userIds.get(0)));
+
+        // Then
+        assertEquals(projectIds.get(1), response.getId());
+    }
+
+    @Test
+    void getProjectsByMember_ShouldNotLoadMembersPerProject() {
+        // When
+        List<ProjectResponse> responses = statements.assertAtMost(3,
+                () -> projectService.getProjectsByMember(userIds.get(0)));
+
+        // Then
+        assertEquals(FIXTURE_SIZE, responses.size());
+    }
+}
@@ -0,0 +1,160 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
+import com.congdinh2008.tms.dto.response.UserProductivity;
+import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.entities.TaskHistory;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for ReportService
+ */
+class ReportServiceStatementCountTest extends AbstractStatementCountTest {
+
+    @Test
+    void getOverdueTasks_ShouldLoadPageInTwoQueries() {
+        // When
+        List<Task> tasks = statements.assertAtMost(3, () -> reportService.getOverdueTasks(0, 10));
+
+        // Then
+        assertEquals(10, tasks.size());
+    }
+
+    @Test
+    void getOverdueTasks_ShouldLoadProjectPageInTwoQueries() {
+        // When
+        List<Task> tasks = statements.assertAtMost(3, () -> reportService.getOverdueTasks(projectId, 0, 10));
+
+        // Then
+        assertEquals(10, tasks.size());
+    }
+
+    @Test
+    void countOverdueTasks_ShouldUseOneQuery() {
+        // When
+        long count = statements.assertAtMost(2, () -> reportService.countOverdueTasks(projectId));
+
+        // Then
+        assertEquals(FIXTURE_SIZE / 2 + 1, count);
+    }
+
+    @Test
+    void getTaskChangeHistory_ShouldUseOneQuery() {
+        // When
+        List<TaskHistory> history = statements.assertAtMost(2, () -> reportService.getTaskChangeHistory(rootTaskId));
+
+        // Then
+        assertEquals(HISTORY_PER_TASK, history.size());
+    }
+
+    @Test
+    void getUserCompletedTasksCount_ShouldUseOneQuery() {
+        // When & Then
+        statements.assertAtMost(2, () -> reportService.getUserCompletedTasksCount(userIds.get(0), 30));
+    }
+
+    @Test
+    void getProjectSummary_ShouldReadMaintainedStatistics() {
+        // When
+        ProjectStatistics statistics = statements.assertAtMost(3, () -> reportService.getProjectSummary(projectId));
+
+        // Then
+        assertNotNull(statistics);
+    }
+
+    @Test
+    void getTeamProductivityReport_ShouldUseOneQuery() {
+        // When
+        List<UserProductivity> report = statements.assertAtMost(2, () -> reportService.getTeamProductivityReport(
+                projectId, LocalDate.now().minusDays(30), LocalDate.now()));
+
+        // Then
+        assertNotNull(report);
+    }
+
+    @Test
+    void getTasksDueSoon_ShouldUseOneQuery() {
+        // When
+        List<Task> tasks = statements.assertAtMost(2, () -> reportService.getTasksDueSoon(7));
+
+        // Then
+        assertNotNull(tasks);
+    }
+
+    @Test
+    void getTaskDistributionByStatus_ShouldBuildIndexInOneQuery() {
+        // When
+        Map<TaskStatus, Long> distribution = statements.assertAtMost(1,
+                () -> reportService.getTaskDistributionByStatus(projectId));
+
+        // Then
+        assertEquals(TaskStatus.values().length, distribution.size());
+        assertEquals(FIXTURE_SIZE + 1L, distribution.get(TaskStatus.TODO));
+    }
+
+    @Test
+    void getTaskDistributionByStatus_ShouldNotQuery_WhenIndexIsBuilt() {
+        // When
+        Map<TaskStatus, Long> distribution = statements.assertAtMostWithBuiltIndex(0,
+                () -> reportService.getTaskDistributionByStatus(projectId));
+
+        // Then
+        assertEquals(TaskStatus.values().length, distribution.size());
+    }
+
+    @Test
+    void getMostUsedTags_ShouldLoadTagsInTwoQueries() {
+        // When
+        List<Tag> tags = statements.assertAtMost(3, () -> reportService.getMostUsedTags(10));
+
+        // Then
+        assertEquals(10, tags.size());
+    }
+
+    @Test
+    void getTasksWithManyChanges_ShouldCountHistoryInOneQuery_WithoutPerTaskFetch() {
+        // When
+        List<Task> tasks = statements.assertAtMost(3,
+                () -> reportService.getTasksWithManyChanges(projectId, HISTORY_PER_TASK));
+
+        // Then
+        assertEquals(FIXTURE_SIZE + 1, tasks.size());
+    }
+
+    @Test
+    void getWeeklyProductivityReport_ShouldUseOneQuery() {
+        // When
+        List<UserProductivity> report = statements.assertAtMost(2,
+                () -> reportService.getWeeklyProductivityReport(LocalDate.now().minusDays(7)));
+
+        // Then
+        assertNotNull(report);
+    }
+
+    @Test
+    void getProjectHealthSummary_ShouldUseBoundedStatements() {
+        // When
+        Map<String, Object> summary = statements.assertAtMost(4, () -> reportService.getProjectHealthSummary(projectId));
+
+        // Then
+        assertFalse(summary.isEmpty());
+    }
+
+    @Test
+    void getUserWorkloadAnalysis_ShouldNotLoadTasksOneByOne() {
+        // When
+        Map<String, Object> analysis = statements.assertAtMost(3, () -> reportService.getUserWorkloadAnalysis(
+                userIds.get(0), LocalDate.now().minusDays(30), LocalDate.now()));
+
+        // Then
+        assertFalse(analysis.isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.cache.ReportCache;
+import com.congdinh2008.tms.index.TaskBitmapIndex;
+import com.congdinh2008.tms.index.TaskFilter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the JDBC statements prepared by a service call, from the Hibernate statistics
+ * <p>
+ * Each call runs in a transaction of its own that is flushed and then rolled back: writes are
+ * counted as they would be committed while the data stays the same for the next call. The
+ * second-level cache, the report cache and the task bitmap index are cleared first, so the count is
+ * that of a cold cache and does not depend on which test ran before. Native queries and stored
+ * procedure calls are counted too.
+ */
+class StatementCounter {
+
+    private final SessionFactory sessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportCache reportCache;
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final Statistics statistics;
+
+    StatementCounter(SessionFactory sessionFactory, PlatformTransactionManager transactionManager,
+                     ReportCache reportCache, TaskBitmapIndex taskBitmapIndex) {
+        this.sessionFactory = sessionFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reportCache = reportCache;
+        this.taskBitmapIndex = taskBitmapIndex;
+        this.statistics = sessionFactory.getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    /**
+     * Run a call and count its statements
+     * @param call the service call
+     * @return the number of statements prepared by the call, including the final flush
+     */
+    long count(Runnable call) {
+        taskBitmapIndex.invalidate();
+        return countWithBuiltIndex(call);
+    }
+
+    /**
+     * Run a call and count its statements once the task bitmap index has been built, so the
+     * one-off cost of the build is left out of the count
+     * @param call the service call
+     * @return the number of statements prepared by the call, including the final flush
+     */
+    long countWithBuiltIndex(Runnable call) {
+        taskBitmapIndex.count(TaskFilter.all());
+        sessionFactory.getCache().evictAllRegions();
+        reportCache.evictAll();
+        Long statements = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            statistics.clear();
+            call.run();
+            sessionFactory.getCurrentSession().flush();
+            return statistics.getPrepareStatementCount();
+        });
+        return statements != null ? statements : 0L;
+    }
+
+    /**
+     * Run a call and fail when it prepares more statements than allowed
+     * @param maxStatements the upper bound
+     * @param call the service call
+     * @return the result of the call
+     */
+    <T> T assertAtMost(long maxStatements, Supplier<T> call) {
+        Object[] result = new Object[1];
+        long statements = count(() -> result[0] = call.get());
+        assertTrue(statements <= maxStatements,
+                () -> "Expected at most " + maxStatements + " statements but " + statements + " were prepared");
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * Run a call against a built task bitmap index and fail when it prepares more statements than allowed
+     * @param maxStatements the upper bound
+     * @param call the service call
+     * @return the result of the call
+     */
+    <T> T assertAtMostWithBuiltIndex(long maxStatements, Supplier<T> call) {
+        Object[] result = new Object[1];
+        long statements = countWithBuiltIndex(() -> result[0] = call.get());
+        assertTrue(statements <= maxStatements,
+                () -> "Expected at most " + maxStatements + " statements but " + statements + " were prepared");
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * Run a call without a result and fail when it prepares more statements than allowed
+     * @param maxStatements the upper bound
+     * @param call the service call
+     */
+    void assertAtMost(long maxStatements, Runnable call) {
+        long statements = count(call);
+        assertTrue(statements <= maxStatements,
+                () -> "Expected at most " + maxStatements + " statements but " + statements + " were prepared");
+    }
+}
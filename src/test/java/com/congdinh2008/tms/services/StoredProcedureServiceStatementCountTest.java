@@ -0,0 +1,73 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
+import com.congdinh2008.tms.dto.response.UserProductivity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for StoredProcedureService
+ */
+class StoredProcedureServiceStatementCountTest extends AbstractStatementCountTest {
+
+    @Test
+    void countCompletedTasksByUser_ShouldUseOneStatement() {
+        // When
+        Long count = statements.assertAtMost(1, () -> storedProcedureService.countCompletedTasksByUser(userIds.get(0), 30));
+
+        // Then
+        assertNotNull(count);
+    }
+
+    @Test
+    void getProjectStatistics_ShouldReadMaintainedStatistics() {
+        // When
+        ProjectStatistics statistics = statements.assertAtMost(2,
+                () -> storedProcedureService.getProjectStatistics(projectId));
+
+        // Then
+        assertNotNull(statistics);
+    }
+
+    @Test
+    void getUserProductivityReport_ShouldUseOneStatement() {
+        // When
+        List<UserProductivity> report = statements.assertAtMost(1, () -> storedProcedureService.getUserProductivityReport(
+                LocalDate.now().minusDays(30), LocalDate.now()));
+
+        // Then
+        assertNotNull(report);
+    }
+
+    @Test
+    void cleanupOldHistory_ShouldDeleteInOneStatement() {
+        // When
+        Integer deleted = statements.assertAtMost(1, () -> storedProcedureService.cleanupOldHistory(90));
+
+        // Then
+        assertEquals(0, deleted);
+    }
+
+    @Test
+    void getProjectUserProductivity_ShouldUseOneStatement() {
+        // When
+        List<UserProductivity> report = statements.assertAtMost(1, () -> storedProcedureService.getProjectUserProductivity(
+                projectId, LocalDate.now().minusDays(30), LocalDate.now()));
+
+        // Then
+        assertNotNull(report);
+    }
+
+    @Test
+    void executeMaintenanceOperations_ShouldAnalyzeEachTableOnce() {
+        // When
+        String summary = statements.assertAtMost(6, () -> storedProcedureService.executeMaintenanceOperations());
+
+        // Then
+        assertNotNull(summary);
+    }
+}
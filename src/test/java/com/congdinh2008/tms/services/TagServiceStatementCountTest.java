@@ -0,0 +1,121 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.dto.request.CreateTagRequest;
+import com.congdinh2008.tms.dto.request.UpdateTagRequest;
+import com.congdinh2008.tms.dto.response.TagResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for TagService
+ */
+class TagServiceStatementCountTest extends AbstractStatementCountTest {
+
+    @Test
+    void create_ShouldCheckNameAndInsert() {
+        // Given
+        CreateTagRequest request = new CreateTagRequest("new-tag", "#FF0000", null);
+
+        // When
+        TagResponse response = statements.assertAtMost(4, () -> tagService.create(request));
+
+        // Then
+        assertNotNull(response.getId());
+    }
+
+    @Test
+    void getById_ShouldNotLoadTasks() {
+        // When
+        TagResponse response = statements.assertAtMost(2, () -> tagService.getById(tagIds.get(0)));
+
+        // Then
+        assertEquals(tagIds.get(0), response.getId());
+    }
+
+    @Test
+    void update_ShouldCheckNameAndUpdate() {
+        // Given
+        UpdateTagRequest request = new UpdateTagRequest("renamed-tag", "#00FF00", null);
+
+        // When
+        TagResponse response = statements.assertAtMost(4, () -> tagService.update(tagIds.get(0), request));
+
+        // Then
+        assertEquals("renamed-tag", response.getName());
+    }
+
+    @Test
+    void delete_ShouldUseBoundedStatements() {
+        // Given
+        Long tagId = tagService.create(new CreateTagRequest("unused-tag")).getId();
+
+        // When & Then
+        statements.assertAtMost(4, () -> tagService.delete(tagId));
+    }
+
+    @Test
+    void getAll_ShouldNotLoadTasksPerTag() {
+        // When
+        List<TagResponse> responses = statements.assertAtMost(2, () -> tagService.getAll());
+
+        // Then
+        assertTrue(responses.size() >= FIXTURE_SIZE);
+    }
+
+    @Test
+    void count_ShouldUseOneStatement() {
+        // When
+        long count = statements.assertAtMost(1, () -> tagService.count());
+
+        // Then
+        assertTrue(count >= FIXTURE_SIZE);
+    }
+
+    @Test
+    void existsById_ShouldUseOneStatement() {
+        // When & Then
+        assertTrue(statements.assertAtMost(1, () -> tagService.existsById(tagIds.get(0))));
+    }
+
+    @Test
+    void findByName_ShouldUseOneQuery() {
+        // When
+        TagResponse response = statements.assertAtMost(2, () -> tagService.findByName("fixture-tag-1"));
+
+        // Then
+        assertEquals(tagIds.get(1), response.getId());
+    }
+
+    @Test
+    void searchByName_ShouldNotLoadTasksPerTag() {
+        // When
+        List<TagResponse> responses = statements.assertAtMost(2, () -> tagService.searchByName("fixture-tag"));
+
+        // Then
+        assertEquals(FIXTURE_SIZE, responses.size());
+    }
+
+    @Test
+    void getTagsByProject_ShouldNotQuery_WhenNotSupported() {
+        // When & Then
+        assertTrue(statements.assertAtMost(0, () -> tagService.getTagsByProject(projectId)).isEmpty());
+    }
+
+    @Test
+    void getTagsByColor_ShouldNotQuery_WhenNotSupported() {
+        // When & Then
+        assertTrue(statements.assertAtMost(0, () -> tagService.getTagsByColor("#0000FF")).isEmpty());
+    }
+
+    @Test
+    void getMostUsedTags_ShouldCountUsageInOneQuery() {
+        // When
+        List<TagResponse> responses = statements.assertAtMost(3, () -> tagService.getMostUsedTags(10));
+
+        // Then
+        assertEquals(10, responses.size());
+    }
+}
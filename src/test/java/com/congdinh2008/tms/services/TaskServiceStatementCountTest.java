@@ -0,0 +1,195 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.dto.request.CreateTaskRequest;
+import com.congdinh2008.tms.dto.request.UpdateTaskRequest;
+import com.congdinh2008.tms.dto.response.BulkStatusChangeResult;
+import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for TaskService
+ */
+class TaskServiceStatementCountTest extends AbstractStatementCountTest {
+
+    @Test
+    void create_ShouldResolveTagsAndAssignee_WithBoundedStatements() {
+        // Given
+        CreateTaskRequest request = taskRequest("New task", 1, rootTaskId);
+        request.setTagIds(Set.copyOf(tagIds));
+
+        // When
+        TaskResponse response = statements.assertAtMost(12, () -> taskService.create(request));
+
+        // Then
+        assertNotNull(response.getId());
+    }
+
+    @Test
+    void createAll_ShouldLoadReferencesOnce_ForWholeBatch() {
+        // Given
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            requests.add(taskRequest("Batch task " + i, i, rootTaskId));
+        }
+
+        // When
+        List<TaskResponse> responses = statements.assertAtMost(15, () -> taskService.createAll(requests));
+
+        // Then
+        assertEquals(FIXTURE_SIZE, responses.size());
+    }
+
+    @Test
+    void getById_ShouldNotLoadAssociations_WhenMappingResponse() {
+        // When
+        TaskResponse response = statements.assertAtMost(3, () -> taskService.getById(subtaskIds.get(0)));
+
+        // Then
+        assertEquals(subtaskIds.get(0), response.getId());
+    }
+
+    @Test
+    void update_ShouldReplaceTags_WithBoundedStatements() {
+        // Given
+        UpdateTaskRequest request = new UpdateTaskRequest("Updated subtask", "Updated description");
+        request.setTagIds(Set.copyOf(tagIds));
+
+        // When
+        TaskResponse response = statements.assertAtMost(10, () -> taskService.update(subtaskIds.get(0), request));
+
+        // Then
+        assertEquals("Updated subtask", response.getTitle());
+    }
+
+    @Test
+    void delete_ShouldRemoveTaskWithHistory_WithBoundedStatements() {
+        // When & Then
+        statements.assertAtMost(12, () -> taskService.delete(subtaskIds.get(1)));
+    }
+
+    @Test
+    void getAll_ShouldUseOneProjectionQuery_ForAllTasks() {
+        // When
+        List<TaskResponse> responses = statements.assertAtMost(2, () -> taskService.getAll());
+
+        // Then
+        assertTrue(responses.size() > FIXTURE_SIZE);
+    }
+
+    @Test
+    void count_ShouldUseOneStatement() {
+        // When
+        long count = statements.assertAtMost(1, () -> taskService.count());
+
+        // Then
+        assertTrue(count > FIXTURE_SIZE);
+    }
+
+    @Test
+    void existsById_ShouldUseOneStatement() {
+        // When & Then
+        assertTrue(statements.assertAtMost(1, () -> taskService.existsById(rootTaskId)));
+    }
+
+    @Test
+    void assignTask_ShouldCheckMembership_WithBoundedStatements() {
+        // When
+        TaskResponse response = statements.assertAtMost(6,
+                () -> taskService.assignTask(subtaskIds.get(0), userIds.get(FIXTURE_SIZE - 1)));
+
+        // Then
+        assertEquals(subtaskIds.get(0), response.getId());
+    }
+
+    @Test
+    void unassignTask_ShouldUseBoundedStatements() {
+        // When
+        TaskResponse response = statements.assertAtMost(4, () -> taskService.unassignTask(subtaskIds.get(0)));
+
+        // Then
+        assertEquals(subtaskIds.get(0), response.getId());
+    }
+
+    @Test
+    void changeStatus_ShouldUpdateStatistics_WithBoundedStatements() {
+        // When
+        TaskResponse response = statements.assertAtMost(6,
+                () -> taskService.changeStatus(subtaskIds.get(0), TaskStatus.IN_PROGRESS));
+
+        // Then
+        assertEquals(TaskStatus.IN_PROGRESS, response.getStatus());
+    }
+
+    @Test
+    void changeStatusBulk_ShouldUpdateAllTasks_WithoutStatementPerTask() {
+        // When
+        BulkStatusChangeResult result = statements.assertAtMost(8,
+                () -> taskService.changeStatusBulk(subtaskIds, TaskStatus.IN_PROGRESS));
+
+        // Then
+        assertEquals(FIXTURE_SIZE, result.getUpdatedCount());
+    }
+
+    @Test
+    void getTasksByProject_ShouldNotLoadAssigneeOrTagsPerTask() {
+        // When
+        List<TaskResponse> responses = statements.assertAtMost(3, () -> taskService.getTasksByProject(projectId));
+
+        // Then
+        assertEquals(FIXTURE_SIZE + 1, responses.size());
+    }
+
+    @Test
+    void getTasksByAssignee_ShouldUseBoundedStatements() {
+        // When
+        List<TaskResponse> responses = statements.assertAtMost(3, () -> taskService.getTasksByAssignee(userIds.get(0)));
+
+        // Then
+        assertFalse(responses.isEmpty());
+    }
+
+    @Test
+    void getSubtasks_ShouldNotLoadSubtasksOneByOne() {
+        // When
+        List<TaskResponse> responses = statements.assertAtMost(3, () -> taskService.getSubtasks(rootTaskId));
+
+        // Then
+        assertEquals(FIXTURE_SIZE, responses.size());
+    }
+
+    @Test
+    void getTaskTree_ShouldLoadSubtreeInOneQuery() {
+        // When
+        TaskResponse tree = statements.assertAtMost(3, () -> taskService.getTaskTree(rootTaskId, 5));
+
+        // Then
+        assertEquals(rootTaskId, tree.getId());
+    }
+
+    @Test
+    void addTag_ShouldUseBoundedStatements() {
+        // When
+        TaskResponse response = statements.assertAtMost(6,
+                () -> taskService.addTag(subtaskIds.get(0), tagIds.get(FIXTURE_SIZE - 1)));
+
+        // Then
+        assertNotNull(response);
+    }
+
+    @Test
+    void removeTag_ShouldUseBoundedStatements() {
+        // When
+        TaskResponse response = statements.assertAtMost(6,
+                () -> taskService.removeTag(subtaskIds.get(0), tagIds.get(0)));
+
+        // Then
+        assertNotNull(response);
+    }
+}
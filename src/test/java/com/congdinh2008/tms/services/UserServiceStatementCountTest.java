@@ -0,0 +1,151 @@
+package com.congdinh2008.tms.services;
+
+import com.congdinh2008.tms.dto.request.CreateUserRequest;
+import com.congdinh2008.tms.dto.request.UpdateUserRequest;
+import com.congdinh2008.tms.dto.response.UserResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for UserService
+ */
+class UserServiceStatementCountTest extends AbstractStatementCountTest {
+
+    @Test
+    void create_ShouldCheckEmailAndInsert() {
+        // Given
+        CreateUserRequest request = new CreateUserRequest("newuser", "new.user@example.com", "New User", "password");
+
+        // When
+        UserResponse response = statements.assertAtMost(4, () -> userService.create(request));
+
+        // Then
+        assertNotNull(response.getId());
+    }
+
+    @Test
+    void getById_ShouldNotLoadProjectsOrTasks() {
+        // When
+        UserResponse response = statements.assertAtMost(2, () -> userService.getById(userIds.get(0)));
+
+        // Then
+        assertEquals(userIds.get(0), response.getId());
+    }
+
+    @Test
+    void update_ShouldCheckEmailAndUpdate() {
+        // Given
+        Long userId = createUser().getId();
+        UpdateUserRequest request = new UpdateUserRequest(null, "updated.user@example.com", "Updated User");
+
+        // When
+        UserResponse response = statements.assertAtMost(4, () -> userService.update(userId, request));
+
+        // Then
+        assertEquals("updated.user@example.com", response.getEmail());
+    }
+
+    @Test
+    void delete_ShouldUseBoundedStatements() {
+        // Given
+        Long userId = createUser().getId();
+
+        // When & Then
+        statements.assertAtMost(8, () -> userService.delete(userId));
+    }
+
+    @Test
+    void getAll_ShouldNotLoadAssociationsPerUser() {
+        // When
+        List<UserResponse> responses = statements.assertAtMost(2, () -> userService.getAll());
+
+        // Then
+        assertTrue(responses.size() >= FIXTURE_SIZE);
+    }
+
+    @Test
+    void count_ShouldUseOneStatement() {
+        // When
+        long count = statements.assertAtMost(1, () -> userService.count());
+
+        // Then
+        assertTrue(count >= FIXTURE_SIZE);
+    }
+
+    @Test
+    void existsById_ShouldUseOneStatement() {
+        // When & Then
+        assertTrue(statements.assertAtMost(1, () -> userService.existsById(userIds.get(0))));
+    }
+
+    @Test
+    void findByEmail_ShouldUseOneQuery() {
+        // Given
+        UserResponse user = createUser();
+
+        // When
+        UserResponse response = statements.assertAtMost(2, () -> userService.findByEmail(user.getEmail()));
+
+        // Then
+        assertEquals(user.getId(), response.getId());
+    }
+
+    @Test
+    void findByUsername_ShouldNotQuery_WhenNotSupported() {
+        // When & Then
+        assertNull(statements.assertAtMost(0, () -> userService.findByUsername("user0")));
+    }
+
+    @Test
+    void searchByName_ShouldNotLoadAssociationsPerUser() {
+        // When
+        List<UserResponse> responses = statements.assertAtMost(2, () -> userService.searchByName("Fixture User"));
+
+        // Then
+        assertTrue(responses.size() >= FIXTURE_SIZE);
+    }
+
+    @Test
+    void activateUser_ShouldUseBoundedStatements() {
+        // When
+        UserResponse response = statements.assertAtMost(2, () -> userService.activateUser(userIds.get(0)));
+
+        // Then
+        assertEquals(userIds.get(0), response.getId());
+    }
+
+    @Test
+    void deactivateUser_ShouldUseBoundedStatements() {
+        // When
+        UserResponse response = statements.assertAtMost(2, () -> userService.deactivateUser(userIds.get(0)));
+
+        // Then
+        assertEquals(userIds.get(0), response.getId());
+    }
+
+    @Test
+    void getActiveUsers_ShouldNotLoadAssociationsPerUser() {
+        // When
+        List<UserResponse> responses = statements.assertAtMost(2, () -> userService.getActiveUsers());
+
+        // Then
+        assertTrue(responses.size() >= FIXTURE_SIZE);
+    }
+
+    @Test
+    void changePassword_ShouldUseBoundedStatements() {
+        // Given
+        Long userId = userService.create(new CreateUserRequest("pwuser", "password.user@example.com",
+                "Password User", "old-password")).getId();
+
+        // When
+        UserResponse response = statements.assertAtMost(3,
+                () -> userService.changePassword(userId, "old-password", "new-password"));
+
+        // Then
+        assertEquals(userId, response.getId());
+    }
+}
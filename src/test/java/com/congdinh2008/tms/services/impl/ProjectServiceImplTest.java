@@ -1,19 +1,23 @@
 package com.congdinh2008.tms.services.impl;
 
+import com.congdinh2008.tms.cache.ProjectMembershipIndex;
 import com.congdinh2008.tms.dto.request.CreateProjectRequest;
 import com.congdinh2008.tms.dto.request.UpdateProjectRequest;
 import com.congdinh2008.tms.dto.response.ProjectResponse;
 import com.congdinh2008.tms.entities.Project;
 import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.BusinessRuleViolationException;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.repositories.ProjectRepository;
 import com.congdinh2008.tms.repositories.UserRepository;
+import com.congdinh2008.tms.repositories.support.MultiLoadResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -40,6 +44,12 @@ class ProjectServiceImplTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private ProjectMembershipIndex membershipIndex;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     private ProjectServiceImpl projectService;
     
     private Project testProject;
@@ -50,7 +60,7 @@ class ProjectServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        projectService = new ProjectServiceImpl(projectRepository, userRepository);
+        projectService = new ProjectServiceImpl(projectRepository, userRepository, membershipIndex, eventPublisher);
         
         testProject = new Project();
         testProject.setId(1L);
@@ -79,8 +89,8 @@ class ProjectServiceImplTest {
     @Test
     void create_ShouldCreateProject_WhenValidRequest() {
         // Given
-        when(projectRepository.findByNameContaining(anyString())).thenReturn(new ArrayList<>());
-        when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
+        when(projectRepository.existsByNameIgnoreCase("New Project", null)).thenReturn(false);
+        when(userRepository.findAllByIds(Set.of(1L))).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(testUser)));
         when(projectRepository.save(any(Project.class))).thenReturn(testProject);
         
         // When
@@ -90,18 +100,15 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertEquals(testProject.getId(), result.getId());
         verify(projectRepository).save(any(Project.class));
+        verify(projectRepository, never()).findByNameContaining(anyString());
+        verify(userRepository, never()).findByIdOptional(anyLong());
     }
     
     @Test
     void create_ShouldThrowDuplicateEntityException_WhenProjectNameExists() {
         // Given
-        Project duplicateProject = new Project();
-        duplicateProject.setId(2L);
-        duplicateProject.setName("New Project"); // Same name as request
-        
-        List<Project> existingProjects = List.of(duplicateProject);
-        when(projectRepository.findByNameContaining(anyString())).thenReturn(existingProjects);
-        when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser)); // Mock owner lookup
+        when(projectRepository.existsByNameIgnoreCase("New Project", null)).thenReturn(true);
+        when(userRepository.findAllByIds(Set.of(1L))).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(testUser)));
         
         // When & Then
         assertThrows(DuplicateEntityException.class, () -> projectService.create(createRequest));
@@ -111,8 +118,8 @@ class ProjectServiceImplTest {
     @Test
     void create_ShouldThrowEntityNotFoundException_WhenMemberNotFound() {
         // Given
-        when(projectRepository.findByNameContaining(anyString())).thenReturn(new ArrayList<>());
-        when(userRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
+        when(projectRepository.existsByNameIgnoreCase("New Project", null)).thenReturn(false);
+        when(userRepository.findAllByIds(Set.of(1L))).thenReturn(new MultiLoadResult<>(List.of(1L), List.of()));
         
         // When & Then
         assertThrows(EntityNotFoundException.class, () -> projectService.create(createRequest));
@@ -145,7 +152,7 @@ class ProjectServiceImplTest {
     void update_ShouldUpdateProject_WhenValidRequest() {
         // Given
         when(projectRepository.findByIdOptional(1L)).thenReturn(Optional.of(testProject));
-        when(projectRepository.findByNameContaining(anyString())).thenReturn(new ArrayList<>());
+        when(projectRepository.existsByNameIgnoreCase("Updated Project", 1L)).thenReturn(false);
         when(projectRepository.save(any(Project.class))).thenReturn(testProject);
         
         // When
@@ -154,17 +161,14 @@ class ProjectServiceImplTest {
         // Then
         assertNotNull(result);
         verify(projectRepository).save(testProject);
+        verify(projectRepository).existsByNameIgnoreCase("Updated Project", 1L);
     }
     
     @Test
     void update_ShouldThrowDuplicateEntityException_WhenNewNameExists() {
         // Given
-        Project anotherProject = new Project();
-        anotherProject.setId(2L);
-        anotherProject.setName("Updated Project");
-        
         when(projectRepository.findByIdOptional(1L)).thenReturn(Optional.of(testProject));
-        when(projectRepository.findByNameContaining(anyString())).thenReturn(List.of(anotherProject));
+        when(projectRepository.existsByNameIgnoreCase("Updated Project", 1L)).thenReturn(true);
         
         // When & Then
         assertThrows(DuplicateEntityException.class, () -> projectService.update(1L, updateRequest));
@@ -182,6 +186,8 @@ class ProjectServiceImplTest {
         
         // Then
         verify(projectRepository).delete(testProject);
+        verify(membershipIndex).projectRemoved(1L);
+        verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
     }
     
     @Test
@@ -213,6 +219,7 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertTrue(testProject.getMembers().contains(testUser));
         verify(projectRepository).save(testProject);
+        verify(membershipIndex).memberAdded(1L, 1L);
     }
     
     @Test
@@ -242,6 +249,7 @@ class ProjectServiceImplTest {
         assertNotNull(result);
         assertFalse(testProject.getMembers().contains(testUser));
         verify(projectRepository).save(testProject);
+        verify(membershipIndex).memberRemoved(1L, 1L);
     }
     
     @Test
@@ -0,0 +1,165 @@
+package com.congdinh2008.tms.services.impl;
+
+import com.congdinh2008.tms.cache.ReportCache;
+import com.congdinh2008.tms.dto.response.ProjectStatistics;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.index.TaskBitmapIndex;
+import com.congdinh2008.tms.index.TaskFilter;
+import com.congdinh2008.tms.repositories.TagRepository;
+import com.congdinh2008.tms.repositories.TaskHistoryRepository;
+import com.congdinh2008.tms.repositories.TaskRepository;
+import com.congdinh2008.tms.repositories.support.MultiLoadResult;
+import com.congdinh2008.tms.services.StoredProcedureService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReportServiceImpl
+ */
+class ReportServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private StoredProcedureService storedProcedureService;
+
+    @Mock
+    private TaskBitmapIndex taskBitmapIndex;
+
+    @Mock
+    private ReportCache reportCache;
+
+    private ReportServiceImpl reportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reportService = new ReportServiceImpl(taskRepository, taskHistoryRepository, tagRepository,
+                storedProcedureService, taskBitmapIndex, reportCache);
+        // Cache misses by default
+        when(reportCache.get(any(), any(), any())).thenAnswer(invocation ->
+                invocation.getArgument(2, Supplier.class).get());
+    }
+
+    @Test
+    void getOverdueTasks_ShouldPageInDatabase() {
+        // Given
+        Task task = new Task();
+        task.setId(1L);
+        when(taskRepository.findOverdueTasks(null, 2, 10)).thenReturn(List.of(task));
+        when(taskRepository.findAllByIds(List.of(1L))).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(task)));
+
+        // When
+        List<Task> result = reportService.getOverdueTasks(2, 10);
+
+        // Then
+        assertEquals(1, result.size());
+        verify(taskRepository).findOverdueTasks(null, 2, 10);
+        verify(taskRepository, never()).findOverdueTasks();
+    }
+
+    @Test
+    void getOverdueTasks_ShouldFilterByProject_WhenProjectGiven() {
+        // Given
+        when(taskRepository.findOverdueTasks(5L, 0, 20)).thenReturn(new ArrayList<>());
+        when(taskRepository.findAllByIds(List.of())).thenReturn(MultiLoadResult.empty());
+
+        // When
+        List<Task> result = reportService.getOverdueTasks(5L, 0, 20);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(taskRepository).findOverdueTasks(5L, 0, 20);
+    }
+
+    @Test
+    void getProjectHealthSummary_ShouldCountOverdueTasksInDatabase() {
+        // Given
+        ProjectStatistics stats = new ProjectStatistics(10L, 5L, 3L, 2L, BigDecimal.valueOf(50.0));
+        when(storedProcedureService.getProjectStatistics(1L)).thenReturn(stats);
+        when(taskBitmapIndex.countByStatus(TaskFilter.project(1L))).thenReturn(new EnumMap<>(TaskStatus.class));
+        when(taskRepository.countOverdueTasks(1L)).thenReturn(2L);
+
+        // When
+        Map<String, Object> summary = reportService.getProjectHealthSummary(1L);
+
+        // Then
+        assertEquals(2L, summary.get("overdueTasksCount"));
+        verify(taskRepository).countOverdueTasks(1L);
+        verify(taskRepository, never()).findOverdueTasks(any(), anyInt(), anyInt());
+        verify(taskRepository, never()).findOverdueTasks();
+    }
+
+    @Test
+    void getTaskDistributionByStatus_ShouldCountFromBitmapIndex() {
+        // Given
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        counts.put(TaskStatus.TODO, 3L);
+        counts.put(TaskStatus.IN_PROGRESS, 1L);
+        counts.put(TaskStatus.DONE, 0L);
+        when(taskBitmapIndex.countByStatus(TaskFilter.project(1L))).thenReturn(counts);
+
+        // When
+        Map<TaskStatus, Long> result = reportService.getTaskDistributionByStatus(1L);
+
+        // Then
+        assertEquals(3L, result.get(TaskStatus.TODO));
+        assertEquals(1L, result.get(TaskStatus.IN_PROGRESS));
+        assertEquals(0L, result.get(TaskStatus.DONE));
+        verify(taskRepository, never()).findByProject(anyLong());
+    }
+
+    @Test
+    void getOverdueTasks_ShouldLoadCachedTaskIds_WithoutPagingQuery() {
+        // Given
+        Task task = new Task();
+        task.setId(7L);
+        when(reportCache.get(eq(ReportCache.Region.OVERDUE_TASKS), eq("5:0:20"), any())).thenReturn(List.of(7L));
+        when(taskRepository.findAllByIds(List.of(7L))).thenReturn(new MultiLoadResult<>(List.of(7L), List.of(task)));
+
+        // When
+        List<Task> result = reportService.getOverdueTasks(5L, 0, 20);
+
+        // Then
+        assertEquals(List.of(task), result);
+        verify(taskRepository, never()).findOverdueTasks(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getTasksWithManyChanges_ShouldCountHistoryInOneQuery_WithoutPerTaskFetch() {
+        // Given
+        Task task = new Task();
+        task.setId(3L);
+        when(taskRepository.findTaskIdsWithManyChanges(1L, 5)).thenReturn(List.of(3L));
+        when(taskRepository.findAllByIds(List.of(3L))).thenReturn(new MultiLoadResult<>(List.of(3L), List.of(task)));
+
+        // When
+        List<Task> result = reportService.getTasksWithManyChanges(1L, 5);
+
+        // Then
+        assertEquals(List.of(task), result);
+        verify(taskHistoryRepository, never()).findByTaskIdOrderByTimestampDesc(any());
+        verify(taskRepository, never()).findByProject(any());
+    }
+}
@@ -0,0 +1,100 @@
+package com.congdinh2008.tms.services.impl;
+
+import com.congdinh2008.tms.cache.ReportCache;
+import com.congdinh2008.tms.exceptions.RepositoryException;
+import com.congdinh2008.tms.repositories.ProjectRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.NativeQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StoredProcedureServiceImpl: a failed statement aborts the caller's
+ * transaction, so it must surface as an exception instead of an empty result.
+ */
+class StoredProcedureServiceImplTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private ReportCache reportCache;
+
+    private StoredProcedureServiceImpl storedProcedureService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        storedProcedureService = new StoredProcedureServiceImpl(sessionFactory, projectRepository, reportCache);
+        when(sessionFactory.getCurrentSession()).thenReturn(session);
+        // Cache misses by default
+        when(reportCache.get(any(), any(), any())).thenAnswer(invocation ->
+                invocation.getArgument(2, Supplier.class).get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countCompletedTasksByUser_ShouldThrow_WhenStatementFails() {
+        // Given
+        NativeQuery<Number> query = mock(NativeQuery.class);
+        when(session.createNativeQuery(anyString(), eq(Number.class))).thenReturn(query);
+        when(query.getSingleResult()).thenThrow(new IllegalStateException("function does not exist"));
+
+        // When & Then
+        RepositoryException exception = assertThrows(RepositoryException.class,
+                () -> storedProcedureService.countCompletedTasksByUser(1L, 30));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void getProjectStatistics_ShouldThrow_WhenLoadFails() {
+        // Given
+        when(projectRepository.findStatistics(1L)).thenThrow(new RepositoryException("Error finding project statistics"));
+
+        // When & Then
+        assertThrows(RepositoryException.class, () -> storedProcedureService.getProjectStatistics(1L));
+    }
+
+    @Test
+    void getUserProductivityReport_ShouldThrow_WhenStatementFails() {
+        // Given
+        when(session.createNativeQuery(anyString(), eq(Object[].class))).thenThrow(new IllegalStateException("timeout"));
+
+        // When & Then
+        assertThrows(RepositoryException.class, () -> storedProcedureService.getUserProductivityReport(
+                LocalDate.now().minusDays(7), LocalDate.now()));
+        assertThrows(RepositoryException.class, () -> storedProcedureService.getProjectUserProductivity(
+                1L, LocalDate.now().minusDays(7), LocalDate.now()));
+    }
+
+    @Test
+    void executeMaintenanceOperations_ShouldThrow_WhenCleanupFails() {
+        // Given
+        MutationQuery query = mock(MutationQuery.class);
+        when(session.createMutationQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenThrow(new IllegalStateException("deadlock detected"));
+
+        // When & Then
+        assertThrows(RepositoryException.class, () -> storedProcedureService.cleanupOldHistory(90));
+        assertThrows(RepositoryException.class, () -> storedProcedureService.executeMaintenanceOperations());
+        verify(session, never()).createNativeMutationQuery(anyString());
+    }
+}
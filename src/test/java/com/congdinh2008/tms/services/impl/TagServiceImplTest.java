@@ -4,6 +4,8 @@ import com.congdinh2008.tms.dto.request.CreateTagRequest;
 import com.congdinh2008.tms.dto.request.UpdateTagRequest;
 import com.congdinh2008.tms.dto.response.TagResponse;
 import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.events.TagChangedEvent;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.repositories.TagRepository;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +35,9 @@ class TagServiceImplTest {
     @Mock
     private TagRepository tagRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     private TagServiceImpl tagService;
     
     private Tag testTag;
@@ -41,7 +47,7 @@ class TagServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        tagService = new TagServiceImpl(tagRepository);
+        tagService = new TagServiceImpl(tagRepository, eventPublisher);
         
         testTag = new Tag();
         testTag.setId(1L);
@@ -68,6 +74,7 @@ class TagServiceImplTest {
         assertNotNull(result);
         assertEquals(testTag.getId(), result.getId());
         verify(tagRepository).save(any(Tag.class));
+        verify(eventPublisher).publishEvent(any(TagChangedEvent.class));
     }
     
     @Test
@@ -117,6 +124,7 @@ class TagServiceImplTest {
         assertNotNull(result);
         assertEquals(updateRequest.getName(), testTag.getName());
         verify(tagRepository).save(testTag);
+        verify(eventPublisher).publishEvent(any(TagChangedEvent.class));
     }
     
     @Test
@@ -161,6 +169,7 @@ class TagServiceImplTest {
         
         // Then
         verify(tagRepository).delete(testTag);
+        verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
     }
     
     @Test
@@ -1,29 +1,42 @@
 package com.congdinh2008.tms.services.impl;
 
+import com.congdinh2008.tms.cache.ProjectMembershipIndex;
+import com.congdinh2008.tms.dto.projection.TaskTreeRow;
 import com.congdinh2008.tms.dto.request.CreateTaskRequest;
 import com.congdinh2008.tms.dto.request.UpdateTaskRequest;
+import com.congdinh2008.tms.dto.response.BulkStatusChangeResult;
 import com.congdinh2008.tms.dto.response.TaskResponse;
 import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Tag;
 import com.congdinh2008.tms.entities.Task;
 import com.congdinh2008.tms.entities.User;
 import com.congdinh2008.tms.enums.TaskPriority;
 import com.congdinh2008.tms.enums.TaskStatus;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.BusinessRuleViolationException;
+import com.congdinh2008.tms.exceptions.CircularReferenceException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.exceptions.InvalidAssignmentException;
 import com.congdinh2008.tms.repositories.ProjectRepository;
 import com.congdinh2008.tms.repositories.TagRepository;
 import com.congdinh2008.tms.repositories.TaskRepository;
 import com.congdinh2008.tms.repositories.UserRepository;
+import com.congdinh2008.tms.repositories.support.MultiLoadResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,6 +63,12 @@ class TaskServiceImplTest {
     @Mock
     private TagRepository tagRepository;
     
+    @Mock
+    private ProjectMembershipIndex membershipIndex;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     private TaskServiceImpl taskService;
     
     private Task testTask;
@@ -61,7 +80,8 @@ class TaskServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        taskService = new TaskServiceImpl(taskRepository, projectRepository, userRepository, tagRepository);
+        taskService = new TaskServiceImpl(taskRepository, projectRepository, userRepository, tagRepository,
+                membershipIndex, eventPublisher);
         
         testProject = new Project();
         testProject.setId(1L);
@@ -100,7 +120,7 @@ class TaskServiceImplTest {
         // Given
         when(projectRepository.findByIdOptional(1L)).thenReturn(Optional.of(testProject));
         when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.isUserMemberOfProject(1L, 1L)).thenReturn(true);
+        when(membershipIndex.isMember(1L, 1L)).thenReturn(true);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
         
         // When
@@ -110,6 +130,7 @@ class TaskServiceImplTest {
         assertNotNull(result);
         assertEquals(testTask.getId(), result.getId());
         verify(taskRepository).save(any(Task.class));
+        verify(userRepository, never()).isUserMemberOfProject(anyLong(), anyLong());
     }
     
     @Test
@@ -127,13 +148,136 @@ class TaskServiceImplTest {
         // Given
         when(projectRepository.findByIdOptional(1L)).thenReturn(Optional.of(testProject));
         when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.isUserMemberOfProject(1L, 1L)).thenReturn(false);
+        when(membershipIndex.isMember(1L, 1L)).thenReturn(false);
         
         // When & Then
         assertThrows(InvalidAssignmentException.class, () -> taskService.create(createRequest));
         verify(taskRepository, never()).save(any(Task.class));
     }
     
+    @Test
+    void create_ShouldResolveAllTagsWithSingleLookup() {
+        // Given
+        Tag firstTag = new Tag("backend");
+        firstTag.setId(1L);
+        Tag secondTag = new Tag("urgent");
+        secondTag.setId(2L);
+        createRequest.setTagIds(new LinkedHashSet<>(List.of(1L, 2L)));
+        when(projectRepository.findByIdOptional(1L)).thenReturn(Optional.of(testProject));
+        when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
+        when(membershipIndex.isMember(1L, 1L)).thenReturn(true);
+        when(tagRepository.findAllByIds(createRequest.getTagIds()))
+                .thenReturn(new MultiLoadResult<>(List.of(1L, 2L), List.of(firstTag, secondTag)));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        TaskResponse result = taskService.create(createRequest);
+        
+        // Then
+        assertEquals(2, result.getTags().size());
+        verify(tagRepository).findAllByIds(createRequest.getTagIds());
+        verify(tagRepository, never()).findByIdOptional(anyLong());
+    }
+    
+    @Test
+    void create_ShouldReportAllMissingTags_WhenTagsNotFound() {
+        // Given
+        createRequest.setTagIds(new LinkedHashSet<>(List.of(1L, 2L)));
+        when(projectRepository.findByIdOptional(1L)).thenReturn(Optional.of(testProject));
+        when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
+        when(membershipIndex.isMember(1L, 1L)).thenReturn(true);
+        when(tagRepository.findAllByIds(createRequest.getTagIds()))
+                .thenReturn(new MultiLoadResult<>(List.of(1L, 2L), List.of()));
+        
+        // When & Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> taskService.create(createRequest));
+        assertTrue(exception.getMessage().contains("[1, 2]"));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+    
+    @Test
+    void createAll_ShouldResolveReferencesOnceAndSaveInBatch() {
+        // Given
+        CreateTaskRequest secondRequest = new CreateTaskRequest();
+        secondRequest.setTitle("Second Task");
+        secondRequest.setProjectId(1L);
+        secondRequest.setAssigneeId(1L);
+        secondRequest.setDueDate(LocalDate.now().plusDays(3));
+        when(projectRepository.findAllByIds(any())).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(testProject)));
+        when(userRepository.findAllByIds(any())).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(testUser)));
+        when(tagRepository.findAllByIds(any())).thenReturn(MultiLoadResult.empty());
+        when(taskRepository.findAllByIds(any())).thenReturn(MultiLoadResult.empty());
+        when(userRepository.findMemberIdsByProjectIds(any())).thenReturn(Map.of(1L, Set.of(1L)));
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        List<TaskResponse> result = taskService.createAll(List.of(createRequest, secondRequest));
+        
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("New Task", result.get(0).getTitle());
+        assertEquals("Second Task", result.get(1).getTitle());
+        verify(projectRepository).findAllByIds(Set.of(1L));
+        verify(userRepository).findMemberIdsByProjectIds(Set.of(1L));
+        verify(taskRepository).saveAll(anyList());
+        verify(projectRepository, never()).findByIdOptional(anyLong());
+        verify(userRepository, never()).isUserMemberOfProject(anyLong(), anyLong());
+        verify(membershipIndex, never()).isMember(anyLong(), anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+    
+    @Test
+    void createAll_ShouldThrowInvalidAssignmentException_WhenAnyAssigneeNotProjectMember() {
+        // Given
+        when(projectRepository.findAllByIds(any())).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(testProject)));
+        when(userRepository.findAllByIds(any())).thenReturn(new MultiLoadResult<>(List.of(1L), List.of(testUser)));
+        when(tagRepository.findAllByIds(any())).thenReturn(MultiLoadResult.empty());
+        when(taskRepository.findAllByIds(any())).thenReturn(MultiLoadResult.empty());
+        when(userRepository.findMemberIdsByProjectIds(any())).thenReturn(Map.of());
+        
+        // When & Then
+        assertThrows(InvalidAssignmentException.class, () -> taskService.createAll(List.of(createRequest)));
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+    
+    @Test
+    void update_ShouldSetParent_WhenParentChanges() {
+        // Given
+        Task newParent = new Task();
+        newParent.setId(2L);
+        newParent.setProject(testProject);
+        updateRequest.setParentTaskId(2L);
+        when(taskRepository.findByIdOptional(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findByIdOptional(2L)).thenReturn(Optional.of(newParent));
+        when(taskRepository.isCircularReference(1L, 2L)).thenReturn(false);
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        
+        // When
+        taskService.update(1L, updateRequest);
+        
+        // Then
+        assertEquals(newParent, testTask.getParentTask());
+        verify(taskRepository).isCircularReference(1L, 2L);
+        verify(taskRepository).save(testTask);
+    }
+    
+    @Test
+    void update_ShouldThrowCircularReferenceException_WhenNewParentIsDescendant() {
+        // Given
+        Task descendant = new Task();
+        descendant.setId(3L);
+        descendant.setProject(testProject);
+        updateRequest.setParentTaskId(3L);
+        when(taskRepository.findByIdOptional(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findByIdOptional(3L)).thenReturn(Optional.of(descendant));
+        when(taskRepository.isCircularReference(1L, 3L)).thenReturn(true);
+        
+        // When & Then
+        assertThrows(CircularReferenceException.class, () -> taskService.update(1L, updateRequest));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+    
     @Test
     void getById_ShouldReturnTask_WhenTaskExists() {
         // Given
@@ -167,6 +311,10 @@ class TaskServiceImplTest {
         
         // Then
         verify(taskRepository).delete(testTask);
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TaskChangedEvent.Type.DELETED, event.getValue().getType());
+        assertEquals(List.of(1L), event.getValue().getTaskIds());
     }
     
     @Test
@@ -192,7 +340,7 @@ class TaskServiceImplTest {
         // Given
         when(taskRepository.findByIdOptional(1L)).thenReturn(Optional.of(testTask));
         when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.isUserMemberOfProject(1L, 1L)).thenReturn(true);
+        when(membershipIndex.isMember(1L, 1L)).thenReturn(true);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
         
         // When
@@ -209,7 +357,7 @@ class TaskServiceImplTest {
         // Given
         when(taskRepository.findByIdOptional(1L)).thenReturn(Optional.of(testTask));
         when(userRepository.findByIdOptional(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.isUserMemberOfProject(1L, 1L)).thenReturn(false);
+        when(membershipIndex.isMember(1L, 1L)).thenReturn(false);
         
         // When & Then
         assertThrows(InvalidAssignmentException.class, () -> taskService.assignTask(1L, 1L));
@@ -251,11 +399,57 @@ class TaskServiceImplTest {
         verify(taskRepository, never()).save(any(Task.class));
     }
     
+    @Test
+    void changeStatusBulk_ShouldReportOutcomePerTask_WithoutLoadingEntities() {
+        // Given
+        List<Long> taskIds = List.of(1L, 2L, 3L, 4L);
+        when(taskRepository.findStatusesByIds(any()))
+                .thenReturn(Map.of(1L, TaskStatus.TODO, 2L, TaskStatus.DONE, 3L, TaskStatus.IN_PROGRESS))
+                .thenReturn(Map.of(1L, TaskStatus.DONE, 2L, TaskStatus.DONE, 3L, TaskStatus.IN_PROGRESS));
+        when(taskRepository.updateStatus(any(), eq(TaskStatus.DONE))).thenReturn(1, 0);
+        
+        // When
+        BulkStatusChangeResult result = taskService.changeStatusBulk(taskIds, TaskStatus.DONE);
+        
+        // Then
+        assertEquals(BulkStatusChangeResult.Outcome.UPDATED, result.getOutcome(1L));
+        assertEquals(BulkStatusChangeResult.Outcome.UNCHANGED, result.getOutcome(2L));
+        assertEquals(BulkStatusChangeResult.Outcome.BLOCKED_BY_INCOMPLETE_SUBTASKS, result.getOutcome(3L));
+        assertEquals(BulkStatusChangeResult.Outcome.NOT_FOUND, result.getOutcome(4L));
+        assertEquals(1, result.getUpdatedCount());
+        verify(taskRepository, times(2)).updateStatus(any(), eq(TaskStatus.DONE));
+        verify(taskRepository, never()).findByIdOptional(anyLong());
+        verify(taskRepository, never()).findSubTasks(anyLong());
+        
+        // Only the task that actually changed is reported to listeners
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TaskChangedEvent.Type.STATUS_CHANGED, event.getValue().getType());
+        assertEquals(List.of(1L), event.getValue().getTaskIds());
+        assertEquals(TaskStatus.DONE, event.getValue().getStatus());
+    }
+    
+    @Test
+    void changeStatusBulk_ShouldRunSingleUpdate_WhenNotCompleting() {
+        // Given
+        when(taskRepository.findStatusesByIds(any()))
+                .thenReturn(Map.of(1L, TaskStatus.TODO))
+                .thenReturn(Map.of(1L, TaskStatus.IN_PROGRESS));
+        when(taskRepository.updateStatus(any(), eq(TaskStatus.IN_PROGRESS))).thenReturn(1);
+        
+        // When
+        BulkStatusChangeResult result = taskService.changeStatusBulk(List.of(1L), TaskStatus.IN_PROGRESS);
+        
+        // Then
+        assertEquals(BulkStatusChangeResult.Outcome.UPDATED, result.getOutcome(1L));
+        verify(taskRepository, times(1)).updateStatus(any(), eq(TaskStatus.IN_PROGRESS));
+    }
+    
     @Test
     void getTasksByProject_ShouldReturnTasks_WhenProjectExists() {
         // Given
         when(projectRepository.existsById(1L)).thenReturn(true);
-        when(taskRepository.findByProject(1L)).thenReturn(List.of(testTask));
+        when(taskRepository.findTaskResponsesByProject(1L)).thenReturn(List.of(testTaskResponse()));
         
         // When
         List<TaskResponse> result = taskService.getTasksByProject(1L);
@@ -264,6 +458,7 @@ class TaskServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testTask.getId(), result.get(0).getId());
+        verify(taskRepository, never()).findByProject(anyLong());
     }
     
     @Test
@@ -294,8 +489,7 @@ class TaskServiceImplTest {
     @Test
     void getAll_ShouldReturnAllTasks() {
         // Given
-        List<Task> tasks = List.of(testTask);
-        when(taskRepository.findAll()).thenReturn(tasks);
+        when(taskRepository.findAllTaskResponses()).thenReturn(List.of(testTaskResponse()));
         
         // When
         List<TaskResponse> result = taskService.getAll();
@@ -304,5 +498,78 @@ class TaskServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testTask.getId(), result.get(0).getId());
+        verify(taskRepository, never()).findAll();
+    }
+    
+    @Test
+    void getTasksByAssignee_ShouldReturnProjectedTasks_WhenUserExists() {
+        // Given
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findTaskResponsesByAssignee(1L)).thenReturn(List.of(testTaskResponse()));
+        
+        // When
+        List<TaskResponse> result = taskService.getTasksByAssignee(1L);
+        
+        // Then
+        assertEquals(1, result.size());
+        verify(taskRepository, never()).findByAssignee(anyLong());
+    }
+    
+    @Test
+    void getSubtasks_ShouldReturnProjectedSubtasks_WhenParentExists() {
+        // Given
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findSubTaskResponses(1L)).thenReturn(List.of(testTaskResponse()));
+        
+        // When
+        List<TaskResponse> result = taskService.getSubtasks(1L);
+        
+        // Then
+        assertEquals(1, result.size());
+        verify(taskRepository, never()).findSubTasks(anyLong());
+    }
+    
+    @Test
+    void getTaskTree_ShouldNestSubtreeAndRollUpCompletion_WithSingleQuery() {
+        // Given
+        // 1 -> (2 DONE, 3 -> (4 DONE, 5 TODO))
+        when(taskRepository.findSubtree(1L, 5)).thenReturn(List.of(
+                treeRow(1L, null, TaskStatus.IN_PROGRESS, 0, "1"),
+                treeRow(2L, 1L, TaskStatus.DONE, 1, "1/2"),
+                treeRow(3L, 1L, TaskStatus.IN_PROGRESS, 1, "1/3"),
+                treeRow(4L, 3L, TaskStatus.DONE, 2, "1/3/4"),
+                treeRow(5L, 3L, TaskStatus.TODO, 2, "1/3/5")));
+        
+        // When
+        TaskResponse root = taskService.getTaskTree(1L, 5);
+        
+        // Then
+        assertEquals(1L, root.getId());
+        assertEquals(List.of(2L, 3L), root.getSubtasks().stream().map(TaskResponse::getId).toList());
+        TaskResponse middle = root.getSubtasks().stream().filter(t -> t.getId() == 3L).findFirst().orElseThrow();
+        assertEquals(List.of(4L, 5L), middle.getSubtasks().stream().map(TaskResponse::getId).toList());
+        assertEquals(1L, middle.getParentTask().getId());
+        assertEquals(50.0, middle.getRolledUpCompletionPercentage());
+        assertEquals(75.0, root.getRolledUpCompletionPercentage());
+        verify(taskRepository, never()).findSubTasks(anyLong());
+        verify(taskRepository, never()).findSubTaskResponses(anyLong());
+    }
+    
+    @Test
+    void getTaskTree_ShouldThrowEntityNotFoundException_WhenRootNotFound() {
+        // Given
+        when(taskRepository.findSubtree(1L, 3)).thenReturn(List.of());
+        
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> taskService.getTaskTree(1L, 3));
+    }
+    
+    private TaskTreeRow treeRow(Long id, Long parentId, TaskStatus status, int depth, String path) {
+        return new TaskTreeRow(id, parentId, "Task " + id, null, status, TaskPriority.MEDIUM,
+                LocalDate.now().plusDays(7), LocalDateTime.now(), LocalDateTime.now(), 1L, null, depth, path);
+    }
+    
+    private TaskResponse testTaskResponse() {
+        return new TaskResponse(testTask.getId(), testTask.getTitle(), testTask.getStatus(), testTask.getPriority());
     }
 }
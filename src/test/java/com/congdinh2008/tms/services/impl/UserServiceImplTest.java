@@ -4,6 +4,7 @@ import com.congdinh2008.tms.dto.request.CreateUserRequest;
 import com.congdinh2008.tms.dto.request.UpdateUserRequest;
 import com.congdinh2008.tms.dto.response.UserResponse;
 import com.congdinh2008.tms.entities.User;
+import com.congdinh2008.tms.events.TaskChangedEvent;
 import com.congdinh2008.tms.exceptions.DuplicateEntityException;
 import com.congdinh2008.tms.exceptions.EntityNotFoundException;
 import com.congdinh2008.tms.repositories.UserRepository;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +33,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     private UserServiceImpl userService;
     
     private User testUser;
@@ -40,7 +45,7 @@ class UserServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, eventPublisher);
         
         testUser = new User();
         testUser.setId(1L);
@@ -131,6 +136,7 @@ class UserServiceImplTest {
         
         // Then
         verify(userRepository).delete(testUser);
+        verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
     }
     
     @Test
@@ -0,0 +1,179 @@
+package com.congdinh2008.tms.sql;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SlowQueryLog, SlowQueryDataSource and OriginStatementInspector
+ */
+class SlowQueryLogTest {
+
+    private static final String SQL = "select t.id from tasks t where t.project_id = ? and t.due_date < ?";
+
+    private final DataSource targetDataSource = mock(DataSource.class);
+
+    @Test
+    void executeQuery_ShouldRecordSlowStatement_WithParametersAndOrigin() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(true, 0, 0.0, false, Runnable::run);
+        PreparedStatement statement = preparedStatement(SQL);
+        Method origin = SlowQueryLogTest.class.getDeclaredMethod("preparedStatement", String.class);
+
+        // When
+        String previous = QueryOrigin.enter(SlowQueryLogTest.class, origin);
+        try (Connection connection = slowQueryLog.wrap(targetDataSource).getConnection();
+             PreparedStatement timed = connection.prepareStatement(SQL)) {
+            timed.setLong(1, 5L);
+            timed.setNull(2, Types.TIMESTAMP);
+            timed.executeQuery();
+        } finally {
+            QueryOrigin.restore(previous);
+        }
+
+        // Then
+        List<SlowQueryLog.SlowQuery> slowQueries = slowQueryLog.getRecentSlowQueries();
+        assertEquals(1, slowQueries.size());
+        SlowQueryLog.SlowQuery slowQuery = slowQueries.get(0);
+        assertEquals(SQL, slowQuery.sql());
+        assertEquals(5L, slowQuery.parameters().get(0));
+        assertEquals(new SlowQueryLog.NullParameter(Types.TIMESTAMP), slowQuery.parameters().get(1));
+        assertEquals("SlowQueryLogTest.preparedStatement", slowQuery.origin());
+        verify(statement).setLong(1, 5L);
+        verify(statement).executeQuery();
+    }
+
+    @Test
+    void executeQuery_ShouldNotRecord_WhenFasterThanThreshold() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(true, Long.MAX_VALUE, 1.0, false, Runnable::run);
+        preparedStatement(SQL);
+
+        // When
+        try (Connection connection = slowQueryLog.wrap(targetDataSource).getConnection()) {
+            connection.prepareStatement(SQL).executeQuery();
+        }
+
+        // Then
+        assertTrue(slowQueryLog.getRecentSlowQueries().isEmpty());
+    }
+
+    @Test
+    void executeQuery_ShouldExplainSampledSelect_OnReadOnlyConnectionWithSameParameters() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(true, 0, 1.0, true, Runnable::run);
+        preparedStatement(SQL);
+        Connection explainConnection = mock(Connection.class);
+        PreparedStatement explainStatement = mock(PreparedStatement.class);
+        ResultSet plan = mock(ResultSet.class);
+        when(explainConnection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + SQL)).thenReturn(explainStatement);
+        when(explainStatement.executeQuery()).thenReturn(plan);
+        when(plan.next()).thenReturn(true, false);
+        when(plan.getString(1)).thenReturn("Index Scan using idx_tasks_project on tasks t");
+
+        // When
+        try (Connection connection = slowQueryLog.wrap(targetDataSource).getConnection()) {
+            when(targetDataSource.getConnection()).thenReturn(explainConnection);
+            PreparedStatement timed = connection.prepareStatement(SQL);
+            timed.setLong(1, 5L);
+            timed.setNull(2, Types.TIMESTAMP);
+            timed.executeQuery();
+        }
+
+        // Then
+        verify(explainConnection).setReadOnly(true);
+        verify(explainStatement).setObject(1, 5L);
+        verify(explainStatement).setNull(2, Types.TIMESTAMP);
+        verify(explainConnection).rollback();
+        verify(explainConnection).close();
+    }
+
+    @Test
+    void executeQuery_ShouldExplainWithoutAnalyze_OnExplainDataSource() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(true, 0, 1.0, false, Runnable::run);
+        preparedStatement(SQL);
+        DataSource explainDataSource = mock(DataSource.class);
+        Connection explainConnection = mock(Connection.class);
+        PreparedStatement explainStatement = mock(PreparedStatement.class);
+        ResultSet plan = mock(ResultSet.class);
+        when(explainDataSource.getConnection()).thenReturn(explainConnection);
+        when(explainConnection.prepareStatement("EXPLAIN " + SQL)).thenReturn(explainStatement);
+        when(explainStatement.executeQuery()).thenReturn(plan);
+
+        // When
+        try (Connection connection = slowQueryLog.wrap(targetDataSource, explainDataSource).getConnection()) {
+            PreparedStatement timed = connection.prepareStatement(SQL);
+            timed.setLong(1, 5L);
+            timed.setNull(2, Types.TIMESTAMP);
+            timed.executeQuery();
+        }
+
+        // Then
+        verify(explainStatement).setObject(1, 5L);
+        verify(explainConnection).rollback();
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void executeUpdate_ShouldNotExplain_WhenStatementWrites() throws Exception {
+        // Given
+        String update = "update tasks set status = ? where id = ?";
+        SlowQueryLog slowQueryLog = new SlowQueryLog(true, 0, 1.0, false, Runnable::run);
+        preparedStatement(update);
+
+        // When
+        try (Connection connection = slowQueryLog.wrap(targetDataSource).getConnection()) {
+            PreparedStatement timed = connection.prepareStatement(update);
+            timed.setString(1, "DONE");
+            timed.setLong(2, 7L);
+            timed.executeUpdate();
+        }
+
+        // Then
+        assertEquals(1, slowQueryLog.getRecentSlowQueries().size());
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void isQuery_ShouldSkipLeadingComments() {
+        assertTrue(SlowQueryLog.isQuery("/* TaskRepositoryImpl.findByProjectId */ select * from tasks"));
+        assertTrue(SlowQueryLog.isQuery("WITH RECURSIVE subtasks AS (select 1) select * from subtasks"));
+        assertFalse(SlowQueryLog.isQuery("/* select */ delete from tasks"));
+    }
+
+    @Test
+    void inspect_ShouldPrefixOriginComment_InsideRepositoryMethod() throws Exception {
+        // Given
+        OriginStatementInspector inspector = new OriginStatementInspector();
+        Method origin = SlowQueryLogTest.class.getDeclaredMethod("preparedStatement", String.class);
+
+        // When & Then
+        assertEquals(SQL, inspector.inspect(SQL));
+        String previous = QueryOrigin.enter(SlowQueryLogTest.class, origin);
+        try {
+            assertEquals("/* SlowQueryLogTest.preparedStatement */ " + SQL, inspector.inspect(SQL));
+        } finally {
+            QueryOrigin.restore(previous);
+        }
+        assertNull(QueryOrigin.current());
+    }
+
+    private PreparedStatement preparedStatement(String sql) throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(sql)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        return statement;
+    }
+}
@@ -0,0 +1,91 @@
+package com.congdinh2008.tms.utils;
+
+import com.congdinh2008.tms.dto.request.UpdateTagRequest;
+import com.congdinh2008.tms.dto.response.TagResponse;
+import com.congdinh2008.tms.dto.response.TaskResponse;
+import com.congdinh2008.tms.entities.Project;
+import com.congdinh2008.tms.entities.Tag;
+import com.congdinh2008.tms.entities.Task;
+import com.congdinh2008.tms.enums.TaskPriority;
+import com.congdinh2008.tms.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MapperUtil
+ */
+class MapperUtilTest {
+
+    @Test
+    void mapToDto_ShouldCopyMatchingProperties() {
+        // Given
+        Tag tag = new Tag("backend");
+        tag.setId(3L);
+
+        // When
+        TagResponse response = MapperUtil.mapToDto(tag, TagResponse.class);
+
+        // Then
+        assertEquals(3L, response.getId());
+        assertEquals("backend", response.getName());
+        assertNull(response.getColor());
+    }
+
+    @Test
+    void mapToDto_ShouldMapNestedAssociationsOneLevelDeep() {
+        // Given
+        Project project = new Project("Website", "Redesign", LocalDate.of(2024, 1, 1));
+        project.setId(1L);
+        Tag tag = new Tag("frontend");
+        tag.setId(2L);
+        Task parent = new Task("Parent", null, TaskStatus.TODO, TaskPriority.LOW, null, project);
+        parent.setId(9L);
+        Task task = new Task("Child", "Desc", TaskStatus.IN_PROGRESS, TaskPriority.HIGH,
+                LocalDate.of(2024, 2, 1), project);
+        task.setId(10L);
+        task.setParentTask(parent);
+        task.setTags(new ArrayList<>(List.of(tag)));
+
+        // When
+        TaskResponse response = MapperUtil.mapToDto(task, TaskResponse.class);
+
+        // Then
+        assertEquals(10L, response.getId());
+        assertEquals("Child", response.getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, response.getStatus());
+        assertEquals(1L, response.getProject().getId());
+        assertEquals("Website", response.getProject().getName());
+        assertNull(response.getProject().getTaskCount(), "Derived getters should not be read for nested values");
+        assertEquals(9L, response.getParentTask().getId());
+        assertNull(response.getParentTask().getProject(), "Nested values should only be mapped one level deep");
+        assertEquals(1, response.getTags().size());
+        assertEquals("frontend", response.getTags().iterator().next().getName());
+    }
+
+    @Test
+    void updateEntityFromDto_ShouldOverwriteTargetProperties() {
+        // Given
+        Tag tag = new Tag("old");
+        tag.setId(5L);
+        UpdateTagRequest request = new UpdateTagRequest();
+        request.setName("new");
+
+        // When
+        MapperUtil.updateEntityFromDto(request, tag);
+
+        // Then
+        assertEquals("new", tag.getName());
+        assertEquals(5L, tag.getId());
+    }
+
+    @Test
+    void mapToDto_ShouldReturnNull_WhenSourceIsNull() {
+        // When & Then
+        assertNull(MapperUtil.mapToDto(null, TaskResponse.class));
+    }
+}